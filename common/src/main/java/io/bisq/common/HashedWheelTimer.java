@@ -0,0 +1,157 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Alternative to FrameRateTimer for headless nodes (use UserThread.setTimerClass). All timers share one timing wheel
+// with the same resolution as the MasterTimer (100 ms). Starting and stopping a timer is O(1) and a tick only visits
+// the timers expiring in that tick, instead of running all timers at each tick. The expired timers of a tick are
+// executed in one task on the UserThread.
+public class HashedWheelTimer implements Timer {
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private static final long TICK_INTERVAL_MS = MasterTimer.FRAME_INTERVAL_MS;
+    // With 512 buckets one round takes 51.2 sec, so most of our timeouts don't need more than one round
+    private static final int WHEEL_SIZE = 512;
+    private static final Wheel WHEEL = new Wheel();
+
+    private final TimingWheel.Timeout timeout = new TimingWheel.Timeout(this::onExpired);
+    private volatile Runnable runnable;
+    private volatile long interval;
+    private volatile boolean isPeriodically;
+    private volatile boolean stopped;
+
+    public HashedWheelTimer() {
+    }
+
+    @Override
+    public Timer runLater(Duration delay, Runnable runnable) {
+        this.runnable = runnable;
+        this.interval = delay.toMillis();
+        WHEEL.schedule(timeout, interval);
+        return this;
+    }
+
+    @Override
+    public Timer runPeriodically(Duration interval, Runnable runnable) {
+        this.runnable = runnable;
+        this.interval = interval.toMillis();
+        isPeriodically = true;
+        WHEEL.schedule(timeout, this.interval);
+        return this;
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        WHEEL.cancel(timeout);
+    }
+
+    // Called on the UserThread
+    private void onExpired() {
+        // We might have been stopped after we expired
+        if (stopped)
+            return;
+
+        try {
+            runnable.run();
+            if (isPeriodically) {
+                if (!stopped)
+                    WHEEL.schedule(timeout, interval);
+            } else {
+                stopped = true;
+            }
+        } catch (Throwable t) {
+            log.error(t.getMessage());
+            t.printStackTrace();
+            stop();
+            throw t;
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Wheel
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class Wheel {
+        private final TimingWheel timingWheel = new TimingWheel(WHEEL_SIZE);
+        private final long startTs = System.nanoTime();
+        private final long tickIntervalNanos = TimeUnit.MILLISECONDS.toNanos(TICK_INTERVAL_MS);
+
+        private Wheel() {
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("HashedWheelTimer")
+                    .setDaemon(true)
+                    .build());
+            executor.scheduleAtFixedRate(this::onTick, TICK_INTERVAL_MS, TICK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+
+        // Like at the FrameRateTimer the timeout expires at the first tick after the delay has passed
+        private void schedule(TimingWheel.Timeout timeout, long delayMs) {
+            long deadline = System.nanoTime() - startTs + TimeUnit.MILLISECONDS.toNanos(delayMs);
+            long deadlineTick = (deadline + tickIntervalNanos - 1) / tickIntervalNanos;
+            synchronized (timingWheel) {
+                timingWheel.schedule(timeout, deadlineTick);
+            }
+        }
+
+        private void cancel(TimingWheel.Timeout timeout) {
+            synchronized (timingWheel) {
+                timingWheel.cancel(timeout);
+            }
+        }
+
+        private void onTick() {
+            try {
+                // We process all ticks which have passed, so a delayed tick does not delay all later timeouts
+                long tick = (System.nanoTime() - startTs) / tickIntervalNanos;
+                List<Runnable> expired = new ArrayList<>();
+                synchronized (timingWheel) {
+                    while (timingWheel.getCurrentTick() <= tick)
+                        timingWheel.tick(timeout -> expired.add(timeout.getTask()));
+                }
+                if (!expired.isEmpty())
+                    UserThread.execute(() -> expired.forEach(HashedWheelTimer::runSafely));
+            } catch (Throwable t) {
+                // We must not throw, otherwise the executor does not schedule further ticks
+                log.error("Error at processing timer tick. " + t.toString());
+                t.printStackTrace();
+            }
+        }
+    }
+
+    // One failing timer must not prevent the others of the same tick from running
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable ignore) {
+            // Got logged already at onExpired
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common;
+
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Hashed timing wheel. A timeout is put into the bucket of its deadline tick (modulo the wheel size) together with the
+// number of full rounds it has to wait, so scheduling and cancelling is O(1) and a tick only visits the timeouts of
+// one bucket. Timeouts are kept in intrusive doubly linked lists, so we don't allocate at scheduling.
+// Not thread safe, the caller has to synchronize.
+class TimingWheel {
+
+    static final class Timeout {
+        private final Runnable task;
+        private Timeout prev;
+        private Timeout next;
+        private int bucket = -1;
+        private long remainingRounds;
+
+        Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        Runnable getTask() {
+            return task;
+        }
+
+        boolean isScheduled() {
+            return bucket != -1;
+        }
+    }
+
+    private final Timeout[] buckets;
+    private final int mask;
+    // The next tick which gets processed
+    private long currentTick;
+    private int size;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    TimingWheel(int wheelSize) {
+        checkArgument(wheelSize > 0 && Integer.bitCount(wheelSize) == 1, "wheelSize must be a power of 2");
+        buckets = new Timeout[wheelSize];
+        mask = wheelSize - 1;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The timeout expires at the tick deadlineTick, or at the next tick if deadlineTick has been processed already.
+    // If the timeout is scheduled already it gets rescheduled.
+    void schedule(Timeout timeout, long deadlineTick) {
+        if (timeout.isScheduled())
+            cancel(timeout);
+
+        long tick = Math.max(deadlineTick, currentTick);
+        timeout.remainingRounds = (tick - currentTick) / buckets.length;
+        timeout.bucket = (int) (tick & mask);
+        Timeout head = buckets[timeout.bucket];
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null)
+            head.prev = timeout;
+        buckets[timeout.bucket] = timeout;
+        size++;
+    }
+
+    // Does nothing if the timeout is not scheduled
+    void cancel(Timeout timeout) {
+        if (!timeout.isScheduled())
+            return;
+
+        if (timeout.prev != null)
+            timeout.prev.next = timeout.next;
+        else
+            buckets[timeout.bucket] = timeout.next;
+        if (timeout.next != null)
+            timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+
+    // Processes the current tick and passes the expired timeouts to expiredHandler. They are not scheduled anymore
+    // when the handler gets called, so it can schedule them again. The handler must not cancel other timeouts.
+    void tick(Consumer<Timeout> expiredHandler) {
+        Timeout timeout = buckets[(int) (currentTick & mask)];
+        currentTick++;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.remainingRounds <= 0) {
+                cancel(timeout);
+                expiredHandler.accept(timeout);
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -30,8 +30,10 @@ import org.slf4j.LoggerFactory;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.function.Supplier;
 
 public class Log {
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(Log.class);
     private static Logger logbackLogger;
 
     public static void setLevel(Level logLevel) {
@@ -92,7 +94,7 @@ public class Log {
     }
 
     public static void traceCall() {
-        if (LoggerFactory.getLogger(Log.class).isTraceEnabled()) {
+        if (log.isTraceEnabled()) {
             StackTraceElement stackTraceElement = new Throwable().getStackTrace()[1];
             String methodName = stackTraceElement.getMethodName();
             if (methodName.equals("<init>"))
@@ -103,7 +105,7 @@ public class Log {
     }
 
     public static void traceCall(String message) {
-        if (LoggerFactory.getLogger(Log.class).isTraceEnabled()) {
+        if (log.isTraceEnabled()) {
             StackTraceElement stackTraceElement = new Throwable().getStackTrace()[1];
             String methodName = stackTraceElement.getMethodName();
             if (methodName.equals("<init>"))
@@ -113,6 +115,19 @@ public class Log {
         }
     }
 
+    // The message is only created if trace is enabled. Use it if creating the message is expensive
+    // (e.g. string concatenation or toString calls) and the call is on a hot path.
+    public static void traceCall(Supplier<String> messageSupplier) {
+        if (log.isTraceEnabled()) {
+            StackTraceElement stackTraceElement = new Throwable().getStackTrace()[1];
+            String methodName = stackTraceElement.getMethodName();
+            if (methodName.equals("<init>"))
+                methodName = "Constructor ";
+            String className = stackTraceElement.getClassName();
+            LoggerFactory.getLogger(className).trace("Called: {} [{}]", methodName, messageSupplier.get());
+        }
+    }
+
     public static void logIfStressTests(String msg) {
         if (DevEnv.STRESS_TEST_MODE)
             System.err.println(new SimpleDateFormat("HH:mm:ss.SSS").format(new Date()) +
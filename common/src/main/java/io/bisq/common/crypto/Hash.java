@@ -28,21 +28,28 @@ import java.security.NoSuchProviderException;
 
 @Slf4j
 public class Hash {
-
-    /**
-     * @param data Data as byte array
-     * @return Hash of data
-     */
-    public static byte[] getSha256Hash(byte[] data) {
+    // Looking up the MessageDigest at the provider is expensive compared to hashing the small payloads we use it for,
+    // so we keep one instance per thread. MessageDigest is not thread safe.
+    private static final ThreadLocal<MessageDigest> SHA_256_DIGEST = ThreadLocal.withInitial(() -> {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256", "BC");
-            digest.update(data, 0, data.length);
-            return digest.digest();
+            return MessageDigest.getInstance("SHA-256", "BC");
         } catch (NoSuchAlgorithmException | NoSuchProviderException e) {
             log.error("Could not create MessageDigest for hash. " + e.toString());
             e.printStackTrace();
             throw new RuntimeException(e);
         }
+    });
+
+    /**
+     * @param data Data as byte array
+     * @return Hash of data
+     */
+    public static byte[] getSha256Hash(byte[] data) {
+        MessageDigest digest = SHA_256_DIGEST.get();
+        // digest() resets the digest, but a previous call might have failed in between
+        digest.reset();
+        digest.update(data, 0, data.length);
+        return digest.digest();
     }
 
     /**
@@ -18,11 +18,14 @@
 package io.bisq.common.crypto;
 
 import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.bisq.common.util.Utilities;
 import org.bouncycastle.util.encoders.Base64;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.security.*;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
@@ -40,6 +43,17 @@ public class Sig {
 
     public static final String KEY_ALGO = "DSA";
     private static final String ALGO = "SHA256withDSA";
+    private static final int MAX_CACHED_PUBLIC_KEYS = 10_000;
+
+    // Getting a Signature instance from the provider is expensive compared to signing or verifying the small hashes
+    // we use it for. Signature is not thread safe, so we keep one instance per thread. initSign and initVerify reset
+    // the state of a previous use.
+    private static final ThreadLocal<Signature> SIGNATURE = new ThreadLocal<>();
+
+    // The same public keys are decoded again with each payload of the key owner we receive
+    private static final Cache<ByteBuffer, PublicKey> PUBLIC_KEY_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_PUBLIC_KEYS)
+            .build();
 
 
     /**
@@ -71,7 +85,7 @@ public class Sig {
      */
     public static byte[] sign(PrivateKey privateKey, byte[] data) throws CryptoException {
         try {
-            Signature sig = Signature.getInstance(ALGO, "BC");
+            Signature sig = getSignature();
             sig.initSign(privateKey);
             sig.update(data);
             return sig.sign();
@@ -104,7 +118,7 @@ public class Sig {
      */
     public static boolean verify(PublicKey publicKey, byte[] data, byte[] signature) throws CryptoException {
         try {
-            Signature sig = Signature.getInstance(ALGO, "BC");
+            Signature sig = getSignature();
             sig.initVerify(publicKey);
             sig.update(data);
             return sig.verify(signature);
@@ -131,6 +145,17 @@ public class Sig {
      * @return
      */
     public static PublicKey getPublicKeyFromBytes(byte[] sigPublicKeyBytes) {
+        // We copy the bytes as the caller might change them
+        final ByteBuffer key = ByteBuffer.wrap(sigPublicKeyBytes.clone());
+        PublicKey publicKey = PUBLIC_KEY_CACHE.getIfPresent(key);
+        if (publicKey == null) {
+            publicKey = decodePublicKey(sigPublicKeyBytes);
+            PUBLIC_KEY_CACHE.put(key, publicKey);
+        }
+        return publicKey;
+    }
+
+    private static PublicKey decodePublicKey(byte[] sigPublicKeyBytes) {
         try {
             return KeyFactory.getInstance(Sig.KEY_ALGO, "BC").generatePublic(new X509EncodedKeySpec(sigPublicKeyBytes));
         } catch (InvalidKeySpecException | NoSuchAlgorithmException | NoSuchProviderException e) {
@@ -143,5 +168,14 @@ public class Sig {
     public static byte[] getPublicKeyBytes(PublicKey sigPublicKey) {
         return new X509EncodedKeySpec(sigPublicKey.getEncoded()).getEncoded();
     }
+
+    private static Signature getSignature() throws NoSuchProviderException, NoSuchAlgorithmException {
+        Signature signature = SIGNATURE.get();
+        if (signature == null) {
+            signature = Signature.getInstance(ALGO, "BC");
+            SIGNATURE.set(signature);
+        }
+        return signature;
+    }
 }
 
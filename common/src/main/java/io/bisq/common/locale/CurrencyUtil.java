@@ -17,22 +17,36 @@
 
 package io.bisq.common.locale;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.bisq.common.GlobalSettings;
 import io.bisq.common.app.DevEnv;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class CurrencyUtil {
     private static String baseCurrencyCode = "BTC";
+    // Built lazily for the current base currency, as the list of crypto currencies depends on it
+    @Nullable
+    private static volatile CurrencyRegistry registry;
 
     public static void setBaseCurrencyCode(String baseCurrencyCode) {
         CurrencyUtil.baseCurrencyCode = baseCurrencyCode;
     }
 
-    private static List<FiatCurrency> allSortedFiatCurrencies;
+    private static CurrencyRegistry getRegistry() {
+        CurrencyRegistry currencyRegistry = registry;
+        if (currencyRegistry == null || !currencyRegistry.baseCurrencyCode.equals(baseCurrencyCode)) {
+            currencyRegistry = new CurrencyRegistry(baseCurrencyCode);
+            registry = currencyRegistry;
+        }
+        return currencyRegistry;
+    }
 
     private static List<FiatCurrency> createAllSortedFiatCurrenciesList() {
         Set<FiatCurrency> set = CountryUtil.getAllCountries().stream()
@@ -44,10 +58,7 @@ public class CurrencyUtil {
     }
 
     public static List<FiatCurrency> getAllSortedFiatCurrencies() {
-        if (Objects.isNull(allSortedFiatCurrencies)) {
-            allSortedFiatCurrencies = createAllSortedFiatCurrenciesList();
-        }
-        return allSortedFiatCurrencies;
+        return getRegistry().allSortedFiatCurrencies;
     }
 
 
@@ -74,12 +85,8 @@ public class CurrencyUtil {
         return list;
     }
 
-    private static List<CryptoCurrency> allSortedCryptoCurrencies;
-
     public static List<CryptoCurrency> getAllSortedCryptoCurrencies() {
-        if (allSortedCryptoCurrencies == null)
-            allSortedCryptoCurrencies = createAllSortedCryptoCurrenciesList();
-        return allSortedCryptoCurrencies;
+        return getRegistry().allSortedCryptoCurrencies;
     }
 
     // Don't make a PR for adding a coin but follow the steps described here:
@@ -238,39 +245,34 @@ public class CurrencyUtil {
         return currencies;
     }
 
+    // All ISO 4217 currencies which are not a crypto currency
     public static boolean isFiatCurrency(String currencyCode) {
-        try {
-            return currencyCode != null && !currencyCode.isEmpty() && !isCryptoCurrency(currencyCode) && Currency.getInstance(currencyCode) != null;
-        } catch (Throwable t) {
-            return false;
-        }
+        return currencyCode != null && getRegistry().fiatCurrencyCodes.contains(currencyCode);
     }
 
     public static Optional<FiatCurrency> getFiatCurrency(String currencyCode) {
-        return getAllSortedFiatCurrencies().stream().filter(e -> e.getCode().equals(currencyCode)).findAny();
+        return Optional.ofNullable(currencyCode != null ? getRegistry().fiatCurrenciesByCode.get(currencyCode) : null);
     }
 
     @SuppressWarnings("WeakerAccess")
     public static boolean isCryptoCurrency(String currencyCode) {
-        return getCryptoCurrency(currencyCode).isPresent();
+        return currencyCode != null && getRegistry().cryptoCurrenciesByCode.containsKey(currencyCode);
     }
 
     public static Optional<CryptoCurrency> getCryptoCurrency(String currencyCode) {
-        return getAllSortedCryptoCurrencies().stream().filter(e -> e.getCode().equals(currencyCode)).findAny();
+        return Optional.ofNullable(currencyCode != null ? getRegistry().cryptoCurrenciesByCode.get(currencyCode) : null);
     }
 
     public static Optional<TradeCurrency> getTradeCurrency(String currencyCode) {
-        Optional<FiatCurrency> fiatCurrencyOptional = getFiatCurrency(currencyCode);
-        if (isFiatCurrency(currencyCode) && fiatCurrencyOptional.isPresent()) {
-            return Optional.of(fiatCurrencyOptional.get());
-        } else {
-            Optional<CryptoCurrency> cryptoCurrencyOptional = getCryptoCurrency(currencyCode);
-            if (isCryptoCurrency(currencyCode) && cryptoCurrencyOptional.isPresent()) {
-                return Optional.of(cryptoCurrencyOptional.get());
-            } else {
-                return Optional.<TradeCurrency>empty();
-            }
-        }
+        if (currencyCode == null)
+            return Optional.empty();
+
+        final CurrencyRegistry currencyRegistry = getRegistry();
+        final FiatCurrency fiatCurrency = currencyRegistry.fiatCurrenciesByCode.get(currencyCode);
+        if (fiatCurrency != null && currencyRegistry.fiatCurrencyCodes.contains(currencyCode))
+            return Optional.of(fiatCurrency);
+        else
+            return Optional.ofNullable(currencyRegistry.cryptoCurrenciesByCode.get(currencyCode));
     }
 
 
@@ -283,23 +285,68 @@ public class CurrencyUtil {
 
 
     public static String getNameByCode(String currencyCode) {
-        if (isCryptoCurrency(currencyCode))
-            return getCryptoCurrency(currencyCode).get().getName();
-        else
-            try {
-                return Currency.getInstance(currencyCode).getDisplayName();
-            } catch (Throwable t) {
-                log.debug("No currency name available " + t.getMessage());
-                return currencyCode;
-            }
+        final String name = currencyCode != null ? getRegistry().namesByCode.get(currencyCode) : null;
+        if (name != null) {
+            return name;
+        } else {
+            log.debug("No currency name available for {}", currencyCode);
+            return currencyCode;
+        }
     }
 
 
     public static String getNameAndCode(String currencyCode) {
-        return getNameByCode(currencyCode) + " (" + currencyCode + ")";
+        final String nameAndCode = currencyCode != null ? getRegistry().namesAndCodesByCode.get(currencyCode) : null;
+        return nameAndCode != null ? nameAndCode : getNameByCode(currencyCode) + " (" + currencyCode + ")";
     }
 
     public static TradeCurrency getDefaultTradeCurrency() {
         return GlobalSettings.getDefaultTradeCurrency();
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // CurrencyRegistry
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The currency lists and lookup tables for one base currency. Those are called for each offer and trade
+    // statistics item, so we look up currencies by code instead of searching the lists.
+    // Immutable apart from the lists, which we hand out as before.
+    private static final class CurrencyRegistry {
+        private final String baseCurrencyCode;
+        private final List<FiatCurrency> allSortedFiatCurrencies;
+        private final List<CryptoCurrency> allSortedCryptoCurrencies;
+        private final Map<String, FiatCurrency> fiatCurrenciesByCode;
+        private final Map<String, CryptoCurrency> cryptoCurrenciesByCode;
+        // ISO 4217 codes which are not used by a crypto currency
+        private final Set<String> fiatCurrencyCodes;
+        private final Map<String, String> namesByCode;
+        private final Map<String, String> namesAndCodesByCode;
+
+        private CurrencyRegistry(String baseCurrencyCode) {
+            this.baseCurrencyCode = baseCurrencyCode;
+            allSortedFiatCurrencies = createAllSortedFiatCurrenciesList();
+            allSortedCryptoCurrencies = createAllSortedCryptoCurrenciesList();
+
+            Map<String, FiatCurrency> fiatMap = new HashMap<>();
+            allSortedFiatCurrencies.forEach(e -> fiatMap.putIfAbsent(e.getCode(), e));
+            fiatCurrenciesByCode = ImmutableMap.copyOf(fiatMap);
+
+            Map<String, CryptoCurrency> cryptoMap = new HashMap<>();
+            allSortedCryptoCurrencies.forEach(e -> cryptoMap.putIfAbsent(e.getCode(), e));
+            cryptoCurrenciesByCode = ImmutableMap.copyOf(cryptoMap);
+
+            Map<String, String> names = new HashMap<>();
+            Currency.getAvailableCurrencies().forEach(e -> names.put(e.getCurrencyCode(), e.getDisplayName()));
+            fiatCurrencyCodes = ImmutableSet.copyOf(names.keySet().stream()
+                    .filter(code -> !cryptoCurrenciesByCode.containsKey(code))
+                    .collect(Collectors.toSet()));
+            cryptoCurrenciesByCode.values().forEach(e -> names.put(e.getCode(), e.getName()));
+            namesByCode = ImmutableMap.copyOf(names);
+
+            Map<String, String> namesAndCodes = new HashMap<>();
+            namesByCode.forEach((code, name) -> namesAndCodes.put(code, name + " (" + code + ")"));
+            namesAndCodesByCode = ImmutableMap.copyOf(namesAndCodes);
+        }
+    }
 }
@@ -18,31 +18,23 @@
 package io.bisq.common.storage;
 
 import com.google.common.util.concurrent.CycleDetectingLockFactory;
-import io.bisq.common.UserThread;
 import io.bisq.common.proto.persistable.PersistableEnvelope;
 import io.bisq.common.proto.persistable.PersistenceProtoResolver;
-import io.bisq.common.util.Utilities;
 import io.bisq.generated.protobuffer.PB;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.*;
 import java.nio.file.Paths;
-import java.util.Random;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
 public class FileManager<T extends PersistableEnvelope> {
     private final File dir;
     private final File storageFile;
-    private final ScheduledThreadPoolExecutor executor;
-    private final AtomicBoolean savePending;
     private final long delay;
-    private final Callable<Void> saveFileTask;
-    private T persistable;
+    private final PersistenceScheduler.Priority priority;
+    private final PersistenceScheduler persistenceScheduler;
+    private volatile T persistable;
     private final PersistenceProtoResolver persistenceProtoResolver;
     private final ReentrantLock writeLock = CycleDetectingLockFactory.newInstance(CycleDetectingLockFactory.Policies.THROW).newReentrantLock("writeLock");
 
@@ -51,33 +43,23 @@ public class FileManager<T extends PersistableEnvelope> {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public FileManager(File dir, File storageFile, long delay, PersistenceProtoResolver persistenceProtoResolver) {
+        this(dir, storageFile, delay, persistenceProtoResolver, PersistenceScheduler.Priority.NORMAL,
+                PersistenceScheduler.getInstance());
+    }
+
+    public FileManager(File dir,
+                       File storageFile,
+                       long delay,
+                       PersistenceProtoResolver persistenceProtoResolver,
+                       PersistenceScheduler.Priority priority,
+                       PersistenceScheduler persistenceScheduler) {
         this.dir = dir;
         this.storageFile = storageFile;
         this.persistenceProtoResolver = persistenceProtoResolver;
-
-        executor = Utilities.getScheduledThreadPoolExecutor("FileManager", 1, 10, 5);
-
-        // File must only be accessed from the auto-save executor from now on, to avoid simultaneous access.
-        savePending = new AtomicBoolean();
         this.delay = delay;
-
-        saveFileTask = () -> {
-            try {
-                Thread.currentThread().setName("Save-file-task-" + new Random().nextInt(10000));
-                // Runs in an auto save thread.
-                if (!savePending.getAndSet(false)) {
-                    // Some other scheduled request already beat us to it.
-                    return null;
-                }
-                saveNowInternal(persistable);
-            } catch (Throwable e) {
-                log.error("Error during saveFileTask", e);
-            }
-            return null;
-        };
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            UserThread.execute(FileManager.this::shutDown);
-        }, "FileManager.ShutDownHook"));
+        this.priority = priority;
+        // File must only be accessed from the persistence scheduler from now on, to avoid simultaneous access.
+        this.persistenceScheduler = persistenceScheduler;
     }
 
 
@@ -101,11 +83,12 @@ public class FileManager<T extends PersistableEnvelope> {
 
     public void saveLater(T persistable, long delayInMilli) {
         this.persistable = persistable;
+        // Repeated calls before the write are coalesced by the scheduler
+        persistenceScheduler.schedule(this, delayInMilli, priority);
+    }
 
-        if (savePending.getAndSet(true))
-            return;   // Already pending.
-
-        executor.schedule(saveFileTask, delayInMilli, TimeUnit.MILLISECONDS);
+    public File getStorageFile() {
+        return storageFile;
     }
 
     @SuppressWarnings("unchecked")
@@ -142,18 +125,6 @@ public class FileManager<T extends PersistableEnvelope> {
     }
 
 
-    /**
-     * Shut down auto-saving.
-     */
-    void shutDown() {
-        executor.shutdown();
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
     public synchronized void removeAndBackupFile(String fileName) throws IOException {
         File corruptedBackupDir = new File(Paths.get(dir.getAbsolutePath(), "backup_of_corrupted_data").toString());
         if (!corruptedBackupDir.exists())
@@ -172,6 +143,13 @@ public class FileManager<T extends PersistableEnvelope> {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Called from the persistence scheduler
+    void writePending() {
+        final T persistable = this.persistable;
+        if (persistable != null)
+            saveNowInternal(persistable);
+    }
+
     private void saveNowInternal(T persistable) {
         long now = System.currentTimeMillis();
         saveToFile(persistable, dir, storageFile);
@@ -210,13 +188,17 @@ public class FileManager<T extends PersistableEnvelope> {
             // Attempt to force the bits to hit the disk. In reality the OS or hard disk itself may still decide
             // to not write through to physical media for at least a few seconds, but this is the best we can do.
             fileOutputStream.flush();
+            final long fsyncStartTs = System.nanoTime();
             fileOutputStream.getFD().sync();
+            final long fsyncNanos = System.nanoTime() - fsyncStartTs;
             writeLock.unlock();
 
             // Close resources before replacing file with temp file because otherwise it causes problems on windows
             // when rename temp file
             fileOutputStream.close();
+            final long numBytes = tempFile.length();
             FileUtil.renameFile(tempFile, storageFile);
+            persistenceScheduler.onFileWritten(numBytes, fsyncNanos);
         } catch (Throwable t) {
             log.error("Error at saveToFile, storageFile=" + storageFile.toString(), t);
         } finally {
@@ -0,0 +1,268 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.storage;
+
+import io.bisq.common.util.Utilities;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the delayed writes of all FileManagers and append-only stores (SegmentedLogStore, StreamingJsonFileManager) on
+ * one shared background thread instead of a thread pool per file.
+ * <p/>
+ * Repeated save requests for the same file are coalesced to one write. When the scheduler wakes up it also writes all
+ * other files which are due within COALESCE_WINDOW_MS, so writes of different files get batched. Writes which are due
+ * at the same time are done in order of their priority.
+ * <p/>
+ * At shutdown all pending writes are flushed in order of priority, independent of their delay. Save requests after
+ * shutdown are written immediately on the calling thread.
+ * <p/>
+ * One-off tasks like snapshots or compactions can be run with execute. They run on the same thread, so they never
+ * overlap with a write.
+ */
+@Slf4j
+public class PersistenceScheduler {
+    private static final long COALESCE_WINDOW_MS = 50;
+    private static final long SHUT_DOWN_TIMEOUT_SEC = 10;
+
+    private static PersistenceScheduler instance;
+
+    public static synchronized PersistenceScheduler getInstance() {
+        if (instance == null) {
+            instance = new PersistenceScheduler();
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::shutDown, "PersistenceScheduler.ShutDownHook"));
+        }
+        return instance;
+    }
+
+    public enum Priority {
+        // User data like trades or wallet addresses
+        HIGH,
+        NORMAL,
+        // Data we can recover from the network like peers or sequence numbers
+        LOW
+    }
+
+    // A snapshot of the counters of the scheduler
+    @Value
+    public static class Metrics {
+        private final int queueDepth;
+        private final long numWrites;
+        private final long bytesWritten;
+        private final long totalFsyncNanos;
+        private final long maxFsyncNanos;
+
+        public double getAverageFsyncMillis() {
+            return numWrites > 0 ? totalFsyncNanos / (numWrites * 1_000_000d) : 0;
+        }
+    }
+
+    private static class PendingWrite {
+        private final String name;
+        private final Runnable write;
+        private long dueTs;
+        private Priority priority;
+
+        private PendingWrite(String name, Runnable write, long dueTs, Priority priority) {
+            this.name = name;
+            this.write = write;
+            this.dueTs = dueTs;
+            this.priority = priority;
+        }
+    }
+
+    private static final Comparator<PendingWrite> WRITE_ORDER = Comparator.<PendingWrite, Priority>comparing(e -> e.priority)
+            .thenComparingLong(e -> e.dueTs);
+
+    private final ScheduledThreadPoolExecutor executor;
+    // Owner of the write (e.g. the FileManager) -> pending write. Guarded by this
+    private final Map<Object, PendingWrite> pendingWrites = new HashMap<>();
+    // Guarded by this
+    private boolean shutDownStarted;
+
+    private final AtomicLong numWrites = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong totalFsyncNanos = new AtomicLong();
+    private final AtomicLong maxFsyncNanos = new AtomicLong();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    PersistenceScheduler() {
+        executor = Utilities.getScheduledThreadPoolExecutor("PersistenceScheduler", 1, 1, 5);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Writes the current persistable of fileManager after delayInMilli. If a write for it is already pending we keep
+    // the earlier due time and the higher priority.
+    void schedule(FileManager<?> fileManager, long delayInMilli, Priority priority) {
+        schedule(fileManager, fileManager.getStorageFile().getName(), fileManager::writePending, delayInMilli, priority);
+    }
+
+    // Runs write after delayInMilli. Requests with the same owner are coalesced like the ones of a FileManager.
+    void schedule(Object owner, String name, Runnable write, long delayInMilli, Priority priority) {
+        final long dueTs = System.currentTimeMillis() + delayInMilli;
+        final boolean writeNow;
+        synchronized (this) {
+            writeNow = shutDownStarted;
+            if (!writeNow) {
+                PendingWrite pendingWrite = pendingWrites.get(owner);
+                if (pendingWrite == null) {
+                    pendingWrites.put(owner, new PendingWrite(name, write, dueTs, priority));
+                } else {
+                    if (priority.compareTo(pendingWrite.priority) < 0)
+                        pendingWrite.priority = priority;
+                    if (dueTs >= pendingWrite.dueTs)
+                        return;
+                    pendingWrite.dueTs = dueTs;
+                }
+            }
+        }
+
+        if (writeNow) {
+            log.info("Save request after shutdown. We write {} immediately.", name);
+            write.run();
+        } else {
+            executor.schedule(this::writeDueFiles, delayInMilli, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Runs the task on the scheduler thread, or on the calling thread after shutdown
+    void execute(Runnable task) {
+        synchronized (this) {
+            if (!shutDownStarted) {
+                executor.execute(task);
+                return;
+            }
+        }
+        task.run();
+    }
+
+    // Runs the pending write of owner now and blocks until it and all tasks queued before are done
+    void flush(Object owner) {
+        final PendingWrite pendingWrite;
+        synchronized (this) {
+            pendingWrite = pendingWrites.remove(owner);
+        }
+        final Runnable write = pendingWrite != null ? pendingWrite.write : () -> {
+        };
+        try {
+            executor.submit(write).get(SHUT_DOWN_TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // We got shut down already
+            write.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Flushing " + (pendingWrite != null ? pendingWrite.name : owner) + " failed.", e);
+        }
+    }
+
+    synchronized boolean isShutDownStarted() {
+        return shutDownStarted;
+    }
+
+    // Writes all pending files in order of priority and stops the scheduler. Blocks until the files are written.
+    public void shutDown() {
+        // Once the flag is set no more writes get queued, so the flush below covers all pending writes
+        synchronized (this) {
+            if (shutDownStarted)
+                return;
+            shutDownStarted = true;
+        }
+
+        // We run the flush on the executor so it does not overlap with a running batch
+        try {
+            executor.submit(() -> writeFiles(Long.MAX_VALUE)).get(SHUT_DOWN_TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Flushing pending writes at shutdown failed. We write the remaining files on the calling thread.", e);
+            writeFiles(Long.MAX_VALUE);
+        }
+        executor.shutdown();
+        log.info("PersistenceScheduler shut down. {}", getMetrics());
+    }
+
+    public Metrics getMetrics() {
+        final int queueDepth;
+        synchronized (this) {
+            queueDepth = pendingWrites.size();
+        }
+        return new Metrics(queueDepth, numWrites.get(), bytesWritten.get(), totalFsyncNanos.get(), maxFsyncNanos.get());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package scope
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Called by FileManager after a file got written
+    void onFileWritten(long numBytes, long fsyncNanos) {
+        numWrites.incrementAndGet();
+        bytesWritten.addAndGet(numBytes);
+        totalFsyncNanos.addAndGet(fsyncNanos);
+        maxFsyncNanos.accumulateAndGet(fsyncNanos, Math::max);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void writeDueFiles() {
+        writeFiles(System.currentTimeMillis() + COALESCE_WINDOW_MS);
+    }
+
+    private void writeFiles(long maxDueTs) {
+        final List<PendingWrite> dueWrites = new ArrayList<>();
+        synchronized (this) {
+            final Iterator<PendingWrite> iterator = pendingWrites.values().iterator();
+            while (iterator.hasNext()) {
+                final PendingWrite pendingWrite = iterator.next();
+                if (pendingWrite.dueTs <= maxDueTs) {
+                    dueWrites.add(pendingWrite);
+                    iterator.remove();
+                }
+            }
+        }
+
+        dueWrites.sort(WRITE_ORDER);
+        for (PendingWrite pendingWrite : dueWrites) {
+            try {
+                pendingWrite.write.run();
+            } catch (Throwable t) {
+                log.error("Error at writing " + pendingWrite.name, t);
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.storage;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Append-only store for protobuffer messages which never get removed (e.g. PersistableNetworkPayload items).
+ * <p/>
+ * In contrast to Storage we do not rewrite all data at each change. New items are written length delimited to the end
+ * of the active segment file. Once a segment exceeds maxSegmentSize we continue with a new one. Small segments (e.g.
+ * created after a corrupted tail was detected) get merged in the background.
+ * <p/>
+ * At startup the segments are streamed item by item, so we never need to hold the serialized data of the whole store
+ * in memory.
+ * <p/>
+ * The owner has to handle duplicates at read as an interrupted compaction might leave items in 2 segments.
+ * <p/>
+ * Appends and compactions run on the thread of the PersistenceScheduler, so they are flushed together with the other
+ * storage files at shutdown.
+ */
+@Slf4j
+public class SegmentedLogStore<T extends Message> {
+    public static final long DEFAULT_MAX_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final String SEGMENT_PREFIX = "segment_";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final File dir;
+    private final Parser<T> parser;
+    private final long delay;
+    private final long maxSegmentSize;
+    private final PersistenceScheduler persistenceScheduler;
+    private final List<T> pendingItems = new ArrayList<>();
+
+    // Segment index -> file. Only accessed from the persistence scheduler thread once read was called.
+    private final TreeMap<Integer, File> segments = new TreeMap<>();
+    // Segments where we found a corrupted tail at read with the length of the valid data
+    private final Map<Integer, Long> corruptedSegments = new HashMap<>();
+    private FileOutputStream activeOutputStream;
+    private int activeSegmentIndex;
+    private boolean initialized;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public SegmentedLogStore(File dir, Parser<T> parser, long delay) {
+        this(dir, parser, delay, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    public SegmentedLogStore(File dir, Parser<T> parser, long delay, long maxSegmentSize) {
+        this(dir, parser, delay, maxSegmentSize, PersistenceScheduler.getInstance());
+    }
+
+    SegmentedLogStore(File dir, Parser<T> parser, long delay, long maxSegmentSize,
+                      PersistenceScheduler persistenceScheduler) {
+        this.dir = dir;
+        this.parser = parser;
+        this.delay = delay;
+        this.maxSegmentSize = maxSegmentSize;
+        this.persistenceScheduler = persistenceScheduler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean exists() {
+        return dir.exists() && !listSegments().isEmpty();
+    }
+
+    /**
+     * Reads all items in order of their segments and passes them to the consumer. Should be called before items get
+     * appended. Runs on the calling thread.
+     *
+     * @return Number of items read
+     */
+    public synchronized int read(Consumer<T> consumer) {
+        long ts = System.currentTimeMillis();
+        if (!dir.exists() && !dir.mkdirs())
+            log.warn("make dir failed. dir=" + dir.getAbsolutePath());
+
+        segments.clear();
+        segments.putAll(listSegments());
+        int numItems = 0;
+        for (Map.Entry<Integer, File> entry : segments.entrySet())
+            numItems += readSegment(entry.getKey(), entry.getValue(), consumer);
+
+        initSegmentIndex();
+
+        log.info("Reading {} items from {} segments in {} took {} ms",
+                numItems, segments.size(), dir.getName(), System.currentTimeMillis() - ts);
+
+        if (!corruptedSegments.isEmpty())
+            persistenceScheduler.execute(this::compact);
+        return numItems;
+    }
+
+    // Persists the item delayed and on a background thread
+    public void append(T item) {
+        synchronized (pendingItems) {
+            pendingItems.add(item);
+        }
+        scheduleFlush();
+    }
+
+    public void appendAll(Collection<T> items) {
+        synchronized (pendingItems) {
+            pendingItems.addAll(items);
+        }
+        scheduleFlush();
+    }
+
+    // Writes pending items and blocks until done
+    public void flush() {
+        persistenceScheduler.flush(this);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void scheduleFlush() {
+        // Repeated calls before the write are coalesced by the scheduler
+        persistenceScheduler.schedule(this, dir.getName(), this::writePending, delay, PersistenceScheduler.Priority.NORMAL);
+    }
+
+    private int readSegment(int index, File file, Consumer<T> consumer) {
+        int numItems = 0;
+        long validLength = 0;
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file), 64 * 1024)) {
+            CodedInputStream codedInputStream = CodedInputStream.newInstance(inputStream);
+            codedInputStream.setSizeLimit(Integer.MAX_VALUE);
+            try {
+                while (!codedInputStream.isAtEnd()) {
+                    int length = codedInputStream.readRawVarint32();
+                    int oldLimit = codedInputStream.pushLimit(length);
+                    T item = parser.parseFrom(codedInputStream);
+                    // The parser stops without error at the end of the stream, so we check if we got all bytes
+                    if (codedInputStream.getBytesUntilLimit() != 0)
+                        throw new EOFException("Item is truncated");
+                    codedInputStream.popLimit(oldLimit);
+                    validLength = codedInputStream.getTotalBytesRead();
+                    consumer.accept(item);
+                    numItems++;
+                }
+            } catch (IOException e) {
+                // Can happen if we got interrupted while appending. All items before are valid.
+                log.warn("Segment {} has a corrupted tail. We ignore the data after position {}. size={}, error={}",
+                        file.getName(), validLength, file.length(), e.getMessage());
+                corruptedSegments.put(index, validLength);
+            }
+        } catch (IOException e) {
+            log.error("Could not read segment " + file.getAbsolutePath(), e);
+            corruptedSegments.put(index, validLength);
+        }
+        return numItems;
+    }
+
+    // Runs on the persistence scheduler thread
+    private void writePending() {
+        List<T> items;
+        synchronized (pendingItems) {
+            if (pendingItems.isEmpty())
+                return;
+            items = new ArrayList<>(pendingItems);
+            pendingItems.clear();
+        }
+
+        long ts = System.currentTimeMillis();
+        try {
+            if (activeOutputStream == null)
+                openActiveSegment();
+
+            for (T item : items)
+                item.writeDelimitedTo(activeOutputStream);
+
+            // We sync once per batch instead of per item
+            activeOutputStream.flush();
+            activeOutputStream.getFD().sync();
+            log.debug("Appended {} items to {} in {} ms", items.size(), segments.get(activeSegmentIndex).getName(),
+                    System.currentTimeMillis() - ts);
+
+            if (activeOutputStream.getChannel().size() >= maxSegmentSize) {
+                closeActiveSegment();
+                activeSegmentIndex++;
+                compact();
+            }
+        } catch (Throwable t) {
+            log.error("Error at appending to segment in " + dir.getAbsolutePath(), t);
+            closeActiveSegment();
+            // We continue with a new segment. The items of the failed batch might be partly written, but we handle
+            // that at the next read.
+            activeSegmentIndex++;
+            synchronized (pendingItems) {
+                pendingItems.addAll(0, items);
+            }
+            // After shutdown the scheduler would retry immediately on this thread
+            if (!persistenceScheduler.isShutDownStarted())
+                scheduleFlush();
+        }
+    }
+
+    private void initSegmentIndex() {
+        activeSegmentIndex = segments.isEmpty() ? 0 : segments.lastKey();
+        if (corruptedSegments.containsKey(activeSegmentIndex))
+            activeSegmentIndex++;
+        initialized = true;
+    }
+
+    private void openActiveSegment() throws IOException {
+        if (!dir.exists() && !dir.mkdirs())
+            log.warn("make dir failed. dir=" + dir.getAbsolutePath());
+
+        // In case we append without having read the segments before
+        if (!initialized) {
+            segments.putAll(listSegments());
+            initSegmentIndex();
+        }
+
+        File file = getSegmentFile(activeSegmentIndex);
+        segments.put(activeSegmentIndex, file);
+        activeOutputStream = new FileOutputStream(file, true);
+    }
+
+    private void closeActiveSegment() {
+        if (activeOutputStream != null) {
+            try {
+                activeOutputStream.close();
+            } catch (IOException e) {
+                log.error("Cannot close segment. " + e.getMessage());
+            }
+            activeOutputStream = null;
+        }
+    }
+
+    // Merges the first run of adjacent closed segments which are smaller than half of maxSegmentSize or have a
+    // corrupted tail. We only merge adjacent segments to keep the order of the items.
+    // Runs on the persistence scheduler thread.
+    private void compact() {
+        List<Integer> toMerge = new ArrayList<>();
+        for (Map.Entry<Integer, File> entry : segments.entrySet()) {
+            final int index = entry.getKey();
+            if (index != activeSegmentIndex &&
+                    (corruptedSegments.containsKey(index) || entry.getValue().length() < maxSegmentSize / 2))
+                toMerge.add(index);
+            else if (!toMerge.isEmpty())
+                break;
+        }
+        if (toMerge.isEmpty() || (toMerge.size() == 1 && !corruptedSegments.containsKey(toMerge.get(0))))
+            return;
+
+        long ts = System.currentTimeMillis();
+        // We write the merged data to the file of the highest index. If we get interrupted before we removed the
+        // other files the items are duplicated but not lost.
+        final int targetIndex = toMerge.get(toMerge.size() - 1);
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("temp_segment", null, dir);
+            try (FileOutputStream outputStream = new FileOutputStream(tempFile);
+                 FileChannel target = outputStream.getChannel()) {
+                for (int index : toMerge) {
+                    File file = segments.get(index);
+                    try (FileInputStream inputStream = new FileInputStream(file);
+                         FileChannel source = inputStream.getChannel()) {
+                        final long length = corruptedSegments.containsKey(index) ?
+                                corruptedSegments.get(index) :
+                                source.size();
+                        long position = 0;
+                        while (position < length)
+                            position += source.transferTo(position, length - position, target);
+                    }
+                }
+                outputStream.flush();
+                outputStream.getFD().sync();
+            }
+
+            FileUtil.renameFile(tempFile, getSegmentFile(targetIndex));
+            for (int index : toMerge) {
+                corruptedSegments.remove(index);
+                if (index != targetIndex) {
+                    File file = segments.remove(index);
+                    if (!file.delete())
+                        log.warn("Could not delete merged segment " + file.getAbsolutePath());
+                }
+            }
+            log.info("Merged {} segments into {} in {} ms", toMerge.size(), getSegmentFile(targetIndex).getName(),
+                    System.currentTimeMillis() - ts);
+        } catch (Throwable t) {
+            log.error("Error at compacting segments in " + dir.getAbsolutePath(), t);
+            if (tempFile != null && tempFile.exists() && !tempFile.delete())
+                log.error("Cannot delete temp file.");
+        }
+    }
+
+    private TreeMap<Integer, File> listSegments() {
+        TreeMap<Integer, File> result = new TreeMap<>();
+        File[] files = dir.listFiles((d, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String index = file.getName().substring(SEGMENT_PREFIX.length(),
+                        file.getName().length() - SEGMENT_SUFFIX.length());
+                try {
+                    result.put(Integer.parseInt(index), file);
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring file with unexpected name " + file.getName());
+                }
+            }
+        }
+        return result;
+    }
+
+    private File getSegmentFile(int index) {
+        return new File(dir, String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+}
@@ -63,6 +63,7 @@ public class Storage<T extends PersistableEnvelope> {
     private T persistable;
     private String fileName;
     private int numMaxBackupFiles = 10;
+    private PersistenceScheduler.Priority priority = PersistenceScheduler.Priority.NORMAL;
     private final PersistenceProtoResolver persistenceProtoResolver;
 
 
@@ -80,7 +81,8 @@ public class Storage<T extends PersistableEnvelope> {
     public T initAndGetPersistedWithFileName(String fileName, long delay) {
         this.fileName = fileName;
         storageFile = new File(dir, fileName);
-        fileManager = new FileManager<>(dir, storageFile, delay, persistenceProtoResolver);
+        fileManager = new FileManager<>(dir, storageFile, delay, persistenceProtoResolver, priority,
+                PersistenceScheduler.getInstance());
         return getPersisted();
     }
 
@@ -94,7 +96,8 @@ public class Storage<T extends PersistableEnvelope> {
         this.persistable = persistable;
         this.fileName = fileName;
         storageFile = new File(dir, fileName);
-        fileManager = new FileManager<>(dir, storageFile, delay, persistenceProtoResolver);
+        fileManager = new FileManager<>(dir, storageFile, delay, persistenceProtoResolver, priority,
+                PersistenceScheduler.getInstance());
         return getPersisted();
     }
 
@@ -110,6 +113,11 @@ public class Storage<T extends PersistableEnvelope> {
         this.numMaxBackupFiles = numMaxBackupFiles;
     }
 
+    // Needs to be set before init. Decides the order of the writes at shutdown or if writes are due at the same time.
+    public void setPriority(PersistenceScheduler.Priority priority) {
+        this.priority = priority;
+    }
+
     // Save delayed and on a background thread
     public void queueUpForSave(T persistable) {
         if (persistable != null) {
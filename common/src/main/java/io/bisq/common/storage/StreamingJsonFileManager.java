@@ -0,0 +1,280 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import io.bisq.common.Timer;
+import io.bisq.common.UserThread;
+import io.bisq.common.util.Utilities;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes statistics data as json without building the whole json string in memory.
+ * <p/>
+ * Items can be appended to a log in the JSON lines format (one compact json object per line), either to a single
+ * file (name.jsonl) or partitioned by day (name/yyyy-MM-dd.jsonl, UTC). Appends are coalesced and written in batches.
+ * <p/>
+ * Independent of the log a snapshot of all items can be written as json array to name.json. Snapshots are written to
+ * a temp file first and renamed, so readers never see a partly written file.
+ * <p/>
+ * All writes run on the thread of the PersistenceScheduler with low priority, so at shutdown the log gets flushed after
+ * the user data files.
+ */
+@Slf4j
+public class StreamingJsonFileManager {
+    public enum LogMode {
+        NONE,
+        JSON_LINES,
+        DAILY_JSON_LINES
+    }
+
+    private static final long LOG_FLUSH_DELAY_MS = 1000;
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+
+    // Gson is thread safe, so we use one instance for all writes
+    private static final Gson GSON = new GsonBuilder()
+            .setExclusionStrategies(new Utilities.AnnotationExclusionStrategy())
+            .create();
+
+    private final File dir;
+    private final String name;
+    private final LogMode logMode;
+    private final PersistenceScheduler persistenceScheduler;
+    private final List<LogItem> pendingLogItems = new ArrayList<>();
+    private Timer snapshotTimer;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public StreamingJsonFileManager(File dir, String name, LogMode logMode) {
+        this(dir, name, logMode, PersistenceScheduler.getInstance());
+    }
+
+    StreamingJsonFileManager(File dir, String name, LogMode logMode, PersistenceScheduler persistenceScheduler) {
+        this.dir = dir;
+        this.name = name;
+        this.logMode = logMode;
+        this.persistenceScheduler = persistenceScheduler;
+
+        if (!dir.exists() && !dir.mkdir())
+            log.warn("make dir failed");
+    }
+
+    // Writes the pending log items and blocks until all writes requested before are done
+    public void flush() {
+        persistenceScheduler.flush(this);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Log
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Appends the item to the log. The item must not be changed afterwards as it gets serialized on a background
+     * thread.
+     *
+     * @param date Date in ms since epoch, used to select the daily file
+     */
+    public void appendToLog(Object item, long date) {
+        checkLogMode();
+        synchronized (pendingLogItems) {
+            pendingLogItems.add(new LogItem(item, date));
+        }
+        // Repeated calls before the write are coalesced by the scheduler
+        persistenceScheduler.schedule(this, name, this::flushLog, LOG_FLUSH_DELAY_MS, PersistenceScheduler.Priority.LOW);
+    }
+
+    /**
+     * Replaces the log with the given items, e.g. at startup to get the log in sync with the data.
+     */
+    public <T> void rewriteLog(Collection<T> items, ToLongFunction<T> dateFunction) {
+        checkLogMode();
+        Map<File, List<Object>> itemsByFile = new LinkedHashMap<>();
+        items.forEach(item -> itemsByFile.computeIfAbsent(getLogFile(dateFunction.applyAsLong(item)), k -> new ArrayList<>())
+                .add(item));
+        persistenceScheduler.execute(() -> {
+            long ts = System.currentTimeMillis();
+            if (logMode == LogMode.DAILY_JSON_LINES) {
+                // Remove days we have no items for anymore
+                File[] files = getLogDir().listFiles((d, fileName) -> fileName.endsWith(".jsonl"));
+                if (files != null)
+                    Arrays.stream(files)
+                            .filter(file -> !itemsByFile.containsKey(file))
+                            .forEach(file -> {
+                                if (!file.delete())
+                                    log.warn("Could not delete " + file.getAbsolutePath());
+                            });
+            }
+            itemsByFile.forEach((file, list) -> writeAtomically(file, writer -> {
+                for (Object item : list)
+                    writeLine(writer, item);
+            }));
+            log.info("Rewriting log {} with {} items in {} files took {} ms",
+                    name, items.size(), itemsByFile.size(), System.currentTimeMillis() - ts);
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Snapshot
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes the items as json array to name.json. Serializing happens on a background thread so items must not be
+     * changed afterwards.
+     */
+    public void writeSnapshot(Collection<?> items) {
+        // Snapshots get rewritten at the next start, so we don't delay the shutdown with them
+        if (persistenceScheduler.isShutDownStarted())
+            return;
+
+        persistenceScheduler.execute(() -> {
+            long ts = System.currentTimeMillis();
+            writeAtomically(new File(dir, name + ".json"), writer -> {
+                JsonWriter jsonWriter = GSON.newJsonWriter(writer);
+                jsonWriter.beginArray();
+                for (Object item : items)
+                    GSON.toJson(item, item.getClass(), jsonWriter);
+                jsonWriter.endArray();
+                jsonWriter.flush();
+            });
+            log.debug("Writing snapshot {} with {} items took {} ms", name, items.size(), System.currentTimeMillis() - ts);
+        });
+    }
+
+    /**
+     * Writes a snapshot after the given delay. Further requests before it got written are merged into the same
+     * snapshot. The supplier is called on the UserThread once the delay has passed.
+     * Needs to be called on the UserThread.
+     */
+    public void requestSnapshot(Supplier<Collection<?>> supplier, long delayMs) {
+        if (snapshotTimer == null) {
+            snapshotTimer = UserThread.runAfter(() -> {
+                snapshotTimer = null;
+                writeSnapshot(supplier.get());
+            }, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void checkLogMode() {
+        if (logMode == LogMode.NONE)
+            throw new IllegalStateException("Log is not enabled for " + name);
+    }
+
+    // Runs on the persistence scheduler thread
+    private void flushLog() {
+        List<LogItem> items;
+        synchronized (pendingLogItems) {
+            if (pendingLogItems.isEmpty())
+                return;
+            items = new ArrayList<>(pendingLogItems);
+            pendingLogItems.clear();
+        }
+
+        Map<File, List<Object>> itemsByFile = new LinkedHashMap<>();
+        items.forEach(logItem -> itemsByFile.computeIfAbsent(getLogFile(logItem.date), k -> new ArrayList<>())
+                .add(logItem.item));
+        itemsByFile.forEach((file, list) -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true),
+                    StandardCharsets.UTF_8))) {
+                for (Object item : list)
+                    writeLine(writer, item);
+            } catch (Throwable t) {
+                log.error("Could not append to " + file.getAbsolutePath(), t);
+            }
+        });
+    }
+
+    private void writeLine(Writer writer, Object item) throws IOException {
+        GSON.toJson(item, item.getClass(), writer);
+        writer.write('\n');
+    }
+
+    private void writeAtomically(File file, WriterConsumer writerConsumer) {
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("temp", null, file.getParentFile());
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile),
+                    StandardCharsets.UTF_8))) {
+                writerConsumer.accept(writer);
+            }
+            FileUtil.renameFile(tempFile, file);
+        } catch (Throwable t) {
+            log.error("Could not write " + file.getAbsolutePath(), t);
+        } finally {
+            if (tempFile != null && tempFile.exists()) {
+                log.warn("Temp file still exists after failed save. We will delete it now. file=" + file.getName());
+                if (!tempFile.delete())
+                    log.error("Cannot delete temp file.");
+            }
+        }
+    }
+
+    private File getLogFile(long date) {
+        if (logMode == LogMode.DAILY_JSON_LINES)
+            return new File(getLogDir(), DAY_FORMATTER.format(Instant.ofEpochMilli(date)) + ".jsonl");
+        else
+            return new File(dir, name + ".jsonl");
+    }
+
+    private File getLogDir() {
+        File logDir = new File(dir, name);
+        if (!logDir.exists() && !logDir.mkdir())
+            log.warn("make dir failed. logDir=" + logDir.getAbsolutePath());
+        return logDir;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class LogItem {
+        private final Object item;
+        private final long date;
+
+        private LogItem(Object item, long date) {
+            this.item = item;
+            this.date = date;
+        }
+    }
+
+    private interface WriterConsumer {
+        void accept(Writer writer) throws IOException;
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.util;
+
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable map implemented as hash array mapped trie (HAMT).
+ * <p/>
+ * plus and minus return a new map and leave the original unchanged. Both maps share all nodes which are not on the
+ * path to the changed entry, so a change costs O(log32 n) instead of a full copy. Keeping an old version of the map
+ * is free, which makes it suitable for consistent snapshots of state which is changed by another thread.
+ * <p/>
+ * Null keys and null values are not supported. The mutating methods of java.util.Map throw an
+ * UnsupportedOperationException.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+    private static final Object NOT_FOUND = new Object();
+
+    // null if empty
+    private final Node root;
+    private final int size;
+    private transient Set<Entry<K, V>> entrySet;
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentHashMap) {
+            //noinspection unchecked
+            return (PersistentHashMap<K, V>) map;
+        }
+
+        PersistentHashMap<K, V> result = empty();
+        for (Entry<? extends K, ? extends V> entry : map.entrySet())
+            result = result.plus(entry.getKey(), entry.getValue());
+        return result;
+    }
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        checkNotNull(key, "key must not be null");
+        checkNotNull(value, "value must not be null");
+        Box added = new Box();
+        Node newRoot = (root == null ? BitmapNode.EMPTY : root).assoc(0, hash(key), key, value, added);
+        if (newRoot == root)
+            return this;
+        return new PersistentHashMap<>(newRoot, added.value ? size + 1 : size);
+    }
+
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (root == null || key == null)
+            return this;
+        Node newRoot = root.without(0, hash(key), key);
+        if (newRoot == root)
+            return this;
+        return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (root == null || key == null)
+            return null;
+        Object result = root.find(0, hash(key), key);
+        return result == NOT_FOUND ? null : (V) result;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return root != null && key != null && root.find(0, hash(key), key) != NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bitPos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 0x1f);
+    }
+
+    private static Object[] cloneAndSet(Object[] array, int index, Object value) {
+        Object[] clone = array.clone();
+        clone[index] = value;
+        return clone;
+    }
+
+    // Removes the key value pair at pairIndex
+    private static Object[] removePair(Object[] array, int pairIndex) {
+        Object[] result = new Object[array.length - 2];
+        System.arraycopy(array, 0, result, 0, 2 * pairIndex);
+        System.arraycopy(array, 2 * (pairIndex + 1), result, 2 * pairIndex, result.length - 2 * pairIndex);
+        return result;
+    }
+
+    private static Node createNode(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        int hash1 = hash(key1);
+        if (hash1 == hash2)
+            return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+
+        Box added = new Box();
+        return BitmapNode.EMPTY
+                .assoc(shift, hash1, key1, value1, added)
+                .assoc(shift, hash2, key2, value2, added);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class Box {
+        private boolean value;
+    }
+
+    // Both node types store their content as key value pairs in one array. In a BitmapNode a pair with a null key
+    // holds a sub node as value.
+    private interface Node {
+        Node assoc(int shift, int hash, Object key, Object value, Box added);
+
+        // Returns null if the node got empty
+        Node without(int shift, int hash, Object key);
+
+        Object find(int shift, int hash, Object key);
+
+        Object[] getArray();
+    }
+
+    private static final class BitmapNode implements Node {
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        private BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        public Node assoc(int shift, int hash, Object key, Object value, Box added) {
+            int bit = bitPos(hash, shift);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) != 0) {
+                Object existingKey = array[2 * index];
+                Object existingValue = array[2 * index + 1];
+                if (existingKey == null) {
+                    Node node = ((Node) existingValue).assoc(shift + 5, hash, key, value, added);
+                    return node == existingValue ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * index + 1, node));
+                }
+                if (key.equals(existingKey)) {
+                    return value == existingValue ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * index + 1, value));
+                }
+
+                added.value = true;
+                Object[] newArray = array.clone();
+                newArray[2 * index] = null;
+                newArray[2 * index + 1] = createNode(shift + 5, existingKey, existingValue, hash, key, value);
+                return new BitmapNode(bitmap, newArray);
+            } else {
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, 2 * index);
+                newArray[2 * index] = key;
+                newArray[2 * index + 1] = value;
+                System.arraycopy(array, 2 * index, newArray, 2 * (index + 1), array.length - 2 * index);
+                added.value = true;
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+        }
+
+        @Override
+        public Node without(int shift, int hash, Object key) {
+            int bit = bitPos(hash, shift);
+            if ((bitmap & bit) == 0)
+                return this;
+
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object existingKey = array[2 * index];
+            Object existingValue = array[2 * index + 1];
+            if (existingKey == null) {
+                Node node = ((Node) existingValue).without(shift + 5, hash, key);
+                if (node == existingValue)
+                    return this;
+                if (node != null)
+                    return new BitmapNode(bitmap, cloneAndSet(array, 2 * index + 1, node));
+            } else if (!key.equals(existingKey)) {
+                return this;
+            }
+
+            return bitmap == bit ? null : new BitmapNode(bitmap ^ bit, removePair(array, index));
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int bit = bitPos(hash, shift);
+            if ((bitmap & bit) == 0)
+                return NOT_FOUND;
+
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object existingKey = array[2 * index];
+            Object existingValue = array[2 * index + 1];
+            if (existingKey == null)
+                return ((Node) existingValue).find(shift + 5, hash, key);
+            return key.equals(existingKey) ? existingValue : NOT_FOUND;
+        }
+
+        @Override
+        public Object[] getArray() {
+            return array;
+        }
+    }
+
+    // Holds keys with the same hash
+    private static final class CollisionNode implements Node {
+        private final int hash;
+        private final Object[] array;
+
+        private CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        @Override
+        public Node assoc(int shift, int hash, Object key, Object value, Box added) {
+            if (hash != this.hash) {
+                // We nest us in a BitmapNode so the new key can be added at a different position
+                return new BitmapNode(bitPos(this.hash, shift), new Object[]{null, this})
+                        .assoc(shift, hash, key, value, added);
+            }
+
+            int index = indexOf(key);
+            if (index != -1) {
+                return array[2 * index + 1] == value ? this : new CollisionNode(hash, cloneAndSet(array, 2 * index + 1, value));
+            }
+
+            Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            added.value = true;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        public Node without(int shift, int hash, Object key) {
+            int index = indexOf(key);
+            if (index == -1)
+                return this;
+            return array.length == 2 ? null : new CollisionNode(hash, removePair(array, index));
+        }
+
+        @Override
+        public Object find(int shift, int hash, Object key) {
+            int index = indexOf(key);
+            return index == -1 ? NOT_FOUND : array[2 * index + 1];
+        }
+
+        @Override
+        public Object[] getArray() {
+            return array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i]))
+                    return i / 2;
+            }
+            return -1;
+        }
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+        // Max. depth is 7 levels of BitmapNodes (32 bit hash / 5 bit per level) plus one CollisionNode
+        private final Object[][] arrays = new Object[8][];
+        private final int[] positions = new int[8];
+        private int depth = -1;
+        private Entry<K, V> next;
+
+        private EntryIterator(Node root) {
+            if (root != null) {
+                depth = 0;
+                arrays[0] = root.getArray();
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null)
+                throw new NoSuchElementException();
+            Entry<K, V> result = next;
+            advance();
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int position = positions[depth];
+                if (position >= array.length) {
+                    arrays[depth] = null;
+                    depth--;
+                    continue;
+                }
+
+                positions[depth] = position + 2;
+                Object key = array[position];
+                Object value = array[position + 1];
+                if (key == null) {
+                    depth++;
+                    arrays[depth] = ((Node) value).getArray();
+                    positions[depth] = 0;
+                } else {
+                    next = new SimpleImmutableEntry<>((K) key, (V) value);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.util;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list implemented as 32-way trie. Supports appending and replacing elements.
+ * <p/>
+ * plus and with return a new list and leave the original unchanged. Both lists share all nodes which are not on the
+ * path to the changed element, so a change costs O(log32 n). See PersistentHashMap.
+ * <p/>
+ * The mutating methods of java.util.List throw an UnsupportedOperationException.
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(new Object[WIDTH], 0, 0);
+
+    // At shift 0 the root holds the elements, otherwise the sub nodes
+    private final Object[] root;
+    private final int shift;
+    private final int size;
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    public static <E> PersistentVector<E> copyOf(Collection<? extends E> collection) {
+        if (collection instanceof PersistentVector) {
+            //noinspection unchecked
+            return (PersistentVector<E>) collection;
+        }
+
+        PersistentVector<E> result = empty();
+        for (E element : collection)
+            result = result.plus(element);
+        return result;
+    }
+
+    private PersistentVector(Object[] root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Appends the element
+    public PersistentVector<E> plus(E element) {
+        if (size == 1 << (shift + BITS)) {
+            // Root is full so we add a level
+            Object[] newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, element);
+            return new PersistentVector<>(newRoot, shift + BITS, size + 1);
+        }
+        return new PersistentVector<>(append(root, shift, size, element), shift, size + 1);
+    }
+
+    // Replaces the element at index
+    public PersistentVector<E> with(int index, E element) {
+        checkIndex(index);
+        return new PersistentVector<>(set(root, shift, index, element), shift, size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkIndex(index);
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS)
+            node = (Object[]) node[(index >>> level) & MASK];
+        return (E) node[index & MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+    }
+
+    private static Object[] newPath(int level, Object element) {
+        Object[] node = new Object[WIDTH];
+        node[0] = level == 0 ? element : newPath(level - BITS, element);
+        return node;
+    }
+
+    private static Object[] append(Object[] node, int level, int index, Object element) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (level == 0) {
+            copy[index & MASK] = element;
+        } else {
+            int subIndex = (index >>> level) & MASK;
+            copy[subIndex] = append((Object[]) copy[subIndex], level - BITS, index, element);
+        }
+        return copy;
+    }
+
+    private static Object[] set(Object[] node, int level, int index, Object element) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = element;
+        } else {
+            int subIndex = (index >>> level) & MASK;
+            copy[subIndex] = set((Object[]) node[subIndex], level - BITS, index, element);
+        }
+        return copy;
+    }
+}
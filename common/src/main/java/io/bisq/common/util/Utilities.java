@@ -417,7 +417,7 @@ public class Utilities {
         }
     }
 
-    private static class AnnotationExclusionStrategy implements ExclusionStrategy {
+    public static class AnnotationExclusionStrategy implements ExclusionStrategy {
         @Override
         public boolean shouldSkipField(FieldAttributes f) {
             return f.getAnnotation(JsonExclude.class) != null;
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Compares the FrameRateTimer with the HashedWheelTimer: the cost of starting and stopping many timers (e.g. the
+// timeouts of broadcasts) and the time spent on the UserThread while many timers are pending.
+// Not run as unit test, start it with the main method.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TimerBenchmark {
+    // Long enough that no timer expires during a run
+    private static final int MIN_DELAY_SEC = 3600;
+
+    // We measure the time spent in the tasks executed on the UserThread
+    private static final AtomicLong userThreadNanos = new AtomicLong();
+
+    @Param({"FrameRateTimer", "HashedWheelTimer"})
+    public String timerType;
+
+    @Param({"10000"})
+    public int numTimers;
+
+    private final Runnable noop = () -> {
+    };
+    private final Random random = new Random(0);
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // State
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Timers which don't expire in the measured period
+    @State(Scope.Benchmark)
+    public static class PendingTimers {
+        private List<Timer> timers;
+
+        @Setup(Level.Trial)
+        public void setup(TimerBenchmark benchmark) {
+            timers = benchmark.startTimers();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            timers.forEach(Timer::stop);
+        }
+    }
+
+    // Reported as secondary result next to the wall clock time of the benchmark
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class UserThreadTime {
+        public long userThreadMicros;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        UserThread.setExecutor(command -> {
+            long ts = System.nanoTime();
+            command.run();
+            userThreadNanos.addAndGet(System.nanoTime() - ts);
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Benchmarks
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Benchmark
+    public void startAndStop() {
+        startTimers().forEach(Timer::stop);
+    }
+
+    // The userThreadMicros counter is the time spent on the UserThread per iteration of 5 sec
+    @Benchmark
+    @Warmup(iterations = 1, time = 5)
+    @Measurement(iterations = 5, time = 5)
+    public void userThreadTimeWithPendingTimers(PendingTimers pendingTimers, UserThreadTime userThreadTime)
+            throws InterruptedException {
+        userThreadNanos.set(0);
+        Thread.sleep(1000);
+        userThreadTime.userThreadMicros += TimeUnit.NANOSECONDS.toMicros(userThreadNanos.get());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TimerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<Timer> startTimers() {
+        List<Timer> timers = new ArrayList<>(numTimers);
+        for (int i = 0; i < numTimers; i++)
+            timers.add(newTimer().runLater(Duration.ofSeconds(MIN_DELAY_SEC + random.nextInt(60)), noop));
+        return timers;
+    }
+
+    private Timer newTimer() {
+        switch (timerType) {
+            case "FrameRateTimer":
+                return new FrameRateTimer();
+            case "HashedWheelTimer":
+                return new HashedWheelTimer();
+            default:
+                throw new IllegalArgumentException("Unknown timerType " + timerType);
+        }
+    }
+}
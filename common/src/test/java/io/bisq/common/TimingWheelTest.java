@@ -0,0 +1,117 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TimingWheelTest {
+    private static final int WHEEL_SIZE = 8;
+
+    @Test
+    public void testTimeoutsExpireAtTheirTick() {
+        TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+        List<Integer> expired = new ArrayList<>();
+        // Deadlines within the first round, at the wheel size and after several rounds
+        int[] deadlines = {0, 3, 7, 8, 9, 21, 3};
+        for (int i = 0; i < deadlines.length; i++) {
+            final int deadline = deadlines[i];
+            wheel.schedule(new TimingWheel.Timeout(() -> expired.add(deadline)), deadline);
+        }
+        assertEquals(deadlines.length, wheel.size());
+
+        for (int tick = 0; tick <= 21; tick++) {
+            int numExpired = expired.size();
+            wheel.tick(timeout -> timeout.getTask().run());
+            for (int i = numExpired; i < expired.size(); i++)
+                assertEquals(tick, (int) expired.get(i));
+        }
+        assertEquals(deadlines.length, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testPassedDeadlineExpiresAtNextTick() {
+        TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+        for (int i = 0; i < 5; i++)
+            wheel.tick(timeout -> fail());
+
+        AtomicInteger count = new AtomicInteger();
+        wheel.schedule(new TimingWheel.Timeout(count::incrementAndGet), 2);
+        wheel.tick(timeout -> timeout.getTask().run());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testCancelAndReschedule() {
+        TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+        AtomicInteger count = new AtomicInteger();
+        TimingWheel.Timeout first = new TimingWheel.Timeout(count::incrementAndGet);
+        TimingWheel.Timeout second = new TimingWheel.Timeout(count::incrementAndGet);
+        TimingWheel.Timeout third = new TimingWheel.Timeout(count::incrementAndGet);
+        // All in the same bucket, so we remove from the middle of the list
+        wheel.schedule(first, 2);
+        wheel.schedule(second, 2);
+        wheel.schedule(third, 2);
+        wheel.cancel(second);
+        assertFalse(second.isScheduled());
+        // Cancelling twice does nothing
+        wheel.cancel(second);
+        assertEquals(2, wheel.size());
+
+        // Rescheduling moves the timeout to the new tick
+        wheel.schedule(first, 4);
+        assertEquals(2, wheel.size());
+
+        wheel.tick(timeout -> timeout.getTask().run());
+        wheel.tick(timeout -> timeout.getTask().run());
+        assertEquals(0, count.get());
+        wheel.tick(timeout -> timeout.getTask().run());
+        assertEquals(1, count.get());
+        wheel.tick(timeout -> timeout.getTask().run());
+        wheel.tick(timeout -> timeout.getTask().run());
+        assertEquals(2, count.get());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testHashedWheelTimer() throws Exception {
+        CountDownLatch runLater = new CountDownLatch(1);
+        CountDownLatch periodically = new CountDownLatch(3);
+        AtomicInteger stoppedCount = new AtomicInteger();
+
+        long startTs = System.currentTimeMillis();
+        new HashedWheelTimer().runLater(Duration.ofMillis(200), runLater::countDown);
+        Timer periodicTimer = new HashedWheelTimer().runPeriodically(Duration.ofMillis(100), periodically::countDown);
+        new HashedWheelTimer().runLater(Duration.ofMillis(100), stoppedCount::incrementAndGet).stop();
+
+        assertTrue(runLater.await(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - startTs >= 200);
+        assertTrue(periodically.await(5, TimeUnit.SECONDS));
+        periodicTimer.stop();
+        assertEquals(0, stoppedCount.get());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.locale;
+
+import ch.qos.logback.classic.Level;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Currency;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+// Measures the per call cost of the currency lookups of CurrencyUtil compared to searching the currency lists as we
+// did before the lookup tables (the linear* methods below are the old implementations).
+// Not run as unit test, start it with the main method.
+// Usage: CurrencyUtilBenchmark [numCalls]
+public class CurrencyUtilBenchmark {
+    // Mix of fiat, crypto and unknown codes as we see them in offers and trade statistics
+    private static final String[] CODES = {"EUR", "USD", "XMR", "ETH", "ZEC", "BRL", "GBP", "DOGE", "JPY", "FAK"};
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        final int numCalls = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        // Warm up
+        run(numCalls / 10, false);
+        run(numCalls, true);
+        System.exit(0);
+    }
+
+    private static void run(int numCalls, boolean print) {
+        measure("isFiatCurrency", numCalls, print,
+                CurrencyUtilBenchmark::linearIsFiatCurrency, CurrencyUtil::isFiatCurrency);
+        measure("isCryptoCurrency", numCalls, print,
+                CurrencyUtilBenchmark::linearIsCryptoCurrency, CurrencyUtil::isCryptoCurrency);
+        measure("getTradeCurrency", numCalls, print,
+                code -> linearGetTradeCurrency(code).isPresent(), code -> CurrencyUtil.getTradeCurrency(code).isPresent());
+        measure("getNameAndCode", numCalls, print,
+                code -> linearGetNameAndCode(code) != null, code -> CurrencyUtil.getNameAndCode(code) != null);
+    }
+
+    private static void measure(String name, int numCalls, boolean print,
+                                Predicate<String> linear, Predicate<String> lookup) {
+        final double linearNanos = measure(numCalls, linear);
+        final double lookupNanos = measure(numCalls, lookup);
+        if (print)
+            System.out.println(String.format("%-18s linear scan %10.1f ns/call, lookup table %8.1f ns/call (%.0fx)",
+                    name, linearNanos, lookupNanos, linearNanos / lookupNanos));
+    }
+
+    private static double measure(int numCalls, Predicate<String> predicate) {
+        int count = 0;
+        long ts = System.nanoTime();
+        for (int i = 0; i < numCalls; i++) {
+            if (predicate.test(CODES[i % CODES.length]))
+                count++;
+        }
+        long duration = System.nanoTime() - ts;
+        sink = count;
+        return (double) duration / numCalls;
+    }
+
+    private static boolean linearIsFiatCurrency(String currencyCode) {
+        try {
+            return currencyCode != null && !currencyCode.isEmpty() && !linearIsCryptoCurrency(currencyCode) && Currency.getInstance(currencyCode) != null;
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    private static boolean linearIsCryptoCurrency(String currencyCode) {
+        return linearGetCryptoCurrency(currencyCode).isPresent();
+    }
+
+    private static Optional<FiatCurrency> linearGetFiatCurrency(String currencyCode) {
+        return CurrencyUtil.getAllSortedFiatCurrencies().stream().filter(e -> e.getCode().equals(currencyCode)).findAny();
+    }
+
+    private static Optional<CryptoCurrency> linearGetCryptoCurrency(String currencyCode) {
+        return CurrencyUtil.getAllSortedCryptoCurrencies().stream().filter(e -> e.getCode().equals(currencyCode)).findAny();
+    }
+
+    private static Optional<TradeCurrency> linearGetTradeCurrency(String currencyCode) {
+        Optional<FiatCurrency> fiatCurrencyOptional = linearGetFiatCurrency(currencyCode);
+        if (linearIsFiatCurrency(currencyCode) && fiatCurrencyOptional.isPresent()) {
+            return Optional.of(fiatCurrencyOptional.get());
+        } else {
+            Optional<CryptoCurrency> cryptoCurrencyOptional = linearGetCryptoCurrency(currencyCode);
+            if (linearIsCryptoCurrency(currencyCode) && cryptoCurrencyOptional.isPresent())
+                return Optional.of(cryptoCurrencyOptional.get());
+            else
+                return Optional.empty();
+        }
+    }
+
+    private static String linearGetNameAndCode(String currencyCode) {
+        String name;
+        if (linearIsCryptoCurrency(currencyCode)) {
+            name = linearGetCryptoCurrency(currencyCode).get().getName();
+        } else {
+            try {
+                name = Currency.getInstance(currencyCode).getDisplayName();
+            } catch (Throwable t) {
+                name = currencyCode;
+            }
+        }
+        return name + " (" + currencyCode + ")";
+    }
+}
@@ -6,8 +6,7 @@ import org.junit.Test;
 import java.util.Locale;
 import java.util.Optional;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 public class CurrencyUtilTest {
 
@@ -27,4 +26,30 @@ public class CurrencyUtilTest {
         assertTrue(naira.isPresent());
         assertFalse("Fake currency shouldn't exist",fake.isPresent());
     }
+
+    @Test
+    public void testIsFiatAndIsCryptoCurrency() {
+        assertTrue(CurrencyUtil.isFiatCurrency("EUR"));
+        assertFalse(CurrencyUtil.isCryptoCurrency("EUR"));
+        assertTrue(CurrencyUtil.isCryptoCurrency("ETH"));
+        assertFalse(CurrencyUtil.isFiatCurrency("ETH"));
+        assertFalse(CurrencyUtil.isFiatCurrency("FAK"));
+        assertFalse(CurrencyUtil.isCryptoCurrency("FAK"));
+        assertFalse(CurrencyUtil.isFiatCurrency(""));
+        assertFalse(CurrencyUtil.isFiatCurrency(null));
+        assertFalse(CurrencyUtil.isCryptoCurrency(null));
+
+        assertEquals("EUR", CurrencyUtil.getFiatCurrency("EUR").get().getCode());
+        assertFalse(CurrencyUtil.getFiatCurrency("ETH").isPresent());
+        assertEquals("ETH", CurrencyUtil.getCryptoCurrency("ETH").get().getCode());
+        assertTrue(CurrencyUtil.getTradeCurrency("ETH").get() instanceof CryptoCurrency);
+    }
+
+    @Test
+    public void testGetNameAndCode() {
+        assertEquals("Euro (EUR)", CurrencyUtil.getNameAndCode("EUR"));
+        assertEquals("Ether (ETH)", CurrencyUtil.getNameAndCode("ETH"));
+        assertEquals("FAK (FAK)", CurrencyUtil.getNameAndCode("FAK"));
+        assertEquals("Ether", CurrencyUtil.getNameByCode("ETH"));
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.storage;
+
+import io.bisq.common.proto.persistable.PersistableEnvelope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+public class PersistenceSchedulerTest {
+    private PersistenceScheduler persistenceScheduler;
+    private List<String> writtenFiles;
+
+    @Before
+    public void setup() {
+        persistenceScheduler = new PersistenceScheduler();
+        writtenFiles = new CopyOnWriteArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        persistenceScheduler.shutDown();
+    }
+
+    @Test
+    public void testCoalescesRepeatedSaves() throws InterruptedException {
+        RecordingFileManager fileManager = new RecordingFileManager("a", PersistenceScheduler.Priority.NORMAL);
+        for (int i = 0; i < 100; i++)
+            fileManager.saveLater(() -> null, 50);
+        assertEquals(1, persistenceScheduler.getMetrics().getQueueDepth());
+
+        Thread.sleep(500);
+        assertEquals(Arrays.asList("a"), writtenFiles);
+        assertEquals(0, persistenceScheduler.getMetrics().getQueueDepth());
+    }
+
+    @Test
+    public void testShutDownFlushesInOrderOfPriority() {
+        new RecordingFileManager("low", PersistenceScheduler.Priority.LOW).saveLater(() -> null, 60_000);
+        new RecordingFileManager("normal", PersistenceScheduler.Priority.NORMAL).saveLater(() -> null, 30_000);
+        new RecordingFileManager("high", PersistenceScheduler.Priority.HIGH).saveLater(() -> null, 60_000);
+        assertEquals(3, persistenceScheduler.getMetrics().getQueueDepth());
+
+        persistenceScheduler.shutDown();
+        assertEquals(Arrays.asList("high", "normal", "low"), writtenFiles);
+
+        // Later requests are written immediately
+        new RecordingFileManager("late", PersistenceScheduler.Priority.NORMAL).saveLater(() -> null, 60_000);
+        assertEquals(Arrays.asList("high", "normal", "low", "late"), writtenFiles);
+    }
+
+    @Test
+    public void testStoresAndTasksShareTheSchedulerThread() {
+        Object logStore = new Object();
+        persistenceScheduler.schedule(logStore, "log", () -> writtenFiles.add("log"), 60_000,
+                PersistenceScheduler.Priority.LOW);
+        persistenceScheduler.schedule(logStore, "log", () -> writtenFiles.add("log"), 60_000,
+                PersistenceScheduler.Priority.LOW);
+        new RecordingFileManager("high", PersistenceScheduler.Priority.HIGH).saveLater(() -> null, 60_000);
+        persistenceScheduler.execute(() -> writtenFiles.add("snapshot"));
+        assertEquals(2, persistenceScheduler.getMetrics().getQueueDepth());
+
+        // Tasks queued before the shutdown run first, then the pending writes in order of priority
+        persistenceScheduler.shutDown();
+        assertEquals(Arrays.asList("snapshot", "high", "log"), writtenFiles);
+    }
+
+    @Test
+    public void testFlush() {
+        Object logStore = new Object();
+        persistenceScheduler.schedule(logStore, "log", () -> writtenFiles.add("log"), 60_000,
+                PersistenceScheduler.Priority.NORMAL);
+        persistenceScheduler.flush(logStore);
+        assertEquals(Arrays.asList("log"), writtenFiles);
+        assertEquals(0, persistenceScheduler.getMetrics().getQueueDepth());
+    }
+
+    private class RecordingFileManager extends FileManager<PersistableEnvelope> {
+        private final String name;
+
+        RecordingFileManager(String name, PersistenceScheduler.Priority priority) {
+            super(new File("."), new File(name), 100, null, priority, persistenceScheduler);
+            this.name = name;
+        }
+
+        @Override
+        void writePending() {
+            writtenFiles.add(name);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.storage;
+
+import io.bisq.generated.protobuffer.PB;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SegmentedLogStoreTest {
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("SegmentedLogStoreTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testAppendAndRead() {
+        // Small segment size so that we roll over and compact
+        SegmentedLogStore<PB.NodeAddress> store = new SegmentedLogStore<>(dir, PB.NodeAddress.parser(), 10, 200);
+        assertFalse(store.exists());
+        assertEquals(0, store.read(item -> {
+        }));
+        for (int i = 0; i < 100; i++)
+            store.append(createItem(i));
+        store.flush();
+
+        SegmentedLogStore<PB.NodeAddress> reopened = new SegmentedLogStore<>(dir, PB.NodeAddress.parser(), 10, 200);
+        assertTrue(reopened.exists());
+        List<PB.NodeAddress> items = new ArrayList<>();
+        reopened.read(items::add);
+        reopened.flush();
+        assertEquals(100, items.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(createItem(i), items.get(i));
+    }
+
+    @Test
+    public void testCorruptedTailIsIgnored() throws IOException {
+        SegmentedLogStore<PB.NodeAddress> store = new SegmentedLogStore<>(dir, PB.NodeAddress.parser(), 10);
+        for (int i = 0; i < 10; i++)
+            store.append(createItem(i));
+        store.flush();
+
+        // Simulate an interrupted write
+        File[] files = dir.listFiles();
+        assertEquals(1, files.length);
+        try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        List<PB.NodeAddress> items = new ArrayList<>();
+        SegmentedLogStore<PB.NodeAddress> reopened = new SegmentedLogStore<>(dir, PB.NodeAddress.parser(), 10);
+        reopened.read(items::add);
+        assertEquals(9, items.size());
+        reopened.append(createItem(10));
+        reopened.flush();
+
+        items.clear();
+        SegmentedLogStore<PB.NodeAddress> reopenedAgain = new SegmentedLogStore<>(dir, PB.NodeAddress.parser(), 10);
+        reopenedAgain.read(items::add);
+        reopenedAgain.flush();
+        assertEquals(10, items.size());
+        assertEquals(createItem(10), items.get(9));
+    }
+
+    private static PB.NodeAddress createItem(int i) {
+        return PB.NodeAddress.newBuilder().setHostName("host" + i + ".onion").setPort(9999).build();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.storage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class StreamingJsonFileManagerTest {
+    private static final long DAY = 24 * 60 * 60 * 1000;
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("StreamingJsonFileManagerTest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testDailyLogAndSnapshot() throws IOException {
+        StreamingJsonFileManager manager = new StreamingJsonFileManager(dir, "items",
+                StreamingJsonFileManager.LogMode.DAILY_JSON_LINES);
+        manager.rewriteLog(Arrays.asList(new Item("a", 0), new Item("b", DAY)), item -> item.date);
+        manager.appendToLog(new Item("c", DAY + 1), DAY + 1);
+        manager.writeSnapshot(Arrays.asList(new Item("a", 0), new Item("b", DAY)));
+        manager.flush();
+
+        assertEquals(Arrays.asList("{\"name\":\"a\",\"date\":0}"), readLines(new File(dir, "items/1970-01-01.jsonl")));
+        assertEquals(Arrays.asList("{\"name\":\"b\",\"date\":86400000}", "{\"name\":\"c\",\"date\":86400001}"),
+                readLines(new File(dir, "items/1970-01-02.jsonl")));
+        assertEquals(Arrays.asList("[{\"name\":\"a\",\"date\":0},{\"name\":\"b\",\"date\":86400000}]"),
+                readLines(new File(dir, "items.json")));
+    }
+
+    @Test
+    public void testRewriteRemovesOldDays() throws IOException {
+        StreamingJsonFileManager manager = new StreamingJsonFileManager(dir, "items",
+                StreamingJsonFileManager.LogMode.DAILY_JSON_LINES);
+        manager.appendToLog(new Item("a", 0), 0);
+        manager.flush();
+
+        manager = new StreamingJsonFileManager(dir, "items", StreamingJsonFileManager.LogMode.DAILY_JSON_LINES);
+        manager.rewriteLog(Arrays.asList(new Item("b", DAY)), item -> item.date);
+        manager.flush();
+
+        assertFalse(new File(dir, "items/1970-01-01.jsonl").exists());
+        assertEquals(1, readLines(new File(dir, "items/1970-01-02.jsonl")).size());
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static class Item {
+        private final String name;
+        private final long date;
+
+        Item(String name, long date) {
+            this.name = name;
+            this.date = date;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PersistentHashMapTest {
+
+    @Test
+    public void testPlusAndMinusMatchHashMap() {
+        Random random = new Random(1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map);
+        // Uses the entry iterator
+        assertEquals(expected, new HashMap<>(map));
+    }
+
+    @Test
+    public void testOldVersionIsUnchanged() {
+        PersistentHashMap<String, String> version1 = PersistentHashMap.<String, String>empty().plus("a", "1");
+        PersistentHashMap<String, String> version2 = version1.plus("b", "2").minus("a");
+        assertEquals(1, version1.size());
+        assertEquals("1", version1.get("a"));
+        assertFalse(version1.containsKey("b"));
+        assertEquals(1, version2.size());
+        assertNull(version2.get("a"));
+        assertEquals("2", version2.get("b"));
+        assertSame(version2, version2.minus("x"));
+    }
+
+    @Test
+    public void testHashCollisions() {
+        PersistentHashMap<CollidingKey, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 10; i++)
+            map = map.plus(new CollidingKey(i), i);
+        map = map.plus(new CollidingKey(3), 33);
+        assertEquals(10, map.size());
+        assertEquals(Integer.valueOf(33), map.get(new CollidingKey(3)));
+
+        for (int i = 0; i < 10; i++)
+            map = map.minus(new CollidingKey(i));
+        assertTrue(map.isEmpty());
+    }
+
+    private static final class CollidingKey {
+        private final int id;
+
+        private CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
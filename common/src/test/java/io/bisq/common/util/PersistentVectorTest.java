@@ -0,0 +1,60 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PersistentVectorTest {
+
+    @Test
+    public void testPlusAndWith() {
+        List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        // More than 32 * 32 elements so we get 3 levels
+        for (int i = 0; i < 40_000; i++) {
+            expected.add(i);
+            vector = vector.plus(i);
+        }
+        for (int i = 0; i < 40_000; i += 7) {
+            expected.set(i, -i);
+            vector = vector.with(i, -i);
+        }
+        assertEquals(expected, vector);
+    }
+
+    @Test
+    public void testOldVersionIsUnchanged() {
+        PersistentVector<String> version1 = PersistentVector.<String>empty().plus("a").plus("b");
+        PersistentVector<String> version2 = version1.with(0, "x").plus("c");
+        assertEquals(2, version1.size());
+        assertEquals("a", version1.get(0));
+        assertEquals(3, version2.size());
+        assertEquals("x", version2.get(0));
+        assertEquals("c", version2.get(2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() {
+        PersistentVector.empty().plus("a").get(1);
+    }
+}
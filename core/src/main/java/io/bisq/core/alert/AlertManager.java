@@ -23,6 +23,7 @@ import io.bisq.common.app.DevEnv;
 import io.bisq.common.crypto.KeyRing;
 import io.bisq.core.app.AppOptionKeys;
 import io.bisq.core.user.User;
+import io.bisq.network.crypto.SignatureVerificationService;
 import io.bisq.network.p2p.P2PService;
 import io.bisq.network.p2p.storage.HashMapChangedListener;
 import io.bisq.network.p2p.storage.payload.ProtectedStorageEntry;
@@ -36,7 +37,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigInteger;
-import java.security.SignatureException;
 
 import static org.bitcoinj.core.Utils.HEX;
 
@@ -46,6 +46,7 @@ public class AlertManager {
     private final P2PService p2PService;
     private final KeyRing keyRing;
     private final User user;
+    private final SignatureVerificationService signatureVerificationService;
     private final ObjectProperty<Alert> alertMessageProperty = new SimpleObjectProperty<>();
 
     // Pub key for developer global alert message
@@ -61,10 +62,15 @@ public class AlertManager {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    public AlertManager(P2PService p2PService, KeyRing keyRing, User user, @Named(AppOptionKeys.IGNORE_DEV_MSG_KEY) boolean ignoreDevMsg) {
+    public AlertManager(P2PService p2PService,
+                        KeyRing keyRing,
+                        User user,
+                        SignatureVerificationService signatureVerificationService,
+                        @Named(AppOptionKeys.IGNORE_DEV_MSG_KEY) boolean ignoreDevMsg) {
         this.p2PService = p2PService;
         this.keyRing = keyRing;
         this.user = user;
+        this.signatureVerificationService = signatureVerificationService;
 
         if (!ignoreDevMsg) {
             p2PService.addHashSetChangedListener(new HashMapChangedListener() {
@@ -147,12 +153,10 @@ public class AlertManager {
 
     private boolean verifySignature(Alert alert) {
         String alertMessageAsHex = Utils.HEX.encode(alert.getMessage().getBytes());
-        try {
-            ECKey.fromPublicOnly(HEX.decode(pubKeyAsHex)).verifyMessage(alertMessageAsHex, alert.getSignatureAsBase64());
-            return true;
-        } catch (SignatureException e) {
+        boolean result = signatureVerificationService.verifyMessage(pubKeyAsHex, alertMessageAsHex,
+                alert.getSignatureAsBase64());
+        if (!result)
             log.warn("verifySignature failed");
-            return false;
-        }
+        return result;
     }
 }
@@ -95,6 +95,10 @@ public abstract class BisqExecutable {
                 description("Use localhost P2P network for development", false))
                 .withRequiredArg()
                 .ofType(boolean.class);
+        parser.accepts(NetworkOptionKeys.USE_NIO_TRANSPORT,
+                description("Use one selector thread for the P2P network connections instead of a thread per connection", false))
+                .withRequiredArg()
+                .ofType(boolean.class);
         parser.accepts(NetworkOptionKeys.MAX_CONNECTIONS,
                 description("Max. connections a peer will try to keep", P2PService.MAX_CONNECTIONS_DEFAULT))
                 .withRequiredArg()
@@ -177,6 +181,11 @@ public abstract class BisqExecutable {
         parser.accepts(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT,
                 description("Bitcoind rpc port for block notifications", ""))
                 .withRequiredArg();
+        parser.accepts(DaoOptionKeys.RPC_PIPELINED_SYNC,
+                description("If set to true the blocks are requested in parallel and with batch requests from " +
+                        "Bitcoin Core when the full DAO node is syncing.", false))
+                .withRequiredArg()
+                .ofType(boolean.class);
         parser.accepts(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA,
                 description("If set to true the blockchain data from RPC requests to Bitcoin Core are stored " +
                         "as json file in the data dir.", false))
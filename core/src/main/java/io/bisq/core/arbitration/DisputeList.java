@@ -21,6 +21,7 @@ import com.google.protobuf.Message;
 import io.bisq.common.proto.ProtoUtil;
 import io.bisq.common.proto.persistable.PersistableEnvelope;
 import io.bisq.common.proto.persistable.PersistedDataHost;
+import io.bisq.common.storage.PersistenceScheduler;
 import io.bisq.common.storage.Storage;
 import io.bisq.core.proto.CoreProtoResolver;
 import io.bisq.generated.protobuffer.PB;
@@ -54,6 +55,7 @@ public final class DisputeList implements PersistableEnvelope, PersistedDataHost
 
     @Override
     public void readPersisted() {
+        storage.setPriority(PersistenceScheduler.Priority.HIGH);
         DisputeList persisted = storage.initAndGetPersisted(this, 50);
         if (persisted != null)
             list.addAll(persisted.getList());
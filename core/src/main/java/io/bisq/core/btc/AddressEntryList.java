@@ -21,6 +21,7 @@ import com.google.inject.Inject;
 import com.google.protobuf.Message;
 import io.bisq.common.proto.persistable.PersistableEnvelope;
 import io.bisq.common.proto.persistable.PersistedDataHost;
+import io.bisq.common.storage.PersistenceScheduler;
 import io.bisq.common.storage.Storage;
 import io.bisq.generated.protobuffer.PB;
 import lombok.Getter;
@@ -52,6 +53,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
 
     @Override
     public void readPersisted() {
+        storage.setPriority(PersistenceScheduler.Priority.HIGH);
         AddressEntryList persisted = storage.initAndGetPersisted(this, 50);
         if (persisted != null)
             list = new ArrayList<>(persisted.getList());
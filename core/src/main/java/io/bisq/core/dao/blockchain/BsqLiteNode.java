@@ -43,6 +43,14 @@ import java.util.List;
 public class BsqLiteNode extends BsqNode {
     private final BsqLiteNodeExecutor bsqLiteNodeExecutor;
 
+    // We request the next page of blocks before we parse the received one. So at most one page gets parsed and one
+    // page is in flight or waiting in pendingPage.
+    private boolean parsingPage;
+    @Nullable
+    private GetBsqBlocksResponse pendingPage;
+    // Incremented at a re-org, so we ignore the results of pages we parsed before
+    private int syncGeneration;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -86,24 +94,13 @@ public class BsqLiteNode extends BsqNode {
                 new RequestManager.Listener() {
                     @Override
                     public void onBlockReceived(GetBsqBlocksResponse getBsqBlocksResponse) {
-                        List<BsqBlock> bsqBlockList = new ArrayList<>(getBsqBlocksResponse.getBsqBlocks());
-                        log.info("received msg with {} items", bsqBlockList.size());
-                        if (bsqBlockList.size() > 0)
-                            log.info("block height of last item: {}", bsqBlockList.get(bsqBlockList.size() - 1).getHeight());
-                        // Be safe and reset all mutable data in case the provider would not have done it
-                        bsqBlockList.stream().forEach(BsqBlock::reset);
-                        bsqLiteNodeExecutor.parseBsqBlocksForLiteNode(bsqBlockList,
-                                genesisBlockHeight,
-                                genesisTxId,
-                                BsqLiteNode.this::onNewBsqBlock,
-                                () -> onParseBlockchainComplete(genesisBlockHeight, genesisTxId), throwable -> {
-                                    if (throwable instanceof BlockNotConnectingException) {
-                                        startReOrgFromLastSnapshot();
-                                    } else {
-                                        log.error(throwable.toString());
-                                        throwable.printStackTrace();
-                                    }
-                                });
+                        log.info("received msg with {} items. Block height of last item: {}, chain head height of " +
+                                        "peer: {}", getBsqBlocksResponse.getBsqBlocks().size(),
+                                getBsqBlocksResponse.getLastBlockHeight(), getBsqBlocksResponse.getChainHeadHeight());
+                        if (parsingPage)
+                            pendingPage = getBsqBlocksResponse;
+                        else
+                            parsePage(getBsqBlocksResponse);
                     }
 
                     @Override
@@ -142,6 +139,59 @@ public class BsqLiteNode extends BsqNode {
         UserThread.runAfter(this::startParseBlocks, 2);
     }
 
+    private void parsePage(GetBsqBlocksResponse page) {
+        final int generation = syncGeneration;
+        parsingPage = true;
+        // The next page is in flight while we parse that one
+        if (page.hasMoreBlocks())
+            requestManager.requestBlocks(page.getLastBlockHeight() + 1);
+
+        List<BsqBlock> bsqBlockList = new ArrayList<>(page.getBsqBlocks());
+        // Be safe and reset all mutable data in case the provider would not have done it
+        bsqBlockList.stream().forEach(BsqBlock::reset);
+        bsqLiteNodeExecutor.parseBsqBlocksForLiteNode(bsqBlockList,
+                genesisBlockHeight,
+                genesisTxId,
+                BsqLiteNode.this::onNewBsqBlock,
+                () -> {
+                    if (generation != syncGeneration)
+                        return;
+
+                    parsingPage = false;
+                    if (pendingPage != null) {
+                        GetBsqBlocksResponse nextPage = pendingPage;
+                        pendingPage = null;
+                        parsePage(nextPage);
+                    } else if (!page.hasMoreBlocks()) {
+                        onParseBlockchainComplete(genesisBlockHeight, genesisTxId);
+                    }
+                }, throwable -> {
+                    if (generation != syncGeneration)
+                        return;
+
+                    parsingPage = false;
+                    pendingPage = null;
+                    if (throwable instanceof BlockNotConnectingException) {
+                        startReOrgFromLastSnapshot();
+                    } else {
+                        log.error(throwable.toString());
+                        throwable.printStackTrace();
+                    }
+                });
+    }
+
+    @Override
+    protected void startReOrgFromLastSnapshot() {
+        // The page in flight and the pending page don't connect to the snapshot
+        syncGeneration++;
+        parsingPage = false;
+        pendingPage = null;
+        if (requestManager != null)
+            requestManager.cancelBlockRequests();
+
+        super.startReOrgFromLastSnapshot();
+    }
+
     @Override
     protected void parseBlocksWithChainHeadHeight(int startBlockHeight, int genesisBlockHeight, String genesisTxId) {
         parseBlocks(startBlockHeight, genesisBlockHeight, genesisTxId, 0);
@@ -21,6 +21,8 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class GetBlocksRequestHandler {
     private static final long TIMEOUT = 120;
+    // Upper limit for the page size requested by the clients
+    private static final int MAX_BLOCKS_PER_RESPONSE = 2000;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -61,9 +63,15 @@ public class GetBlocksRequestHandler {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void handle(GetBsqBlocksRequest getBsqBlocksRequest, final Connection connection) {
-        Log.traceCall(getBsqBlocksRequest + "\n\tconnection=" + connection);
-        List<BsqBlock> bsqBlocks = bsqChainState.getResettedBlocksFrom(getBsqBlocksRequest.getFromBlockHeight());
-        final GetBsqBlocksResponse bsqBlocksResponse = new GetBsqBlocksResponse(bsqBlocks, getBsqBlocksRequest.getNonce());
+        Log.traceCall(() -> getBsqBlocksRequest + "\n\tconnection=" + connection);
+        // Old clients don't page their requests (maxBlocks is 0), we send them all blocks
+        final int maxBlocks = getBsqBlocksRequest.getMaxBlocks() > 0 ?
+                Math.min(getBsqBlocksRequest.getMaxBlocks(), MAX_BLOCKS_PER_RESPONSE) :
+                Integer.MAX_VALUE;
+        List<BsqBlock> bsqBlocks = bsqChainState.getResettedBlocksFrom(getBsqBlocksRequest.getFromBlockHeight(), maxBlocks);
+        // We read the chain head after the blocks, so it is never below the last block we send
+        final GetBsqBlocksResponse bsqBlocksResponse = new GetBsqBlocksResponse(bsqBlocks, getBsqBlocksRequest.getNonce(),
+                bsqChainState.getChainHeadHeight());
 
         if (timeoutTimer == null) {
             timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
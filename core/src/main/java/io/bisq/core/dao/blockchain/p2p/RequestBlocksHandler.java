@@ -26,6 +26,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 @Slf4j
 public class RequestBlocksHandler implements MessageListener {
     private static final long TIMEOUT = 120;
+    // We request the blocks in pages so we don't need to hold the whole chain in one message
+    private static final int BLOCKS_PER_REQUEST = 500;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -80,7 +82,7 @@ public class RequestBlocksHandler implements MessageListener {
         this.peersNodeAddress = nodeAddress;
 
         if (!stopped) {
-            GetBsqBlocksRequest getBsqBlocksRequest = new GetBsqBlocksRequest(startBlockHeight, nonce);
+            GetBsqBlocksRequest getBsqBlocksRequest = new GetBsqBlocksRequest(startBlockHeight, BLOCKS_PER_REQUEST, nonce);
 
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -141,7 +143,7 @@ public class RequestBlocksHandler implements MessageListener {
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof GetBsqBlocksResponse) {
             if (connection.getPeersNodeAddressOptional().isPresent() && connection.getPeersNodeAddressOptional().get().equals(peersNodeAddress)) {
-                Log.traceCall(networkEnvelop.toString() + "\n\tconnection=" + connection);
+                Log.traceCall(() -> networkEnvelop.toString() + "\n\tconnection=" + connection);
                 if (!stopped) {
                     GetBsqBlocksResponse getBsqBlocksResponse = (GetBsqBlocksResponse) networkEnvelop;
                     if (getBsqBlocksResponse.getRequestNonce() == nonce) {
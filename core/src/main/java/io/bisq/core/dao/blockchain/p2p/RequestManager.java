@@ -117,6 +117,15 @@ public class RequestManager implements MessageListener, ConnectionListener, Peer
         }
     }
 
+    // Called at a re-org. The blocks of the requests in flight would not connect to the reverted chain state, so we drop
+    // their responses and accept a lower start height at the next request.
+    public void cancelBlockRequests() {
+        Log.traceCall();
+        stopRetryTimer();
+        closeAllHandlers();
+        lastReceivedBlockHeight = 0;
+    }
+
     public void publishNewBlock(BsqBlock bsqBlock) {
         log.info("Publish new block at height={} and block hash={}", bsqBlock.getHeight(), bsqBlock.getHash());
         final NewBsqBlockBroadcastMessage newBsqBlockBroadcastMessage = new NewBsqBlockBroadcastMessage(bsqBlock);
@@ -193,7 +202,7 @@ public class RequestManager implements MessageListener, ConnectionListener, Peer
     @Override
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof GetBsqBlocksRequest) {
-            Log.traceCall(networkEnvelop.toString() + "\n\tconnection=" + connection);
+            Log.traceCall(() -> networkEnvelop.toString() + "\n\tconnection=" + connection);
             if (!stopped) {
                 if (peerManager.isSeedNode(connection))
                     connection.setPeerType(Connection.PeerType.SEED_NODE);
@@ -17,10 +17,12 @@ import java.util.List;
 @Getter
 public final class GetBsqBlocksRequest extends NetworkEnvelope implements DirectMessage, CapabilityRequiringPayload {
     private final int fromBlockHeight;
+    // Max. number of blocks in the response. 0 means all blocks (requests of old clients).
+    private final int maxBlocks;
     private final int nonce;
 
-    public GetBsqBlocksRequest(int fromBlockHeight, int nonce) {
-        this(fromBlockHeight, nonce, Version.getP2PMessageVersion());
+    public GetBsqBlocksRequest(int fromBlockHeight, int maxBlocks, int nonce) {
+        this(fromBlockHeight, maxBlocks, nonce, Version.getP2PMessageVersion());
     }
 
 
@@ -28,9 +30,10 @@ public final class GetBsqBlocksRequest extends NetworkEnvelope implements Direct
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private GetBsqBlocksRequest(int fromBlockHeight, int nonce, int messageVersion) {
+    private GetBsqBlocksRequest(int fromBlockHeight, int maxBlocks, int nonce, int messageVersion) {
         super(messageVersion);
         this.fromBlockHeight = fromBlockHeight;
+        this.maxBlocks = maxBlocks;
         this.nonce = nonce;
     }
 
@@ -39,12 +42,13 @@ public final class GetBsqBlocksRequest extends NetworkEnvelope implements Direct
         return getNetworkEnvelopeBuilder()
                 .setGetBsqBlocksRequest(PB.GetBsqBlocksRequest.newBuilder()
                         .setFromBlockHeight(fromBlockHeight)
+                        .setMaxBlocks(maxBlocks)
                         .setNonce(nonce))
                 .build();
     }
 
     public static NetworkEnvelope fromProto(PB.GetBsqBlocksRequest proto, int messageVersion) {
-        return new GetBsqBlocksRequest(proto.getFromBlockHeight(), proto.getNonce(), messageVersion);
+        return new GetBsqBlocksRequest(proto.getFromBlockHeight(), proto.getMaxBlocks(), proto.getNonce(), messageVersion);
     }
 
     @Override
@@ -18,9 +18,11 @@ import java.util.stream.Collectors;
 public final class GetBsqBlocksResponse extends NetworkEnvelope implements DirectMessage, ExtendedDataSizePermission {
     private final List<BsqBlock> bsqBlocks;
     private final int requestNonce;
+    // Chain head of the peer at the time of the response. 0 if sent by an old peer which always sends all blocks.
+    private final int chainHeadHeight;
 
-    public GetBsqBlocksResponse(List<BsqBlock> bsqBlocks, int requestNonce) {
-        this(bsqBlocks, requestNonce, Version.getP2PMessageVersion());
+    public GetBsqBlocksResponse(List<BsqBlock> bsqBlocks, int requestNonce, int chainHeadHeight) {
+        this(bsqBlocks, requestNonce, chainHeadHeight, Version.getP2PMessageVersion());
     }
 
 
@@ -28,10 +30,11 @@ public final class GetBsqBlocksResponse extends NetworkEnvelope implements Direc
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private GetBsqBlocksResponse(List<BsqBlock> bsqBlocks, int requestNonce, int messageVersion) {
+    private GetBsqBlocksResponse(List<BsqBlock> bsqBlocks, int requestNonce, int chainHeadHeight, int messageVersion) {
         super(messageVersion);
         this.bsqBlocks = bsqBlocks;
         this.requestNonce = requestNonce;
+        this.chainHeadHeight = chainHeadHeight;
     }
 
     @Override
@@ -41,7 +44,8 @@ public final class GetBsqBlocksResponse extends NetworkEnvelope implements Direc
                         .addAllBsqBlocks(bsqBlocks.stream()
                                 .map(BsqBlock::toProtoMessage)
                                 .collect(Collectors.toList()))
-                        .setRequestNonce(requestNonce))
+                        .setRequestNonce(requestNonce)
+                        .setChainHeadHeight(chainHeadHeight))
                 .build();
     }
 
@@ -52,6 +56,21 @@ public final class GetBsqBlocksResponse extends NetworkEnvelope implements Direc
                         .map(BsqBlock::fromProto)
                         .collect(Collectors.toList()),
                 proto.getRequestNonce(),
+                proto.getChainHeadHeight(),
                 messageVersion);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The blocks got paged and the peer has more blocks after the last one
+    public boolean hasMoreBlocks() {
+        return !bsqBlocks.isEmpty() && getLastBlockHeight() < chainHeadHeight;
+    }
+
+    public int getLastBlockHeight() {
+        return bsqBlocks.isEmpty() ? 0 : bsqBlocks.get(bsqBlocks.size() - 1).getHeight();
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.blockchain.parse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.bisq.core.dao.blockchain.exceptions.BsqBlockchainException;
+import io.bisq.core.dao.blockchain.vo.Tx;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Requests blocks with their txs ahead of the parser.
+// Up to maxBlocksInFlight blocks are requested and decoded in parallel. The txs of a block are requested with JSON-RPC
+// batch requests. The parser takes the blocks strictly in order of height, so validation is not affected.
+// take and close must be called from the same thread.
+@Slf4j
+class BlockPrefetcher implements AutoCloseable {
+    // Bitcoin Core uses 4 threads for RPC requests by default (rpcthreads)
+    static final int NUM_THREADS = 4;
+    private static final int MAX_BLOCKS_IN_FLIGHT = 16;
+    private static final int TX_BATCH_SIZE = 100;
+
+    @Value
+    static class PrefetchedBlock {
+        private final int height;
+        private final String hash;
+        @Nullable
+        private final String previousBlockHash;
+        private final List<Tx> txs;
+    }
+
+    private final JsonRpcBatchClient client;
+    private final int chainHeadHeight;
+    private final int maxBlocksInFlight;
+    private final int txBatchSize;
+    private final boolean dumpBlockchainData;
+    private final ListeningExecutorService executor;
+    private final Map<Integer, ListenableFuture<PrefetchedBlock>> futuresByHeight = new HashMap<>();
+    private int nextHeightToRequest;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BlockPrefetcher(JsonRpcBatchClient client, int startBlockHeight, int chainHeadHeight, boolean dumpBlockchainData) {
+        this(client, startBlockHeight, chainHeadHeight, NUM_THREADS, MAX_BLOCKS_IN_FLIGHT, TX_BATCH_SIZE,
+                dumpBlockchainData);
+    }
+
+    BlockPrefetcher(JsonRpcBatchClient client,
+                    int startBlockHeight,
+                    int chainHeadHeight,
+                    int numThreads,
+                    int maxBlocksInFlight,
+                    int txBatchSize,
+                    boolean dumpBlockchainData) {
+        this.client = client;
+        this.chainHeadHeight = chainHeadHeight;
+        this.maxBlocksInFlight = maxBlocksInFlight;
+        this.txBatchSize = txBatchSize;
+        this.dumpBlockchainData = dumpBlockchainData;
+        nextHeightToRequest = startBlockHeight;
+        executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(numThreads, new ThreadFactoryBuilder()
+                .setNameFormat("BlockPrefetcher-%d")
+                .setDaemon(true)
+                .build()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Blocks until the block at blockHeight is available. Needs to be called with increasing heights.
+    PrefetchedBlock take(int blockHeight) throws BsqBlockchainException {
+        checkArgument(blockHeight <= chainHeadHeight, "blockHeight must not be above chainHeadHeight");
+        while (nextHeightToRequest <= chainHeadHeight && nextHeightToRequest < blockHeight + maxBlocksInFlight) {
+            final int height = nextHeightToRequest++;
+            futuresByHeight.put(height, executor.submit(() -> requestBlock(height)));
+        }
+
+        final ListenableFuture<PrefetchedBlock> future = futuresByHeight.remove(blockHeight);
+        checkArgument(future != null, "Block at height " + blockHeight + " was not requested");
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BsqBlockchainException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BsqBlockchainException)
+                throw (BsqBlockchainException) e.getCause();
+            throw new BsqBlockchainException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        futuresByHeight.values().forEach(future -> future.cancel(true));
+        futuresByHeight.clear();
+        executor.shutdownNow();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private PrefetchedBlock requestBlock(int blockHeight) throws BsqBlockchainException {
+        final String blockHash = client.call("getblockhash", blockHeight).asText();
+        final JsonNode block = client.call("getblock", blockHash);
+        final List<String> txIds = new ArrayList<>();
+        block.path("tx").forEach(txId -> txIds.add(txId.asText()));
+
+        final List<Tx> txs = new ArrayList<>(txIds.size());
+        for (List<String> batch : Lists.partition(txIds, txBatchSize)) {
+            final List<List<Object>> paramsList = new ArrayList<>(batch.size());
+            batch.forEach(txId -> paramsList.add(Arrays.asList(txId, 1)));
+            for (JsonNode rawTransaction : client.callBatch("getrawtransaction", paramsList))
+                txs.add(RpcService.toTx(rawTransaction, blockHeight, dumpBlockchainData));
+        }
+        log.debug("Prefetched block at height {} with {} txs", blockHeight, txs.size());
+        final JsonNode previousBlockHash = block.get("previousblockhash");
+        return new PrefetchedBlock(blockHeight,
+                block.get("hash").asText(),
+                previousBlockHash != null ? previousBlockHash.asText() : null,
+                txs);
+    }
+}
@@ -23,6 +23,8 @@ import io.bisq.common.proto.persistable.PersistableEnvelope;
 import io.bisq.common.proto.persistable.PersistenceProtoResolver;
 import io.bisq.common.storage.Storage;
 import io.bisq.common.util.FunctionalReadWriteLock;
+import io.bisq.common.util.PersistentHashMap;
+import io.bisq.common.util.PersistentVector;
 import io.bisq.common.util.Tuple2;
 import io.bisq.core.app.BisqEnvironment;
 import io.bisq.core.dao.blockchain.exceptions.BlockNotConnectingException;
@@ -43,6 +45,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 // Represents mutable state of BSQ chain data
 // We get accessed the data from different threads so we need to make sure it is thread safe.
+// The parser changes the state under the write lock. Blocks, txs and unspent outputs are held in persistent data
+// structures, so after each added block we can publish the state as an immutable version at no cost. The public read
+// methods and getClone use the published version and don't need the lock.
 @Slf4j
 public class BsqChainState implements PersistableEnvelope {
 
@@ -94,9 +99,9 @@ public class BsqChainState implements PersistableEnvelope {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     // Persisted data
-    private final LinkedList<BsqBlock> bsqBlocks;
-    private final Map<String, Tx> txMap;
-    private final Map<TxIdIndexTuple, TxOutput> unspentTxOutputsMap;
+    private PersistentVector<BsqBlock> bsqBlocks;
+    private PersistentHashMap<String, Tx> txMap;
+    private PersistentHashMap<TxIdIndexTuple, TxOutput> unspentTxOutputsMap;
     private final String genesisTxId;
     private final int genesisBlockHeight;
     private int chainHeadHeight = 0;
@@ -113,6 +118,12 @@ public class BsqChainState implements PersistableEnvelope {
     @Nullable
     transient private BsqChainState snapshotCandidate;
     transient private final FunctionalReadWriteLock lock;
+    // Only txs of added blocks are indexed. Txs of the block under parsing are still changed by the parser, so we
+    // keep them in pendingTxs until the block gets added.
+    transient private ChainStateIndexes indexes = ChainStateIndexes.EMPTY;
+    transient private final Map<String, Tx> pendingTxs = new LinkedHashMap<>();
+    // State after the last added block
+    transient private volatile Version publishedVersion;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -124,9 +135,9 @@ public class BsqChainState implements PersistableEnvelope {
     public BsqChainState(PersistenceProtoResolver persistenceProtoResolver,
                          @Named(Storage.STORAGE_DIR) File storageDir) {
 
-        bsqBlocks = new LinkedList<>();
-        txMap = new HashMap<>();
-        unspentTxOutputsMap = new HashMap<>();
+        bsqBlocks = PersistentVector.empty();
+        txMap = PersistentHashMap.empty();
+        unspentTxOutputsMap = PersistentHashMap.empty();
         compensationRequestFees = new HashSet<>();
         votingFees = new HashSet<>();
 
@@ -149,15 +160,16 @@ public class BsqChainState implements PersistableEnvelope {
         }
 
         lock = new FunctionalReadWriteLock(true);
+        publishVersion();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private BsqChainState(LinkedList<BsqBlock> bsqBlocks,
-                          Map<String, Tx> txMap,
-                          Map<TxIdIndexTuple, TxOutput> unspentTxOutputsMap,
+    private BsqChainState(PersistentVector<BsqBlock> bsqBlocks,
+                          PersistentHashMap<String, Tx> txMap,
+                          PersistentHashMap<TxIdIndexTuple, TxOutput> unspentTxOutputsMap,
                           String genesisTxId,
                           int genesisBlockHeight,
                           int chainHeadHeight,
@@ -171,6 +183,27 @@ public class BsqChainState implements PersistableEnvelope {
         this.genesisTx = genesisTx;
 
         lock = new FunctionalReadWriteLock(true);
+        txMap.values().forEach(this::indexOrAddToPendingTxs);
+        publishVersion();
+
+        // not impl yet in PB
+        compensationRequestFees = new HashSet<>();
+        votingFees = new HashSet<>();
+    }
+
+    // Used for clones
+    private BsqChainState(Version version, String genesisTxId, int genesisBlockHeight) {
+        bsqBlocks = version.bsqBlocks;
+        txMap = version.txMap;
+        unspentTxOutputsMap = version.unspentTxOutputsMap;
+        indexes = version.indexes;
+        chainHeadHeight = version.chainHeadHeight;
+        genesisTx = version.genesisTx;
+        this.genesisTxId = genesisTxId;
+        this.genesisBlockHeight = genesisBlockHeight;
+
+        lock = new FunctionalReadWriteLock(true);
+        publishedVersion = version;
 
         // not impl yet in PB
         compensationRequestFees = new HashSet<>();
@@ -203,12 +236,12 @@ public class BsqChainState implements PersistableEnvelope {
     }
 
     public static PersistableEnvelope fromProto(PB.BsqChainState proto) {
-        return new BsqChainState(new LinkedList<>(proto.getBsqBlocksList().stream()
+        return new BsqChainState(PersistentVector.copyOf(proto.getBsqBlocksList().stream()
                 .map(BsqBlock::fromProto)
                 .collect(Collectors.toList())),
-                new HashMap<>(proto.getTxMapMap().entrySet().stream()
+                PersistentHashMap.copyOf(proto.getTxMapMap().entrySet().stream()
                         .collect(Collectors.toMap(Map.Entry::getKey, v -> Tx.fromProto(v.getValue())))),
-                new HashMap<>(proto.getUnspentTxOutputsMapMap().entrySet().stream()
+                PersistentHashMap.copyOf(proto.getUnspentTxOutputsMapMap().entrySet().stream()
                         .collect(Collectors.toMap(k -> new TxIdIndexTuple(k.getKey()), v -> TxOutput.fromProto(v.getValue())))),
                 proto.getGenesisTxId(),
                 proto.getGenesisBlockHeight(),
@@ -225,22 +258,27 @@ public class BsqChainState implements PersistableEnvelope {
         lock.write(() -> {
             checkNotNull(storage, "storage must not be null");
             BsqChainState snapshot = storage.initAndGetPersistedWithFileName("BsqChainState", 100);
-            bsqBlocks.clear();
-            txMap.clear();
-            unspentTxOutputsMap.clear();
-            chainHeadHeight = 0;
-            genesisTx = null;
-
             if (snapshot != null) {
                 log.info("applySnapshot snapshot.chainHeadHeight=" + snapshot.chainHeadHeight);
-                bsqBlocks.addAll(snapshot.bsqBlocks);
-                txMap.putAll(snapshot.txMap);
-                unspentTxOutputsMap.putAll(snapshot.unspentTxOutputsMap);
+                bsqBlocks = snapshot.bsqBlocks;
+                txMap = snapshot.txMap;
+                unspentTxOutputsMap = snapshot.unspentTxOutputsMap;
                 chainHeadHeight = snapshot.chainHeadHeight;
                 genesisTx = snapshot.genesisTx;
+                indexes = snapshot.indexes;
+                pendingTxs.clear();
+                pendingTxs.putAll(snapshot.pendingTxs);
             } else {
                 log.info("Try to apply snapshot but no stored snapshot available");
+                bsqBlocks = PersistentVector.empty();
+                txMap = PersistentHashMap.empty();
+                unspentTxOutputsMap = PersistentHashMap.empty();
+                chainHeadHeight = 0;
+                genesisTx = null;
+                indexes = ChainStateIndexes.EMPTY;
+                pendingTxs.clear();
             }
+            publishVersion();
 
             printDetails();
         });
@@ -262,18 +300,20 @@ public class BsqChainState implements PersistableEnvelope {
     void addBlock(BsqBlock block) throws BlockNotConnectingException {
         try {
             lock.write2(() -> {
-                if (!bsqBlocks.contains(block)) {
-                    if (bsqBlocks.isEmpty() || (bsqBlocks.getLast().getHash().equals(block.getPreviousBlockHash()) &&
-                            bsqBlocks.getLast().getHeight() + 1 == block.getHeight())) {
-                        bsqBlocks.add(block);
+                if (!containsBlock(bsqBlocks, block)) {
+                    if (bsqBlocks.isEmpty() || (getLastBlock().getHash().equals(block.getPreviousBlockHash()) &&
+                            getLastBlock().getHeight() + 1 == block.getHeight())) {
+                        bsqBlocks = bsqBlocks.plus(block);
                         block.getTxs().stream().forEach(BsqChainState.this::addTxToMap);
                         chainHeadHeight = block.getHeight();
+                        indexPendingTxs();
+                        publishVersion();
                         maybeMakeSnapshot();
                         printDetails();
                     } else {
                         log.warn("addBlock called with a not connecting block:\n" +
                                         "height()={}, hash()={}, head.height()={}, head.hash()={}",
-                                block.getHeight(), block.getHash(), bsqBlocks.getLast().getHeight(), bsqBlocks.getLast().getHash());
+                                block.getHeight(), block.getHash(), getLastBlock().getHeight(), getLastBlock().getHash());
                         throw new BlockNotConnectingException(block);
                     }
                 } else {
@@ -291,18 +331,53 @@ public class BsqChainState implements PersistableEnvelope {
     }
 
     void addTxToMap(Tx tx) {
-        lock.write(() -> txMap.put(tx.getId(), tx));
+        lock.write(() -> {
+            txMap = txMap.plus(tx.getId(), tx);
+            indexOrAddToPendingTxs(tx);
+        });
     }
 
     void addUnspentTxOutput(TxOutput txOutput) {
         lock.write(() -> {
             checkArgument(txOutput.isVerified(), "txOutput must be verified at addUnspentTxOutput");
-            unspentTxOutputsMap.put(txOutput.getTxIdIndexTuple(), txOutput);
+            unspentTxOutputsMap = unspentTxOutputsMap.plus(txOutput.getTxIdIndexTuple(), txOutput);
         });
     }
 
-    void removeUnspentTxOutput(TxOutput txOutput) {
-        lock.write(() -> unspentTxOutputsMap.remove(txOutput.getTxIdIndexTuple()));
+    /**
+     * Removes the output from the unspent outputs and marks it as spent.
+     * Outputs of txs in already added blocks are part of published versions, so we must not change them. In that case
+     * we replace the output, its tx and its block by copies.
+     *
+     * @return The spent output which should be used by the caller instead of txOutput
+     */
+    TxOutput spendTxOutput(TxOutput txOutput, SpentInfo spentInfo) {
+        return lock.write(() -> {
+            unspentTxOutputsMap = unspentTxOutputsMap.minus(txOutput.getTxIdIndexTuple());
+            if (txOutput.getBlockHeight() > chainHeadHeight || bsqBlocks.isEmpty()) {
+                // Output of a tx in the block we are parsing, which is not published yet
+                txOutput.setUnspent(false);
+                txOutput.setSpentInfo(spentInfo);
+                return txOutput;
+            }
+
+            final TxOutput spentTxOutput = txOutput.cloneAsSpent(spentInfo);
+            final Tx tx = txMap.get(txOutput.getTxId());
+            checkNotNull(tx, "tx of txOutput must be in txMap");
+            final Tx clonedTx = tx.cloneWithOutput(spentTxOutput);
+            txMap = txMap.plus(clonedTx.getId(), clonedTx);
+            if (genesisTx != null && genesisTx.getId().equals(clonedTx.getId()))
+                genesisTx = clonedTx;
+            indexes = indexes.plusSpentTxOutput(spentTxOutput, clonedTx);
+
+            final int blockIndex = getBlockIndex(bsqBlocks, clonedTx.getBlockHeight());
+            if (blockIndex >= 0) {
+                final BsqBlock block = bsqBlocks.get(blockIndex);
+                checkArgument(block.getHeight() == clonedTx.getBlockHeight(), "blocks must be connected");
+                bsqBlocks = bsqBlocks.with(blockIndex, block.cloneWithTx(clonedTx));
+            }
+            return spentTxOutput;
+        });
     }
 
     void setGenesisTx(Tx tx) {
@@ -322,82 +397,106 @@ public class BsqChainState implements PersistableEnvelope {
         return lock.read(() -> genesisBlockHeight);
     }
 
+    // Returns the state of the last added block. As the data structures are immutable that does not copy any data.
     public BsqChainState getClone() {
-        return getClone(this);
-    }
-
-    public BsqChainState getClone(BsqChainState bsqChainState) {
-        return lock.read(() -> (BsqChainState) BsqChainState.fromProto(bsqChainState.getBsqChainStateBuilder().build()));
+        return new BsqChainState(publishedVersion, genesisTxId, genesisBlockHeight);
     }
 
     public boolean containsBlock(BsqBlock bsqBlock) {
-        return lock.read(() -> bsqBlocks.contains(bsqBlock));
+        return containsBlock(publishedVersion.bsqBlocks, bsqBlock);
     }
 
     Optional<TxOutput> getUnspentTxOutput(TxIdIndexTuple txIdIndexTuple) {
-        return lock.read(() -> unspentTxOutputsMap.entrySet().stream()
-                .filter(e -> e.getKey().equals(txIdIndexTuple))
-                .map(Map.Entry::getValue).findAny());
+        return lock.read(() -> Optional.ofNullable(unspentTxOutputsMap.get(txIdIndexTuple)));
     }
 
     public boolean isTxOutputSpendable(String txId, int index) {
-        return lock.read(() -> getSpendableTxOutput(txId, index).isPresent());
+        final TxOutput txOutput = publishedVersion.unspentTxOutputsMap.get(new TxIdIndexTuple(txId, index));
+        return txOutput != null && isTxOutputMature(txOutput);
     }
 
     public boolean hasTxBurntFee(String txId) {
-        return lock.read(() -> getTx(txId).map(Tx::getBurntFee).filter(fee -> fee > 0).isPresent());
+        return getPublishedTx(txId).map(Tx::getBurntFee).filter(fee -> fee > 0).isPresent();
     }
 
     public Optional<TxType> getTxType(String txId) {
-        return lock.read(() -> getTx(txId).map(Tx::getTxType));
+        return getPublishedTx(txId).map(Tx::getTxType);
     }
 
     public boolean containsTx(String txId) {
-        return lock.read(() -> getTx(txId).isPresent());
+        return getPublishedTx(txId).isPresent();
     }
 
     public int getChainHeadHeight() {
-        return lock.read(() -> chainHeadHeight);
+        return publishedVersion.chainHeadHeight;
     }
 
     // Only used for Json Exporter
     public Map<String, Tx> getTxMap() {
-        return lock.read(() -> txMap);
+        return publishedVersion.txMap;
     }
 
     public List<BsqBlock> getResettedBlocksFrom(int fromBlockHeight) {
-        return lock.read(() -> {
-            BsqChainState clone = getClone();
-            List<BsqBlock> filtered = clone.bsqBlocks.stream()
-                    .filter(block -> block.getHeight() >= fromBlockHeight)
-                    .collect(Collectors.toList());
-            filtered.stream().forEach(BsqBlock::reset);
-            return filtered;
-        });
+        return getResettedBlocksFrom(fromBlockHeight, Integer.MAX_VALUE);
+    }
+
+    // Returns at most maxBlocks blocks starting at fromBlockHeight
+    public List<BsqBlock> getResettedBlocksFrom(int fromBlockHeight, int maxBlocks) {
+        // We must not change the blocks of the published version, so we reset copies. Only the requested blocks get
+        // visited.
+        final PersistentVector<BsqBlock> blocks = publishedVersion.bsqBlocks;
+        final int startIndex = blocks.isEmpty() ? 0 : Math.max(0, fromBlockHeight - blocks.get(0).getHeight());
+        final int endIndex = (int) Math.min(blocks.size(), (long) startIndex + maxBlocks);
+        List<BsqBlock> filtered = new ArrayList<>(Math.max(0, endIndex - startIndex));
+        for (int i = startIndex; i < endIndex; i++)
+            filtered.add(BsqBlock.fromProto(blocks.get(i).toProtoMessage()));
+        filtered.stream().forEach(BsqBlock::reset);
+        return filtered;
     }
 
     public Coin getTotalBurntFee() {
-        return lock.read(() -> Coin.valueOf(getTxMap().entrySet().stream().mapToLong(e -> e.getValue().getBurntFee()).sum()));
+        return Coin.valueOf(publishedVersion.indexes.getTotalBurntFee());
     }
 
     public Set<Tx> getFeeTransactions() {
-        return lock.read(() -> getTxMap().entrySet().stream().filter(e -> e.getValue().getBurntFee() > 0).map(Map.Entry::getValue).collect(Collectors.toSet()));
+        return new HashSet<>(publishedVersion.indexes.getFeeTxMap().values());
+    }
+
+    public int getNumFeeTransactions() {
+        return publishedVersion.indexes.getFeeTxMap().size();
     }
 
     public Coin getIssuedAmount() {
-        return lock.read(() -> BsqChainState.GENESIS_TOTAL_SUPPLY);
+        return BsqChainState.GENESIS_TOTAL_SUPPLY;
     }
 
+    // Only verified outputs are in the unspentTxOutputsMap
     public Set<TxOutput> getUnspentTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream().filter(e -> e.isVerified() && e.isUnspent()).collect(Collectors.toSet()));
+        return new HashSet<>(publishedVersion.unspentTxOutputsMap.values());
+    }
+
+    public int getNumUnspentTxOutputs() {
+        return publishedVersion.unspentTxOutputsMap.size();
     }
 
     public Set<TxOutput> getSpentTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream().filter(e -> e.isVerified() && !e.isUnspent()).collect(Collectors.toSet()));
+        return new HashSet<>(publishedVersion.indexes.getSpentTxOutputsMap().values());
+    }
+
+    public int getNumSpentTxOutputs() {
+        return publishedVersion.indexes.getSpentTxOutputsMap().size();
+    }
+
+    public Set<TxOutput> getTxOutputsByType(TxOutputType txOutputType) {
+        return new HashSet<>(publishedVersion.indexes.getTxOutputsByType(txOutputType));
     }
 
     public Set<Tx> getTransactions() {
-        return lock.read(() -> getTxMap().entrySet().stream().map(Map.Entry::getValue).collect(Collectors.toSet()));
+        return new HashSet<>(getTxMap().values());
+    }
+
+    public int getNumTransactions() {
+        return getTxMap().size();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -449,17 +548,13 @@ public class BsqChainState implements PersistableEnvelope {
     }
 
     boolean existsCompensationRequestBtcAddress(String btcAddress) {
-        return lock.read(() -> getAllTxOutputs().stream()
-                .filter(txOutput -> txOutput.isCompensationRequestBtcOutput() &&
-                        txOutput.getAddress().equals(btcAddress))
-                .findAny()
-                .isPresent());
+        return lock.read(() -> getTxOutputsByAddress(btcAddress).stream()
+                .anyMatch(TxOutput::isCompensationRequestBtcOutput));
     }
 
     Set<TxOutput> findSponsoringBtcOutputsWithSameBtcAddress(String btcAddress) {
-        return lock.read(() -> getAllTxOutputs().stream()
-                .filter(txOutput -> txOutput.isSponsoringBtcOutput() &&
-                        txOutput.getAddress().equals(btcAddress))
+        return lock.read(() -> getTxOutputsByAddress(btcAddress).stream()
+                .filter(TxOutput::isSponsoringBtcOutput)
                 .collect(Collectors.toSet()));
     }
 
@@ -474,8 +569,62 @@ public class BsqChainState implements PersistableEnvelope {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private Optional<Tx> getTx(String txId) {
-        return lock.read(() -> txMap.get(txId) != null ? Optional.of(txMap.get(txId)) : Optional.<Tx>empty());
+    // Blocks are connected, so the index of a block is its height minus the height of the first block.
+    // Returns -1 if there is no block at that height.
+    private static int getBlockIndex(PersistentVector<BsqBlock> blocks, int height) {
+        if (blocks.isEmpty())
+            return -1;
+        final int index = height - blocks.get(0).getHeight();
+        return index >= 0 && index < blocks.size() ? index : -1;
+    }
+
+    // We compare only the hash as the txs of a block we have added might have been changed by the parser (e.g. the
+    // spent info of the outputs).
+    private static boolean containsBlock(PersistentVector<BsqBlock> blocks, BsqBlock block) {
+        final int index = getBlockIndex(blocks, block.getHeight());
+        return index >= 0 && blocks.get(index).getHash().equals(block.getHash());
+    }
+
+    private Optional<Tx> getPublishedTx(String txId) {
+        return Optional.ofNullable(publishedVersion.txMap.get(txId));
+    }
+
+    // Needs to be called with the lock
+    private List<TxOutput> getTxOutputsByAddress(String address) {
+        final List<TxOutput> txOutputs = new ArrayList<>(indexes.getTxOutputsByAddress(address));
+        pendingTxs.values().forEach(tx -> tx.getOutputs().stream()
+                .filter(txOutput -> address.equals(txOutput.getAddress()))
+                .forEach(txOutputs::add));
+        return txOutputs;
+    }
+
+    // Needs to be called with the write lock or from the constructor
+    private void indexOrAddToPendingTxs(Tx tx) {
+        if (tx.getBlockHeight() > chainHeadHeight)
+            pendingTxs.put(tx.getId(), tx);
+        else
+            indexes = indexes.plusTx(tx);
+    }
+
+    // Needs to be called with the write lock
+    private void indexPendingTxs() {
+        final Iterator<Tx> iterator = pendingTxs.values().iterator();
+        while (iterator.hasNext()) {
+            final Tx tx = iterator.next();
+            if (tx.getBlockHeight() <= chainHeadHeight) {
+                indexes = indexes.plusTx(tx);
+                iterator.remove();
+            }
+        }
+    }
+
+    private BsqBlock getLastBlock() {
+        return bsqBlocks.get(bsqBlocks.size() - 1);
+    }
+
+    // Needs to be called with the write lock or from the constructor
+    private void publishVersion() {
+        publishedVersion = new Version(bsqBlocks, txMap, unspentTxOutputsMap, indexes, chainHeadHeight, genesisTx);
     }
 
     private boolean isSnapshotHeight(int height) {
@@ -484,32 +633,23 @@ public class BsqChainState implements PersistableEnvelope {
 
     private void maybeMakeSnapshot() {
         lock.read(() -> {
-            if (isSnapshotHeight(getChainHeadHeight()) &&
+            if (isSnapshotHeight(chainHeadHeight) &&
                     (snapshotCandidate == null ||
-                            snapshotCandidate.chainHeadHeight != getChainHeadHeight())) {
+                            snapshotCandidate.chainHeadHeight != chainHeadHeight)) {
                 // At trigger event we store the latest snapshotCandidate to disc
                 if (snapshotCandidate != null) {
-                    // We clone because storage is in a threaded context
-                    final BsqChainState cloned = getClone(snapshotCandidate);
+                    // The snapshotCandidate is immutable so we can pass it to the storage thread without cloning
                     checkNotNull(storage, "storage must nto be null");
-                    storage.queueUpForSave(cloned);
-                    // dont access cloned anymore with methods as locks are transient!
-                    log.info("Saved snapshotCandidate to Disc at height " + cloned.chainHeadHeight);
+                    storage.queueUpForSave(snapshotCandidate);
+                    log.info("Saved snapshotCandidate to Disc at height " + snapshotCandidate.chainHeadHeight);
                 }
                 // Now we clone and keep it in memory for the next trigger
-                snapshotCandidate = getClone(this);
-                // dont access cloned anymore with methods as locks are transient!
+                snapshotCandidate = getClone();
                 log.debug("Cloned new snapshotCandidate at height " + snapshotCandidate.chainHeadHeight);
             }
         });
     }
 
-    private Set<TxOutput> getAllTxOutputs() {
-        return txMap.values().stream()
-                .flatMap(tx -> tx.getOutputs().stream())
-                .collect(Collectors.toSet());
-    }
-
     private void printDetails() {
         log.debug("\nchainHeadHeight={}\n" +
                         "    blocks.size={}\n" +
@@ -517,12 +657,40 @@ public class BsqChainState implements PersistableEnvelope {
                         "    unspentTxOutputsMap.size={}\n" +
                         "    compensationRequestFees.size={}\n" +
                         "    votingFees.size={}\n" +
-                getChainHeadHeight(),
+                chainHeadHeight,
                 bsqBlocks.size(),
                 txMap.size(),
                 unspentTxOutputsMap.size(),
                 compensationRequestFees.size(),
                 votingFees.size());
     }
-}
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class Version {
+        private final PersistentVector<BsqBlock> bsqBlocks;
+        private final PersistentHashMap<String, Tx> txMap;
+        private final PersistentHashMap<TxIdIndexTuple, TxOutput> unspentTxOutputsMap;
+        private final ChainStateIndexes indexes;
+        private final int chainHeadHeight;
+        @Nullable
+        private final Tx genesisTx;
+
+        private Version(PersistentVector<BsqBlock> bsqBlocks,
+                        PersistentHashMap<String, Tx> txMap,
+                        PersistentHashMap<TxIdIndexTuple, TxOutput> unspentTxOutputsMap,
+                        ChainStateIndexes indexes,
+                        int chainHeadHeight,
+                        @Nullable Tx genesisTx) {
+            this.bsqBlocks = bsqBlocks;
+            this.txMap = txMap;
+            this.unspentTxOutputsMap = unspentTxOutputsMap;
+            this.indexes = indexes;
+            this.chainHeadHeight = chainHeadHeight;
+            this.genesisTx = genesisTx;
+        }
+    }
+}
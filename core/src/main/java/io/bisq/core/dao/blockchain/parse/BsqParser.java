@@ -102,6 +102,15 @@ public class BsqParser {
                      Consumer<BsqBlock> newBlockHandler)
             throws BsqBlockchainException, BlockNotConnectingException {
         try {
+            if (rpcService.isPipelinedSync()) {
+                parseBlocksPipelined(startBlockHeight,
+                        chainHeadHeight,
+                        genesisBlockHeight,
+                        genesisTxId,
+                        newBlockHandler);
+                return;
+            }
+
             for (int blockHeight = startBlockHeight; blockHeight <= chainHeadHeight; blockHeight++) {
                 long startTs = System.currentTimeMillis();
                 Block btcdBlock = rpcService.requestBlock(blockHeight);
@@ -127,6 +136,41 @@ public class BsqParser {
         }
     }
 
+    // Blocks and txs are requested and decoded in parallel by the BlockPrefetcher, but we parse the blocks in order
+    private void parseBlocksPipelined(int startBlockHeight,
+                                      int chainHeadHeight,
+                                      int genesisBlockHeight,
+                                      String genesisTxId,
+                                      Consumer<BsqBlock> newBlockHandler)
+            throws BsqBlockchainException, BlockNotConnectingException {
+        try (BlockPrefetcher blockPrefetcher = rpcService.createBlockPrefetcher(startBlockHeight, chainHeadHeight)) {
+            for (int blockHeight = startBlockHeight; blockHeight <= chainHeadHeight; blockHeight++) {
+                long startTs = System.currentTimeMillis();
+                final BlockPrefetcher.PrefetchedBlock prefetchedBlock = blockPrefetcher.take(blockHeight);
+                final List<Tx> txList = new ArrayList<>(prefetchedBlock.getTxs());
+                if (requestFee) {
+                    for (Tx tx : txList) {
+                        rpcService.requestFees(tx.getId(), blockHeight, feesByBlock);
+                    }
+                }
+
+                List<Tx> bsqTxsInBlock = findBsqTxs(txList,
+                        blockHeight,
+                        genesisBlockHeight,
+                        genesisTxId);
+                final BsqBlock bsqBlock = new BsqBlock(prefetchedBlock.getHeight(),
+                        prefetchedBlock.getHash(),
+                        prefetchedBlock.getPreviousBlockHash(),
+                        ImmutableList.copyOf(bsqTxsInBlock));
+
+                bsqChainState.addBlock(bsqBlock);
+                newBlockHandler.accept(bsqBlock);
+                log.info("parseBlock took {} ms at blockHeight {}; bsqTxsInBlock.size={}",
+                        System.currentTimeMillis() - startTs, blockHeight, bsqTxsInBlock.size());
+            }
+        }
+    }
+
     private List<Tx> findBsqTxsInBlock(Block btcdBlock,
                                        int genesisBlockHeight,
                                        String genesisTxId)
@@ -137,20 +181,26 @@ public class BsqParser {
 
         // check if the new block is the same chain we have built on.
         List<Tx> txList = new ArrayList<>();
-        // We use a list as we want to maintain sorting of tx intra-block dependency
-        List<Tx> bsqTxsInBlock = new ArrayList<>();
         // We add all transactions to the block
         long startTs = System.currentTimeMillis();
         for (String txId : btcdBlock.getTx()) {
             if (requestFee)
                 rpcService.requestFees(txId, blockHeight, feesByBlock);
 
-            final Tx tx = rpcService.requestTx(txId, blockHeight);
-            txList.add(tx);
-            checkForGenesisTx(genesisBlockHeight, genesisTxId, blockHeight, bsqTxsInBlock, tx);
+            txList.add(rpcService.requestTx(txId, blockHeight));
         }
         log.info("Requesting {} transactions took {} ms",
                 btcdBlock.getTx().size(), System.currentTimeMillis() - startTs);
+        return findBsqTxs(txList, blockHeight, genesisBlockHeight, genesisTxId);
+    }
+
+    private List<Tx> findBsqTxs(List<Tx> txList,
+                                int blockHeight,
+                                int genesisBlockHeight,
+                                String genesisTxId) {
+        // We use a list as we want to maintain sorting of tx intra-block dependency
+        List<Tx> bsqTxsInBlock = new ArrayList<>();
+        txList.forEach(tx -> checkForGenesisTx(genesisBlockHeight, genesisTxId, blockHeight, bsqTxsInBlock, tx));
         // Worst case is that all txs in a block are depending on another, so only one get resolved at each iteration.
         // Min tx size is 189 bytes (normally about 240 bytes), 1 MB can contain max. about 5300 txs (usually 2000).
         // Realistically we don't expect more then a few recursive calls.
@@ -282,10 +332,9 @@ public class BsqParser {
             TxInput input = tx.getInputs().get(inputIndex);
             Optional<TxOutput> spendableTxOutput = bsqChainState.getSpendableTxOutput(input.getTxIdIndexTuple());
             if (spendableTxOutput.isPresent()) {
-                final TxOutput spentTxOutput = spendableTxOutput.get();
-                spentTxOutput.setUnspent(false);
-                bsqChainState.removeUnspentTxOutput(spentTxOutput);
-                spentTxOutput.setSpentInfo(new SpentInfo(blockHeight, tx.getId(), inputIndex));
+                // Outputs of published blocks are not changed but replaced by a spent copy
+                final TxOutput spentTxOutput = bsqChainState.spendTxOutput(spendableTxOutput.get(),
+                        new SpentInfo(blockHeight, tx.getId(), inputIndex));
                 input.setConnectedTxOutput(spentTxOutput);
                 availableValue = availableValue + spentTxOutput.getValue();
             }
@@ -0,0 +1,137 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.blockchain.parse;
+
+import io.bisq.common.util.PersistentHashMap;
+import io.bisq.core.dao.blockchain.vo.Tx;
+import io.bisq.core.dao.blockchain.vo.TxIdIndexTuple;
+import io.bisq.core.dao.blockchain.vo.TxOutput;
+import io.bisq.core.dao.blockchain.vo.TxOutputType;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+
+// Immutable indexes of the txs in BsqChainState, so queries by address, output type or spent state and the burnt fee
+// don't need to iterate all txs. Based on persistent maps, so a changed copy is cheap and old versions can be shared
+// with other threads.
+final class ChainStateIndexes {
+    static final ChainStateIndexes EMPTY = new ChainStateIndexes(PersistentHashMap.empty(),
+            PersistentHashMap.empty(),
+            PersistentHashMap.empty(),
+            PersistentHashMap.empty(),
+            0);
+
+    private final PersistentHashMap<String, PersistentHashMap<TxIdIndexTuple, TxOutput>> txOutputsByAddress;
+    private final PersistentHashMap<TxOutputType, PersistentHashMap<TxIdIndexTuple, TxOutput>> txOutputsByType;
+    private final PersistentHashMap<TxIdIndexTuple, TxOutput> spentTxOutputsMap;
+    private final PersistentHashMap<String, Tx> feeTxMap;
+    private final long totalBurntFee;
+
+    private ChainStateIndexes(PersistentHashMap<String, PersistentHashMap<TxIdIndexTuple, TxOutput>> txOutputsByAddress,
+                              PersistentHashMap<TxOutputType, PersistentHashMap<TxIdIndexTuple, TxOutput>> txOutputsByType,
+                              PersistentHashMap<TxIdIndexTuple, TxOutput> spentTxOutputsMap,
+                              PersistentHashMap<String, Tx> feeTxMap,
+                              long totalBurntFee) {
+        this.txOutputsByAddress = txOutputsByAddress;
+        this.txOutputsByType = txOutputsByType;
+        this.spentTxOutputsMap = spentTxOutputsMap;
+        this.feeTxMap = feeTxMap;
+        this.totalBurntFee = totalBurntFee;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Update
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The tx must not be changed anymore after it got indexed. Adding the same tx again replaces the old entries.
+    ChainStateIndexes plusTx(Tx tx) {
+        PersistentHashMap<String, PersistentHashMap<TxIdIndexTuple, TxOutput>> txOutputsByAddress = this.txOutputsByAddress;
+        PersistentHashMap<TxOutputType, PersistentHashMap<TxIdIndexTuple, TxOutput>> txOutputsByType = this.txOutputsByType;
+        PersistentHashMap<TxIdIndexTuple, TxOutput> spentTxOutputsMap = this.spentTxOutputsMap;
+        for (TxOutput txOutput : tx.getOutputs()) {
+            txOutputsByAddress = plus(txOutputsByAddress, txOutput.getAddress(), txOutput);
+            txOutputsByType = plus(txOutputsByType, txOutput.getTxOutputType(), txOutput);
+            if (txOutput.isVerified() && !txOutput.isUnspent())
+                spentTxOutputsMap = spentTxOutputsMap.plus(txOutput.getTxIdIndexTuple(), txOutput);
+        }
+
+        PersistentHashMap<String, Tx> feeTxMap = this.feeTxMap;
+        long totalBurntFee = this.totalBurntFee;
+        if (tx.getBurntFee() > 0) {
+            final Tx previous = feeTxMap.get(tx.getId());
+            totalBurntFee += tx.getBurntFee() - (previous != null ? previous.getBurntFee() : 0);
+            feeTxMap = feeTxMap.plus(tx.getId(), tx);
+        }
+        return new ChainStateIndexes(txOutputsByAddress, txOutputsByType, spentTxOutputsMap, feeTxMap, totalBurntFee);
+    }
+
+    // spentTxOutput replaces the unspent output of an indexed tx, updatedTx is the copy of the tx with that output
+    ChainStateIndexes plusSpentTxOutput(TxOutput spentTxOutput, Tx updatedTx) {
+        return new ChainStateIndexes(plus(txOutputsByAddress, spentTxOutput.getAddress(), spentTxOutput),
+                plus(txOutputsByType, spentTxOutput.getTxOutputType(), spentTxOutput),
+                spentTxOutputsMap.plus(spentTxOutput.getTxIdIndexTuple(), spentTxOutput),
+                feeTxMap.containsKey(updatedTx.getId()) ? feeTxMap.plus(updatedTx.getId(), updatedTx) : feeTxMap,
+                totalBurntFee);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Getters
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    Collection<TxOutput> getTxOutputsByAddress(String address) {
+        final PersistentHashMap<TxIdIndexTuple, TxOutput> txOutputs = txOutputsByAddress.get(address);
+        return txOutputs != null ? txOutputs.values() : Collections.emptyList();
+    }
+
+    Collection<TxOutput> getTxOutputsByType(TxOutputType txOutputType) {
+        final PersistentHashMap<TxIdIndexTuple, TxOutput> txOutputs = txOutputsByType.get(txOutputType);
+        return txOutputs != null ? txOutputs.values() : Collections.emptyList();
+    }
+
+    PersistentHashMap<TxIdIndexTuple, TxOutput> getSpentTxOutputsMap() {
+        return spentTxOutputsMap;
+    }
+
+    PersistentHashMap<String, Tx> getFeeTxMap() {
+        return feeTxMap;
+    }
+
+    long getTotalBurntFee() {
+        return totalBurntFee;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Outputs without key (e.g. no address) are not indexed
+    private static <K> PersistentHashMap<K, PersistentHashMap<TxIdIndexTuple, TxOutput>> plus(
+            PersistentHashMap<K, PersistentHashMap<TxIdIndexTuple, TxOutput>> index, @Nullable K key, TxOutput txOutput) {
+        if (key == null)
+            return index;
+
+        PersistentHashMap<TxIdIndexTuple, TxOutput> txOutputs = index.get(key);
+        if (txOutputs == null)
+            txOutputs = PersistentHashMap.empty();
+        return index.plus(key, txOutputs.plus(txOutput.getTxIdIndexTuple(), txOutput));
+    }
+}
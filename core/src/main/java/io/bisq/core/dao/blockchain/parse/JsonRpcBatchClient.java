@@ -0,0 +1,119 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.blockchain.parse;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.bisq.core.dao.blockchain.exceptions.BsqBlockchainException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Sends JSON-RPC requests to Bitcoin Core. Other than the btcd-cli4j client it supports batch requests, so we can
+// request many txs in one round trip.
+// Thread safe if the http client is thread safe.
+@Slf4j
+public class JsonRpcBatchClient {
+    private final CloseableHttpClient httpClient;
+    private final String url;
+    private final String authorization;
+    private final ObjectMapper objectMapper;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public JsonRpcBatchClient(CloseableHttpClient httpClient, String url, String rpcUser, String rpcPassword) {
+        this.httpClient = httpClient;
+        this.url = url;
+        authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((rpcUser + ":" + rpcPassword).getBytes(StandardCharsets.UTF_8));
+        // We need exact values for BTC amounts
+        objectMapper = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public JsonNode call(String method, Object... params) throws BsqBlockchainException {
+        return callBatch(method, Collections.singletonList(Arrays.asList(params))).get(0);
+    }
+
+    // Sends one request with a call of method for each entry of paramsList.
+    // Returns the results in the order of paramsList.
+    public List<JsonNode> callBatch(String method, List<List<Object>> paramsList) throws BsqBlockchainException {
+        if (paramsList.isEmpty())
+            return new ArrayList<>();
+
+        List<Map<String, Object>> requests = new ArrayList<>(paramsList.size());
+        for (int id = 0; id < paramsList.size(); id++) {
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("jsonrpc", "1.0");
+            request.put("id", id);
+            request.put("method", method);
+            request.put("params", paramsList.get(id));
+            requests.add(request);
+        }
+
+        JsonNode responses;
+        try {
+            HttpPost httpPost = new HttpPost(url);
+            httpPost.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+            httpPost.setEntity(new ByteArrayEntity(objectMapper.writeValueAsBytes(requests), ContentType.APPLICATION_JSON));
+            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+                final int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode != 200)
+                    throw new BsqBlockchainException("Batch request for " + method + " failed with HTTP status " + statusCode);
+                responses = objectMapper.readTree(EntityUtils.toByteArray(response.getEntity()));
+            }
+        } catch (IOException e) {
+            log.error("Batch request for {} failed. {}", method, e.toString());
+            throw new BsqBlockchainException(e.getMessage(), e);
+        }
+
+        if (responses == null || !responses.isArray() || responses.size() != paramsList.size())
+            throw new BsqBlockchainException("Unexpected response to batch request for " + method);
+
+        // The responses might not be in the order of the requests
+        JsonNode[] results = new JsonNode[paramsList.size()];
+        for (JsonNode response : responses) {
+            final JsonNode error = response.get("error");
+            if (error != null && !error.isNull())
+                throw new BsqBlockchainException("Error at " + method + ": " + error.toString());
+
+            final int id = response.path("id").asInt(-1);
+            if (id < 0 || id >= results.length || results[id] != null)
+                throw new BsqBlockchainException("Unexpected response id at batch request for " + method);
+            results[id] = response.get("result");
+        }
+        return Arrays.asList(results);
+    }
+}
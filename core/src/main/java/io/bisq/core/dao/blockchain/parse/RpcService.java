@@ -17,6 +17,7 @@
 
 package io.bisq.core.dao.blockchain.parse;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import com.neemre.btcdcli4j.core.BitcoindException;
@@ -32,6 +33,7 @@ import com.neemre.btcdcli4j.daemon.BtcdDaemonImpl;
 import com.neemre.btcdcli4j.daemon.event.BlockListener;
 import io.bisq.core.dao.DaoOptionKeys;
 import io.bisq.core.dao.blockchain.btcd.PubKeyScript;
+import io.bisq.core.dao.blockchain.btcd.ScriptType;
 import io.bisq.core.dao.blockchain.exceptions.BsqBlockchainException;
 import io.bisq.core.dao.blockchain.vo.Tx;
 import io.bisq.core.dao.blockchain.vo.TxInput;
@@ -45,8 +47,10 @@ import org.bitcoinj.core.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.inject.Named;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -63,9 +67,11 @@ public class RpcService {
     private final String rpcPort;
     private final String rpcBlockPort;
     private final boolean dumpBlockchainData;
+    private final boolean pipelinedSync;
 
     private BtcdClient client;
     private BtcdDaemon daemon;
+    private JsonRpcBatchClient batchClient;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -78,18 +84,22 @@ public class RpcService {
                       @Named(DaoOptionKeys.RPC_PASSWORD) String rpcPassword,
                       @Named(DaoOptionKeys.RPC_PORT) String rpcPort,
                       @Named(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT) String rpcBlockPort,
-                      @Named(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA) boolean dumpBlockchainData) {
+                      @Named(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA) boolean dumpBlockchainData,
+                      @Named(DaoOptionKeys.RPC_PIPELINED_SYNC) boolean pipelinedSync) {
         this.rpcUser = rpcUser;
         this.rpcPassword = rpcPassword;
         this.rpcPort = rpcPort;
         this.rpcBlockPort = rpcBlockPort;
         this.dumpBlockchainData = dumpBlockchainData;
+        this.pipelinedSync = pipelinedSync;
     }
 
     void setup() throws BsqBlockchainException {
         try {
             long startTs = System.currentTimeMillis();
             PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+            // The BlockPrefetcher uses parallel connections
+            cm.setDefaultMaxPerRoute(BlockPrefetcher.NUM_THREADS + 2);
             CloseableHttpClient httpProvider = HttpClients.custom().setConnectionManager(cm).build();
             Properties nodeConfig = new Properties();
             nodeConfig.setProperty("node.bitcoind.rpc.protocol", "http");
@@ -104,6 +114,7 @@ public class RpcService {
             nodeConfig.setProperty("node.bitcoind.http.auth_scheme", "Basic");
             BtcdClientImpl client = new BtcdClientImpl(httpProvider, nodeConfig);
             daemon = new BtcdDaemonImpl(client);
+            batchClient = new JsonRpcBatchClient(httpProvider, "http://127.0.0.1:" + rpcPort, rpcUser, rpcPassword);
             log.info("Setup took {} ms", System.currentTimeMillis() - startTs);
             this.client = client;
         } catch (BitcoindException | CommunicationException e) {
@@ -138,6 +149,14 @@ public class RpcService {
         });
     }
 
+    boolean isPipelinedSync() {
+        return pipelinedSync;
+    }
+
+    BlockPrefetcher createBlockPrefetcher(int startBlockHeight, int chainHeadHeight) {
+        return new BlockPrefetcher(batchClient, startBlockHeight, chainHeadHeight, dumpBlockchainData);
+    }
+
     int requestChainHeadHeight() throws BitcoindException, CommunicationException {
         return client.getBlockCount();
     }
@@ -176,22 +195,8 @@ public class RpcService {
                     .map(rawOutput -> {
                                 byte[] opReturnData = null;
                                 final com.neemre.btcdcli4j.core.domain.PubKeyScript scriptPubKey = rawOutput.getScriptPubKey();
-                                if (scriptPubKey.getType().equals(ScriptTypes.NULL_DATA)) {
-                                    String[] chunks = scriptPubKey.getAsm().split(" ");
-                                    // TODO only store BSQ OP_RETURN date filtered by type byte
-
-                                    // We get on testnet a lot of "OP_RETURN 0" data, so we filter those away
-                                    if (chunks.length == 2 && chunks[0].equals("OP_RETURN") && !"0".equals(chunks[1])) {
-                                        try {
-                                            opReturnData = Utils.HEX.decode(chunks[1]);
-                                        } catch (Throwable t) {
-                                            // We get sometimes exceptions, seems BitcoinJ 
-                                            // cannot handle all existing OP_RETURN data, but we ignore them
-                                            // anyway as our OP_RETURN data is valid in BitcoinJ
-                                            log.warn("Error at Utils.HEX.decode(chunks[1]): " + t.toString() + " / chunks[1]=" + chunks[1]);
-                                        }
-                                    }
-                                }
+                                if (scriptPubKey.getType().equals(ScriptTypes.NULL_DATA))
+                                    opReturnData = getOpReturnData(scriptPubKey.getAsm());
                                 // We dont support raw MS which are the only case where scriptPubKey.getAddresses()>1
                                 String address = scriptPubKey.getAddresses() != null &&
                                         scriptPubKey.getAddresses().size() == 1 ? scriptPubKey.getAddresses().get(0) : null;
@@ -220,6 +225,78 @@ public class RpcService {
         }
     }
 
+    // Same as requestTx but with the decoded json of a getrawtransaction request
+    static Tx toTx(JsonNode rawTransaction, int blockHeight, boolean dumpBlockchainData) {
+        final String txId = rawTransaction.get("txid").asText();
+        // time is in seconds but we keep it in ms internally
+        final long time = rawTransaction.path("time").asLong() * 1000;
+        final List<TxInput> txInputs = new ArrayList<>();
+        for (JsonNode rawInput : rawTransaction.path("vin")) {
+            // Coinbase inputs have no txid
+            if (rawInput.hasNonNull("txid") && rawInput.hasNonNull("vout"))
+                txInputs.add(new TxInput(rawInput.get("txid").asText(), rawInput.get("vout").asInt()));
+        }
+
+        final List<TxOutput> txOutputs = new ArrayList<>();
+        for (JsonNode rawOutput : rawTransaction.path("vout")) {
+            final JsonNode scriptPubKey = rawOutput.get("scriptPubKey");
+            if (!rawOutput.hasNonNull("n") || !rawOutput.hasNonNull("value") || scriptPubKey == null)
+                continue;
+
+            final String type = scriptPubKey.path("type").asText();
+            final String asm = scriptPubKey.path("asm").asText();
+            final byte[] opReturnData = ScriptType.NULL_DATA.getName().equals(type) ? getOpReturnData(asm) : null;
+            final JsonNode addresses = scriptPubKey.get("addresses");
+            // We dont support raw MS which are the only case where addresses.size()>1
+            final String address = addresses != null && addresses.size() == 1 ? addresses.get(0).asText() : null;
+            PubKeyScript pubKeyScript = null;
+            if (dumpBlockchainData) {
+                ImmutableList.Builder<String> builder = ImmutableList.builder();
+                if (addresses != null)
+                    addresses.forEach(e -> builder.add(e.asText()));
+                pubKeyScript = new PubKeyScript(scriptPubKey.path("reqSigs").asInt(0),
+                        ScriptType.forName(type),
+                        addresses != null ? builder.build() : null,
+                        asm,
+                        scriptPubKey.path("hex").asText());
+            }
+            txOutputs.add(new TxOutput(rawOutput.get("n").asInt(),
+                    rawOutput.get("value").decimalValue().movePointRight(8).longValue(),
+                    txId,
+                    pubKeyScript,
+                    address,
+                    opReturnData,
+                    blockHeight));
+        }
+
+        final TxVo txVo = new TxVo(txId,
+                blockHeight,
+                rawTransaction.path("blockhash").asText(),
+                time);
+        return new Tx(txVo,
+                ImmutableList.copyOf(txInputs),
+                ImmutableList.copyOf(txOutputs));
+    }
+
+    @Nullable
+    private static byte[] getOpReturnData(String asm) {
+        String[] chunks = asm.split(" ");
+        // TODO only store BSQ OP_RETURN date filtered by type byte
+
+        // We get on testnet a lot of "OP_RETURN 0" data, so we filter those away
+        if (chunks.length == 2 && chunks[0].equals("OP_RETURN") && !"0".equals(chunks[1])) {
+            try {
+                return Utils.HEX.decode(chunks[1]);
+            } catch (Throwable t) {
+                // We get sometimes exceptions, seems BitcoinJ
+                // cannot handle all existing OP_RETURN data, but we ignore them
+                // anyway as our OP_RETURN data is valid in BitcoinJ
+                log.warn("Error at Utils.HEX.decode(chunks[1]): " + t.toString() + " / chunks[1]=" + chunks[1]);
+            }
+        }
+        return null;
+    }
+
     RawTransaction requestRawTransaction(String txId) throws BitcoindException, CommunicationException {
         return (RawTransaction) client.getRawTransaction(txId, 1);
     }
@@ -71,6 +71,13 @@ public class BsqBlock implements PersistablePayload {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Returns a copy with the tx with the same ID replaced by tx
+    public BsqBlock cloneWithTx(Tx tx) {
+        return new BsqBlock(height, hash, previousBlockHash, txs.stream()
+                .map(e -> e.getId().equals(tx.getId()) ? tx : e)
+                .collect(Collectors.toList()));
+    }
+
     public void reset() {
         txs.stream().forEach(Tx::reset);
     }
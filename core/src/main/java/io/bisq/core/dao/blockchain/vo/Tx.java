@@ -95,6 +95,13 @@ public class Tx implements PersistablePayload {
         return outputs.size() > index ? Optional.of(outputs.get(index)) : Optional.<TxOutput>empty();
     }
 
+    // Returns a copy with the output at the index of txOutput replaced by txOutput
+    public Tx cloneWithOutput(TxOutput txOutput) {
+        final List<TxOutput> clonedOutputs = new ArrayList<>(outputs);
+        clonedOutputs.set(txOutput.getIndex(), txOutput);
+        return new Tx(txVo, inputs, clonedOutputs, burntFee, txType);
+    }
+
     public void reset() {
         burntFee = 0;
         txType = TxType.UNDEFINED_TX_TYPE;
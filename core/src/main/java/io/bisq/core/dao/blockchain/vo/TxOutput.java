@@ -142,6 +142,21 @@ public class TxOutput implements PersistablePayload {
         spentInfo = null;
     }
 
+    // Returns a spent copy. Used for outputs which are part of a BsqChainState version and must not be changed.
+    public TxOutput cloneAsSpent(SpentInfo spentInfo) {
+        return new TxOutput(index,
+                value,
+                txId,
+                pubKeyScript,
+                address,
+                opReturnData,
+                blockHeight,
+                false,
+                isVerified,
+                txOutputType,
+                spentInfo);
+    }
+
     public boolean isCompensationRequestBtcOutput() {
         return txOutputType == TxOutputType.COMPENSATION_REQUEST_BTC_OUTPUT;
     }
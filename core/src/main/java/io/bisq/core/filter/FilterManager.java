@@ -31,6 +31,7 @@ import io.bisq.core.provider.ProvidersRepository;
 import io.bisq.core.user.Preferences;
 import io.bisq.core.user.User;
 import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.crypto.SignatureVerificationService;
 import io.bisq.network.p2p.NodeAddress;
 import io.bisq.network.p2p.P2PService;
 import io.bisq.network.p2p.P2PServiceListener;
@@ -47,7 +48,6 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import java.lang.reflect.Method;
 import java.math.BigInteger;
-import java.security.SignatureException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -77,6 +77,7 @@ public class FilterManager {
     private final Preferences preferences;
     private final BisqEnvironment bisqEnvironment;
     private final ProvidersRepository providersRepository;
+    private final SignatureVerificationService signatureVerificationService;
     private boolean ignoreDevMsg;
     private final ObjectProperty<Filter> filterProperty = new SimpleObjectProperty<>();
     private final List<Listener> listeners = new ArrayList<>();
@@ -99,8 +100,10 @@ public class FilterManager {
                          Preferences preferences,
                          BisqEnvironment bisqEnvironment,
                          ProvidersRepository providersRepository,
+                         SignatureVerificationService signatureVerificationService,
                          @Named(AppOptionKeys.IGNORE_DEV_MSG_KEY) boolean ignoreDevMsg) {
         this.p2PService = p2PService;
+        this.signatureVerificationService = signatureVerificationService;
         this.keyRing = keyRing;
         this.user = user;
         this.preferences = preferences;
@@ -281,13 +284,11 @@ public class FilterManager {
     }
 
     private boolean verifySignature(Filter filter) {
-        try {
-            ECKey.fromPublicOnly(HEX.decode(pubKeyAsHex)).verifyMessage(getHexFromData(filter), filter.getSignatureAsBase64());
-            return true;
-        } catch (SignatureException e) {
+        boolean result = signatureVerificationService.verifyMessage(pubKeyAsHex, getHexFromData(filter),
+                filter.getSignatureAsBase64());
+        if (!result)
             log.warn("verifySignature failed");
-            return false;
-        }
+        return result;
     }
 
     // We dont use full data from Filter as we are only interested in the filter data not the sig and keys
@@ -12,6 +12,7 @@ import io.bisq.common.proto.network.NetworkPayload;
 import io.bisq.common.proto.persistable.PersistablePayload;
 import io.bisq.common.util.JsonExclude;
 import io.bisq.common.util.MathUtils;
+import io.bisq.common.util.Tuple2;
 import io.bisq.common.util.Utilities;
 import io.bisq.core.exceptions.TradePriceOutOfToleranceException;
 import io.bisq.core.offer.availability.OfferAvailabilityModel;
@@ -80,13 +81,42 @@ public class Offer implements NetworkPayload, PersistablePayload {
     @Setter
     transient private PriceFeedService priceFeedService;
 
+    // The price and volumes are used often for sorting and filtering the offer book. We only calculate them again if
+    // the price has changed. The cache only depends on the offerPayload, so the OfferBookService shares it between
+    // all Offer instances of the same payload.
+    @JsonExclude
+    transient private final PriceCache priceCache;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PriceCache
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The MarketPrice is immutable and gets replaced by the PriceFeedService at each update, so we use the instance
+    // as key.
+    static final class PriceCache {
+        @Nullable
+        private volatile Tuple2<MarketPrice, Price> marketBasedPrice;
+        @Nullable
+        private volatile Price fixedPrice;
+        @Nullable
+        private volatile Tuple2<Price, Volume> volume;
+        @Nullable
+        private volatile Tuple2<Price, Volume> minVolume;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public Offer(OfferPayload offerPayload) {
+        this(offerPayload, new PriceCache());
+    }
+
+    Offer(OfferPayload offerPayload, PriceCache priceCache) {
         this.offerPayload = offerPayload;
+        this.priceCache = priceCache;
     }
 
 
@@ -136,6 +166,10 @@ public class Offer implements NetworkPayload, PersistablePayload {
             checkNotNull(priceFeedService, "priceFeed must not be null");
             MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
             if (marketPrice != null && marketPrice.isRecentExternalPriceAvailable()) {
+                final Tuple2<MarketPrice, Price> cached = priceCache.marketBasedPrice;
+                if (cached != null && cached.first == marketPrice)
+                    return cached.second;
+
                 double factor;
                 double marketPriceMargin = offerPayload.getMarketPriceMargin();
                 if (CurrencyUtil.isCryptoCurrency(currencyCode)) {
@@ -153,7 +187,9 @@ public class Offer implements NetworkPayload, PersistablePayload {
                             Fiat.SMALLEST_UNIT_EXPONENT;
                     double scaled = MathUtils.scaleUpByPowerOf10(targetPriceAsDouble, precision);
                     final long roundedToLong = MathUtils.roundDoubleToLong(scaled);
-                    return Price.valueOf(currencyCode, roundedToLong);
+                    final Price price = Price.valueOf(currencyCode, roundedToLong);
+                    priceCache.marketBasedPrice = new Tuple2<>(marketPrice, price);
+                    return price;
                 } catch (Exception e) {
                     log.error("Exception at getPrice / parseToFiat: " + e.toString() + "\n" +
                             "That case should never happen.");
@@ -165,7 +201,12 @@ public class Offer implements NetworkPayload, PersistablePayload {
                 return null;
             }
         } else {
-            return Price.valueOf(currencyCode, offerPayload.getPrice());
+            Price fixedPrice = priceCache.fixedPrice;
+            if (fixedPrice == null) {
+                fixedPrice = Price.valueOf(currencyCode, offerPayload.getPrice());
+                priceCache.fixedPrice = fixedPrice;
+            }
+            return fixedPrice;
         }
     }
 
@@ -194,7 +235,11 @@ public class Offer implements NetworkPayload, PersistablePayload {
 
     @Nullable
     public Volume getVolumeByAmount(Coin amount) {
-        Price price = getPrice();
+        return getVolumeByAmount(getPrice(), amount);
+    }
+
+    @Nullable
+    private Volume getVolumeByAmount(@Nullable Price price, Coin amount) {
         if (price != null && amount != null) {
             // try {
             return price.getVolumeByAmount(amount);
@@ -287,12 +332,26 @@ public class Offer implements NetworkPayload, PersistablePayload {
 
     @Nullable
     public Volume getVolume() {
-        return getVolumeByAmount(getAmount());
+        final Price price = getPrice();
+        final Tuple2<Price, Volume> cached = priceCache.volume;
+        if (price != null && cached != null && cached.first == price)
+            return cached.second;
+
+        final Volume volume = getVolumeByAmount(price, getAmount());
+        priceCache.volume = new Tuple2<>(price, volume);
+        return volume;
     }
 
     @Nullable
     public Volume getMinVolume() {
-        return getVolumeByAmount(getMinAmount());
+        final Price price = getPrice();
+        final Tuple2<Price, Volume> cached = priceCache.minVolume;
+        if (price != null && cached != null && cached.first == price)
+            return cached.second;
+
+        final Volume volume = getVolumeByAmount(price, getMinAmount());
+        priceCache.minVolume = new Tuple2<>(price, volume);
+        return volume;
     }
 
     public boolean isBuyOffer() {
@@ -21,14 +21,14 @@ import com.google.inject.name.Named;
 import io.bisq.common.UserThread;
 import io.bisq.common.handlers.ErrorMessageHandler;
 import io.bisq.common.handlers.ResultHandler;
-import io.bisq.common.storage.JsonFileManager;
 import io.bisq.common.storage.Storage;
-import io.bisq.common.util.Utilities;
+import io.bisq.common.storage.StreamingJsonFileManager;
 import io.bisq.core.app.AppOptionKeys;
 import io.bisq.core.provider.price.PriceFeedService;
 import io.bisq.network.p2p.BootstrapListener;
 import io.bisq.network.p2p.P2PService;
 import io.bisq.network.p2p.storage.HashMapChangedListener;
+import io.bisq.network.p2p.storage.P2PDataStorage;
 import io.bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,8 +36,11 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.File;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -51,12 +54,29 @@ public class OfferBookService {
         void onAdded(Offer offer);
 
         void onRemoved(Offer offer);
+
+        // Called instead of onAdded if many offers got added at once (e.g. at the initial data request)
+        default void onBatchAdded(List<Offer> offers) {
+            offers.forEach(this::onAdded);
+        }
+
+        // Called instead of onRemoved if many offers got removed at once (e.g. expired offers)
+        default void onBatchRemoved(List<Offer> offers) {
+            offers.forEach(this::onRemoved);
+        }
     }
 
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final List<OfferBookChangedListener> offerBookChangedListeners = new LinkedList<>();
-    private final JsonFileManager jsonFileManager;
+    // We create a new Offer for each holder as it carries mutable state, but the derived prices and volumes only
+    // depend on the payload and are shared via that cache.
+    private final Map<P2PDataStorage.ByteArray, Offer.PriceCache> priceCacheByPayloadHash = new ConcurrentHashMap<>();
+    // Delay for writing the offers_statistics.json snapshot after the offer book has changed
+    private static final long SNAPSHOT_DELAY_MS = 2000;
+
+    @Nullable
+    private final StreamingJsonFileManager jsonFileManager;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -70,31 +90,41 @@ public class OfferBookService {
                             @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
-        jsonFileManager = new JsonFileManager(storageDir);
+        jsonFileManager = dumpStatistics ?
+                new StreamingJsonFileManager(storageDir, "offers_statistics", StreamingJsonFileManager.LogMode.NONE) :
+                null;
 
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
             @Override
             public void onAdded(ProtectedStorageEntry data) {
-                offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onAdded(offer);
-                    }
-                });
+                if (data.getProtectedStoragePayload() instanceof OfferPayload) {
+                    Offer offer = toOffer(data);
+                    offerBookChangedListeners.forEach(listener -> listener.onAdded(offer));
+                }
             }
 
             @Override
             public void onRemoved(ProtectedStorageEntry data) {
-                offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onRemoved(offer);
-                    }
-                });
+                if (data.getProtectedStoragePayload() instanceof OfferPayload) {
+                    Offer offer = toOffer(data);
+                    priceCacheByPayloadHash.remove(data.getHashOfPayload());
+                    offerBookChangedListeners.forEach(listener -> listener.onRemoved(offer));
+                }
+            }
+
+            @Override
+            public void onBatchAdded(Collection<ProtectedStorageEntry> entries) {
+                List<Offer> offers = toOffers(entries);
+                if (!offers.isEmpty())
+                    offerBookChangedListeners.forEach(listener -> listener.onBatchAdded(offers));
+            }
+
+            @Override
+            public void onBatchRemoved(Collection<ProtectedStorageEntry> entries) {
+                List<Offer> offers = toOffers(entries);
+                entries.forEach(data -> priceCacheByPayloadHash.remove(data.getHashOfPayload()));
+                if (!offers.isEmpty())
+                    offerBookChangedListeners.forEach(listener -> listener.onBatchRemoved(offers));
             }
         });
 
@@ -105,15 +135,25 @@ public class OfferBookService {
                     addOfferBookChangedListener(new OfferBookChangedListener() {
                         @Override
                         public void onAdded(Offer offer) {
-                            doDumpStatistics();
+                            jsonFileManager.requestSnapshot(OfferBookService.this::getOfferForJsonList, SNAPSHOT_DELAY_MS);
                         }
 
                         @Override
                         public void onRemoved(Offer offer) {
-                            doDumpStatistics();
+                            jsonFileManager.requestSnapshot(OfferBookService.this::getOfferForJsonList, SNAPSHOT_DELAY_MS);
+                        }
+
+                        @Override
+                        public void onBatchAdded(List<Offer> offers) {
+                            jsonFileManager.requestSnapshot(OfferBookService.this::getOfferForJsonList, SNAPSHOT_DELAY_MS);
+                        }
+
+                        @Override
+                        public void onBatchRemoved(List<Offer> offers) {
+                            jsonFileManager.requestSnapshot(OfferBookService.this::getOfferForJsonList, SNAPSHOT_DELAY_MS);
                         }
                     });
-                    UserThread.runAfter(OfferBookService.this::doDumpStatistics, 1);
+                    UserThread.runAfter(() -> jsonFileManager.writeSnapshot(getOfferForJsonList()), 1);
                 }
             });
         }
@@ -156,15 +196,7 @@ public class OfferBookService {
     }
 
     public List<Offer> getOffers() {
-        return p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
-                .map(data -> {
-                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                    Offer offer = new Offer(offerPayload);
-                    offer.setPriceFeedService(priceFeedService);
-                    return offer;
-                })
-                .collect(Collectors.toList());
+        return toOffers(p2PService.getDataMap().values());
     }
 
     public void removeOfferAtShutDown(OfferPayload offerPayload) {
@@ -185,10 +217,25 @@ public class OfferBookService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void doDumpStatistics() {
+    private Offer toOffer(ProtectedStorageEntry data) {
+        Offer.PriceCache priceCache = priceCacheByPayloadHash.computeIfAbsent(data.getHashOfPayload(),
+                key -> new Offer.PriceCache());
+        Offer offer = new Offer((OfferPayload) data.getProtectedStoragePayload(), priceCache);
+        offer.setPriceFeedService(priceFeedService);
+        return offer;
+    }
+
+    private List<Offer> toOffers(Collection<ProtectedStorageEntry> entries) {
+        return entries.stream()
+                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
+                .map(this::toOffer)
+                .collect(Collectors.toList());
+    }
+
+    private List<OfferForJson> getOfferForJsonList() {
         // We filter the case that it is a MarketBasedPrice but the price is not available
         // That should only be possible if the price feed provider is not available
-        final List<OfferForJson> offerForJsonList = getOffers().stream()
+        return getOffers().stream()
                 .filter(offer -> !offer.isUseMarketBasedPrice() || priceFeedService.getMarketPrice(offer.getCurrencyCode()) != null)
                 .map(offer -> {
                     try {
@@ -211,6 +258,5 @@ public class OfferBookService {
                 })
                 .filter(e -> e != null)
                 .collect(Collectors.toList());
-        jsonFileManager.writeToDisc(Utilities.objectToJson(offerForJsonList), "offers_statistics");
     }
 }
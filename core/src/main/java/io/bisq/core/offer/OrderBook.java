@@ -0,0 +1,536 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.offer;
+
+import io.bisq.common.locale.CurrencyUtil;
+import io.bisq.common.monetary.Price;
+import io.bisq.core.provider.price.MarketPrice;
+import io.bisq.core.provider.price.PriceFeedService;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.bitcoinj.core.Coin;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds the offers sorted by currency, direction and price. Per currency and direction the offers with a price are
+ * kept in a tree of price levels with the best price first, so the best prices and the spread are O(log n) and the
+ * sorted offers do not need any sorting. Number of offers and total amount are maintained at each change.
+ * <p/>
+ * For the depth the amount of each price level is kept in a second tree which holds the amount of its subtrees as
+ * well, so adding or removing an offer and the accumulated amount up to a price are O(log n).
+ * <p/>
+ * Offers with a market based price change their price with the market price. At each query we check if the market
+ * price of the currency got updated or got too old to be used and re-sort the market based offers of that currency if
+ * so.
+ * <p/>
+ * Listeners get notified once per change with the added and removed offers.
+ * Not thread safe. Is used from the UserThread.
+ */
+@Slf4j
+public class OrderBook {
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Listener, Delta
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public interface Listener {
+        void onChanged(Delta delta);
+    }
+
+    @Value
+    public static class Delta {
+        private final List<Offer> added;
+        private final List<Offer> removed;
+        // Currencies of the added and removed offers
+        private final Set<String> currencyCodes;
+    }
+
+    @Value
+    public static class DepthLevel {
+        private final Price price;
+        private final int numOffers;
+        private final Coin amount;
+        // Amount of this and all better price levels
+        private final Coin accumulatedAmount;
+    }
+
+    private final PriceFeedService priceFeedService;
+    private final Map<String, Entry> entriesByOfferId = new HashMap<>();
+    private final Map<String, Market> marketsByCurrencyCode = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public OrderBook(PriceFeedService priceFeedService) {
+        this.priceFeedService = priceFeedService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(Offer offer) {
+        update(Collections.singletonList(offer), new ArrayList<>());
+    }
+
+    public void remove(Offer offer) {
+        update(new ArrayList<>(), Collections.singletonList(offer));
+    }
+
+    /**
+     * Removes the offers with the IDs of the removed offers and adds the added offers. An added offer replaces an
+     * offer with the same ID. Listeners get notified once if anything changed.
+     */
+    public void update(Collection<Offer> addedOffers, Collection<Offer> removedOffers) {
+        List<Offer> added = new ArrayList<>();
+        List<Offer> removed = new ArrayList<>();
+        Set<String> currencyCodes = new HashSet<>();
+        removedOffers.forEach(offer -> {
+            Entry entry = entriesByOfferId.remove(offer.getId());
+            if (entry != null) {
+                removeEntry(entry);
+                removed.add(entry.offer);
+                currencyCodes.add(entry.offer.getCurrencyCode());
+            }
+        });
+        addedOffers.forEach(offer -> {
+            Entry entry = entriesByOfferId.get(offer.getId());
+            if (entry != null) {
+                if (entry.offer == offer)
+                    return;
+
+                removeEntry(entry);
+                removed.add(entry.offer);
+            }
+            Entry newEntry = new Entry(offer, marketsByCurrencyCode.computeIfAbsent(offer.getCurrencyCode(), Market::new));
+            newEntry.side.add(newEntry);
+            entriesByOfferId.put(offer.getId(), newEntry);
+            added.add(offer);
+            currencyCodes.add(offer.getCurrencyCode());
+        });
+
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            Delta delta = new Delta(added, removed, currencyCodes);
+            listeners.forEach(listener -> listener.onChanged(delta));
+        }
+    }
+
+    public void setAll(Collection<Offer> offers) {
+        List<Offer> removedOffers = new ArrayList<>();
+        entriesByOfferId.values().forEach(entry -> removedOffers.add(entry.offer));
+        update(offers, removedOffers);
+    }
+
+    public boolean contains(String offerId) {
+        return entriesByOfferId.containsKey(offerId);
+    }
+
+    @Nullable
+    public Offer getOffer(String offerId) {
+        final Entry entry = entriesByOfferId.get(offerId);
+        return entry != null ? entry.offer : null;
+    }
+
+    public int size() {
+        return entriesByOfferId.size();
+    }
+
+    public Set<String> getCurrencyCodes() {
+        return Collections.unmodifiableSet(marketsByCurrencyCode.keySet());
+    }
+
+    // Includes the offers without a price
+    public int getNumOffers(String currencyCode, OfferPayload.Direction direction) {
+        final Market market = marketsByCurrencyCode.get(currencyCode);
+        return market != null ? market.getSide(direction).numOffers : 0;
+    }
+
+    // Amount of all offers of the currency, including the offers without a price
+    public Coin getTotalAmount(String currencyCode) {
+        final Market market = marketsByCurrencyCode.get(currencyCode);
+        return Coin.valueOf(market != null ? market.buySide.totalAmount + market.sellSide.totalAmount : 0);
+    }
+
+    @Nullable
+    public Price getBestPrice(String currencyCode, OfferPayload.Direction direction) {
+        final Market market = getUpdatedMarket(currencyCode);
+        if (market == null)
+            return null;
+
+        final Map.Entry<Long, PriceLevel> best = market.getSide(direction).levels.firstEntry();
+        return best != null ? Price.valueOf(currencyCode, best.getKey()) : null;
+    }
+
+    /**
+     * @return The difference of the best sell and buy price, for altcoins the other way round as their prices are
+     * inverted. Null if there is no offer with a price on one of both sides.
+     */
+    @Nullable
+    public Price getSpread(String currencyCode) {
+        final Price bestBuyPrice = getBestPrice(currencyCode, OfferPayload.Direction.BUY);
+        final Price bestSellPrice = getBestPrice(currencyCode, OfferPayload.Direction.SELL);
+        if (bestBuyPrice == null || bestSellPrice == null)
+            return null;
+
+        return CurrencyUtil.isCryptoCurrency(currencyCode) ?
+                bestBuyPrice.subtract(bestSellPrice) :
+                bestSellPrice.subtract(bestBuyPrice);
+    }
+
+    /**
+     * @return The offers with a price, best price first. Offers with the same price are in the order they got added.
+     */
+    public List<Offer> getOffers(String currencyCode, OfferPayload.Direction direction) {
+        final Market market = getUpdatedMarket(currencyCode);
+        if (market == null)
+            return new ArrayList<>();
+
+        final Side side = market.getSide(direction);
+        List<Offer> list = new ArrayList<>(side.numOffers);
+        side.levels.values().forEach(level -> list.addAll(level.offers.values()));
+        return list;
+    }
+
+    /**
+     * @return The price levels of the offers with a price, best price first, with the amount accumulated from the
+     * best price on.
+     */
+    public List<DepthLevel> getDepth(String currencyCode, OfferPayload.Direction direction) {
+        final Market market = getUpdatedMarket(currencyCode);
+        if (market == null)
+            return new ArrayList<>();
+
+        final Side side = market.getSide(direction);
+        List<DepthLevel> list = new ArrayList<>(side.levels.size());
+        long accumulatedAmount = 0;
+        for (Map.Entry<Long, PriceLevel> entry : side.levels.entrySet()) {
+            final PriceLevel level = entry.getValue();
+            accumulatedAmount += level.amount;
+            list.add(new DepthLevel(Price.valueOf(currencyCode, entry.getKey()),
+                    level.offers.size(),
+                    Coin.valueOf(level.amount),
+                    Coin.valueOf(accumulatedAmount)));
+        }
+        return list;
+    }
+
+    /**
+     * @return The amount of the offers with the given price or a better one.
+     */
+    public Coin getAccumulatedAmount(String currencyCode, OfferPayload.Direction direction, Price price) {
+        final Market market = getUpdatedMarket(currencyCode);
+        return Coin.valueOf(market != null ? market.getSide(direction).levelAmounts.getAccumulatedAmount(price.getValue()) : 0);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void removeEntry(Entry entry) {
+        entry.side.remove(entry);
+        if (entry.market.buySide.numOffers == 0 && entry.market.sellSide.numOffers == 0)
+            marketsByCurrencyCode.remove(entry.offer.getCurrencyCode());
+    }
+
+    @Nullable
+    private Market getUpdatedMarket(String currencyCode) {
+        final Market market = marketsByCurrencyCode.get(currencyCode);
+        if (market != null) {
+            final MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
+            // Offer.getPrice only uses a recent market price, so an outdated one changes the prices as well
+            final boolean isMarketPriceUsable = isMarketPriceUsable(marketPrice);
+            if (market.marketPrice != marketPrice || market.isMarketPriceUsable != isMarketPriceUsable) {
+                market.buySide.updateMarketBasedPrices();
+                market.sellSide.updateMarketBasedPrices();
+                market.marketPrice = marketPrice;
+                market.isMarketPriceUsable = isMarketPriceUsable;
+            }
+        }
+        return market;
+    }
+
+    private static boolean isMarketPriceUsable(@Nullable MarketPrice marketPrice) {
+        return marketPrice != null && marketPrice.isRecentExternalPriceAvailable();
+    }
+
+    private class Market {
+        private final Side buySide;
+        private final Side sellSide;
+        // The market price used for the prices of the market based offers
+        @Nullable
+        private MarketPrice marketPrice;
+        private boolean isMarketPriceUsable;
+
+        private Market(String currencyCode) {
+            // For altcoins the prices are inverted, so the best buy offer has the lowest price
+            final boolean isCryptoCurrency = CurrencyUtil.isCryptoCurrency(currencyCode);
+            buySide = new Side(isCryptoCurrency ? Comparator.naturalOrder() : Comparator.reverseOrder());
+            sellSide = new Side(isCryptoCurrency ? Comparator.reverseOrder() : Comparator.naturalOrder());
+            marketPrice = priceFeedService.getMarketPrice(currencyCode);
+            isMarketPriceUsable = isMarketPriceUsable(marketPrice);
+        }
+
+        private Side getSide(OfferPayload.Direction direction) {
+            return direction == OfferPayload.Direction.BUY ? buySide : sellSide;
+        }
+    }
+
+    private static class Side {
+        private final TreeMap<Long, PriceLevel> levels;
+        private final LevelAmounts levelAmounts;
+        private final Map<String, Entry> marketBasedEntries = new HashMap<>();
+        private int numOffers;
+        private long totalAmount;
+
+        private Side(Comparator<Long> bestPriceFirst) {
+            levels = new TreeMap<>(bestPriceFirst);
+            levelAmounts = new LevelAmounts(bestPriceFirst);
+        }
+
+        private void add(Entry entry) {
+            addToLevel(entry);
+            if (entry.offer.isUseMarketBasedPrice())
+                marketBasedEntries.put(entry.offer.getId(), entry);
+            numOffers++;
+            totalAmount += entry.offer.getAmount().getValue();
+        }
+
+        private void remove(Entry entry) {
+            removeFromLevel(entry);
+            marketBasedEntries.remove(entry.offer.getId());
+            numOffers--;
+            totalAmount -= entry.offer.getAmount().getValue();
+        }
+
+        private void updateMarketBasedPrices() {
+            marketBasedEntries.values().forEach(entry -> {
+                removeFromLevel(entry);
+                addToLevel(entry);
+            });
+        }
+
+        private void addToLevel(Entry entry) {
+            final Price price = entry.offer.getPrice();
+            entry.price = price != null ? price.getValue() : null;
+            if (entry.price != null) {
+                levels.computeIfAbsent(entry.price, key -> new PriceLevel()).add(entry.offer);
+                levelAmounts.add(entry.price, entry.offer.getAmount().getValue());
+            }
+        }
+
+        private void removeFromLevel(Entry entry) {
+            if (entry.price != null) {
+                final PriceLevel level = levels.get(entry.price);
+                level.remove(entry.offer);
+                if (level.offers.isEmpty()) {
+                    levels.remove(entry.price);
+                    levelAmounts.remove(entry.price);
+                } else {
+                    levelAmounts.add(entry.price, -entry.offer.getAmount().getValue());
+                }
+                entry.price = null;
+            }
+        }
+    }
+
+    private static class PriceLevel {
+        private final Map<String, Offer> offers = new LinkedHashMap<>();
+        private long amount;
+
+        private void add(Offer offer) {
+            offers.put(offer.getId(), offer);
+            amount += offer.getAmount().getValue();
+        }
+
+        private void remove(Offer offer) {
+            if (offers.remove(offer.getId()) != null)
+                amount -= offer.getAmount().getValue();
+        }
+    }
+
+    /**
+     * Treap of the amounts of the price levels in the order of the levels. Each node holds the amount of its subtree,
+     * so the accumulated amount up to a price is the sum of the left subtrees on the path to it.
+     */
+    private static class LevelAmounts {
+        private final Comparator<Long> bestPriceFirst;
+        private final Random random = new Random();
+        @Nullable
+        private Node root;
+
+        private LevelAmounts(Comparator<Long> bestPriceFirst) {
+            this.bestPriceFirst = bestPriceFirst;
+        }
+
+        private void add(long price, long amount) {
+            root = add(root, price, amount);
+        }
+
+        private void remove(long price) {
+            root = remove(root, price);
+        }
+
+        // Amount of the levels with the given price or a better one
+        private long getAccumulatedAmount(long price) {
+            long accumulatedAmount = 0;
+            Node node = root;
+            while (node != null) {
+                final int compare = bestPriceFirst.compare(price, node.price);
+                if (compare < 0) {
+                    node = node.left;
+                } else {
+                    accumulatedAmount += sumOf(node.left) + node.amount;
+                    node = compare == 0 ? null : node.right;
+                }
+            }
+            return accumulatedAmount;
+        }
+
+        private Node add(@Nullable Node node, long price, long amount) {
+            if (node == null)
+                return new Node(price, amount, random.nextInt());
+
+            final int compare = bestPriceFirst.compare(price, node.price);
+            if (compare == 0) {
+                node.amount += amount;
+            } else if (compare < 0) {
+                node.left = add(node.left, price, amount);
+                if (node.left.priority > node.priority)
+                    node = rotateRight(node);
+            } else {
+                node.right = add(node.right, price, amount);
+                if (node.right.priority > node.priority)
+                    node = rotateLeft(node);
+            }
+            node.updateSum();
+            return node;
+        }
+
+        @Nullable
+        private Node remove(@Nullable Node node, long price) {
+            if (node == null)
+                return null;
+
+            final int compare = bestPriceFirst.compare(price, node.price);
+            if (compare == 0)
+                return merge(node.left, node.right);
+
+            if (compare < 0)
+                node.left = remove(node.left, price);
+            else
+                node.right = remove(node.right, price);
+            node.updateSum();
+            return node;
+        }
+
+        // All prices of the left tree are better than the ones of the right tree
+        @Nullable
+        private Node merge(@Nullable Node left, @Nullable Node right) {
+            if (left == null)
+                return right;
+            if (right == null)
+                return left;
+
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                left.updateSum();
+                return left;
+            } else {
+                right.left = merge(left, right.left);
+                right.updateSum();
+                return right;
+            }
+        }
+
+        private static Node rotateRight(Node node) {
+            final Node left = node.left;
+            node.left = left.right;
+            left.right = node;
+            node.updateSum();
+            return left;
+        }
+
+        private static Node rotateLeft(Node node) {
+            final Node right = node.right;
+            node.right = right.left;
+            right.left = node;
+            node.updateSum();
+            return right;
+        }
+
+        private static long sumOf(@Nullable Node node) {
+            return node != null ? node.sum : 0;
+        }
+
+        private static class Node {
+            private final long price;
+            private final int priority;
+            private long amount;
+            // Amount of this node and its subtrees
+            private long sum;
+            @Nullable
+            private Node left;
+            @Nullable
+            private Node right;
+
+            private Node(long price, long amount, int priority) {
+                this.price = price;
+                this.amount = amount;
+                this.priority = priority;
+                sum = amount;
+            }
+
+            private void updateSum() {
+                sum = amount + sumOf(left) + sumOf(right);
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Offer offer;
+        private final Market market;
+        private final Side side;
+        // The price value the offer is sorted by, null if the offer has no price
+        @Nullable
+        private Long price;
+
+        private Entry(Offer offer, Market market) {
+            this.offer = offer;
+            this.market = market;
+            side = market.getSide(offer.getDirection());
+        }
+    }
+}
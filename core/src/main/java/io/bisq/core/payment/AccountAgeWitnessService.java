@@ -28,6 +28,7 @@ import io.bisq.core.payment.payload.PaymentAccountPayload;
 import io.bisq.core.payment.payload.PaymentMethod;
 import io.bisq.core.trade.Trade;
 import io.bisq.core.user.User;
+import io.bisq.network.crypto.SignatureVerificationService;
 import io.bisq.network.p2p.BootstrapListener;
 import io.bisq.network.p2p.P2PService;
 import io.bisq.network.p2p.storage.P2PDataStorage;
@@ -57,6 +58,7 @@ public class AccountAgeWitnessService {
     private final KeyRing keyRing;
     private final P2PService p2PService;
     private final User user;
+    private final SignatureVerificationService signatureVerificationService;
 
     private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessMap = new HashMap<>();
 
@@ -67,10 +69,14 @@ public class AccountAgeWitnessService {
 
 
     @Inject
-    public AccountAgeWitnessService(KeyRing keyRing, P2PService p2PService, User user) {
+    public AccountAgeWitnessService(KeyRing keyRing,
+                                    P2PService p2PService,
+                                    User user,
+                                    SignatureVerificationService signatureVerificationService) {
         this.keyRing = keyRing;
         this.p2PService = p2PService;
         this.user = user;
+        this.signatureVerificationService = signatureVerificationService;
     }
 
 
@@ -397,13 +403,7 @@ public class AccountAgeWitnessService {
                             byte[] nonce,
                             byte[] signature,
                             ErrorMessageHandler errorMessageHandler) {
-        boolean result;
-        try {
-            result = Sig.verify(peersPublicKey, nonce, signature);
-        } catch (CryptoException e) {
-            log.warn(e.toString());
-            result = false;
-        }
+        boolean result = signatureVerificationService.verify(peersPublicKey, nonce, signature);
         if (!result) {
             final String msg = "Signature of nonce is not correct. " +
                     "peersPublicKey=" + peersPublicKey + ", nonce(hex)=" + Utilities.bytesAsHexString(nonce) +
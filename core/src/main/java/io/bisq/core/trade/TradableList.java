@@ -21,6 +21,7 @@ import com.google.protobuf.Message;
 import io.bisq.common.proto.ProtoUtil;
 import io.bisq.common.proto.ProtobufferException;
 import io.bisq.common.proto.persistable.PersistableEnvelope;
+import io.bisq.common.storage.PersistenceScheduler;
 import io.bisq.common.storage.Storage;
 import io.bisq.core.btc.wallet.BtcWalletService;
 import io.bisq.core.offer.OpenOffer;
@@ -52,6 +53,7 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     public TradableList(Storage<TradableList<T>> storage, String fileName) {
         this.storage = storage;
 
+        storage.setPriority(PersistenceScheduler.Priority.HIGH);
         TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
         if (persisted != null)
             list.addAll(persisted.getList());
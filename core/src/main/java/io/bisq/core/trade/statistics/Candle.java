@@ -0,0 +1,68 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Open, close, min and max price, accumulated amount and volume of the trades in one interval. Prices are the values
+ * of the trade prices. Min and max price are the lowest and highest value, for altcoins the GUI displays them inverted.
+ * <p/>
+ * Gets updated by the CandleAggregator when trades are added.
+ */
+@Getter
+@ToString
+public class Candle {
+    private final long start;
+    private long open;
+    private long close;
+    private long minPrice;
+    private long maxPrice;
+    private long accumulatedAmount;
+    private long accumulatedVolume;
+    private int numTrades;
+    // Trade dates of the open and close price
+    private long openDate;
+    private long closeDate;
+
+    Candle(long start) {
+        this.start = start;
+    }
+
+    void add(long tradeDate, long tradePrice, long tradeAmount, long tradeVolume) {
+        if (numTrades == 0) {
+            open = close = minPrice = maxPrice = tradePrice;
+            openDate = closeDate = tradeDate;
+        } else {
+            if (tradeDate < openDate) {
+                open = tradePrice;
+                openDate = tradeDate;
+            }
+            if (tradeDate >= closeDate) {
+                close = tradePrice;
+                closeDate = tradeDate;
+            }
+            minPrice = Math.min(minPrice, tradePrice);
+            maxPrice = Math.max(maxPrice, tradePrice);
+        }
+        accumulatedAmount += tradeAmount;
+        accumulatedVolume += tradeVolume;
+        numTrades++;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import io.bisq.common.monetary.Volume;
+
+import javax.annotation.Nullable;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Aggregates the trade statistics to candles per currency and interval. We keep the candles of all currencies
+ * together as well, there only the amounts are meaningful as prices and volumes of different currencies get mixed.
+ * <p/>
+ * Adding a trade updates one candle per interval. New trades fall mostly into the most recent candle of a series,
+ * which we keep at hand, so that is O(1). Older trades need a lookup in the sorted candles of the series.
+ * <p/>
+ * The caller has to take care that a trade is added only once.
+ * Not thread safe. Is used from the UserThread.
+ */
+public class CandleAggregator {
+    private final ZoneId zoneId;
+    private final Map<String, EnumMap<CandleInterval, CandleSeries>> seriesByCurrencyCode = new HashMap<>();
+    private final EnumMap<CandleInterval, CandleSeries> allCurrenciesSeries;
+
+    public CandleAggregator() {
+        this(ZoneId.systemDefault());
+    }
+
+    public CandleAggregator(ZoneId zoneId) {
+        this.zoneId = zoneId;
+        allCurrenciesSeries = createSeries();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(TradeStatistics2 tradeStatistics) {
+        final long tradeDate = tradeStatistics.getTradeDateAsLong();
+        final long tradePrice = tradeStatistics.getTradePrice().getValue();
+        final long tradeAmount = tradeStatistics.getTradeAmount().getValue();
+        final Volume tradeVolume = tradeStatistics.getTradeVolume();
+        final long tradeVolumeAsLong = tradeVolume != null ? tradeVolume.getValue() : 0;
+
+        for (CandleSeries series : seriesByCurrencyCode.computeIfAbsent(tradeStatistics.getCurrencyCode(), k -> createSeries()).values())
+            series.add(tradeDate, tradePrice, tradeAmount, tradeVolumeAsLong);
+        for (CandleSeries series : allCurrenciesSeries.values())
+            series.add(tradeDate, tradePrice, tradeAmount, tradeVolumeAsLong);
+    }
+
+    // We add the items sorted by trade date, so most of them hit the most recent candle of their series
+    public void addAll(Collection<TradeStatistics2> tradeStatisticsCollection) {
+        tradeStatisticsCollection.stream()
+                .sorted(TradeStatisticsIndex.TRADE_DATE_COMPARATOR)
+                .forEach(this::add);
+    }
+
+    /**
+     * @return The candles with a start in [from, to), oldest first.
+     */
+    public List<Candle> getCandles(String currencyCode, CandleInterval interval, long from, long to) {
+        final EnumMap<CandleInterval, CandleSeries> map = seriesByCurrencyCode.get(currencyCode);
+        return map != null ? map.get(interval).getCandles(from, to) : new ArrayList<>();
+    }
+
+    /**
+     * @return The candles of the trades of all currencies with a start in [from, to), oldest first.
+     */
+    public List<Candle> getCandlesOfAllCurrencies(CandleInterval interval, long from, long to) {
+        return allCurrenciesSeries.get(interval).getCandles(from, to);
+    }
+
+    @Nullable
+    public Candle getCandle(String currencyCode, CandleInterval interval, long time) {
+        final EnumMap<CandleInterval, CandleSeries> map = seriesByCurrencyCode.get(currencyCode);
+        return map != null ? map.get(interval).candles.get(getIntervalStart(interval, time)) : null;
+    }
+
+    public Set<String> getCurrencyCodes() {
+        return Collections.unmodifiableSet(seriesByCurrencyCode.keySet());
+    }
+
+    public long getIntervalStart(CandleInterval interval, long time) {
+        return interval.getStart(time, zoneId);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private EnumMap<CandleInterval, CandleSeries> createSeries() {
+        final EnumMap<CandleInterval, CandleSeries> map = new EnumMap<>(CandleInterval.class);
+        for (CandleInterval interval : CandleInterval.values())
+            map.put(interval, new CandleSeries(interval));
+        return map;
+    }
+
+    private class CandleSeries {
+        private final CandleInterval interval;
+        private final TreeMap<Long, Candle> candles = new TreeMap<>();
+        // The most recent candle and the start of the following interval
+        @Nullable
+        private Candle latest;
+        private long latestEnd;
+
+        private CandleSeries(CandleInterval interval) {
+            this.interval = interval;
+        }
+
+        private void add(long tradeDate, long tradePrice, long tradeAmount, long tradeVolume) {
+            Candle candle;
+            if (latest != null && tradeDate >= latest.getStart() && tradeDate < latestEnd) {
+                candle = latest;
+            } else {
+                final long start = interval.getStart(tradeDate, zoneId);
+                candle = candles.computeIfAbsent(start, Candle::new);
+                if (latest == null || start > latest.getStart()) {
+                    latest = candle;
+                    latestEnd = interval.getNextStart(start, zoneId);
+                }
+            }
+            candle.add(tradeDate, tradePrice, tradeAmount, tradeVolume);
+        }
+
+        private List<Candle> getCandles(long from, long to) {
+            return from < to ? new ArrayList<>(candles.subMap(from, to).values()) : new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+// Immutable copy of a candle, as the json gets written on a background thread while the candle might get updated
+@EqualsAndHashCode
+@ToString
+public final class CandleForJson {
+    public final String currency;
+    public final long start;
+    public final long open;
+    public final long close;
+    public final long minPrice;
+    public final long maxPrice;
+    public final long amount;
+    public final long volume;
+    public final int numTrades;
+
+    public CandleForJson(String currency, Candle candle) {
+        this.currency = currency;
+        this.start = candle.getStart();
+        this.open = candle.getOpen();
+        this.close = candle.getClose();
+        this.minPrice = candle.getMinPrice();
+        this.maxPrice = candle.getMaxPrice();
+        this.amount = candle.getAccumulatedAmount();
+        this.volume = candle.getAccumulatedVolume();
+        this.numTrades = candle.getNumTrades();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The intervals of the trade statistics candles. Intervals are aligned to the local time of a zone, so a day starts
+ * at midnight and a week on Monday.
+ */
+public enum CandleInterval {
+    MINUTE,
+    MINUTE_10,
+    HOUR,
+    DAY,
+    WEEK,
+    MONTH,
+    YEAR;
+
+    /**
+     * @return The start of the interval containing the given time, in ms since epoch.
+     */
+    public long getStart(long time, ZoneId zoneId) {
+        ZonedDateTime dateTime = Instant.ofEpochMilli(time).atZone(zoneId);
+        switch (this) {
+            case MINUTE:
+                dateTime = dateTime.truncatedTo(ChronoUnit.MINUTES);
+                break;
+            case MINUTE_10:
+                dateTime = dateTime.truncatedTo(ChronoUnit.MINUTES).withMinute(dateTime.getMinute() - dateTime.getMinute() % 10);
+                break;
+            case HOUR:
+                dateTime = dateTime.truncatedTo(ChronoUnit.HOURS);
+                break;
+            case DAY:
+                dateTime = dateTime.truncatedTo(ChronoUnit.DAYS);
+                break;
+            case WEEK:
+                dateTime = dateTime.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                break;
+            case MONTH:
+                dateTime = dateTime.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+                break;
+            case YEAR:
+                dateTime = dateTime.truncatedTo(ChronoUnit.DAYS).withDayOfYear(1);
+                break;
+        }
+        return dateTime.toInstant().toEpochMilli();
+    }
+
+    /**
+     * @param start Start of an interval as returned by getStart
+     * @return The start of the following interval, in ms since epoch.
+     */
+    public long getNextStart(long start, ZoneId zoneId) {
+        ZonedDateTime dateTime = Instant.ofEpochMilli(start).atZone(zoneId);
+        switch (this) {
+            case MINUTE:
+                dateTime = dateTime.plusMinutes(1);
+                break;
+            case MINUTE_10:
+                dateTime = dateTime.plusMinutes(10);
+                break;
+            case HOUR:
+                dateTime = dateTime.plusHours(1);
+                break;
+            case DAY:
+                dateTime = dateTime.plusDays(1);
+                break;
+            case WEEK:
+                dateTime = dateTime.plusWeeks(1);
+                break;
+            case MONTH:
+                dateTime = dateTime.plusMonths(1);
+                break;
+            case YEAR:
+                dateTime = dateTime.plusYears(1);
+                break;
+        }
+        return dateTime.toInstant().toEpochMilli();
+    }
+}
@@ -209,6 +209,10 @@ public final class TradeStatistics2 implements LazyProcessedPayload, Persistable
         return new Date(tradeDate);
     }
 
+    public long getTradeDateAsLong() {
+        return tradeDate;
+    }
+
     public Price getTradePrice() {
         return Price.valueOf(getCurrencyCode(), tradePrice);
     }
@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Holds the trade statistics indexed by offer ID and by currency code. Both maker and taker publish the statistics
+ * of a trade, so we accept only one item per offer ID.
+ * <p/>
+ * Not thread safe. Is used from the UserThread.
+ */
+public class TradeStatisticsIndex {
+    // Sorted by trade date. We use the offer ID as tie breaker as it is unique inside the index.
+    static final Comparator<TradeStatistics2> TRADE_DATE_COMPARATOR = Comparator
+            .comparingLong(TradeStatistics2::getTradeDateAsLong)
+            .thenComparing(TradeStatistics2::getOfferId);
+
+    private final Map<String, TradeStatistics2> byOfferId = new HashMap<>();
+    private final Map<String, TreeSet<TradeStatistics2>> byCurrencyCode = new HashMap<>();
+
+    public TradeStatisticsIndex() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return True if the item was added, false if we have already an item with the same offer ID.
+     */
+    public boolean add(TradeStatistics2 tradeStatistics) {
+        if (byOfferId.putIfAbsent(tradeStatistics.getOfferId(), tradeStatistics) != null)
+            return false;
+
+        byCurrencyCode.computeIfAbsent(tradeStatistics.getCurrencyCode(), k -> new TreeSet<>(TRADE_DATE_COMPARATOR))
+                .add(tradeStatistics);
+        return true;
+    }
+
+    public boolean containsOfferId(String offerId) {
+        return byOfferId.containsKey(offerId);
+    }
+
+    public boolean isLatest(TradeStatistics2 tradeStatistics) {
+        return getLatest(tradeStatistics.getCurrencyCode()) == tradeStatistics;
+    }
+
+    @Nullable
+    public TradeStatistics2 getLatest(String currencyCode) {
+        final TreeSet<TradeStatistics2> set = byCurrencyCode.get(currencyCode);
+        return set != null ? set.last() : null;
+    }
+
+    // The most recent trade of each currency
+    public List<TradeStatistics2> getAllLatest() {
+        List<TradeStatistics2> list = new ArrayList<>(byCurrencyCode.size());
+        byCurrencyCode.values().forEach(set -> list.add(set.last()));
+        return list;
+    }
+
+    // Sorted by trade date, oldest first
+    public NavigableSet<TradeStatistics2> getByCurrencyCode(String currencyCode) {
+        final TreeSet<TradeStatistics2> set = byCurrencyCode.get(currencyCode);
+        return set != null ? Collections.unmodifiableNavigableSet(set) : Collections.emptyNavigableSet();
+    }
+
+    public Set<String> getCurrencyCodes() {
+        return Collections.unmodifiableSet(byCurrencyCode.keySet());
+    }
+
+    public Collection<TradeStatistics2> getAll() {
+        return Collections.unmodifiableCollection(byOfferId.values());
+    }
+
+    public int size() {
+        return byOfferId.size();
+    }
+}
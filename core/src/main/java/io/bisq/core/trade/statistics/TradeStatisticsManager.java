@@ -8,6 +8,7 @@ import io.bisq.common.locale.CurrencyUtil;
 import io.bisq.common.locale.Res;
 import io.bisq.common.storage.JsonFileManager;
 import io.bisq.common.storage.Storage;
+import io.bisq.common.storage.StreamingJsonFileManager;
 import io.bisq.common.util.Utilities;
 import io.bisq.core.app.AppOptionKeys;
 import io.bisq.core.provider.price.PriceFeedService;
@@ -20,6 +21,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -47,12 +49,20 @@ public class TradeStatisticsManager {
                 tradeStatistics.getExtraDataMap());
     }
 
+    // Delay for writing the trade_statistics.json snapshot after new items got added
+    private static final long SNAPSHOT_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+
     private final JsonFileManager jsonFileManager;
+    @Nullable
+    private final StreamingJsonFileManager tradeStatisticsJsonFileManager;
+    @Nullable
+    private final StreamingJsonFileManager dailyCandlesJsonFileManager;
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
-    private final HashSet<TradeStatistics2> tradeStatisticsSet = new HashSet<>();
+    private final TradeStatisticsIndex tradeStatisticsIndex = new TradeStatisticsIndex();
+    private final CandleAggregator candleAggregator = new CandleAggregator();
 
     @Inject
     public TradeStatisticsManager(P2PService p2PService,
@@ -63,6 +73,12 @@ public class TradeStatisticsManager {
         this.priceFeedService = priceFeedService;
         this.dumpStatistics = dumpStatistics;
         jsonFileManager = new JsonFileManager(storageDir);
+        tradeStatisticsJsonFileManager = dumpStatistics ?
+                new StreamingJsonFileManager(storageDir, "trade_statistics", StreamingJsonFileManager.LogMode.DAILY_JSON_LINES) :
+                null;
+        dailyCandlesJsonFileManager = dumpStatistics ?
+                new StreamingJsonFileManager(storageDir, "trade_statistics_daily_candles", StreamingJsonFileManager.LogMode.NONE) :
+                null;
     }
 
     public void onAllServicesInitialized() {
@@ -84,10 +100,14 @@ public class TradeStatisticsManager {
                 addToMap((TradeStatistics2) payload, true);
         });
 
+        // We fill the index first and add all items at once to the observable set
+        List<TradeStatistics2> addedItems = new ArrayList<>();
         p2PService.getP2PDataStorage().getPersistableNetworkPayloadCollection().getMap().values().forEach(e -> {
-            if (e instanceof TradeStatistics2)
-                addToMap((TradeStatistics2) e, false);
+            if (e instanceof TradeStatistics2 && tradeStatisticsIndex.add((TradeStatistics2) e))
+                addedItems.add((TradeStatistics2) e);
         });
+        candleAggregator.addAll(addedItems);
+        observableTradeStatisticsSet.addAll(addedItems);
 
         //TODO can be removed after version older than v0.6.0 are not used anymore
         // We listen to TradeStatistics objects from old clients as well and convert them into TradeStatistics2 objects
@@ -106,8 +126,8 @@ public class TradeStatisticsManager {
             }
         });
 
-        priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsSet);
-        dump();
+        tradeStatisticsIndex.getAllLatest().forEach(priceFeedService::applyLatestBisqMarketPrice);
+        dumpAll();
 
         // print all currencies sorted by nr. of trades
         // printAllCurrencyStats();
@@ -136,21 +156,18 @@ public class TradeStatisticsManager {
     }
 
     public void addToMap(TradeStatistics2 tradeStatistics, boolean storeLocally) {
-        if (!tradeStatisticsSet.contains(tradeStatistics)) {
-            boolean itemAlreadyAdded = tradeStatisticsSet.stream().filter(e -> (e.getOfferId().equals(tradeStatistics.getOfferId()))).findAny().isPresent();
-            if (!itemAlreadyAdded) {
-                tradeStatisticsSet.add(tradeStatistics);
-                observableTradeStatisticsSet.add(tradeStatistics);
-
-                tradeStatistics.getTradePrice().getValue();
-
-                if (storeLocally) {
-                    priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsSet);
-                    dump();
-                }
-            } else {
-                log.debug("We have already an item with the same offer ID. That might happen if both the maker and the taker published the tradeStatistics");
+        if (tradeStatisticsIndex.add(tradeStatistics)) {
+            candleAggregator.add(tradeStatistics);
+            observableTradeStatisticsSet.add(tradeStatistics);
+
+            if (storeLocally) {
+                // Only if the new item is the most recent trade of its currency the price changes
+                if (tradeStatisticsIndex.isLatest(tradeStatistics))
+                    priceFeedService.applyLatestBisqMarketPrice(tradeStatistics);
+                dump(tradeStatistics);
             }
+        } else {
+            log.debug("We have already an item with the same offer ID. That might happen if both the maker and the taker published the tradeStatistics");
         }
     }
 
@@ -158,25 +175,58 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsSet;
     }
 
-    private void dump() {
+    public TradeStatisticsIndex getTradeStatisticsIndex() {
+        return tradeStatisticsIndex;
+    }
+
+    public CandleAggregator getCandleAggregator() {
+        return candleAggregator;
+    }
+
+    // We store the statistics as json so it is easy for further processing (e.g. for web based services).
+    // At startup we write the log of daily json lines files and the snapshot with all items. New items get appended
+    // to the log and the snapshot is rewritten delayed, so we do not serialize the whole history at each new item.
+    // The daily candles of all currencies are written as snapshot as well.
+    private void dumpAll() {
         if (dumpStatistics) {
-            // We store the statistics as json so it is easy for further processing (e.g. for web based services)
-            // TODO This is just a quick solution for storing to one file.
-            // 1 statistic entry has 500 bytes as json.
-            // Need a more scalable solution later when we get more volume.
-            // The flag will only be activated by dedicated nodes, so it should not be too critical for the moment, but needs to
-            // get improved. Maybe a LevelDB like DB...? Could be impl. in a headless version only.
-            List<TradeStatisticsForJson> list = tradeStatisticsSet.stream().map(TradeStatisticsForJson::new).collect(Collectors.toList());
-            list.sort((o1, o2) -> (o1.tradeDate < o2.tradeDate ? 1 : (o1.tradeDate == o2.tradeDate ? 0 : -1)));
-            TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
-            list.toArray(array);
-            jsonFileManager.writeToDisc(Utilities.objectToJson(array), "trade_statistics");
+            tradeStatisticsJsonFileManager.rewriteLog(tradeStatisticsIndex.getAll().stream()
+                            .map(TradeStatisticsForJson::new)
+                            .collect(Collectors.toList()),
+                    e -> e.tradeDate);
+            tradeStatisticsJsonFileManager.writeSnapshot(getSortedTradeStatisticsForJson());
+            dailyCandlesJsonFileManager.writeSnapshot(getDailyCandlesForJson());
         }
     }
 
+    private void dump(TradeStatistics2 tradeStatistics) {
+        if (dumpStatistics) {
+            tradeStatisticsJsonFileManager.appendToLog(new TradeStatisticsForJson(tradeStatistics),
+                    tradeStatistics.getTradeDateAsLong());
+            tradeStatisticsJsonFileManager.requestSnapshot(this::getSortedTradeStatisticsForJson, SNAPSHOT_DELAY_MS);
+            dailyCandlesJsonFileManager.requestSnapshot(this::getDailyCandlesForJson, SNAPSHOT_DELAY_MS);
+        }
+    }
+
+    // Most recent first
+    private List<TradeStatisticsForJson> getSortedTradeStatisticsForJson() {
+        return tradeStatisticsIndex.getAll().stream()
+                .sorted(TradeStatisticsIndex.TRADE_DATE_COMPARATOR.reversed())
+                .map(TradeStatisticsForJson::new)
+                .collect(Collectors.toList());
+    }
+
+    // Sorted by currency, oldest first
+    private List<CandleForJson> getDailyCandlesForJson() {
+        List<CandleForJson> list = new ArrayList<>();
+        new TreeSet<>(candleAggregator.getCurrencyCodes()).forEach(currencyCode ->
+                candleAggregator.getCandles(currencyCode, CandleInterval.DAY, Long.MIN_VALUE, Long.MAX_VALUE)
+                        .forEach(candle -> list.add(new CandleForJson(currencyCode, candle))));
+        return list;
+    }
+
     private void printAllCurrencyStats() {
         Map<String, Set<TradeStatistics2>> map1 = new HashMap<>();
-        for (TradeStatistics2 tradeStatistics : tradeStatisticsSet) {
+        for (TradeStatistics2 tradeStatistics : tradeStatisticsIndex.getAll()) {
             if (CurrencyUtil.isFiatCurrency(tradeStatistics.getCounterCurrency())) {
                 final String counterCurrency = CurrencyUtil.getNameAndCode(tradeStatistics.getCounterCurrency());
                 if (!map1.containsKey(counterCurrency))
@@ -193,7 +243,7 @@ public class TradeStatisticsManager {
         log.error(sb1.toString());
 
         Map<String, Set<TradeStatistics2>> map2 = new HashMap<>();
-        for (TradeStatistics2 tradeStatistics : tradeStatisticsSet) {
+        for (TradeStatistics2 tradeStatistics : tradeStatisticsIndex.getAll()) {
             if (CurrencyUtil.isCryptoCurrency(tradeStatistics.getBaseCurrency())) {
                 final String code = CurrencyUtil.getNameAndCode(tradeStatistics.getBaseCurrency());
                 if (!map2.containsKey(code))
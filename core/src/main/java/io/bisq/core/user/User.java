@@ -21,6 +21,7 @@ import io.bisq.common.crypto.KeyRing;
 import io.bisq.common.locale.LanguageUtil;
 import io.bisq.common.locale.TradeCurrency;
 import io.bisq.common.proto.persistable.PersistedDataHost;
+import io.bisq.common.storage.PersistenceScheduler;
 import io.bisq.common.storage.Storage;
 import io.bisq.core.alert.Alert;
 import io.bisq.core.arbitration.Arbitrator;
@@ -74,6 +75,7 @@ public final class User implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
+        storage.setPriority(PersistenceScheduler.Priority.HIGH);
         UserPayload persisted = storage.initAndGetPersistedWithFileName("UserPayload", 100);
         userPayload = persisted != null ? persisted : new UserPayload();
 
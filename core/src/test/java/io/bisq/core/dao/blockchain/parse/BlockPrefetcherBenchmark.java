@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.blockchain.parse;
+
+// Compares the request pattern of the serial sync (one request per block hash, block and tx) with the pipelined sync
+// against a local stub of Bitcoin Core. Not run as unit test, start it with the main method.
+// Usage: BlockPrefetcherBenchmark [numBlocks] [txsPerBlock] [latencyMs]
+public class BlockPrefetcherBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int numBlocks = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        final int txsPerBlock = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        final long latencyMs = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        StubRpcServer stubRpcServer = new StubRpcServer(numBlocks, txsPerBlock, latencyMs);
+        stubRpcServer.start();
+        try {
+            // Warm up
+            run(stubRpcServer, numBlocks, 4, 16, 100);
+
+            long serial = run(stubRpcServer, numBlocks, 1, 1, 1);
+            long pipelined = run(stubRpcServer, numBlocks, 4, 16, 1);
+            long pipelinedAndBatched = run(stubRpcServer, numBlocks, 4, 16, 100);
+            System.out.println(String.format("%d blocks with %d txs, %d ms latency per http request",
+                    numBlocks, txsPerBlock, latencyMs));
+            System.out.println(String.format("Serial:                 %6d ms", serial));
+            System.out.println(String.format("Pipelined:              %6d ms (%.1fx)", pipelined, (double) serial / pipelined));
+            System.out.println(String.format("Pipelined with batches: %6d ms (%.1fx)", pipelinedAndBatched,
+                    (double) serial / pipelinedAndBatched));
+        } finally {
+            stubRpcServer.stop();
+        }
+    }
+
+    private static long run(StubRpcServer stubRpcServer, int numBlocks, int numThreads, int maxBlocksInFlight,
+                            int txBatchSize) throws Exception {
+        final int numHttpRequests = stubRpcServer.getNumHttpRequests();
+        long startTs = System.currentTimeMillis();
+        try (BlockPrefetcher blockPrefetcher = new BlockPrefetcher(stubRpcServer.createClient(), 0, numBlocks - 1,
+                numThreads, maxBlocksInFlight, txBatchSize, false)) {
+            for (int height = 0; height < numBlocks; height++)
+                blockPrefetcher.take(height);
+        }
+        long duration = System.currentTimeMillis() - startTs;
+        System.out.println(String.format("threads=%d, maxBlocksInFlight=%d, txBatchSize=%d: %d ms, %d http requests",
+                numThreads, maxBlocksInFlight, txBatchSize, duration,
+                stubRpcServer.getNumHttpRequests() - numHttpRequests));
+        return duration;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.blockchain.parse;
+
+import io.bisq.core.dao.blockchain.exceptions.BsqBlockchainException;
+import io.bisq.core.dao.blockchain.vo.Tx;
+import io.bisq.core.dao.blockchain.vo.TxOutput;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BlockPrefetcherTest {
+    private static final int NUM_BLOCKS = 20;
+    private static final int TXS_PER_BLOCK = 7;
+
+    private StubRpcServer stubRpcServer;
+
+    @Before
+    public void setUp() throws Exception {
+        stubRpcServer = new StubRpcServer(NUM_BLOCKS, TXS_PER_BLOCK, 0);
+        stubRpcServer.start();
+    }
+
+    @After
+    public void tearDown() {
+        stubRpcServer.stop();
+    }
+
+    @Test
+    public void testBlocksAreDeliveredInOrder() throws Exception {
+        try (BlockPrefetcher blockPrefetcher = new BlockPrefetcher(stubRpcServer.createClient(), 2, NUM_BLOCKS - 1,
+                3, 4, 3, false)) {
+            for (int height = 2; height < NUM_BLOCKS; height++) {
+                BlockPrefetcher.PrefetchedBlock block = blockPrefetcher.take(height);
+                assertEquals(height, block.getHeight());
+                assertEquals(StubRpcServer.getBlockHash(height), block.getHash());
+                assertEquals(StubRpcServer.getBlockHash(height - 1), block.getPreviousBlockHash());
+                assertEquals(TXS_PER_BLOCK, block.getTxs().size());
+                for (int index = 0; index < TXS_PER_BLOCK; index++) {
+                    Tx tx = block.getTxs().get(index);
+                    assertEquals(StubRpcServer.getTxId(height, index), tx.getId());
+                    assertEquals(height, tx.getBlockHeight());
+                    assertEquals(index == 0 ? 0 : 1, tx.getInputs().size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDecodingMatchesRawTransaction() throws Exception {
+        try (BlockPrefetcher blockPrefetcher = new BlockPrefetcher(stubRpcServer.createClient(), 5, 5,
+                2, 2, 100, true)) {
+            Tx tx = blockPrefetcher.take(5).getTxs().get(3);
+            assertEquals(StubRpcServer.getTxId(5, 2), tx.getInputs().get(0).getTxId());
+            assertEquals(0, tx.getInputs().get(0).getTxOutputIndex());
+            assertEquals((1_500_000_000L + 5 * 600) * 1000, tx.getTime());
+
+            TxOutput output = tx.getOutputs().get(0);
+            assertEquals(3, output.getValue());
+            assertEquals("address5_3", output.getAddress());
+            assertNotNull(output.getPubKeyScript());
+            assertNull(output.getOpReturnData());
+
+            TxOutput opReturnOutput = tx.getOutputs().get(1);
+            assertArrayEquals(new byte[]{1, 0, 3}, opReturnOutput.getOpReturnData());
+            assertNull(opReturnOutput.getAddress());
+        }
+    }
+
+    @Test(expected = BsqBlockchainException.class)
+    public void testRpcErrorIsReported() throws Exception {
+        // The stub knows no block at NUM_BLOCKS
+        try (BlockPrefetcher blockPrefetcher = new BlockPrefetcher(stubRpcServer.createClient(), NUM_BLOCKS,
+                NUM_BLOCKS, 1, 1, 1, false)) {
+            blockPrefetcher.take(NUM_BLOCKS);
+        }
+    }
+}
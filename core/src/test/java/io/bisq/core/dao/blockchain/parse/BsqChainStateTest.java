@@ -17,8 +17,13 @@
 
 package io.bisq.core.dao.blockchain.parse;
 
+import com.google.common.collect.ImmutableList;
+import io.bisq.core.dao.blockchain.vo.*;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.file.Files;
+
 import static org.junit.Assert.*;
 
 public class BsqChainStateTest {
@@ -52,4 +57,114 @@ public class BsqChainStateTest {
         assertFalse(BsqChainState.isSnapshotHeight(102, 201, 10));
         assertFalse(BsqChainState.isSnapshotHeight(102, 199, 10));
     }
+
+    @Test
+    public void testSpendTxOutputDoesNotChangeClone() throws Exception {
+        File storageDir = Files.createTempDirectory("BsqChainStateTest").toFile();
+        storageDir.deleteOnExit();
+        BsqChainState bsqChainState = new BsqChainState(null, storageDir);
+
+        TxOutput txOutput = new TxOutput(0, 100, "tx1", null, "address", null, 10);
+        txOutput.setVerified(true);
+        txOutput.setUnspent(true);
+        Tx tx = new Tx(new TxVo("tx1", 10, "hash10", 0), ImmutableList.of(), ImmutableList.of(txOutput));
+        bsqChainState.addUnspentTxOutput(txOutput);
+        bsqChainState.addBlock(new BsqBlock(10, "hash10", "hash9", ImmutableList.of(tx)));
+        BsqChainState clone = bsqChainState.getClone();
+
+        TxOutput spentTxOutput = bsqChainState.spendTxOutput(txOutput, new SpentInfo(11, "tx2", 0));
+        bsqChainState.addBlock(new BsqBlock(11, "hash11", "hash10", ImmutableList.of()));
+
+        assertNotSame(txOutput, spentTxOutput);
+        assertFalse(spentTxOutput.isUnspent());
+        assertTrue(txOutput.isUnspent());
+        assertEquals(1, clone.getUnspentTxOutputs().size());
+        assertTrue(clone.getSpentTxOutputs().isEmpty());
+        assertEquals(1, clone.getResettedBlocksFrom(0).size());
+
+        assertTrue(bsqChainState.getUnspentTxOutputs().isEmpty());
+        assertEquals(1, bsqChainState.getSpentTxOutputs().size());
+        assertFalse(bsqChainState.getTxMap().get("tx1").getOutputs().get(0).isUnspent());
+        assertEquals(11, bsqChainState.getChainHeadHeight());
+        assertEquals(10, clone.getChainHeadHeight());
+    }
+
+    @Test
+    public void testIndexes() throws Exception {
+        File storageDir = Files.createTempDirectory("BsqChainStateTest").toFile();
+        storageDir.deleteOnExit();
+        BsqChainState bsqChainState = new BsqChainState(null, storageDir);
+
+        TxOutput bsqOutput = new TxOutput(0, 100, "tx1", null, "bsqAddress", null, 10);
+        bsqOutput.setVerified(true);
+        bsqOutput.setUnspent(true);
+        bsqOutput.setTxOutputType(TxOutputType.BSQ_OUTPUT);
+        TxOutput btcOutput = new TxOutput(1, 200, "tx1", null, "btcAddress", null, 10);
+        Tx tx = new Tx(new TxVo("tx1", 10, "hash10", 0), ImmutableList.of(), ImmutableList.of(bsqOutput, btcOutput));
+        bsqChainState.addTxToMap(tx);
+        bsqChainState.addUnspentTxOutput(bsqOutput);
+
+        // The parser changes the tx after adding it, so it gets only indexed when the block is added
+        btcOutput.setTxOutputType(TxOutputType.COMPENSATION_REQUEST_BTC_OUTPUT);
+        tx.setBurntFee(5);
+        assertTrue(bsqChainState.existsCompensationRequestBtcAddress("btcAddress"));
+        assertEquals(0, bsqChainState.getTotalBurntFee().value);
+
+        bsqChainState.addBlock(new BsqBlock(10, "hash10", "hash9", ImmutableList.of(tx)));
+        assertTrue(bsqChainState.existsCompensationRequestBtcAddress("btcAddress"));
+        assertFalse(bsqChainState.existsCompensationRequestBtcAddress("bsqAddress"));
+        assertTrue(bsqChainState.findSponsoringBtcOutputsWithSameBtcAddress("btcAddress").isEmpty());
+        assertEquals(5, bsqChainState.getTotalBurntFee().value);
+        assertEquals(1, bsqChainState.getNumFeeTransactions());
+        assertEquals(1, bsqChainState.getNumUnspentTxOutputs());
+        assertEquals(0, bsqChainState.getNumSpentTxOutputs());
+        assertEquals(1, bsqChainState.getTxOutputsByType(TxOutputType.COMPENSATION_REQUEST_BTC_OUTPUT).size());
+
+        bsqChainState.spendTxOutput(bsqOutput, new SpentInfo(11, "tx2", 0));
+        bsqChainState.addBlock(new BsqBlock(11, "hash11", "hash10", ImmutableList.of()));
+        assertEquals(0, bsqChainState.getNumUnspentTxOutputs());
+        assertEquals(1, bsqChainState.getNumSpentTxOutputs());
+        assertFalse(bsqChainState.getTxOutputsByType(TxOutputType.BSQ_OUTPUT).iterator().next().isUnspent());
+        assertFalse(bsqChainState.getFeeTransactions().iterator().next().getOutputs().get(0).isUnspent());
+        assertEquals(5, bsqChainState.getClone().getTotalBurntFee().value);
+    }
+
+    @Test
+    public void testContainsBlockAndGetResettedBlocksFrom() throws Exception {
+        File storageDir = Files.createTempDirectory("BsqChainStateTest").toFile();
+        storageDir.deleteOnExit();
+        BsqChainState bsqChainState = new BsqChainState(null, storageDir);
+
+        TxOutput txOutput = new TxOutput(0, 100, "tx1", null, "address", null, 10);
+        txOutput.setVerified(true);
+        txOutput.setUnspent(true);
+        Tx tx = new Tx(new TxVo("tx1", 10, "hash10", 0), ImmutableList.of(), ImmutableList.of(txOutput));
+        bsqChainState.addUnspentTxOutput(txOutput);
+        BsqBlock block10 = new BsqBlock(10, "hash10", "hash9", ImmutableList.of(tx));
+        bsqChainState.addBlock(block10);
+        bsqChainState.spendTxOutput(txOutput, new SpentInfo(11, "tx2", 0));
+        bsqChainState.addBlock(new BsqBlock(11, "hash11", "hash10", ImmutableList.of()));
+        bsqChainState.addBlock(new BsqBlock(12, "hash12", "hash11", ImmutableList.of()));
+
+        // The stored block 10 got replaced by a copy with the spent output but it is still the same block
+        assertTrue(bsqChainState.containsBlock(new BsqBlock(10, "hash10", "hash9", ImmutableList.of(tx))));
+        assertTrue(bsqChainState.containsBlock(new BsqBlock(12, "hash12", "hash11", ImmutableList.of())));
+        assertFalse(bsqChainState.containsBlock(new BsqBlock(12, "otherHash12", "hash11", ImmutableList.of())));
+        assertFalse(bsqChainState.containsBlock(new BsqBlock(9, "hash9", "hash8", ImmutableList.of())));
+        assertFalse(bsqChainState.containsBlock(new BsqBlock(13, "hash13", "hash12", ImmutableList.of())));
+
+        // Adding a block we have already is ignored
+        bsqChainState.addBlock(block10);
+        assertEquals(12, bsqChainState.getChainHeadHeight());
+
+        assertEquals(3, bsqChainState.getResettedBlocksFrom(0).size());
+        assertEquals(2, bsqChainState.getResettedBlocksFrom(11).size());
+        assertEquals(12, bsqChainState.getResettedBlocksFrom(12).get(0).getHeight());
+        assertTrue(bsqChainState.getResettedBlocksFrom(13).isEmpty());
+
+        // Paged
+        assertEquals(2, bsqChainState.getResettedBlocksFrom(0, 2).size());
+        assertEquals(11, bsqChainState.getResettedBlocksFrom(11, 1).get(0).getHeight());
+        assertEquals(2, bsqChainState.getResettedBlocksFrom(11, 5).size());
+    }
 }
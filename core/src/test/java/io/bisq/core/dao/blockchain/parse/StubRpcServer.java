@@ -0,0 +1,202 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.blockchain.parse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local JSON-RPC server which serves a generated chain like Bitcoin Core with txindex.
+// Each tx spends output 0 of the previous tx, so all txs of a block depend on each other.
+// Each http request is delayed by latencyMs to simulate the round trip.
+class StubRpcServer {
+    static final int RPC_THREADS = 4;
+
+    private static final JsonNodeFactory FACTORY = JsonNodeFactory.instance;
+
+    private final int numBlocks;
+    private final int txsPerBlock;
+    private final long latencyMs;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger numHttpRequests = new AtomicInteger();
+    private HttpServer httpServer;
+    private ExecutorService executor;
+
+    StubRpcServer(int numBlocks, int txsPerBlock, long latencyMs) {
+        this.numBlocks = numBlocks;
+        this.txsPerBlock = txsPerBlock;
+        this.latencyMs = latencyMs;
+    }
+
+    void start() throws IOException {
+        // Otherwise Nagle's algorithm adds a delay to each response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        httpServer.createContext("/", this::handle);
+        executor = Executors.newFixedThreadPool(RPC_THREADS);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+    }
+
+    void stop() {
+        httpServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    JsonRpcBatchClient createClient() {
+        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+        cm.setDefaultMaxPerRoute(RPC_THREADS * 2);
+        CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(cm).build();
+        return new JsonRpcBatchClient(httpClient, "http://127.0.0.1:" + httpServer.getAddress().getPort(),
+                "user", "password");
+    }
+
+    int getNumHttpRequests() {
+        return numHttpRequests.get();
+    }
+
+    static String getBlockHash(int height) {
+        return String.format("%064x", height + 1_000_000);
+    }
+
+    static String getTxId(int height, int index) {
+        return String.format("%032x%032x", height, index);
+    }
+
+    // Output 0 has the value of the tx index in BTC, output 1 is an OP_RETURN output
+    static ObjectNode getRawTransaction(int height, int index) {
+        ObjectNode tx = FACTORY.objectNode();
+        tx.put("txid", getTxId(height, index));
+        tx.put("blockhash", getBlockHash(height));
+        tx.put("time", 1_500_000_000L + height * 600);
+        ArrayNode vin = tx.putArray("vin");
+        ObjectNode input = vin.addObject();
+        if (index == 0) {
+            input.put("coinbase", "03");
+        } else {
+            input.put("txid", getTxId(height, index - 1));
+            input.put("vout", 0);
+        }
+        ArrayNode vout = tx.putArray("vout");
+        ObjectNode output = vout.addObject();
+        output.put("value", new BigDecimal(index).movePointLeft(8));
+        output.put("n", 0);
+        ObjectNode scriptPubKey = output.putObject("scriptPubKey");
+        scriptPubKey.put("asm", "OP_DUP OP_HASH160 00 OP_EQUALVERIFY OP_CHECKSIG");
+        scriptPubKey.put("type", "pubkeyhash");
+        scriptPubKey.putArray("addresses").add("address" + height + "_" + index);
+        ObjectNode opReturnOutput = vout.addObject();
+        opReturnOutput.put("value", BigDecimal.ZERO);
+        opReturnOutput.put("n", 1);
+        ObjectNode opReturnScript = opReturnOutput.putObject("scriptPubKey");
+        opReturnScript.put("asm", "OP_RETURN 01" + String.format("%04x", index));
+        opReturnScript.put("type", "nulldata");
+        return tx;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        numHttpRequests.incrementAndGet();
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException ignore) {
+        }
+
+        JsonNode requests;
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            requests = objectMapper.readTree(inputStream);
+        }
+        JsonNode response;
+        if (requests.isArray()) {
+            ArrayNode responses = FACTORY.arrayNode();
+            // Bitcoin Core keeps the order, but clients must not rely on it
+            for (int i = requests.size() - 1; i >= 0; i--)
+                responses.add(handleRequest(requests.get(i)));
+            response = responses;
+        } else {
+            response = handleRequest(requests);
+        }
+
+        byte[] bytes = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    private ObjectNode handleRequest(JsonNode request) {
+        ObjectNode response = FACTORY.objectNode();
+        response.set("id", request.get("id"));
+        JsonNode params = request.get("params");
+        JsonNode result = null;
+        switch (request.get("method").asText()) {
+            case "getblockhash":
+                int height = params.get(0).asInt();
+                if (height < numBlocks)
+                    result = FACTORY.textNode(getBlockHash(height));
+                break;
+            case "getblock":
+                for (int i = 0; i < numBlocks && result == null; i++) {
+                    if (getBlockHash(i).equals(params.get(0).asText())) {
+                        ObjectNode block = FACTORY.objectNode();
+                        block.put("hash", getBlockHash(i));
+                        block.put("height", i);
+                        if (i > 0)
+                            block.put("previousblockhash", getBlockHash(i - 1));
+                        ArrayNode txIds = block.putArray("tx");
+                        for (int index = 0; index < txsPerBlock; index++)
+                            txIds.add(getTxId(i, index));
+                        result = block;
+                    }
+                }
+                break;
+            case "getrawtransaction":
+                String txId = params.get(0).asText();
+                result = getRawTransaction(Integer.parseInt(txId.substring(0, 32), 16),
+                        Integer.parseInt(txId.substring(32), 16));
+                break;
+        }
+
+        if (result != null) {
+            response.set("result", result);
+            response.putNull("error");
+        } else {
+            response.putNull("result");
+            ObjectNode error = response.putObject("error");
+            error.put("code", -8);
+            error.put("message", "Invalid request");
+        }
+        return response;
+    }
+}
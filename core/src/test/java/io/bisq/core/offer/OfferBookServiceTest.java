@@ -0,0 +1,83 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.offer;
+
+import io.bisq.common.monetary.Price;
+import io.bisq.core.provider.price.MarketPrice;
+import io.bisq.core.provider.price.PriceFeedService;
+import io.bisq.network.p2p.P2PService;
+import io.bisq.network.p2p.storage.P2PDataStorage;
+import io.bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+@RunWith(JMockit.class)
+public class OfferBookServiceTest {
+    @Mocked
+    P2PService p2PService;
+    @Mocked
+    PriceFeedService priceFeedService;
+    @Mocked
+    ProtectedStorageEntry protectedStorageEntry;
+
+    @Test
+    public void testGetOffersDoesNotRecalculatePrices() {
+        OfferPayload offerPayload = OfferTest.getOfferPayload(true);
+        P2PDataStorage.ByteArray hashOfPayload = new P2PDataStorage.ByteArray(new byte[]{1, 2, 3});
+        Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> dataMap = new HashMap<>();
+        dataMap.put(hashOfPayload, protectedStorageEntry);
+        MarketPrice marketPrice = new MarketPrice("EUR", 3000, Instant.now().getEpochSecond(), true);
+        new Expectations() {{
+            p2PService.getDataMap();
+            result = dataMap;
+            protectedStorageEntry.getProtectedStoragePayload();
+            result = offerPayload;
+            protectedStorageEntry.getHashOfPayload();
+            result = hashOfPayload;
+            priceFeedService.getMarketPrice("EUR");
+            result = marketPrice;
+        }};
+
+        OfferBookService offerBookService = new OfferBookService(p2PService, priceFeedService, new File("."), false);
+        List<Offer> offers = offerBookService.getOffers();
+        List<Offer> offersOfSecondCall = offerBookService.getOffers();
+        assertEquals(1, offers.size());
+        assertEquals(1, offersOfSecondCall.size());
+
+        // Each call hands out new Offer instances, but they share the calculated price and volumes
+        Offer offer = offers.get(0);
+        Offer offerOfSecondCall = offersOfSecondCall.get(0);
+        assertNotSame(offer, offerOfSecondCall);
+        Price price = offer.getPrice();
+        assertEquals(30300000L, price.getValue());
+        assertSame(price, offerOfSecondCall.getPrice());
+        assertSame(offer.getVolume(), offerOfSecondCall.getVolume());
+        assertSame(offer.getMinVolume(), offerOfSecondCall.getMinVolume());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.offer;
+
+import io.bisq.common.monetary.Price;
+import io.bisq.common.monetary.Volume;
+import io.bisq.core.provider.price.MarketPrice;
+import io.bisq.core.provider.price.PriceFeedService;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Instant;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+@RunWith(JMockit.class)
+public class OfferTest {
+    private MarketPrice marketPrice;
+
+    @Test
+    public void testFixedPriceIsMemoized() {
+        Offer offer = new Offer(getOfferPayload(false));
+        Price price = offer.getPrice();
+        assertEquals(30000000L, price.getValue());
+        assertSame(price, offer.getPrice());
+
+        Volume volume = offer.getVolume();
+        assertSame(volume, offer.getVolume());
+        assertEquals(offer.getVolumeByAmount(offer.getAmount()), volume);
+        assertEquals(offer.getVolumeByAmount(offer.getMinAmount()), offer.getMinVolume());
+    }
+
+    @Test
+    public void testMarketBasedPriceIsMemoizedUntilMarketPriceChanges(@Mocked PriceFeedService priceFeedService) {
+        new Expectations() {{
+            priceFeedService.getMarketPrice("EUR");
+            result = new Delegate<MarketPrice>() {
+                @SuppressWarnings("unused")
+                MarketPrice delegate(String currencyCode) {
+                    return marketPrice;
+                }
+            };
+        }};
+
+        Offer offer = new Offer(getOfferPayload(true));
+        offer.setPriceFeedService(priceFeedService);
+        long now = Instant.now().getEpochSecond();
+        marketPrice = new MarketPrice("EUR", 3000, now, true);
+        Price price = offer.getPrice();
+        // Sell offer with 1% margin above market price
+        assertEquals(30300000L, price.getValue());
+        assertSame(price, offer.getPrice());
+        Volume volume = offer.getVolume();
+        assertSame(volume, offer.getVolume());
+
+        // A price update replaces the market price, so the price and volume get recalculated
+        marketPrice = new MarketPrice("EUR", 4000, now, true);
+        Price newPrice = offer.getPrice();
+        assertEquals(40400000L, newPrice.getValue());
+        assertNotSame(volume, offer.getVolume());
+        assertEquals(offer.getVolumeByAmount(offer.getAmount()), offer.getVolume());
+
+        // Outdated market prices are not used
+        marketPrice = new MarketPrice("EUR", 4000, now - 3600, true);
+        assertNull(offer.getPrice());
+        assertNull(offer.getVolume());
+    }
+
+    static OfferPayload getOfferPayload(boolean useMarketBasedPrice) {
+        return new OfferPayload("id",
+                0,
+                null,
+                null,
+                OfferPayload.Direction.SELL,
+                30000000L,
+                0.01,
+                useMarketBasedPrice,
+                100000000L,
+                50000000L,
+                "BTC",
+                "EUR",
+                new ArrayList<>(),
+                new ArrayList<>(),
+                "SEPA",
+                "accountId",
+                null,
+                "DE",
+                null,
+                null,
+                null,
+                "1.0",
+                0,
+                0,
+                0,
+                true,
+                0,
+                0,
+                0,
+                0,
+                false,
+                false,
+                0,
+                0,
+                false,
+                null,
+                null,
+                1);
+    }
+}
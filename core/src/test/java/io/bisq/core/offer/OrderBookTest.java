@@ -0,0 +1,305 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.offer;
+
+import io.bisq.common.monetary.Price;
+import io.bisq.core.provider.price.MarketPrice;
+import io.bisq.core.provider.price.PriceFeedService;
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(JMockit.class)
+public class OrderBookTest {
+    private MarketPrice marketPrice;
+
+    @Test
+    public void testBestPricesAndSpread(@Mocked PriceFeedService priceFeedService) {
+        OrderBook orderBook = new OrderBook(priceFeedService);
+        orderBook.add(createOffer("buy1", OfferPayload.Direction.BUY, "EUR", 29000000L));
+        orderBook.add(createOffer("buy2", OfferPayload.Direction.BUY, "EUR", 29500000L));
+        orderBook.add(createOffer("sell1", OfferPayload.Direction.SELL, "EUR", 31000000L));
+        orderBook.add(createOffer("sell2", OfferPayload.Direction.SELL, "EUR", 30500000L));
+
+        assertEquals(29500000L, orderBook.getBestPrice("EUR", OfferPayload.Direction.BUY).getValue());
+        assertEquals(30500000L, orderBook.getBestPrice("EUR", OfferPayload.Direction.SELL).getValue());
+        assertEquals(1000000L, orderBook.getSpread("EUR").getValue());
+        assertEquals(Arrays.asList("buy2", "buy1"), getIds(orderBook.getOffers("EUR", OfferPayload.Direction.BUY)));
+        assertEquals(Arrays.asList("sell2", "sell1"), getIds(orderBook.getOffers("EUR", OfferPayload.Direction.SELL)));
+
+        // Altcoin prices are inverted, so the best buy offer has the lowest price
+        orderBook.add(createOffer("altBuy1", OfferPayload.Direction.BUY, "ETH", 900000L));
+        orderBook.add(createOffer("altBuy2", OfferPayload.Direction.BUY, "ETH", 800000L));
+        orderBook.add(createOffer("altSell", OfferPayload.Direction.SELL, "ETH", 700000L));
+        assertEquals(800000L, orderBook.getBestPrice("ETH", OfferPayload.Direction.BUY).getValue());
+        assertEquals(100000L, orderBook.getSpread("ETH").getValue());
+
+        orderBook.remove(createOffer("sell1", OfferPayload.Direction.SELL, "EUR", 31000000L));
+        orderBook.remove(createOffer("sell2", OfferPayload.Direction.SELL, "EUR", 30500000L));
+        assertNull(orderBook.getBestPrice("EUR", OfferPayload.Direction.SELL));
+        assertNull(orderBook.getSpread("EUR"));
+        assertEquals(2, orderBook.getNumOffers("EUR", OfferPayload.Direction.BUY));
+        assertEquals(0, orderBook.getNumOffers("EUR", OfferPayload.Direction.SELL));
+        assertEquals(5, orderBook.size());
+        assertNull(orderBook.getBestPrice("USD", OfferPayload.Direction.BUY));
+    }
+
+    @Test
+    public void testDeltas(@Mocked PriceFeedService priceFeedService) {
+        OrderBook orderBook = new OrderBook(priceFeedService);
+        List<OrderBook.Delta> deltas = new ArrayList<>();
+        orderBook.addListener(deltas::add);
+
+        Offer offer1 = createOffer("offer1", OfferPayload.Direction.SELL, "EUR", 30000000L);
+        Offer offer2 = createOffer("offer2", OfferPayload.Direction.SELL, "EUR", 30000000L);
+        Offer offer3 = createOffer("offer3", OfferPayload.Direction.SELL, "EUR", 31000000L);
+        orderBook.update(Arrays.asList(offer1, offer2, offer3), new ArrayList<>());
+        assertEquals(1, deltas.size());
+        assertEquals(3, deltas.get(0).getAdded().size());
+
+        // Offers with the same price are in the order they got added
+        assertEquals(Arrays.asList("offer1", "offer2", "offer3"),
+                getIds(orderBook.getOffers("EUR", OfferPayload.Direction.SELL)));
+        assertEquals(300000000L, orderBook.getTotalAmount("EUR").getValue());
+
+        // Adding the same instance again is no change
+        orderBook.add(offer1);
+        assertEquals(1, deltas.size());
+
+        // An offer with the same ID replaces the old one
+        Offer offer1Update = createOffer("offer1", OfferPayload.Direction.SELL, "EUR", 32000000L);
+        orderBook.add(offer1Update);
+        assertEquals(2, deltas.size());
+        assertEquals(offer1, deltas.get(1).getRemoved().get(0));
+        assertEquals(offer1Update, deltas.get(1).getAdded().get(0));
+        assertTrue(deltas.get(1).getCurrencyCodes().contains("EUR"));
+        assertEquals(Arrays.asList("offer2", "offer3", "offer1"),
+                getIds(orderBook.getOffers("EUR", OfferPayload.Direction.SELL)));
+        assertEquals(300000000L, orderBook.getTotalAmount("EUR").getValue());
+
+        orderBook.setAll(new ArrayList<>());
+        assertEquals(0, orderBook.size());
+        assertTrue(orderBook.getCurrencyCodes().isEmpty());
+        assertTrue(orderBook.getOffers("EUR", OfferPayload.Direction.SELL).isEmpty());
+    }
+
+    @Test
+    public void testMarketBasedOffersGetResorted(@Mocked PriceFeedService priceFeedService) {
+        new Expectations() {{
+            priceFeedService.getMarketPrice("EUR");
+            result = new Delegate<MarketPrice>() {
+                @SuppressWarnings("unused")
+                MarketPrice delegate(String currencyCode) {
+                    return marketPrice;
+                }
+            };
+        }};
+
+        long now = Instant.now().getEpochSecond();
+        marketPrice = new MarketPrice("EUR", 3000, now, true);
+        OrderBook orderBook = new OrderBook(priceFeedService);
+        Offer fixed = createOffer("fixed", OfferPayload.Direction.SELL, "EUR", 31000000L);
+        // 1% above market price
+        Offer marketBased = createOffer("marketBased", OfferPayload.Direction.SELL, "EUR", 0);
+        marketBased.setPriceFeedService(priceFeedService);
+        orderBook.update(Arrays.asList(fixed, marketBased), new ArrayList<>());
+        assertEquals(Arrays.asList("marketBased", "fixed"), getIds(orderBook.getOffers("EUR", OfferPayload.Direction.SELL)));
+        assertEquals(30300000L, orderBook.getBestPrice("EUR", OfferPayload.Direction.SELL).getValue());
+
+        marketPrice = new MarketPrice("EUR", 3100, now, true);
+        assertEquals(Arrays.asList("fixed", "marketBased"), getIds(orderBook.getOffers("EUR", OfferPayload.Direction.SELL)));
+        assertEquals(31000000L, orderBook.getBestPrice("EUR", OfferPayload.Direction.SELL).getValue());
+
+        // The same market price gets too old to be used, so the market based offer has no price anymore
+        final MarketPrice outdatedMarketPrice = marketPrice;
+        new Expectations(outdatedMarketPrice) {{
+            outdatedMarketPrice.isRecentExternalPriceAvailable();
+            result = false;
+        }};
+        assertEquals(Arrays.asList("fixed"), getIds(orderBook.getOffers("EUR", OfferPayload.Direction.SELL)));
+        assertEquals(31000000L, orderBook.getBestPrice("EUR", OfferPayload.Direction.SELL).getValue());
+
+        // Without a market price the offer has no price and is not in the sorted offers, but it is still counted
+        marketPrice = null;
+        assertEquals(Arrays.asList("fixed"), getIds(orderBook.getOffers("EUR", OfferPayload.Direction.SELL)));
+        assertEquals(2, orderBook.getNumOffers("EUR", OfferPayload.Direction.SELL));
+    }
+
+    @Test
+    public void testDepth(@Mocked PriceFeedService priceFeedService) {
+        OrderBook orderBook = new OrderBook(priceFeedService);
+        orderBook.add(createOffer("buy1", OfferPayload.Direction.BUY, "EUR", 29000000L));
+        orderBook.add(createOffer("buy2", OfferPayload.Direction.BUY, "EUR", 29500000L));
+        orderBook.add(createOffer("buy3", OfferPayload.Direction.BUY, "EUR", 29500000L));
+        orderBook.add(createOffer("buy4", OfferPayload.Direction.BUY, "EUR", 28000000L));
+
+        List<OrderBook.DepthLevel> depth = orderBook.getDepth("EUR", OfferPayload.Direction.BUY);
+        assertEquals(3, depth.size());
+        assertEquals(29500000L, depth.get(0).getPrice().getValue());
+        assertEquals(2, depth.get(0).getNumOffers());
+        assertEquals(200000000L, depth.get(0).getAmount().getValue());
+        assertEquals(200000000L, depth.get(0).getAccumulatedAmount().getValue());
+        assertEquals(300000000L, depth.get(1).getAccumulatedAmount().getValue());
+        assertEquals(400000000L, depth.get(2).getAccumulatedAmount().getValue());
+        assertEquals(300000000L, getAccumulatedAmount(orderBook, "EUR", OfferPayload.Direction.BUY, 29000000L));
+        // A price between the levels includes the better levels only
+        assertEquals(200000000L, getAccumulatedAmount(orderBook, "EUR", OfferPayload.Direction.BUY, 29200000L));
+        assertEquals(0, getAccumulatedAmount(orderBook, "EUR", OfferPayload.Direction.BUY, 30000000L));
+
+        orderBook.remove(createOffer("buy2", OfferPayload.Direction.BUY, "EUR", 29500000L));
+        orderBook.remove(createOffer("buy1", OfferPayload.Direction.BUY, "EUR", 29000000L));
+        depth = orderBook.getDepth("EUR", OfferPayload.Direction.BUY);
+        assertEquals(2, depth.size());
+        assertEquals(1, depth.get(0).getNumOffers());
+        assertEquals(200000000L, depth.get(1).getAccumulatedAmount().getValue());
+        assertEquals(100000000L, getAccumulatedAmount(orderBook, "EUR", OfferPayload.Direction.BUY, 29000000L));
+
+        // Altcoin prices are inverted, so the depth of the buy side starts at the lowest price
+        orderBook.add(createOffer("altBuy1", OfferPayload.Direction.BUY, "ETH", 900000L));
+        orderBook.add(createOffer("altBuy2", OfferPayload.Direction.BUY, "ETH", 800000L));
+        assertEquals(800000L, orderBook.getDepth("ETH", OfferPayload.Direction.BUY).get(0).getPrice().getValue());
+        assertEquals(100000000L, getAccumulatedAmount(orderBook, "ETH", OfferPayload.Direction.BUY, 850000L));
+        assertTrue(orderBook.getDepth("USD", OfferPayload.Direction.BUY).isEmpty());
+    }
+
+    @Test
+    public void testDepthMatchesSortedOffers(@Mocked PriceFeedService priceFeedService) {
+        OrderBook orderBook = new OrderBook(priceFeedService);
+        Random random = new Random(1);
+        List<Offer> offers = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (!offers.isEmpty() && random.nextInt(3) == 0) {
+                orderBook.remove(offers.remove(random.nextInt(offers.size())));
+            } else {
+                Offer offer = createOffer("offer" + i, OfferPayload.Direction.SELL, "EUR", 30000000L + random.nextInt(100) * 10000L);
+                offers.add(offer);
+                orderBook.add(offer);
+            }
+        }
+
+        List<OrderBook.DepthLevel> depth = orderBook.getDepth("EUR", OfferPayload.Direction.SELL);
+        long accumulatedAmount = 0;
+        int index = -1;
+        long lastPrice = 0;
+        for (Offer offer : orderBook.getOffers("EUR", OfferPayload.Direction.SELL)) {
+            if (offer.getPrice().getValue() != lastPrice) {
+                if (index >= 0) {
+                    assertEquals(accumulatedAmount, depth.get(index).getAccumulatedAmount().getValue());
+                    assertEquals(accumulatedAmount, getAccumulatedAmount(orderBook, "EUR", OfferPayload.Direction.SELL, lastPrice));
+                }
+                index++;
+                lastPrice = offer.getPrice().getValue();
+                assertEquals(lastPrice, depth.get(index).getPrice().getValue());
+            }
+            accumulatedAmount += offer.getAmount().getValue();
+        }
+        assertEquals(depth.size(), index + 1);
+        assertEquals(accumulatedAmount, depth.get(index).getAccumulatedAmount().getValue());
+    }
+
+    @Test
+    public void testDepthFollowsMarketPrice(@Mocked PriceFeedService priceFeedService) {
+        new Expectations() {{
+            priceFeedService.getMarketPrice("EUR");
+            result = new Delegate<MarketPrice>() {
+                @SuppressWarnings("unused")
+                MarketPrice delegate(String currencyCode) {
+                    return marketPrice;
+                }
+            };
+        }};
+
+        long now = Instant.now().getEpochSecond();
+        marketPrice = new MarketPrice("EUR", 3000, now, true);
+        OrderBook orderBook = new OrderBook(priceFeedService);
+        Offer marketBased = createOffer("marketBased", OfferPayload.Direction.SELL, "EUR", 0);
+        marketBased.setPriceFeedService(priceFeedService);
+        orderBook.update(Arrays.asList(createOffer("fixed", OfferPayload.Direction.SELL, "EUR", 31000000L), marketBased),
+                new ArrayList<>());
+        assertEquals(100000000L, getAccumulatedAmount(orderBook, "EUR", OfferPayload.Direction.SELL, 30300000L));
+
+        marketPrice = new MarketPrice("EUR", 3100, now, true);
+        assertEquals(0, getAccumulatedAmount(orderBook, "EUR", OfferPayload.Direction.SELL, 30300000L));
+        List<OrderBook.DepthLevel> depth = orderBook.getDepth("EUR", OfferPayload.Direction.SELL);
+        assertEquals(31000000L, depth.get(0).getPrice().getValue());
+        assertEquals(31310000L, depth.get(1).getPrice().getValue());
+        assertEquals(200000000L, depth.get(1).getAccumulatedAmount().getValue());
+    }
+
+    private static long getAccumulatedAmount(OrderBook orderBook, String currencyCode, OfferPayload.Direction direction, long price) {
+        return orderBook.getAccumulatedAmount(currencyCode, direction, Price.valueOf(currencyCode, price)).getValue();
+    }
+
+    private static List<String> getIds(List<Offer> offers) {
+        return offers.stream().map(Offer::getId).collect(Collectors.toList());
+    }
+
+    private static Offer createOffer(String id, OfferPayload.Direction direction, String currencyCode, long price) {
+        final boolean isCryptoCurrency = currencyCode.equals("ETH");
+        return new Offer(new OfferPayload(id,
+                0,
+                null,
+                null,
+                direction,
+                price,
+                0.01,
+                price == 0,
+                100000000L,
+                50000000L,
+                isCryptoCurrency ? currencyCode : "BTC",
+                isCryptoCurrency ? "BTC" : currencyCode,
+                new ArrayList<>(),
+                new ArrayList<>(),
+                "SEPA",
+                "accountId",
+                null,
+                "DE",
+                null,
+                null,
+                null,
+                "1.0",
+                0,
+                0,
+                0,
+                true,
+                0,
+                0,
+                0,
+                0,
+                false,
+                false,
+                0,
+                0,
+                false,
+                null,
+                null,
+                1));
+    }
+}
@@ -2,6 +2,7 @@ package io.bisq.core.payment;
 
 import io.bisq.common.crypto.CryptoException;
 import io.bisq.common.crypto.Sig;
+import io.bisq.network.crypto.SignatureVerificationService;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.After;
 import org.junit.Before;
@@ -43,7 +44,7 @@ public class AccountAgeWitnessServiceTest {
 
     @Before
     public void setup() throws CertificateException, NoSuchAlgorithmException, KeyStoreException, IOException, CryptoException {
-        service = new AccountAgeWitnessService(null, null, null);
+        service = new AccountAgeWitnessService(null, null, null, new SignatureVerificationService());
         keypair = Sig.generateKeyPair();
         publicKey = keypair.getPublic();
     }
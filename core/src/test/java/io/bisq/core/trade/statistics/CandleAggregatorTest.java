@@ -0,0 +1,139 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import io.bisq.core.offer.OfferPayload;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CandleAggregatorTest {
+    private static final ZoneId ZONE_ID = ZoneOffset.UTC;
+
+    @Test
+    public void testIntervalStart() {
+        // Wednesday
+        long time = getTime("2018-01-03T13:27:45");
+        assertEquals(getTime("2018-01-03T13:27:00"), CandleInterval.MINUTE.getStart(time, ZONE_ID));
+        assertEquals(getTime("2018-01-03T13:20:00"), CandleInterval.MINUTE_10.getStart(time, ZONE_ID));
+        assertEquals(getTime("2018-01-03T13:00:00"), CandleInterval.HOUR.getStart(time, ZONE_ID));
+        assertEquals(getTime("2018-01-03T00:00:00"), CandleInterval.DAY.getStart(time, ZONE_ID));
+        assertEquals(getTime("2018-01-01T00:00:00"), CandleInterval.WEEK.getStart(time, ZONE_ID));
+        assertEquals(getTime("2018-01-01T00:00:00"), CandleInterval.MONTH.getStart(time, ZONE_ID));
+        assertEquals(getTime("2018-01-01T00:00:00"), CandleInterval.YEAR.getStart(time, ZONE_ID));
+
+        long start = CandleInterval.MONTH.getStart(time, ZONE_ID);
+        assertEquals(getTime("2018-02-01T00:00:00"), CandleInterval.MONTH.getNextStart(start, ZONE_ID));
+        start = CandleInterval.WEEK.getStart(time, ZONE_ID);
+        assertEquals(getTime("2018-01-08T00:00:00"), CandleInterval.WEEK.getNextStart(start, ZONE_ID));
+    }
+
+    @Test
+    public void testCandle() {
+        CandleAggregator aggregator = new CandleAggregator(ZONE_ID);
+        // Added out of order, the open and close prices are from the earliest and latest trade
+        aggregator.add(createTradeStatistics("offer1", "EUR", "2018-01-03T13:00:02", 520, 1));
+        aggregator.add(createTradeStatistics("offer2", "EUR", "2018-01-03T13:00:01", 500, 2));
+        aggregator.add(createTradeStatistics("offer3", "EUR", "2018-01-03T13:00:03", 600, 1));
+        aggregator.add(createTradeStatistics("offer4", "USD", "2018-01-03T13:00:04", 700, 1));
+
+        Candle candle = aggregator.getCandle("EUR", CandleInterval.HOUR, getTime("2018-01-03T13:59:59"));
+        assertNotNull(candle);
+        assertEquals(getTime("2018-01-03T13:00:00"), candle.getStart());
+        assertEquals(500, candle.getOpen());
+        assertEquals(600, candle.getClose());
+        assertEquals(500, candle.getMinPrice());
+        assertEquals(600, candle.getMaxPrice());
+        assertEquals(4, candle.getAccumulatedAmount());
+        assertEquals(3, candle.getNumTrades());
+
+        Candle allCurrencies = aggregator.getCandlesOfAllCurrencies(CandleInterval.HOUR, 0, Long.MAX_VALUE).get(0);
+        assertEquals(5, allCurrencies.getAccumulatedAmount());
+        assertEquals(4, allCurrencies.getNumTrades());
+
+        assertNull(aggregator.getCandle("EUR", CandleInterval.HOUR, getTime("2018-01-03T14:00:00")));
+        assertNull(aggregator.getCandle("JPY", CandleInterval.HOUR, getTime("2018-01-03T13:00:00")));
+        assertEquals(2, aggregator.getCurrencyCodes().size());
+    }
+
+    @Test
+    public void testGetCandles() {
+        CandleAggregator aggregator = new CandleAggregator(ZONE_ID);
+        List<TradeStatistics2> list = new ArrayList<>();
+        list.add(createTradeStatistics("offer1", "EUR", "2018-01-03T13:00:00", 500, 1));
+        list.add(createTradeStatistics("offer2", "EUR", "2018-01-03T13:59:59", 510, 1));
+        list.add(createTradeStatistics("offer3", "EUR", "2018-01-03T15:10:00", 520, 1));
+        list.add(createTradeStatistics("offer4", "EUR", "2018-01-05T09:00:00", 530, 1));
+        // A late trade in an older interval
+        list.add(createTradeStatistics("offer5", "EUR", "2018-01-02T09:00:00", 540, 1));
+        list.forEach(aggregator::add);
+
+        List<Candle> hours = aggregator.getCandles("EUR", CandleInterval.HOUR,
+                getTime("2018-01-03T00:00:00"), getTime("2018-01-05T09:00:00"));
+        assertEquals(2, hours.size());
+        assertEquals(getTime("2018-01-03T13:00:00"), hours.get(0).getStart());
+        assertEquals(2, hours.get(0).getNumTrades());
+        assertEquals(getTime("2018-01-03T15:00:00"), hours.get(1).getStart());
+
+        List<Candle> days = aggregator.getCandles("EUR", CandleInterval.DAY, 0, Long.MAX_VALUE);
+        assertEquals(3, days.size());
+        assertEquals(getTime("2018-01-02T00:00:00"), days.get(0).getStart());
+        assertEquals(3, days.get(1).getNumTrades());
+        assertEquals(520, days.get(1).getClose());
+
+        assertEquals(1, aggregator.getCandles("EUR", CandleInterval.WEEK, 0, Long.MAX_VALUE).size());
+        assertTrue(aggregator.getCandles("USD", CandleInterval.DAY, 0, Long.MAX_VALUE).isEmpty());
+
+        // Adding all at once gives the same candles
+        CandleAggregator bulkAggregator = new CandleAggregator(ZONE_ID);
+        bulkAggregator.addAll(list);
+        for (CandleInterval interval : CandleInterval.values())
+            assertEquals(aggregator.getCandles("EUR", interval, 0, Long.MAX_VALUE).toString(),
+                    bulkAggregator.getCandles("EUR", interval, 0, Long.MAX_VALUE).toString());
+    }
+
+    private static long getTime(String dateTime) {
+        return LocalDateTime.parse(dateTime).atZone(ZONE_ID).toInstant().toEpochMilli();
+    }
+
+    private static TradeStatistics2 createTradeStatistics(String offerId, String counterCurrency, String tradeDate,
+                                                          long tradePrice, long tradeAmount) {
+        return new TradeStatistics2(OfferPayload.Direction.BUY,
+                "BTC",
+                counterCurrency,
+                "SEPA",
+                0,
+                false,
+                0,
+                100000,
+                100000,
+                offerId,
+                tradePrice,
+                tradeAmount,
+                getTime(tradeDate),
+                "depositTxId",
+                null,
+                null);
+    }
+}
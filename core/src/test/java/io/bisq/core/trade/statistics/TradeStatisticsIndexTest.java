@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import io.bisq.core.offer.OfferPayload;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class TradeStatisticsIndexTest {
+
+    @Test
+    public void testAddAndLatest() {
+        TradeStatisticsIndex index = new TradeStatisticsIndex();
+        TradeStatistics2 usd1 = createTradeStatistics("offer1", "USD", 2000);
+        TradeStatistics2 usd2 = createTradeStatistics("offer2", "USD", 1000);
+        TradeStatistics2 eur = createTradeStatistics("offer3", "EUR", 500);
+
+        assertTrue(index.add(usd1));
+        assertTrue(index.isLatest(usd1));
+        assertTrue(index.add(usd2));
+        // Older trade does not replace the latest
+        assertFalse(index.isLatest(usd2));
+        assertTrue(index.add(eur));
+
+        assertEquals(3, index.size());
+        assertEquals(usd1, index.getLatest("USD"));
+        assertEquals(eur, index.getLatest("EUR"));
+        assertNull(index.getLatest("JPY"));
+        assertEquals(2, index.getAllLatest().size());
+
+        ArrayList<TradeStatistics2> usdList = new ArrayList<>(index.getByCurrencyCode("USD"));
+        assertEquals(usd2, usdList.get(0));
+        assertEquals(usd1, usdList.get(1));
+    }
+
+    @Test
+    public void testSameOfferIdIsRejected() {
+        TradeStatisticsIndex index = new TradeStatisticsIndex();
+        assertTrue(index.add(createTradeStatistics("offer1", "USD", 1000)));
+        // Maker and taker publish with different trade dates
+        assertFalse(index.add(createTradeStatistics("offer1", "USD", 1001)));
+        assertEquals(1, index.size());
+        assertEquals(1, index.getByCurrencyCode("USD").size());
+    }
+
+    private static TradeStatistics2 createTradeStatistics(String offerId, String counterCurrency, long tradeDate) {
+        return new TradeStatistics2(OfferPayload.Direction.BUY,
+                "BTC",
+                counterCurrency,
+                "SEPA",
+                0,
+                false,
+                0,
+                100000,
+                100000,
+                offerId,
+                50000000,
+                100000,
+                tradeDate,
+                "depositTxId",
+                null,
+                null);
+    }
+}
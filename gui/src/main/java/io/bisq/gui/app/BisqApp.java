@@ -169,7 +169,8 @@ public class BisqApp extends Application {
         Capabilities.setSupportedCapabilities(new ArrayList<>(Arrays.asList(
                 Capabilities.Capability.TRADE_STATISTICS.ordinal(),
                 Capabilities.Capability.TRADE_STATISTICS_2.ordinal(),
-                Capabilities.Capability.ACCOUNT_AGE_WITNESS.ordinal()
+                Capabilities.Capability.ACCOUNT_AGE_WITNESS.ordinal(),
+                Capabilities.Capability.PAYLOAD_SKETCH.ordinal()
         )));
     }
 
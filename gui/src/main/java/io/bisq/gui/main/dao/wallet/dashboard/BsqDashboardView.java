@@ -145,10 +145,10 @@ public class BsqDashboardView extends ActivatableView<GridPane, Void> implements
         final Coin availableAmount = bsqChainState.getIssuedAmount().subtract(burntFee);
         availableAmountTextField.setText(bsqFormatter.formatAmountWithGroupSeparatorAndCode(availableAmount));
         burntAmountTextField.setText(bsqFormatter.formatAmountWithGroupSeparatorAndCode(burntFee));
-        allTxTextField.setText(String.valueOf(bsqChainState.getTransactions().size()));
-        utxoTextField.setText(String.valueOf(bsqChainState.getUnspentTxOutputs().size()));
-        spentTxTextField.setText(String.valueOf(bsqChainState.getSpentTxOutputs().size()));
-        burntTxTextField.setText(String.valueOf(bsqChainState.getFeeTransactions().size()));
+        allTxTextField.setText(String.valueOf(bsqChainState.getNumTransactions()));
+        utxoTextField.setText(String.valueOf(bsqChainState.getNumUnspentTxOutputs()));
+        spentTxTextField.setText(String.valueOf(bsqChainState.getNumSpentTxOutputs()));
+        burntTxTextField.setText(String.valueOf(bsqChainState.getNumFeeTransactions()));
     }
 
     private void updatePrice() {
@@ -25,6 +25,7 @@ import io.bisq.common.locale.TradeCurrency;
 import io.bisq.common.monetary.Price;
 import io.bisq.core.offer.Offer;
 import io.bisq.core.offer.OfferPayload;
+import io.bisq.core.offer.OrderBook;
 import io.bisq.core.provider.price.PriceFeedService;
 import io.bisq.core.user.Preferences;
 import io.bisq.gui.Navigation;
@@ -41,9 +42,9 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.chart.XYChart;
+import org.bitcoinj.core.Coin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,7 +67,8 @@ class OfferBookChartViewModel extends ActivatableViewModel {
     private final List<XYChart.Data> buyData = new ArrayList<>();
     private final List<XYChart.Data> sellData = new ArrayList<>();
     private final ObservableList<OfferBookListItem> offerBookListItems;
-    private final ListChangeListener<OfferBookListItem> offerBookListItemsListener;
+    private final OrderBook orderBook;
+    private final OrderBook.Listener orderBookListener;
     final ObservableList<CurrencyListItem> currencyListItems = FXCollections.observableArrayList();
     private final ObservableList<OfferListItem> topBuyOfferList = FXCollections.observableArrayList();
     private final ObservableList<OfferListItem> topSellOfferList = FXCollections.observableArrayList();
@@ -94,18 +96,10 @@ class OfferBookChartViewModel extends ActivatableViewModel {
         }
 
         offerBookListItems = offerBook.getOfferBookListItems();
-        offerBookListItemsListener = c -> {
-            c.next();
-            if (c.wasAdded() || c.wasRemoved()) {
-                ArrayList<OfferBookListItem> list = new ArrayList<>(c.getRemoved());
-                list.addAll(c.getAddedSubList());
-                if (list.stream()
-                        .map(OfferBookListItem::getOffer)
-                        .filter(e -> e.getOfferPayload().getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode()))
-                        .findAny()
-                        .isPresent())
-                    updateChartData();
-            }
+        orderBook = offerBook.getOrderBook();
+        orderBookListener = delta -> {
+            if (delta.getCurrencyCodes().contains(getCurrencyCode()))
+                updateChartData();
 
             fillTradeCurrencies();
         };
@@ -142,7 +136,7 @@ class OfferBookChartViewModel extends ActivatableViewModel {
 
     @Override
     protected void activate() {
-        offerBookListItems.addListener(offerBookListItemsListener);
+        orderBook.addListener(orderBookListener);
 
         offerBook.fillOfferBookListItems();
         fillTradeCurrencies();
@@ -156,7 +150,7 @@ class OfferBookChartViewModel extends ActivatableViewModel {
 
     @Override
     protected void deactivate() {
-        offerBookListItems.removeListener(offerBookListItemsListener);
+        orderBook.removeListener(orderBookListener);
     }
 
 
@@ -238,48 +232,17 @@ class OfferBookChartViewModel extends ActivatableViewModel {
         return offerBookListItems.stream().filter(item -> item.getOffer().getPrice() == null).findAny().isPresent();
     }
 
+    // The order book provides the offers with a price and the depth sorted with the best price first
     private void updateChartData() {
-        List<Offer> allBuyOffers = offerBookListItems.stream()
-                .map(OfferBookListItem::getOffer)
-                .filter(e -> e.getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())
-                        && e.getDirection().equals(OfferPayload.Direction.BUY))
-                .sorted((o1, o2) -> {
-                    long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
-                    long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
-                    if (a != b) {
-                        if (CurrencyUtil.isCryptoCurrency(o1.getCurrencyCode()))
-                            return a > b ? 1 : -1;
-                        else
-                            return a < b ? 1 : -1;
-                    } else {
-                        return 0;
-                    }
-                })
-                .collect(Collectors.toList());
-
-        allBuyOffers = filterOffersWithRelevantPrices(allBuyOffers);
-        buildChartAndTableEntries(allBuyOffers, OfferPayload.Direction.BUY, buyData, topBuyOfferList);
-
-        List<Offer> allSellOffers = offerBookListItems.stream()
-                .map(OfferBookListItem::getOffer)
-                .filter(e -> e.getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())
-                        && e.getDirection().equals(OfferPayload.Direction.SELL))
-                .sorted((o1, o2) -> {
-                    long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
-                    long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
-                    if (a != b) {
-                        if (CurrencyUtil.isCryptoCurrency(o1.getCurrencyCode()))
-                            return a < b ? 1 : -1;
-                        else
-                            return a > b ? 1 : -1;
-                    } else {
-                        return 0;
-                    }
-                })
-                .collect(Collectors.toList());
-
-        allSellOffers = filterOffersWithRelevantPrices(allSellOffers);
-        buildChartAndTableEntries(allSellOffers, OfferPayload.Direction.SELL, sellData, topSellOfferList);
+        buildChartEntries(filterDepthWithRelevantPrices(orderBook.getDepth(getCurrencyCode(), OfferPayload.Direction.BUY)),
+                OfferPayload.Direction.BUY, buyData);
+        buildTableEntries(filterOffersWithRelevantPrices(orderBook.getOffers(getCurrencyCode(), OfferPayload.Direction.BUY)),
+                topBuyOfferList);
+
+        buildChartEntries(filterDepthWithRelevantPrices(orderBook.getDepth(getCurrencyCode(), OfferPayload.Direction.SELL)),
+                OfferPayload.Direction.SELL, sellData);
+        buildTableEntries(filterOffersWithRelevantPrices(orderBook.getOffers(getCurrencyCode(), OfferPayload.Direction.SELL)),
+                topSellOfferList);
     }
 
     // If there are more then 3 offers we ignore the offers which are further than 30% from the best price
@@ -287,45 +250,58 @@ class OfferBookChartViewModel extends ActivatableViewModel {
         if (offers.size() > 3) {
             Price bestPrice = offers.get(0).getPrice();
             if (bestPrice != null) {
-                long bestPriceAsLong = bestPrice.getValue();
                 return offers.stream()
-                        .filter(e -> {
-                            if (e.getPrice() == null)
-                                return false;
-
-                            double ratio = (double) e.getPrice().getValue() / (double) bestPriceAsLong;
-                            return Math.abs(1 - ratio) < 0.3;
-                        })
+                        .filter(e -> e.getPrice() != null && isRelevantPrice(e.getPrice(), bestPrice))
                         .collect(Collectors.toList());
             }
         }
         return offers;
     }
 
-    private void buildChartAndTableEntries(List<Offer> sortedList, OfferPayload.Direction direction, List<XYChart.Data> data, ObservableList<OfferListItem> offerTableList) {
+    // Same as for the offers but per price level
+    private List<OrderBook.DepthLevel> filterDepthWithRelevantPrices(List<OrderBook.DepthLevel> depth) {
+        if (depth.size() > 3) {
+            Price bestPrice = depth.get(0).getPrice();
+            return depth.stream()
+                    .filter(e -> isRelevantPrice(e.getPrice(), bestPrice))
+                    .collect(Collectors.toList());
+        }
+        return depth;
+    }
+
+    private boolean isRelevantPrice(Price price, Price bestPrice) {
+        double ratio = (double) price.getValue() / (double) bestPrice.getValue();
+        return Math.abs(1 - ratio) < 0.3;
+    }
+
+    private void buildChartEntries(List<OrderBook.DepthLevel> depth, OfferPayload.Direction direction, List<XYChart.Data> data) {
         data.clear();
+        for (OrderBook.DepthLevel level : depth) {
+            Price price = level.getPrice();
+            Coin accumulatedAmount = level.getAccumulatedAmount();
+            double accumulatedAmountAsDouble = (double) accumulatedAmount.value / LongMath.pow(10, accumulatedAmount.smallestUnitExponent());
+            double priceAsDouble = (double) price.getValue() / LongMath.pow(10, price.smallestUnitExponent());
+            if (CurrencyUtil.isCryptoCurrency(getCurrencyCode())) {
+                if (direction.equals(OfferPayload.Direction.SELL))
+                    data.add(0, new XYChart.Data<>(priceAsDouble, accumulatedAmountAsDouble));
+                else
+                    data.add(new XYChart.Data<>(priceAsDouble, accumulatedAmountAsDouble));
+            } else {
+                if (direction.equals(OfferPayload.Direction.BUY))
+                    data.add(0, new XYChart.Data<>(priceAsDouble, accumulatedAmountAsDouble));
+                else
+                    data.add(new XYChart.Data<>(priceAsDouble, accumulatedAmountAsDouble));
+            }
+        }
+    }
+
+    private void buildTableEntries(List<Offer> sortedList, ObservableList<OfferListItem> offerTableList) {
         double accumulatedAmount = 0;
         List<OfferListItem> offerTableListTemp = new ArrayList<>();
         for (Offer offer : sortedList) {
-            Price price = offer.getPrice();
-            if (price != null) {
-                double amount = (double) offer.getAmount().value / LongMath.pow(10, offer.getAmount().smallestUnitExponent());
-                accumulatedAmount += amount;
-                offerTableListTemp.add(new OfferListItem(offer, accumulatedAmount));
-
-                double priceAsDouble = (double) price.getValue() / LongMath.pow(10, price.smallestUnitExponent());
-                if (CurrencyUtil.isCryptoCurrency(getCurrencyCode())) {
-                    if (direction.equals(OfferPayload.Direction.SELL))
-                        data.add(0, new XYChart.Data<>(priceAsDouble, accumulatedAmount));
-                    else
-                        data.add(new XYChart.Data<>(priceAsDouble, accumulatedAmount));
-                } else {
-                    if (direction.equals(OfferPayload.Direction.BUY))
-                        data.add(0, new XYChart.Data<>(priceAsDouble, accumulatedAmount));
-                    else
-                        data.add(new XYChart.Data<>(priceAsDouble, accumulatedAmount));
-                }
-            }
+            double amount = (double) offer.getAmount().value / LongMath.pow(10, offer.getAmount().smallestUnitExponent());
+            accumulatedAmount += amount;
+            offerTableListTemp.add(new OfferListItem(offer, accumulatedAmount));
         }
         offerTableList.setAll(offerTableListTemp);
     }
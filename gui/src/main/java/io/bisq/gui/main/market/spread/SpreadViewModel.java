@@ -21,17 +21,15 @@ import com.google.inject.Inject;
 import io.bisq.common.locale.CurrencyUtil;
 import io.bisq.common.monetary.Altcoin;
 import io.bisq.common.monetary.Price;
-import io.bisq.core.offer.Offer;
 import io.bisq.core.offer.OfferPayload;
+import io.bisq.core.offer.OrderBook;
 import io.bisq.core.provider.price.MarketPrice;
 import io.bisq.core.provider.price.PriceFeedService;
 import io.bisq.gui.common.model.ActivatableViewModel;
 import io.bisq.gui.main.offer.offerbook.OfferBook;
-import io.bisq.gui.main.offer.offerbook.OfferBookListItem;
 import io.bisq.gui.main.overlays.popups.Popup;
 import io.bisq.gui.util.BSFormatter;
 import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.utils.Fiat;
@@ -39,18 +37,14 @@ import org.bitcoinj.utils.Fiat;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 class SpreadViewModel extends ActivatableViewModel {
 
     private final OfferBook offerBook;
     private final PriceFeedService priceFeedService;
     private final BSFormatter formatter;
-    private final ObservableList<OfferBookListItem> offerBookListItems;
-    private final ListChangeListener<OfferBookListItem> listChangeListener;
+    private final OrderBook.Listener orderBookListener;
     final ObservableList<SpreadItem> spreadItems = FXCollections.observableArrayList();
 
 
@@ -64,73 +58,32 @@ class SpreadViewModel extends ActivatableViewModel {
         this.priceFeedService = priceFeedService;
         this.formatter = formatter;
 
-        offerBookListItems = offerBook.getOfferBookListItems();
-        listChangeListener = c -> update(offerBookListItems);
+        orderBookListener = delta -> update();
     }
 
     @Override
     protected void activate() {
-        offerBookListItems.addListener(listChangeListener);
+        offerBook.getOrderBook().addListener(orderBookListener);
         offerBook.fillOfferBookListItems();
-        update(offerBookListItems);
+        update();
     }
 
     @Override
     protected void deactivate() {
-        offerBookListItems.removeListener(listChangeListener);
+        offerBook.getOrderBook().removeListener(orderBookListener);
     }
 
-    private void update(ObservableList<OfferBookListItem> offerBookListItems) {
-        Map<String, List<Offer>> offersByCurrencyMap = new HashMap<>();
-        for (OfferBookListItem offerBookListItem : offerBookListItems) {
-            Offer offer = offerBookListItem.getOffer();
-            String currencyCode = offer.getCurrencyCode();
-            if (!offersByCurrencyMap.containsKey(currencyCode))
-                offersByCurrencyMap.put(currencyCode, new ArrayList<>());
-            offersByCurrencyMap.get(currencyCode).add(offer);
-        }
-        spreadItems.clear();
-        for (String currencyCode : offersByCurrencyMap.keySet()) {
-            List<Offer> offers = offersByCurrencyMap.get(currencyCode);
+    // The order book maintains the number of offers, amounts and best prices per currency, so we don't need to sort
+    // the offers here
+    private void update() {
+        final OrderBook orderBook = offerBook.getOrderBook();
+        List<SpreadItem> list = new ArrayList<>();
+        for (String currencyCode : orderBook.getCurrencyCodes()) {
             final boolean isFiatCurrency = CurrencyUtil.isFiatCurrency(currencyCode);
-            List<Offer> buyOffers = offers
-                    .stream()
-                    .filter(e -> e.getDirection().equals(OfferPayload.Direction.BUY))
-                    .sorted((o1, o2) -> {
-                        long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
-                        long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
-                        if (a != b) {
-                            if (isFiatCurrency) {
-                                return a < b ? 1 : -1;
-                            } else {
-                                return a < b ? -1 : 1;
-                            }
-                        }
-                        return 0;
-                    })
-                    .collect(Collectors.toList());
-
-            List<Offer> sellOffers = offers
-                    .stream()
-                    .filter(e -> e.getDirection().equals(OfferPayload.Direction.SELL))
-                    .sorted((o1, o2) -> {
-                        long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
-                        long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
-                        if (a != b) {
-                            if (isFiatCurrency) {
-                                return a > b ? 1 : -1;
-                            } else {
-                                return a > b ? -1 : 1;
-                            }
-                        }
-                        return 0;
-                    })
-                    .collect(Collectors.toList());
-
             Price spread = null;
             String percentage = "";
-            Price bestSellOfferPrice = sellOffers.isEmpty() ? null : sellOffers.get(0).getPrice();
-            Price bestBuyOfferPrice = buyOffers.isEmpty() ? null : buyOffers.get(0).getPrice();
+            Price bestSellOfferPrice = orderBook.getBestPrice(currencyCode, OfferPayload.Direction.SELL);
+            Price bestBuyOfferPrice = orderBook.getBestPrice(currencyCode, OfferPayload.Direction.BUY);
             if (bestBuyOfferPrice != null && bestSellOfferPrice != null) {
                 MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
 
@@ -138,10 +91,7 @@ class SpreadViewModel extends ActivatableViewModel {
                 // We never found out which offer it was. So add here a try/catch to get better info if it
                 // happens again
                 try {
-                    if (isFiatCurrency)
-                        spread = bestSellOfferPrice.subtract(bestBuyOfferPrice);
-                    else
-                        spread = bestBuyOfferPrice.subtract(bestSellOfferPrice);
+                    spread = orderBook.getSpread(currencyCode);
 
                     // TODO maybe show extra colums with spread and use real amount diff
                     // not % based. e.g. diff between best buy and sell offer (of small amounts its a smaller gain)
@@ -170,8 +120,7 @@ class SpreadViewModel extends ActivatableViewModel {
                                 "Details of offer data: \n" +
                                 "bestSellOfferPrice: " + bestSellOfferPrice.getValue() + "\n" +
                                 "bestBuyOfferPrice: " + bestBuyOfferPrice.getValue() + "\n" +
-                                "sellOffer getCurrencyCode: " + sellOffers.get(0).getCurrencyCode() + "\n" +
-                                "buyOffer getCurrencyCode: " + buyOffers.get(0).getCurrencyCode() + "\n\n" +
+                                "currencyCode: " + currencyCode + "\n\n" +
                                 "Please copy and paste this data and send it to the developers so they can investigate the issue.";
                         new Popup<>().error(msg).show();
                         log.error(t.toString());
@@ -183,9 +132,11 @@ class SpreadViewModel extends ActivatableViewModel {
                 }
             }
 
-            Coin totalAmount = Coin.valueOf(offers.stream().mapToLong(offer -> offer.getAmount().getValue()).sum());
-            spreadItems.add(new SpreadItem(currencyCode, buyOffers.size(), sellOffers.size(),
-                    offers.size(), spread, percentage, totalAmount));
+            final int numBuyOffers = orderBook.getNumOffers(currencyCode, OfferPayload.Direction.BUY);
+            final int numSellOffers = orderBook.getNumOffers(currencyCode, OfferPayload.Direction.SELL);
+            list.add(new SpreadItem(currencyCode, numBuyOffers, numSellOffers,
+                    numBuyOffers + numSellOffers, spread, percentage, orderBook.getTotalAmount(currencyCode)));
         }
+        spreadItems.setAll(list);
     }
 }
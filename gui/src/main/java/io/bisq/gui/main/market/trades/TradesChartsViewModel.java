@@ -26,8 +26,7 @@ import io.bisq.common.locale.TradeCurrency;
 import io.bisq.common.monetary.Altcoin;
 import io.bisq.common.util.MathUtils;
 import io.bisq.core.provider.price.PriceFeedService;
-import io.bisq.core.trade.statistics.TradeStatistics2;
-import io.bisq.core.trade.statistics.TradeStatisticsManager;
+import io.bisq.core.trade.statistics.*;
 import io.bisq.core.user.Preferences;
 import io.bisq.gui.Navigation;
 import io.bisq.gui.common.model.ActivatableViewModel;
@@ -46,13 +45,8 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.SetChangeListener;
 import javafx.scene.chart.XYChart;
-import javafx.util.Pair;
 import org.bitcoinj.core.Coin;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -65,12 +59,18 @@ class TradesChartsViewModel extends ActivatableViewModel {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public enum TickUnit {
-        YEAR,
-        MONTH,
-        WEEK,
-        DAY,
-        HOUR,
-        MINUTE_10
+        YEAR(CandleInterval.YEAR),
+        MONTH(CandleInterval.MONTH),
+        WEEK(CandleInterval.WEEK),
+        DAY(CandleInterval.DAY),
+        HOUR(CandleInterval.HOUR),
+        MINUTE_10(CandleInterval.MINUTE_10);
+
+        private final CandleInterval candleInterval;
+
+        TickUnit(CandleInterval candleInterval) {
+            this.candleInterval = candleInterval;
+        }
     }
 
     private final TradeStatisticsManager tradeStatisticsManager;
@@ -87,7 +87,8 @@ class TradesChartsViewModel extends ActivatableViewModel {
     final ObservableList<TradeStatistics2> tradeStatisticsByCurrency = FXCollections.observableArrayList();
     final ObservableList<XYChart.Data<Number, Number>> priceItems = FXCollections.observableArrayList();
     final ObservableList<XYChart.Data<Number, Number>> volumeItems = FXCollections.observableArrayList();
-    private Map<Long, Pair<Date, Set<TradeStatistics2>>> itemsPerInterval;
+    // Start of the interval of each tick, the last entry is the current time
+    private long[] tickTimes;
 
     TickUnit tickUnit = TickUnit.DAY;
     final int maxTicks = 30;
@@ -231,38 +232,30 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     private void updateChartData() {
-        tradeStatisticsByCurrency.setAll(tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> showAllTradeCurrenciesProperty.get() || e.getCurrencyCode().equals(getCurrencyCode()))
-                .collect(Collectors.toList()));
-
-        // Generate date range and create sets for all ticks
-        itemsPerInterval = new HashMap<>();
-        Date time = new Date();
-        for (long i = maxTicks + 1; i >= 0; --i) {
-            Set<TradeStatistics2> set = new HashSet<>();
-            Pair<Date, Set<TradeStatistics2>> pair = new Pair<>((Date) time.clone(), set);
-            itemsPerInterval.put(i, pair);
-            time.setTime(time.getTime() - 1);
-            time = roundToTick(time,  tickUnit);
+        final boolean showAll = showAllTradeCurrenciesProperty.get();
+        final TradeStatisticsIndex tradeStatisticsIndex = tradeStatisticsManager.getTradeStatisticsIndex();
+        tradeStatisticsByCurrency.setAll(showAll ?
+                tradeStatisticsIndex.getAll() :
+                tradeStatisticsIndex.getByCurrencyCode(getCurrencyCode()));
+
+        // Generate date range for all ticks
+        final CandleAggregator candleAggregator = tradeStatisticsManager.getCandleAggregator();
+        tickTimes = new long[maxTicks + 2];
+        long time = new Date().getTime();
+        for (int i = maxTicks + 1; i >= 0; --i) {
+            tickTimes[i] = time;
+            time = candleAggregator.getIntervalStart(tickUnit.candleInterval, time - 1);
         }
 
-        // Get all entries for the defined time interval
-        tradeStatisticsByCurrency.stream().forEach(e -> {
-            for (long i = maxTicks; i > 0; --i) {
-                Pair<Date, Set<TradeStatistics2>> p = itemsPerInterval.get(i);
-                if (e.getTradeDate().after(p.getKey())) {
-                    p.getValue().add(e);
-                    break;
-                }
-            }
-        });
-
-        // create CandleData for defined time interval
-        List<CandleData> candleDataList = itemsPerInterval.entrySet().stream()
-                .filter(entry -> entry.getKey() >= 0 && !entry.getValue().getValue().isEmpty())
-                .map(entry -> getCandleData(entry.getKey(), entry.getValue().getValue()))
+        // The candles of the ticks 1 to maxTicks, oldest first
+        final long from = tickTimes[1];
+        final long to = tickTimes[maxTicks + 1] + 1;
+        final List<Candle> candles = showAll ?
+                candleAggregator.getCandlesOfAllCurrencies(tickUnit.candleInterval, from, to) :
+                candleAggregator.getCandles(getCurrencyCode(), tickUnit.candleInterval, from, to);
+        List<CandleData> candleDataList = candles.stream()
+                .map(candle -> getCandleData(Arrays.binarySearch(tickTimes, 1, maxTicks + 1, candle.getStart()), candle))
                 .collect(Collectors.toList());
-        candleDataList.sort((o1, o2) -> (o1.tick < o2.tick ? -1 : (o1.tick == o2.tick ? 0 : 1)));
 
         //noinspection Convert2Diamond
         priceItems.setAll(candleDataList.stream()
@@ -276,34 +269,21 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     @VisibleForTesting
-    CandleData getCandleData(long tick, Set<TradeStatistics2> set) {
-        long open = 0;
-        long close = 0;
-        long high = 0;
-        long low = 0;
-        long accumulatedVolume = 0;
-        long accumulatedAmount = 0;
-        long numTrades = set.size();
-
-        for (TradeStatistics2 item : set) {
-            long tradePriceAsLong = item.getTradePrice().getValue();
-            if (CurrencyUtil.isCryptoCurrency(getCurrencyCode())) {
-                low = (low != 0) ? Math.max(low, tradePriceAsLong) : tradePriceAsLong;
-                high = (high != 0) ? Math.min(high, tradePriceAsLong) : tradePriceAsLong;
-            } else {
-                low = (low != 0) ? Math.min(low, tradePriceAsLong) : tradePriceAsLong;
-                high = (high != 0) ? Math.max(high, tradePriceAsLong) : tradePriceAsLong;
-            }
-
-            accumulatedVolume += (item.getTradeVolume() != null) ? item.getTradeVolume().getValue() : 0;
-            accumulatedAmount += item.getTradeAmount().getValue();
-        }
+    CandleData getCandleData(long tick, Candle candle) {
+        long open = candle.getOpen();
+        long close = candle.getClose();
+        long high;
+        long low;
+        long accumulatedVolume = candle.getAccumulatedVolume();
+        long accumulatedAmount = candle.getAccumulatedAmount();
+        long numTrades = candle.getNumTrades();
 
-        List<TradeStatistics2> list = new ArrayList<>(set);
-        list.sort((o1, o2) -> (o1.getTradeDate().getTime() < o2.getTradeDate().getTime() ? -1 : (o1.getTradeDate().getTime() == o2.getTradeDate().getTime() ? 0 : 1)));
-        if (list.size() > 0) {
-            open = list.get(0).getTradePrice().getValue();
-            close = list.get(list.size() - 1).getTradePrice().getValue();
+        if (CurrencyUtil.isCryptoCurrency(getCurrencyCode())) {
+            low = candle.getMaxPrice();
+            high = candle.getMinPrice();
+        } else {
+            low = candle.getMinPrice();
+            high = candle.getMaxPrice();
         }
 
         long averagePrice;
@@ -327,33 +307,9 @@ class TradesChartsViewModel extends ActivatableViewModel {
                 numTrades, isBullish, dateString);
     }
 
-    Date roundToTick(Date time, TickUnit tickUnit) {
-        ZonedDateTime zdt = time.toInstant().atZone(ZoneId.systemDefault());
-        LocalDateTime tradeLocal = zdt.toLocalDateTime();
-
-        switch (tickUnit) {
-            case YEAR:
-                return Date.from(tradeLocal.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case MONTH:
-                return Date.from(tradeLocal.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case WEEK:
-                int dayOfWeek = tradeLocal.getDayOfWeek().getValue();
-                LocalDateTime firstDayOfWeek = ChronoUnit.DAYS.addTo(tradeLocal, 1 - dayOfWeek);
-                return Date.from(firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case DAY:
-                return Date.from(tradeLocal.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case HOUR:
-                return Date.from(tradeLocal.withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case MINUTE_10:
-                return Date.from(tradeLocal.withMinute(tradeLocal.getMinute() - tradeLocal.getMinute() % 10).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            default:
-                return Date.from(tradeLocal.atZone(ZoneId.systemDefault()).toInstant());
-        }
-    }
-
     private long getTimeFromTick(long tick) {
-        if (itemsPerInterval == null || itemsPerInterval.get(tick) == null) return 0;
-        return itemsPerInterval.get(tick).getKey().getTime();
+        if (tickTimes == null || tick < 0 || tick >= tickTimes.length) return 0;
+        return tickTimes[(int) tick];
     }
 
     long getTimeFromTickIndex(long index) {
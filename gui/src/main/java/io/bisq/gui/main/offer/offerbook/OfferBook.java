@@ -20,13 +20,14 @@ package io.bisq.gui.main.offer.offerbook;
 import io.bisq.common.app.Log;
 import io.bisq.core.offer.Offer;
 import io.bisq.core.offer.OfferBookService;
+import io.bisq.core.offer.OrderBook;
 import io.bisq.core.trade.TradeManager;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -35,11 +36,15 @@ import java.util.stream.Collectors;
  * As it is used only by the Buy and Sell UIs we treat it as local UI model.
  * It also use OfferRepository.Listener as the lists items class and we don't want to get any dependency out of the
  * package for that.
+ * The list items are indexed by offer ID and the offers are kept in sync with the OrderBook, which provides them
+ * sorted by price for the market views.
  */
 @Slf4j
 public class OfferBook {
     private final OfferBookService offerBookService;
+    private final OrderBook orderBook;
     private final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
+    private final Map<String, OfferBookListItem> itemsById = new HashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -47,8 +52,9 @@ public class OfferBook {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     @Inject
-    OfferBook(OfferBookService offerBookService, TradeManager tradeManager) {
+    OfferBook(OfferBookService offerBookService, OrderBook orderBook, TradeManager tradeManager) {
         this.offerBookService = offerBookService;
+        this.orderBook = orderBook;
 
         offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
             @Override
@@ -56,22 +62,22 @@ public class OfferBook {
                 // We get onAdded called every time a new ProtectedStorageEntry is received.
                 // Mostly it is the same OfferPayload but the ProtectedStorageEntry is different.
                 // We filter here to only add new offers if the same offer (using equals) was not already added.
-                boolean hasSameOffer = offerBookListItems.stream()
-                        .anyMatch(item -> item.getOffer().equals(offer));
+                // An equal offer has the same ID, so we only need to compare with the item with that ID.
+                OfferBookListItem candidateWithSameId = itemsById.get(offer.getId());
+                boolean hasSameOffer = candidateWithSameId != null && candidateWithSameId.getOffer().equals(offer);
                 if (!hasSameOffer) {
                     OfferBookListItem offerBookListItem = new OfferBookListItem(offer);
                     // We don't use the contains method as the equals method in Offer takes state and errorMessage into account.
                     // If we have an offer with same ID we remove it and add the new offer as it might have a changed state.
-                    Optional<OfferBookListItem> candidateWithSameId = offerBookListItems.stream()
-                            .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                            .findAny();
-                    if (candidateWithSameId.isPresent()) {
+                    if (candidateWithSameId != null) {
                         log.warn("We had an old offer in the list with the same Offer ID. Might be that the state or errorMessage was different. " +
-                                "old offerBookListItem={}, new offerBookListItem={}", candidateWithSameId.get(), offerBookListItem);
-                        offerBookListItems.remove(candidateWithSameId.get());
+                                "old offerBookListItem={}, new offerBookListItem={}", candidateWithSameId, offerBookListItem);
+                        offerBookListItems.remove(candidateWithSameId);
                     }
 
+                    itemsById.put(offer.getId(), offerBookListItem);
                     offerBookListItems.add(offerBookListItem);
+                    orderBook.add(offer);
                     Log.logIfStressTests("OfferPayload added: No. of offers = " + offerBookListItems.size());
                 }else{
                     log.debug("We have the exact same offer already in our list and ignore the onAdded call. ID={}", offer.getId());
@@ -86,11 +92,63 @@ public class OfferBook {
                 // clean up possible references in openOfferManager
                 tradeManager.onOfferRemovedFromRemoteOfferBook(offer);
                 // We don't use the contains method as the equals method in Offer takes state and errorMessage into account.
-                Optional<OfferBookListItem> candidateToRemove = offerBookListItems.stream()
-                        .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                        .findAny();
-                if (candidateToRemove.isPresent()) {
-                    offerBookListItems.remove(candidateToRemove.get());
+                OfferBookListItem candidateToRemove = itemsById.remove(offer.getId());
+                if (candidateToRemove != null) {
+                    offerBookListItems.remove(candidateToRemove);
+                    orderBook.remove(candidateToRemove.getOffer());
+                    Log.logIfStressTests("OfferPayload removed: No. of offers = " + offerBookListItems.size());
+                }
+            }
+
+            // We apply the changes of a batch with one removeAll and one addAll call, so the list views get updated
+            // once per batch and not once per offer. Same filtering as in onAdded.
+            @Override
+            public void onBatchAdded(List<Offer> offers) {
+                List<OfferBookListItem> itemsToRemove = new ArrayList<>();
+                Map<String, OfferBookListItem> itemsToAdd = new LinkedHashMap<>();
+                offers.forEach(offer -> {
+                    OfferBookListItem existingItem = itemsToAdd.containsKey(offer.getId()) ?
+                            itemsToAdd.get(offer.getId()) :
+                            itemsById.get(offer.getId());
+                    if (existingItem == null || !existingItem.getOffer().equals(offer)) {
+                        if (existingItem != null && itemsById.get(offer.getId()) == existingItem) {
+                            log.warn("We had an old offer in the list with the same Offer ID. Might be that the state or errorMessage was different. " +
+                                    "old offerBookListItem={}, new offer={}", existingItem, offer);
+                            itemsToRemove.add(existingItem);
+                        }
+                        itemsToAdd.put(offer.getId(), new OfferBookListItem(offer));
+                    } else {
+                        log.debug("We have the exact same offer already in our list and ignore the onAdded call. ID={}", offer.getId());
+                    }
+                });
+                itemsById.putAll(itemsToAdd);
+                if (!itemsToRemove.isEmpty())
+                    offerBookListItems.removeAll(itemsToRemove);
+                if (!itemsToAdd.isEmpty()) {
+                    offerBookListItems.addAll(itemsToAdd.values());
+                    orderBook.update(itemsToAdd.values().stream()
+                                    .map(OfferBookListItem::getOffer)
+                                    .collect(Collectors.toList()),
+                            new ArrayList<>());
+                    Log.logIfStressTests("OfferPayload added: No. of offers = " + offerBookListItems.size());
+                }
+            }
+
+            @Override
+            public void onBatchRemoved(List<Offer> offers) {
+                List<OfferBookListItem> itemsToRemove = new ArrayList<>();
+                offers.forEach(offer -> {
+                    offer.setState(Offer.State.REMOVED);
+                    tradeManager.onOfferRemovedFromRemoteOfferBook(offer);
+                    OfferBookListItem item = itemsById.remove(offer.getId());
+                    if (item != null)
+                        itemsToRemove.add(item);
+                });
+                if (!itemsToRemove.isEmpty()) {
+                    offerBookListItems.removeAll(itemsToRemove);
+                    orderBook.update(new ArrayList<>(), itemsToRemove.stream()
+                            .map(OfferBookListItem::getOffer)
+                            .collect(Collectors.toList()));
                     Log.logIfStressTests("OfferPayload removed: No. of offers = " + offerBookListItems.size());
                 }
             }
@@ -101,14 +159,26 @@ public class OfferBook {
         return offerBookListItems;
     }
 
+    public OrderBook getOrderBook() {
+        return orderBook;
+    }
+
     public void fillOfferBookListItems() {
         try {
             // setAll causes sometimes an UnsupportedOperationException
             // Investigate why....
             offerBookListItems.clear();
-            offerBookListItems.addAll(offerBookService.getOffers().stream()
-                    .map(OfferBookListItem::new)
-                    .collect(Collectors.toList()));
+            itemsById.clear();
+            final List<Offer> offers = offerBookService.getOffers();
+            List<OfferBookListItem> items = new ArrayList<>();
+            offers.forEach(offer -> {
+                OfferBookListItem item = new OfferBookListItem(offer);
+                if (itemsById.putIfAbsent(offer.getId(), item) == null)
+                    items.add(item);
+            });
+            offerBookListItems.addAll(items);
+            // We use the offers of the items, so the order book keeps the same offer as the list if an ID is duplicated
+            orderBook.setAll(items.stream().map(OfferBookListItem::getOffer).collect(Collectors.toList()));
 
             Log.logIfStressTests("OfferPayload filled: No. of offers = " + offerBookListItems.size());
 
@@ -37,7 +37,7 @@ import io.bisq.gui.main.overlays.windows.TorNetworkSettingsWindow;
 import io.bisq.gui.util.BSFormatter;
 import io.bisq.gui.util.GUIUtil;
 import io.bisq.network.p2p.P2PService;
-import io.bisq.network.p2p.network.Statistic;
+import io.bisq.network.p2p.network.StatisticFxAdapter;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -102,6 +102,7 @@ public class NetworkSettingsView extends ActivatableViewAndModel<GridPane, Activ
     private Subscription numP2PPeersSubscription;
     private Subscription bitcoinPeersSubscription;
     private Subscription nodeAddressSubscription;
+    private StatisticFxAdapter totalStatisticFxAdapter;
     private ChangeListener<Boolean> btcNodesInputTextFieldFocusListener;
     private ToggleGroup bitcoinPeersToggleGroup;
     private BitcoinNodes.BitcoinNodesOption selectedBitcoinNodesOption;
@@ -254,8 +255,9 @@ public class NetworkSettingsView extends ActivatableViewAndModel<GridPane, Activ
                         Res.get("settings.net.notKnownYet") :
                         p2PService.getAddress().getFullAddress()));
         numP2PPeersSubscription = EasyBind.subscribe(p2PService.getNumConnectedPeers(), numPeers -> updateP2PTable());
-        totalTrafficTextField.textProperty().bind(EasyBind.combine(Statistic.totalSentBytesProperty(),
-                Statistic.totalReceivedBytesProperty(),
+        totalStatisticFxAdapter = StatisticFxAdapter.forAllConnections().start();
+        totalTrafficTextField.textProperty().bind(EasyBind.combine(totalStatisticFxAdapter.sentBytesProperty(),
+                totalStatisticFxAdapter.receivedBytesProperty(),
                 (sent, received) -> Res.get("settings.net.sentReceived",
                         formatter.formatBytes((long) sent),
                         formatter.formatBytes((long) received))));
@@ -289,6 +291,8 @@ public class NetworkSettingsView extends ActivatableViewAndModel<GridPane, Activ
             numP2PPeersSubscription.unsubscribe();
 
         totalTrafficTextField.textProperty().unbind();
+        if (totalStatisticFxAdapter != null)
+            totalStatisticFxAdapter.stop();
 
         sortedList.comparatorProperty().unbind();
         tableView.getItems().forEach(P2pNetworkListItem::cleanup);
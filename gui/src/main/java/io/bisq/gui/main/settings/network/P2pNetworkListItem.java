@@ -23,6 +23,7 @@ import io.bisq.gui.util.BSFormatter;
 import io.bisq.network.p2p.network.Connection;
 import io.bisq.network.p2p.network.OutboundConnection;
 import io.bisq.network.p2p.network.Statistic;
+import io.bisq.network.p2p.network.StatisticFxAdapter;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import org.apache.commons.lang3.time.DurationFormatUtils;
@@ -35,6 +36,7 @@ public class P2pNetworkListItem {
     private static final Logger log = LoggerFactory.getLogger(P2pNetworkListItem.class);
 
     private final Statistic statistic;
+    private final StatisticFxAdapter statisticFxAdapter;
     private final Connection connection;
     private final Subscription sentBytesSubscription, receivedBytesSubscription, onionAddressSubscription, roundTripTimeSubscription;
     private final Clock clock;
@@ -54,14 +56,15 @@ public class P2pNetworkListItem {
         this.clock = clock;
         this.formatter = formatter;
         this.statistic = connection.getStatistic();
+        statisticFxAdapter = StatisticFxAdapter.forConnection(statistic).start();
 
-        sentBytesSubscription = EasyBind.subscribe(statistic.sentBytesProperty(),
+        sentBytesSubscription = EasyBind.subscribe(statisticFxAdapter.sentBytesProperty(),
                 e -> sentBytes.set(formatter.formatBytes((long) e)));
-        receivedBytesSubscription = EasyBind.subscribe(statistic.receivedBytesProperty(),
+        receivedBytesSubscription = EasyBind.subscribe(statisticFxAdapter.receivedBytesProperty(),
                 e -> receivedBytes.set(formatter.formatBytes((long) e)));
         onionAddressSubscription = EasyBind.subscribe(connection.peersNodeAddressProperty(),
                 nodeAddress -> onionAddress.set(nodeAddress != null ? nodeAddress.getFullAddress() : Res.get("settings.net.notKnownYet")));
-        roundTripTimeSubscription = EasyBind.subscribe(statistic.roundTripTimeProperty(),
+        roundTripTimeSubscription = EasyBind.subscribe(statisticFxAdapter.roundTripTimeProperty(),
                 roundTripTime -> this.roundTripTime.set((int) roundTripTime == 0 ? "-" : roundTripTime + " ms"));
 
         listener = new Clock.Listener() {
@@ -98,6 +101,7 @@ public class P2pNetworkListItem {
         receivedBytesSubscription.unsubscribe();
         onionAddressSubscription.unsubscribe();
         roundTripTimeSubscription.unsubscribe();
+        statisticFxAdapter.stop();
         clock.removeListener(listener);
     }
 
@@ -6,8 +6,7 @@ import io.bisq.common.locale.FiatCurrency;
 import io.bisq.common.monetary.Price;
 import io.bisq.core.offer.OfferPayload;
 import io.bisq.core.provider.price.PriceFeedService;
-import io.bisq.core.trade.statistics.TradeStatistics2;
-import io.bisq.core.trade.statistics.TradeStatisticsManager;
+import io.bisq.core.trade.statistics.*;
 import io.bisq.core.user.Preferences;
 import io.bisq.gui.Navigation;
 import io.bisq.gui.main.market.trades.charts.CandleData;
@@ -110,7 +109,7 @@ public class TradesChartsViewModelTest {
 
     @SuppressWarnings("ConstantConditions")
     @Test
-    public void testGetCandleData() {
+    public void testGetCandleData() throws ParseException {
         model.selectedTradeCurrencyProperty.setValue(new FiatCurrency("EUR"));
 
         long low = Fiat.parseFiat("EUR", "500").value;
@@ -123,14 +122,17 @@ public class TradesChartsViewModelTest {
         boolean isBullish = true;
 
         Set<TradeStatistics2> set = new HashSet<>();
-        final Date now = new Date();
+        final Date now = dateFormat.parse("2018-01-01T12:00:00");
 
         set.add(new TradeStatistics2(offer, Price.parse("EUR", "520"), Coin.parseCoin("1"), new Date(now.getTime()), null));
         set.add(new TradeStatistics2(offer, Price.parse("EUR", "500"), Coin.parseCoin("1"), new Date(now.getTime() + 100), null));
         set.add(new TradeStatistics2(offer, Price.parse("EUR", "600"), Coin.parseCoin("1"), new Date(now.getTime() + 200), null));
         set.add(new TradeStatistics2(offer, Price.parse("EUR", "580"), Coin.parseCoin("1"), new Date(now.getTime() + 300), null));
+        CandleAggregator candleAggregator = new CandleAggregator();
+        candleAggregator.addAll(set);
+        Candle candle = candleAggregator.getCandle("EUR", CandleInterval.DAY, now.getTime());
 
-        CandleData candleData = model.getCandleData(model.roundToTick(now, TradesChartsViewModel.TickUnit.DAY).getTime(), set);
+        CandleData candleData = model.getCandleData(model.maxTicks, candle);
         assertEquals(open, candleData.open);
         assertEquals(close, candleData.close);
         assertEquals(high, candleData.high);
@@ -187,12 +189,18 @@ public class TradesChartsViewModelTest {
                 }
         );
         ObservableSet<TradeStatistics2> tradeStats = FXCollections.observableSet(set);
+        TradeStatisticsIndex index = new TradeStatisticsIndex();
+        set.forEach(index::add);
+        CandleAggregator candleAggregator = new CandleAggregator();
+        candleAggregator.addAll(set);
 
         // Run test for each tick type
         for (TradesChartsViewModel.TickUnit tick : TradesChartsViewModel.TickUnit.values()) {
             new Expectations() {{
-                tsm.getObservableTradeStatisticsSet();
-                result = tradeStats;
+                tsm.getTradeStatisticsIndex();
+                result = index;
+                tsm.getCandleAggregator();
+                result = candleAggregator;
             }};
 
             // Trigger chart update
@@ -3,6 +3,7 @@ package io.bisq.network;
 public class NetworkOptionKeys {
     public static final String TOR_DIR = "torDir";
     public static final String USE_LOCALHOST_FOR_P2P = "useLocalhostForP2P";
+    public static final String USE_NIO_TRANSPORT = "useNioTransport";
     public static final String MAX_CONNECTIONS = "maxConnections";
     public static final String PORT_KEY = "nodePort";
     public static final String NETWORK_ID = "networkId";
@@ -30,5 +30,6 @@ public class EncryptionServiceModule extends AppModule {
     @Override
     protected void configure() {
         bind(EncryptionService.class).in(Singleton.class);
+        bind(SignatureVerificationService.class).in(Singleton.class);
     }
 }
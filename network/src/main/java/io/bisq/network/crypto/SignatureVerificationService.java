@@ -0,0 +1,76 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.crypto;
+
+import io.bisq.common.crypto.CryptoException;
+import io.bisq.common.crypto.Sig;
+import lombok.extern.slf4j.Slf4j;
+import org.bitcoinj.core.ECKey;
+
+import javax.inject.Inject;
+import java.security.PublicKey;
+import java.security.SignatureException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.bitcoinj.core.Utils.HEX;
+
+// Verifies the DSA signatures of the storage and trade data and the EC signatures of the filter and alert messages.
+// The checks run in the calling thread and are thread safe, as Sig keeps a Signature instance per thread. There is no
+// batch API: the initial data is verified in the worker pool of the ParallelBatchProcessor of
+// P2PDataStorage.addInitialData, which calls verify for each entry, so a second pool here would only compete with it.
+@Slf4j
+public class SignatureVerificationService {
+    // Only the few keys of the filter and alert senders, so we don't need to limit it
+    private final Map<String, ECKey> ecKeyCache = new ConcurrentHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public SignatureVerificationService() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean verify(PublicKey publicKey, byte[] data, byte[] signature) {
+        try {
+            return Sig.verify(publicKey, data, signature);
+        } catch (CryptoException e) {
+            log.warn("Signature verification failed. " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Verifies a message signed with ECKey.signMessage
+    public boolean verifyMessage(String pubKeyAsHex, String message, String signatureAsBase64) {
+        try {
+            ECKey ecKey = ecKeyCache.computeIfAbsent(pubKeyAsHex, key -> ECKey.fromPublicOnly(HEX.decode(key)));
+            ecKey.verifyMessage(message, signatureAsBase64);
+            return true;
+        } catch (SignatureException e) {
+            log.warn("verifyMessage failed. " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.bisq.common.UserThread;
+import io.bisq.common.crypto.CryptoException;
+import io.bisq.common.crypto.SealedAndSigned;
+import io.bisq.network.crypto.EncryptionService;
+import io.bisq.network.p2p.storage.P2PDataStorage;
+import io.bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+// Decrypts the mailbox entries which passed the recipient checks in a worker pool, so the RSA operations of the
+// entries received at startup don't block the UserThread and run in parallel.
+// The result of each trial decryption is kept until the entry gets removed, so an entry seen again (e.g. at
+// onAllServicesInitialized after it was added at the initial data request) does not get decrypted again.
+// Must be called from the UserThread. The result handler is called on the UserThread.
+@Slf4j
+class MailboxDecryptor {
+    private static final int NUM_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private final EncryptionService encryptionService;
+    private final ExecutorService executor;
+    // Key is the signature of the sealedAndSigned which is unique for each message.
+    // Value is empty if the decryption failed.
+    private final Map<P2PDataStorage.ByteArray, Optional<DecryptedMessageWithPubKey>> results = new HashMap<>();
+    private final Map<P2PDataStorage.ByteArray, List<Consumer<DecryptedMessageWithPubKey>>> pending = new HashMap<>();
+    private boolean shutDown;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    MailboxDecryptor(EncryptionService encryptionService) {
+        this(encryptionService, NUM_THREADS);
+    }
+
+    MailboxDecryptor(EncryptionService encryptionService, int numThreads) {
+        this.encryptionService = encryptionService;
+        executor = Executors.newFixedThreadPool(numThreads, new ThreadFactoryBuilder()
+                .setNameFormat("MailboxDecryptor-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // resultHandler is only called if the decryption succeeded
+    void decrypt(ProtectedMailboxStorageEntry protectedMailboxStorageEntry,
+                 Consumer<DecryptedMessageWithPubKey> resultHandler) {
+        if (shutDown)
+            return;
+
+        final SealedAndSigned sealedAndSigned = protectedMailboxStorageEntry.getMailboxStoragePayload()
+                .getPrefixedSealedAndSignedMessage().getSealedAndSigned();
+        final P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(sealedAndSigned.getSignature());
+        final Optional<DecryptedMessageWithPubKey> result = results.get(key);
+        if (result != null) {
+            result.ifPresent(resultHandler);
+            return;
+        }
+
+        List<Consumer<DecryptedMessageWithPubKey>> resultHandlers = pending.get(key);
+        if (resultHandlers != null) {
+            resultHandlers.add(resultHandler);
+            return;
+        }
+
+        resultHandlers = new ArrayList<>();
+        resultHandlers.add(resultHandler);
+        pending.put(key, resultHandlers);
+        try {
+            executor.execute(() -> {
+                final Optional<DecryptedMessageWithPubKey> decrypted = decryptAndVerify(sealedAndSigned);
+                UserThread.execute(() -> onDecrypted(key, decrypted));
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            log.debug("Decryption of mailbox entry rejected. That is expected at shutdown.");
+        }
+    }
+
+    void onRemoved(ProtectedMailboxStorageEntry protectedMailboxStorageEntry) {
+        final P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(protectedMailboxStorageEntry
+                .getMailboxStoragePayload().getPrefixedSealedAndSignedMessage().getSealedAndSigned().getSignature());
+        results.remove(key);
+        pending.remove(key);
+    }
+
+    int getNumPending() {
+        return pending.size();
+    }
+
+    void shutDown() {
+        shutDown = true;
+        pending.clear();
+        executor.shutdownNow();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void onDecrypted(P2PDataStorage.ByteArray key, Optional<DecryptedMessageWithPubKey> decrypted) {
+        final List<Consumer<DecryptedMessageWithPubKey>> resultHandlers = pending.remove(key);
+        if (shutDown || resultHandlers == null)
+            return;
+
+        results.put(key, decrypted);
+        decrypted.ifPresent(decryptedMessageWithPubKey ->
+                resultHandlers.forEach(resultHandler -> resultHandler.accept(decryptedMessageWithPubKey)));
+    }
+
+    // Called in a worker thread
+    private Optional<DecryptedMessageWithPubKey> decryptAndVerify(SealedAndSigned sealedAndSigned) {
+        try {
+            return Optional.of(encryptionService.decryptAndVerify(sealedAndSigned));
+        } catch (CryptoException e) {
+            log.debug(e.toString());
+            log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
+                    "That is expected if the message is not intended for us.");
+            return Optional.empty();
+        } catch (Throwable t) {
+            log.error("Decryption of mailbox entry failed. " + t.toString());
+            return Optional.empty();
+        }
+    }
+}
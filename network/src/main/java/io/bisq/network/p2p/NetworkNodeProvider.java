@@ -37,11 +37,12 @@ public class NetworkNodeProvider implements Provider<NetworkNode> {
     public NetworkNodeProvider(NetworkProtoResolver networkProtoResolver,
                                BridgeAddressProvider bridgeAddressProvider,
                                @Named(NetworkOptionKeys.USE_LOCALHOST_FOR_P2P) boolean useLocalhostForP2P,
+                               @Named(NetworkOptionKeys.USE_NIO_TRANSPORT) boolean useNioTransport,
                                @Named(NetworkOptionKeys.PORT_KEY) int port,
                                @Named(NetworkOptionKeys.TOR_DIR) File torDir) {
         networkNode = useLocalhostForP2P ?
-                new LocalhostNetworkNode(port, networkProtoResolver) :
-                new TorNetworkNode(port, torDir, networkProtoResolver, bridgeAddressProvider);
+                new LocalhostNetworkNode(port, networkProtoResolver, useNioTransport) :
+                new TorNetworkNode(port, torDir, networkProtoResolver, bridgeAddressProvider, useNioTransport);
     }
 
     @Override
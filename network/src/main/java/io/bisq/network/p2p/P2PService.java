@@ -71,6 +71,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     private final Set<DecryptedMailboxListener> decryptedMailboxListeners = new CopyOnWriteArraySet<>();
     private final Set<P2PServiceListener> p2pServiceListeners = new CopyOnWriteArraySet<>();
     private final Map<String, ProtectedMailboxStorageEntry> mailboxMap = new HashMap<>();
+    private final MailboxDecryptor mailboxDecryptor;
     private final Set<Runnable> shutDownResultHandlers = new CopyOnWriteArraySet<>();
     private final BooleanProperty hiddenServicePublished = new SimpleBooleanProperty();
     private final BooleanProperty preliminaryDataReceived = new SimpleBooleanProperty();
@@ -113,6 +114,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         this.encryptionService = encryptionService;
         this.keyRing = keyRing;
 
+        mailboxDecryptor = new MailboxDecryptor(encryptionService);
+
         this.networkNode.addConnectionListener(this);
         this.networkNode.addMessageListener(this);
         this.p2PDataStorage.addHashMapChangedListener(this);
@@ -178,6 +181,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
 
             shutDownResultHandlers.add(shutDownCompleteHandler);
 
+            mailboxDecryptor.shutDown();
+
             if (p2PDataStorage != null)
                 p2PDataStorage.shutDown();
 
@@ -363,7 +368,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     @Override
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof PrefixedSealedAndSignedMessage) {
-            Log.traceCall("\n\t" + networkEnvelop.toString() + "\n\tconnection=" + connection);
+            Log.traceCall(() -> "\n\t" + networkEnvelop.toString() + "\n\tconnection=" + connection);
             // Seed nodes don't have set the encryptionService
             try {
                 PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = (PrefixedSealedAndSignedMessage) networkEnvelop;
@@ -409,6 +414,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
 
     @Override
     public void onRemoved(ProtectedStorageEntry data) {
+        if (data instanceof ProtectedMailboxStorageEntry)
+            mailboxDecryptor.onRemoved((ProtectedMailboxStorageEntry) data);
     }
 
 
@@ -476,35 +483,40 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             Log.traceCall();
             MailboxStoragePayload mailboxStoragePayload = protectedMailboxStorageEntry.getMailboxStoragePayload();
             PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = mailboxStoragePayload.getPrefixedSealedAndSignedMessage();
-            if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
-                try {
-                    DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
-                            prefixedSealedAndSignedMessage.getSealedAndSigned());
-                    if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage) {
-                        MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
-                        NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
-                        checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
-
-                        mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
-                        log.trace("Decryption of SealedAndSignedMessage succeeded. senderAddress="
-                                + senderNodeAddress + " / my address=" + getAddress());
-                        decryptedMailboxListeners.stream().forEach(
-                                e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, senderNodeAddress));
-                    } else {
-                        log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
-                                "decryptedMsgWithPubKey.message=", decryptedMessageWithPubKey.getNetworkEnvelope());
-                    }
-                } catch (CryptoException e) {
-                    log.debug(e.toString());
-                    log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
-                            "That is expected if the message is not intended for us.");
-                }
+            // The sender sets the receivers storage signature pubKey so only the receiver can remove the entry. It is
+            // public anyway, so we use it together with the addressPrefixHash to skip the RSA decryption of the
+            // entries for other users without revealing anything.
+            if (!Arrays.equals(protectedMailboxStorageEntry.getReceiversPubKeyBytes(),
+                    keyRing.getPubKeyRing().getSignaturePubKeyBytes())) {
+                log.trace("Wrong receiversPubKey. The message is not intended for us.");
+            } else if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
+                mailboxDecryptor.decrypt(protectedMailboxStorageEntry,
+                        decryptedMessageWithPubKey -> onMailboxEntryDecrypted(protectedMailboxStorageEntry,
+                                decryptedMessageWithPubKey));
             } else {
                 log.debug("Wrong blurredAddressHash. The message is not intended for us.");
             }
         }
     }
 
+    private void onMailboxEntryDecrypted(ProtectedMailboxStorageEntry protectedMailboxStorageEntry,
+                                         DecryptedMessageWithPubKey decryptedMessageWithPubKey) {
+        if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage) {
+            MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
+            NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
+            checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
+
+            mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
+            log.trace("Decryption of SealedAndSignedMessage succeeded. senderAddress="
+                    + senderNodeAddress + " / my address=" + getAddress());
+            decryptedMailboxListeners.stream().forEach(
+                    e -> e.onMailboxMessageAdded(decryptedMessageWithPubKey, senderNodeAddress));
+        } else {
+            log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
+                    "decryptedMsgWithPubKey.message=", decryptedMessageWithPubKey.getNetworkEnvelope());
+        }
+    }
+
     public void sendEncryptedMailboxMessage(NodeAddress peersNodeAddress, PubKeyRing peersPubKeyRing,
                                             NetworkEnvelope message,
                                             SendMailboxMessageListener sendMailboxMessageListener) {
@@ -1,7 +1,12 @@
 package io.bisq.network.p2p.network;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.CycleDetectingLockFactory;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.Uninterruptibles;
 import io.bisq.common.UserThread;
 import io.bisq.common.app.Capabilities;
@@ -21,6 +26,7 @@ import io.bisq.network.p2p.peers.keepalive.messages.Ping;
 import io.bisq.network.p2p.peers.keepalive.messages.Pong;
 import io.bisq.network.p2p.storage.messages.AddDataMessage;
 import io.bisq.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
+import io.bisq.network.p2p.storage.messages.BroadcastMessage;
 import io.bisq.network.p2p.storage.messages.RefreshOfferMessage;
 import io.bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
 import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
@@ -37,13 +43,9 @@ import java.io.*;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -77,6 +79,10 @@ public class Connection implements MessageListener {
     //TODO decrease limits again after testing
     static final int MSG_THROTTLE_PER_SEC = 200;              // With MAX_MSG_SIZE of 200kb results in bandwidth of 40MB/sec or 5 mbit/sec
     static final int MSG_THROTTLE_PER_10_SEC = 1000;          // With MAX_MSG_SIZE of 200kb results in bandwidth of 20MB/sec or 2.5 mbit/sec
+    static final int SEND_MSG_THROTTLE_PER_SEC = 50;          // Messages above that limit are sent later
+    static final int MAX_DEFERRED_MESSAGES = 1000;            // Messages above that limit are dropped
+    // A peer which exceeds the receive throttle for longer than that reports a THROTTLE_LIMIT_EXCEEDED rule violation
+    static final long MAX_THROTTLED_PERIOD = TimeUnit.SECONDS.toMillis(60);
     private static final int SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
 
     public static int getPermittedMessageSize() {
@@ -85,6 +91,24 @@ public class Connection implements MessageListener {
 
     private static final CycleDetectingLockFactory cycleDetectingLockFactory = CycleDetectingLockFactory.newInstance(CycleDetectingLockFactory.Policies.THROW);
 
+    // Only schedules the sending of the messages which exceeded the send throttle of their connection and the
+    // resumption of reading at the blocking transport after the receive throttle was exceeded
+    private static final ScheduledExecutorService throttleTimer = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("Connection-ThrottleTimer")
+                    .setDaemon(true)
+                    .build());
+    // Sends the deferred messages. There is at most one task per connection, so a peer which does not read our data
+    // only delays its own messages.
+    private static final ExecutorService deferredSendExecutor = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("Connection-DeferredSend-%d")
+                    .setDaemon(true)
+                    .build());
+
+    // Decides if a sent message gets formatted and logged
+    private static final MessageTracer sendTracer = new MessageTracer(log);
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Class fields
@@ -104,15 +128,30 @@ public class Connection implements MessageListener {
     // set in init
     private InputHandler inputHandler;
     private OutputStream protoOutputStream;
+    // Only set if we use the non-blocking transport
+    @Nullable
+    private NioChannel nioChannel;
 
     // mutable data, set from other threads but not changed internally.
     private Optional<NodeAddress> peersNodeAddressOptional = Optional.<NodeAddress>empty();
     private volatile boolean stopped;
     private PeerType peerType;
     private final ObjectProperty<NodeAddress> peersNodeAddressProperty = new SimpleObjectProperty<>();
-    private final List<Tuple2<Long, NetworkEnvelope>> messageTimeStamps = new ArrayList<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
-    private volatile long lastSendTimeStamp = 0;
+    // Only accessed by the thread reading the messages
+    private final SlidingWindowRateLimiter receiveThrottlePerSec = new SlidingWindowRateLimiter(MSG_THROTTLE_PER_SEC,
+            TimeUnit.SECONDS.toMillis(1));
+    private final SlidingWindowRateLimiter receiveThrottlePer10Sec = new SlidingWindowRateLimiter(MSG_THROTTLE_PER_10_SEC,
+            TimeUnit.SECONDS.toMillis(10));
+    // Time since the peer exceeds the receive throttle without a break, 0 if it doesn't
+    private volatile long throttledSince;
+    // Guarded by deferredMessages
+    private final SlidingWindowRateLimiter sendThrottle = new SlidingWindowRateLimiter(SEND_MSG_THROTTLE_PER_SEC,
+            TimeUnit.SECONDS.toMillis(1));
+    // The future of a deferred message completes after it was written
+    private final Queue<Tuple2<NetworkEnvelope, SettableFuture<Connection>>> deferredMessages = new ArrayDeque<>();
+    // Guarded by deferredMessages
+    private boolean deferredSendScheduled;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -121,6 +160,13 @@ public class Connection implements MessageListener {
 
     Connection(Socket socket, MessageListener messageListener, ConnectionListener connectionListener,
                @Nullable NodeAddress peersNodeAddress, NetworkProtoResolver networkProtoResolver) {
+        this(socket, messageListener, connectionListener, peersNodeAddress, networkProtoResolver, null);
+    }
+
+    // If nioEventLoop is set and the socket has a channel we use the non-blocking transport
+    Connection(Socket socket, MessageListener messageListener, ConnectionListener connectionListener,
+               @Nullable NodeAddress peersNodeAddress, NetworkProtoResolver networkProtoResolver,
+               @Nullable NioEventLoop nioEventLoop) {
         this.socket = socket;
         this.connectionListener = connectionListener;
         uid = UUID.randomUUID().toString();
@@ -135,22 +181,32 @@ public class Connection implements MessageListener {
         else
             portInfo = "localPort=" + socket.getLocalPort() + "/port=" + socket.getPort();
 
-        init(peersNodeAddress, networkProtoResolver);
+        init(peersNodeAddress, networkProtoResolver, nioEventLoop);
     }
 
-    private void init(@Nullable NodeAddress peersNodeAddress, NetworkProtoResolver networkProtoResolver) {
+    private void init(@Nullable NodeAddress peersNodeAddress, NetworkProtoResolver networkProtoResolver,
+                      @Nullable NioEventLoop nioEventLoop) {
         try {
             socket.setSoTimeout(SOCKET_TIMEOUT);
-            // Need to access first the ObjectOutputStream otherwise the ObjectInputStream would block
-            // See: https://stackoverflow.com/questions/5658089/java-creating-a-new-objectinputstream-blocks/5658109#5658109
-            // When you construct an ObjectInputStream, in the constructor the class attempts to read a header that
-            // the associated ObjectOutputStream on the other end of the connection has written.
-            // It will not return until that header has been read.
-            protoOutputStream = socket.getOutputStream();
-            InputStream protoInputStream = socket.getInputStream();
-            // We create a thread for handling inputStream data
-            inputHandler = new InputHandler(sharedModel, protoInputStream, portInfo, this, networkProtoResolver);
-            singleThreadExecutor.submit(inputHandler);
+            if (nioEventLoop != null && socket.getChannel() != null) {
+                // The event loop reads the messages and passes them to the inputHandler, so we don't need a thread
+                // per connection. Sockets without channel (e.g. from the hidden service) use the blocking transport.
+                inputHandler = new InputHandler(sharedModel, null, portInfo, this, networkProtoResolver);
+                nioChannel = new NioChannel(socket.getChannel(), nioEventLoop, inputHandler, this::tryAcquireReceive,
+                        SOCKET_TIMEOUT);
+                nioChannel.start();
+            } else {
+                // Need to access first the ObjectOutputStream otherwise the ObjectInputStream would block
+                // See: https://stackoverflow.com/questions/5658089/java-creating-a-new-objectinputstream-blocks/5658109#5658109
+                // When you construct an ObjectInputStream, in the constructor the class attempts to read a header that
+                // the associated ObjectOutputStream on the other end of the connection has written.
+                // It will not return until that header has been read.
+                protoOutputStream = socket.getOutputStream();
+                InputStream protoInputStream = socket.getInputStream();
+                // We create a thread for handling inputStream data
+                inputHandler = new InputHandler(sharedModel, protoInputStream, portInfo, this, networkProtoResolver);
+                singleThreadExecutor.submit(inputHandler);
+            }
 
             // Use Peer as default, in case of other types they will set it as soon as possible.
             peerType = PeerType.PEER;
@@ -177,79 +233,27 @@ public class Connection implements MessageListener {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // Called from various threads
-    public void sendMessage(NetworkEnvelope networkEnvelope) {
-        log.debug(">> Send networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
+    // Called from various threads. The returned future completes once the message was written or if it was not sent.
+    public ListenableFuture<Connection> sendMessage(NetworkEnvelope networkEnvelope) {
+        if (log.isDebugEnabled())
+            log.debug(">> Send networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
 
         if (!stopped) {
             if (!isCapabilityRequired(networkEnvelope) || isCapabilitySupported(networkEnvelope)) {
-                try {
-                    Log.traceCall();
-
-                    // Throttle outbound network_messages
-                    long now = System.currentTimeMillis();
-                    long elapsed = now - lastSendTimeStamp;
-                    if (elapsed < 20) {
-                        log.debug("We got 2 sendMessage requests in less than 20 ms. We set the thread to sleep " +
-                                        "for 50 ms to avoid flooding our peer. lastSendTimeStamp={}, now={}, elapsed={}",
-                                lastSendTimeStamp, now, elapsed);
-                        Thread.sleep(50);
-                    }
-
-                    lastSendTimeStamp = now;
-                    String peersNodeAddress = peersNodeAddressOptional.isPresent() ? peersNodeAddressOptional.get().toString() : "null";
-
-                    PB.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
-                    log.debug("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
-
-                    if (networkEnvelope instanceof Ping | networkEnvelope instanceof RefreshOfferMessage) {
-                        // pings and offer refresh msg we dont want to log in production
-                        log.trace("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
-                                        "Sending direct message to peer" +
-                                        "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
-                                        "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, proto.toString(), proto.getSerializedSize());
-                    } else if (networkEnvelope instanceof PrefixedSealedAndSignedMessage && peersNodeAddressOptional.isPresent()) {
-                        setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
-
-                        log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
-                                        "Sending direct message to peer" +
-                                        "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
-                                        "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), -1);
-                    } else if (networkEnvelope instanceof GetDataResponse && ((GetDataResponse) networkEnvelope).isGetUpdatedDataResponse()) {
-                        setPeerType(Connection.PeerType.PEER);
-                    } else {
-                        log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
-                                        "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
-                                        "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), proto.getSerializedSize());
-                    }
-
-                    if (!stopped) {
-                        protoOutputStreamLock.lock();
-                        proto.writeDelimitedTo(protoOutputStream);
-                        protoOutputStream.flush();
-
-                        statistic.addSentBytes(proto.getSerializedSize());
-                        statistic.addSentMessage(networkEnvelope);
+                // Throttle outbound network_messages. Instead of blocking the calling thread we send the messages
+                // exceeding the limit later.
+                ListenableFuture<Connection> deferredFuture = deferIfThrottled(networkEnvelope);
+                if (deferredFuture != null)
+                    return deferredFuture;
 
-                        // We don't want to get the activity ts updated by ping/pong msg
-                        if (!(networkEnvelope instanceof KeepAliveMessage))
-                            statistic.updateLastActivityTimestamp();
-                    }
-                } catch (Throwable t) {
-                    handleException(t);
-                } finally {
-                    if (protoOutputStreamLock.isLocked())
-                        protoOutputStreamLock.unlock();
-                }
+                doSendMessage(networkEnvelope);
             } else {
                 log.debug("We did not send the message because the peer does not support our required capabilities. message={}, peers supportedCapabilities={}", networkEnvelope, sharedModel.getSupportedCapabilities());
             }
         } else {
             log.debug("called sendMessage but was already stopped");
         }
+        return Futures.immediateFuture(this);
     }
 
     public boolean isCapabilitySupported(NetworkEnvelope networkEnvelop) {
@@ -300,46 +304,193 @@ public class Connection implements MessageListener {
         return sharedModel.reportInvalidRequest(ruleViolation);
     }
 
-    // TODO either use the argument or delete it
-    private boolean violatesThrottleLimit(NetworkEnvelope networkEnvelop) {
-        long now = System.currentTimeMillis();
-        boolean violated = false;
-        //TODO remove message storage after network is tested stable
-        if (messageTimeStamps.size() >= MSG_THROTTLE_PER_SEC) {
-            // check if we got more than 200 (MSG_THROTTLE_PER_SEC) msg per sec.
-            long compareValue = messageTimeStamps.get(messageTimeStamps.size() - MSG_THROTTLE_PER_SEC).first;
-            // if duration < 1 sec we received too much network_messages
-            violated = now - compareValue < TimeUnit.SECONDS.toMillis(1);
-            if (violated) {
-                log.error("violatesThrottleLimit MSG_THROTTLE_PER_SEC ");
-                log.error("elapsed " + (now - compareValue));
-                log.error("messageTimeStamps: \n\t" + messageTimeStamps.stream()
-                        .map(e -> "\n\tts=" + e.first.toString() + " message=" + e.second.getClass().getName())
-                        .collect(Collectors.toList()).toString());
+    // Returns 0 if we can read the next message now, otherwise the milliseconds until the receive throttle permits it.
+    // We don't read from the socket while the peer exceeds the limit, so it gets slowed down by TCP flow control
+    // instead of getting disconnected (e.g. if a backlog stalled at Tor arrives at once). Only a peer which stays
+    // above the limit for more than MAX_THROTTLED_PERIOD violates the throttle limit (see violatesThrottleLimit).
+    @VisibleForTesting
+    long tryAcquireReceive(long now) {
+        long delay = Math.max(receiveThrottlePerSec.getDelay(now), receiveThrottlePer10Sec.getDelay(now));
+        if (delay > 0) {
+            if (throttledSince == 0)
+                throttledSince = now;
+            if (log.isDebugEnabled())
+                log.debug("We exceeded the receive throttle and read the next message in {} ms. " +
+                        "Received messages by type: {}", delay, statistic.getReceivedMessagesByType());
+            return delay;
+        }
+
+        receiveThrottlePerSec.tryAcquire(now);
+        receiveThrottlePer10Sec.tryAcquire(now);
+        // A flooding peer fills the freed slot right away, so the throttle only ends if we have spare capacity
+        if (receiveThrottlePerSec.getDelay(now) == 0 && receiveThrottlePer10Sec.getDelay(now) == 0)
+            throttledSince = 0;
+        return 0;
+    }
+
+    @VisibleForTesting
+    boolean violatesThrottleLimit(long now) {
+        long since = throttledSince;
+        if (since == 0 || now - since <= MAX_THROTTLED_PERIOD)
+            return false;
+
+        log.error("violatesThrottleLimit. We exceeded the receive throttle for {} sec. Received messages by type: {}",
+                (now - since) / 1000, statistic.getReceivedMessagesByType());
+        // The next violation gets reported only after another MAX_THROTTLED_PERIOD
+        throttledSince = now;
+        return true;
+    }
+
+    // Used by the blocking transport. The InputHandler has returned and we submit it again once the receive throttle
+    // permits the next message, so we don't block a thread while waiting.
+    private void resumeReadingAfter(long delay) {
+        throttleTimer.schedule(() -> {
+            if (stopped)
+                return;
+            try {
+                singleThreadExecutor.execute(inputHandler);
+            } catch (RejectedExecutionException ignore) {
+                // We got shut down in the meantime
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Returns null if the message can be sent now. Otherwise it gets sent by the deferredSendExecutor once the
+    // throttle permits it, in the order of the calls, and we return the future of that write.
+    @Nullable
+    private ListenableFuture<Connection> deferIfThrottled(NetworkEnvelope networkEnvelope) {
+        // The CloseConnectionMessage must be sent before we close the socket
+        if (networkEnvelope instanceof CloseConnectionMessage)
+            return null;
+
+        synchronized (deferredMessages) {
+            long now = System.currentTimeMillis();
+            if (deferredMessages.isEmpty() && sendThrottle.tryAcquire(now))
+                return null;
+
+            if (deferredMessages.size() >= MAX_DEFERRED_MESSAGES) {
+                log.warn("We exceeded the send throttle and have already {} messages waiting for that peer. " +
+                        "We drop the message {}.", deferredMessages.size(), networkEnvelope.getClass().getSimpleName());
+                return Futures.immediateFailedFuture(new IOException("Too many messages waiting for the send throttle"));
             }
+
+            SettableFuture<Connection> future = SettableFuture.create();
+            deferredMessages.add(new Tuple2<>(networkEnvelope, future));
+            log.debug("We exceeded the send throttle and send the message later. numDeferredMessages={}",
+                    deferredMessages.size());
+            if (!deferredSendScheduled) {
+                deferredSendScheduled = true;
+                scheduleDeferredSend(sendThrottle.getDelay(now));
+            }
+            return future;
         }
+    }
 
-        if (messageTimeStamps.size() >= MSG_THROTTLE_PER_10_SEC) {
-            if (!violated) {
-                // check if we got more than 50 msg per 10 sec.
-                long compareValue = messageTimeStamps.get(messageTimeStamps.size() - MSG_THROTTLE_PER_10_SEC).first;
-                // if duration < 10 sec we received too much network_messages
-                violated = now - compareValue < TimeUnit.SECONDS.toMillis(10);
+    private void scheduleDeferredSend(long delay) {
+        throttleTimer.schedule(() -> deferredSendExecutor.execute(this::sendDeferredMessages), delay,
+                TimeUnit.MILLISECONDS);
+    }
 
-                if (violated) {
-                    log.error("violatesThrottleLimit MSG_THROTTLE_PER_10_SEC ");
-                    log.error("elapsed " + (now - compareValue));
-                    log.error("messageTimeStamps: \n\t" + messageTimeStamps.stream()
-                            .map(e -> "\n\tts=" + e.first.toString() + " message=" + e.second.getClass().getName())
-                            .collect(Collectors.toList()).toString());
+    private void sendDeferredMessages() {
+        while (!stopped) {
+            Tuple2<NetworkEnvelope, SettableFuture<Connection>> deferredMessage;
+            synchronized (deferredMessages) {
+                if (deferredMessages.isEmpty()) {
+                    deferredSendScheduled = false;
+                    return;
                 }
+                long now = System.currentTimeMillis();
+                if (!sendThrottle.tryAcquire(now)) {
+                    scheduleDeferredSend(sendThrottle.getDelay(now));
+                    return;
+                }
+                deferredMessage = deferredMessages.poll();
             }
-            // we limit to max 1000 (MSG_THROTTLE_PER_10SEC) entries
-            messageTimeStamps.remove(0);
+            doSendMessage(deferredMessage.first);
+            if (stopped)
+                deferredMessage.second.setException(new IOException("Connection closed before the message was sent"));
+            else
+                deferredMessage.second.set(this);
         }
 
-        messageTimeStamps.add(new Tuple2<>(now, networkEnvelop));
-        return violated;
+        List<Tuple2<NetworkEnvelope, SettableFuture<Connection>>> notSentMessages;
+        synchronized (deferredMessages) {
+            notSentMessages = new ArrayList<>(deferredMessages);
+            deferredMessages.clear();
+            deferredSendScheduled = false;
+        }
+        notSentMessages.forEach(e -> e.second.setException(
+                new IOException("Connection closed before the message was sent")));
+    }
+
+    private void doSendMessage(NetworkEnvelope networkEnvelope) {
+        try {
+            Log.traceCall();
+
+            // Broadcast messages are encoded only once for all connections we send them to
+            EncodedNetworkEnvelope encodedNetworkEnvelope = networkEnvelope instanceof BroadcastMessage ?
+                    ((BroadcastMessage) networkEnvelope).getEncodedNetworkEnvelope() :
+                    EncodedNetworkEnvelope.encode(networkEnvelope.toProtoNetworkEnvelope());
+            PB.NetworkEnvelope proto = encodedNetworkEnvelope.getProto();
+
+            // We format the message only if it gets logged. Pings and offer refresh msg we dont want to log in
+            // production (trace).
+            boolean isPingOrRefreshOfferMessage = networkEnvelope instanceof Ping || networkEnvelope instanceof RefreshOfferMessage;
+            boolean logMessage = isPingOrRefreshOfferMessage ?
+                    sendTracer.isTraceEnabled(networkEnvelope) :
+                    sendTracer.isDebugEnabled(networkEnvelope);
+            String peersNodeAddress = logMessage && peersNodeAddressOptional.isPresent() ?
+                    peersNodeAddressOptional.get().toString() : "null";
+            if (logMessage)
+                log.debug("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
+
+            if (isPingOrRefreshOfferMessage) {
+                if (logMessage)
+                    log.trace("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
+                                    "Sending direct message to peer" +
+                                    "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
+                                    "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
+                            peersNodeAddress, uid, proto.toString(), proto.getSerializedSize());
+            } else if (networkEnvelope instanceof PrefixedSealedAndSignedMessage && peersNodeAddressOptional.isPresent()) {
+                setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
+
+                if (logMessage)
+                    log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
+                                    "Sending direct message to peer" +
+                                    "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
+                                    "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
+                            peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), -1);
+            } else if (networkEnvelope instanceof GetDataResponse && ((GetDataResponse) networkEnvelope).isGetUpdatedDataResponse()) {
+                setPeerType(Connection.PeerType.PEER);
+            } else if (logMessage) {
+                log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
+                                "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
+                                "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
+                        peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), proto.getSerializedSize());
+            }
+
+            if (!stopped) {
+                if (nioChannel != null) {
+                    // Blocks only if the peer does not read the data we have already queued
+                    nioChannel.write(encodedNetworkEnvelope);
+                } else {
+                    protoOutputStreamLock.lock();
+                    encodedNetworkEnvelope.writeTo(protoOutputStream);
+                    protoOutputStream.flush();
+                }
+
+                statistic.addSentMessage(networkEnvelope, encodedNetworkEnvelope.getSerializedSize());
+
+                // We don't want to get the activity ts updated by ping/pong msg
+                if (!(networkEnvelope instanceof KeepAliveMessage))
+                    statistic.updateLastActivityTimestamp();
+            }
+        } catch (Throwable t) {
+            handleException(t);
+        } finally {
+            if (protoOutputStreamLock.isHeldByCurrentThread())
+                protoOutputStreamLock.unlock();
+        }
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -477,6 +628,8 @@ public class Connection implements MessageListener {
         sharedModel.stop();
         if (inputHandler != null)
             inputHandler.stop();
+        if (nioChannel != null)
+            nioChannel.close();
     }
 
     private void doShutDown(CloseConnectionReason closeConnectionReason, @Nullable Runnable shutDownCompleteHandler) {
@@ -505,7 +658,8 @@ public class Connection implements MessageListener {
             } catch (Throwable ignore) {
             }
             try {
-                protoOutputStream.close();
+                if (protoOutputStream != null)
+                    protoOutputStream.close();
             } catch (Throwable ignore) {
             }
             MoreExecutors.shutdownAndAwaitTermination(singleThreadExecutor, 500, TimeUnit.MILLISECONDS);
@@ -695,21 +849,23 @@ public class Connection implements MessageListener {
     // Runs in same thread as Connection, receives a message, performs several checks on it
     // (including throttling limits, validity and statistics)
     // and delivers it to the message listener given in the constructor.
-    private static class InputHandler implements Runnable {
+    // With the non-blocking transport the messages are read by the NioChannel and passed to onMessage instead.
+    private static class InputHandler implements Runnable, NioChannel.Listener {
         private static final Logger log = LoggerFactory.getLogger(InputHandler.class);
+        private static final MessageTracer receiveTracer = new MessageTracer(log);
 
         private final SharedModel sharedModel;
+        @Nullable
         private final InputStream protoInputStream;
         private final String portInfo;
         private final MessageListener messageListener;
         private final NetworkProtoResolver networkProtoResolver;
 
         private volatile boolean stopped;
-        private long lastReadTimeStamp;
         private boolean threadNameSet;
 
         public InputHandler(SharedModel sharedModel,
-                            InputStream protoInputStream,
+                            @Nullable InputStream protoInputStream,
                             String portInfo,
                             MessageListener messageListener,
                             NetworkProtoResolver networkProtoResolver) {
@@ -723,7 +879,8 @@ public class Connection implements MessageListener {
         public void stop() {
             if (!stopped) {
                 try {
-                    protoInputStream.close();
+                    if (protoInputStream != null)
+                        protoInputStream.close();
                 } catch (IOException e) {
                     log.error("IOException at InputHandler.stop\n" + e.getMessage());
                     e.printStackTrace();
@@ -737,6 +894,7 @@ public class Connection implements MessageListener {
         public void run() {
             try {
                 Thread.currentThread().setName("InputHandler");
+                threadNameSet = false;
                 while (!stopped && !Thread.currentThread().isInterrupted()) {
                     if (!threadNameSet && sharedModel.connection != null &&
                             sharedModel.connection.getPeersNodeAddressOptional().isPresent()) {
@@ -752,18 +910,16 @@ public class Connection implements MessageListener {
                         }
 
                         Connection connection = checkNotNull(sharedModel.connection, "connection must not be null");
-                        log.trace("InputHandler waiting for incoming network_messages.\n\tConnection=" + connection);
-
-                        // Throttle inbound network_messages
-                        long now = System.currentTimeMillis();
-                        long elapsed = now - lastReadTimeStamp;
-                        if (elapsed < 10) {
-                            log.debug("We got 2 network_messages received in less than 10 ms. We set the thread to sleep " +
-                                            "for 20 ms to avoid getting flooded by our peer. lastReadTimeStamp={}, now={}, elapsed={}",
-                                    lastReadTimeStamp, now, elapsed);
-                            Thread.sleep(20);
+
+                        long throttleDelay = connection.tryAcquireReceive(System.currentTimeMillis());
+                        if (throttleDelay > 0) {
+                            // We stop taking messages and get executed again when the throttle permits it
+                            connection.resumeReadingAfter(throttleDelay);
+                            return;
                         }
 
+                        log.trace("InputHandler waiting for incoming network_messages.\n\tConnection={}", connection);
+
                         // Reading the protobuffer message from the inputstream
                         PB.NetworkEnvelope proto = PB.NetworkEnvelope.parseDelimitedFrom(protoInputStream);
 
@@ -776,147 +932,196 @@ public class Connection implements MessageListener {
                             return;
                         }
 
-                        NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
-                        lastReadTimeStamp = now;
-                        log.debug("<< Received networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
-
-                        int size = proto.getSerializedSize();
-                        if (networkEnvelope instanceof Pong || networkEnvelope instanceof RefreshOfferMessage) {
-                            // We only log Pong and RefreshOfferMsg when in dev environment (trace)
-                            log.trace("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
-                                            "New data arrived at inputHandler of connection {}.\n" +
-                                            "Received object (truncated)={} / size={}"
-                                            + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
-                                    connection,
-                                    Utilities.toTruncatedString(proto.toString()),
-                                    size);
-                        } else {
-                            // We want to log all incoming network_messages (except Pong and RefreshOfferMsg)
-                            // so we log before the data type checks
-                            //log.info("size={}; object={}", size, Utilities.toTruncatedString(rawInputObject.toString(), 100));
-                            log.debug("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
-                                            "New data arrived at inputHandler of connection {}.\n" +
-                                            "Received object (truncated)={} / size={}"
-                                            + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
-                                    connection,
-                                    Utilities.toTruncatedString(proto.toString()),
-                                    size);
-                        }
+                        if (!handleProto(proto, null))
+                            return;
+                    } catch (Throwable t) {
+                        onThrowable(t);
+                    }
+                }
+            } catch (Throwable t) {
+                handleException(t);
+            }
+        }
 
-                        // We want to track the size of each object even if it is invalid data
-                        connection.statistic.addReceivedBytes(size);
+        @Override
+        public void onMessage(PB.NetworkEnvelope proto, byte[] bytes) {
+            if (stopped)
+                return;
 
-                        // We want to track the network_messages also before the checks, so do it early...
-                        connection.statistic.addReceivedMessage(networkEnvelope);
+            try {
+                handleProto(proto, bytes);
+            } catch (Throwable t) {
+                onThrowable(t);
+            }
+        }
 
-                        // First we check the size
-                        boolean exceeds;
-                        if (networkEnvelope instanceof ExtendedDataSizePermission) {
-                            exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
-                            log.debug("size={}; object={}", size, Utilities.toTruncatedString(proto, 100));
-                        } else {
-                            exceeds = size > PERMITTED_MESSAGE_SIZE;
-                        }
+        @Override
+        public void onEndOfStream() {
+            if (!stopped) {
+                log.info("Connection got closed by peer (EOF). That is expected if client got stopped without proper shutdown.");
+                stopAndShutDown(CloseConnectionReason.NO_PROTO_BUFFER_ENV);
+            }
+        }
 
-                        if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
-                                !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
-                            log.warn("PersistableNetworkPayload.verifyHashSize failed. hashSize={}; object={}",
-                                    ((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().getHash().length,
-                                    Utilities.toTruncatedString(proto));
-                            if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
-                                return;
-                        }
+        @Override
+        public void onError(Throwable throwable) {
+            if (!stopped)
+                handleException(throwable);
+        }
 
-                        if (exceeds) {
-                            log.warn("size > MAX_MSG_SIZE. size={}; object={}", size, Utilities.toTruncatedString(proto));
+        // Returns false if we stopped handling messages. receivedBytes is null at the blocking transport.
+        private boolean handleProto(PB.NetworkEnvelope proto, @Nullable byte[] receivedBytes) {
+            Connection connection = checkNotNull(sharedModel.connection, "connection must not be null");
+            NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
+            // If we relay the message we send the received data
+            if (networkEnvelope instanceof BroadcastMessage)
+                ((BroadcastMessage) networkEnvelope).setReceivedData(proto, receivedBytes);
+
+            // We format the message only if it gets logged
+            int size = proto.getSerializedSize();
+            boolean isPongOrRefreshOfferMessage = networkEnvelope instanceof Pong || networkEnvelope instanceof RefreshOfferMessage;
+            boolean logMessage = isPongOrRefreshOfferMessage ?
+                    receiveTracer.isTraceEnabled(networkEnvelope) :
+                    receiveTracer.isDebugEnabled(networkEnvelope);
+            if (logMessage)
+                log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
+
+            if (isPongOrRefreshOfferMessage) {
+                // We only log Pong and RefreshOfferMsg when in dev environment (trace)
+                if (logMessage)
+                    log.trace("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
+                                    "New data arrived at inputHandler of connection {}.\n" +
+                                    "Received object (truncated)={} / size={}"
+                                    + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
+                            connection,
+                            Utilities.toTruncatedString(proto.toString()),
+                            size);
+            } else if (logMessage) {
+                // We want to log all incoming network_messages (except Pong and RefreshOfferMsg)
+                // so we log before the data type checks
+                //log.info("size={}; object={}", size, Utilities.toTruncatedString(rawInputObject.toString(), 100));
+                log.debug("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
+                                "New data arrived at inputHandler of connection {}.\n" +
+                                "Received object (truncated)={} / size={}"
+                                + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
+                        connection,
+                        Utilities.toTruncatedString(proto.toString()),
+                        size);
+            }
 
-                            if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
-                                return;
-                        }
+            // We want to track the size of each object even if it is invalid data and the network_messages also
+            // before the checks, so do it early...
+            connection.statistic.addReceivedMessage(networkEnvelope, size);
 
-                        if (connection.violatesThrottleLimit(networkEnvelope)
-                                && reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED))
-                            return;
+            // First we check the size
+            boolean exceeds;
+            if (networkEnvelope instanceof ExtendedDataSizePermission) {
+                exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
+                if (logMessage)
+                    log.debug("size={}; object={}", size, Utilities.toTruncatedString(proto, 100));
+            } else {
+                exceeds = size > PERMITTED_MESSAGE_SIZE;
+            }
 
-                        // Check P2P network ID
-                        if (proto.getMessageVersion() != Version.getP2PMessageVersion()
-                                && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
-                            log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
-                                            "proto.toTruncatedString={}", proto.getMessageVersion(),
-                                    Version.getP2PMessageVersion(),
-                                    Utilities.toTruncatedString(proto.toString()));
-                            return;
-                        }
+            if (networkEnvelope instanceof AddPersistableNetworkPayloadMessage &&
+                    !((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().verifyHashSize()) {
+                log.warn("PersistableNetworkPayload.verifyHashSize failed. hashSize={}; object={}",
+                        ((AddPersistableNetworkPayloadMessage) networkEnvelope).getPersistableNetworkPayload().getHash().length,
+                        Utilities.toTruncatedString(proto));
+                if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
+                    return false;
+            }
 
-                        if (sharedModel.getSupportedCapabilities() == null && networkEnvelope instanceof SupportedCapabilitiesMessage)
-                            sharedModel.setSupportedCapabilities(((SupportedCapabilitiesMessage) networkEnvelope).getSupportedCapabilities());
-
-                        if (networkEnvelope instanceof CloseConnectionMessage) {
-                            // If we get a CloseConnectionMessage we shut down
-                            log.info("CloseConnectionMessage received. Reason={}\n\t" +
-                                    "connection={}", proto.getCloseConnectionMessage().getReason(), connection);
-                            if (CloseConnectionReason.PEER_BANNED.name().equals(proto.getCloseConnectionMessage().getReason())) {
-                                log.warn("We got shut down because we are banned by the other peer. (InputHandler.run CloseConnectionMessage)");
-                                stopAndShutDown(CloseConnectionReason.PEER_BANNED);
-                            } else {
-                                stopAndShutDown(CloseConnectionReason.CLOSE_REQUESTED_BY_PEER);
-                            }
-                            return;
-                        } else if (!stopped) {
-                            // We don't want to get the activity ts updated by ping/pong msg
-                            if (!(networkEnvelope instanceof KeepAliveMessage))
-                                connection.statistic.updateLastActivityTimestamp();
-
-                            if (networkEnvelope instanceof GetDataRequest)
-                                connection.setPeerType(PeerType.INITIAL_DATA_REQUEST);
-
-                            // First a seed node gets a message from a peer (PreliminaryDataRequest using
-                            // AnonymousMessage interface) which does not have its hidden service
-                            // published, so it does not know its address. As the IncomingConnection does not have the
-                            // peersNodeAddress set that connection cannot be used for outgoing network_messages until we
-                            // get the address set.
-                            // At the data update message (DataRequest using SendersNodeAddressMessage interface)
-                            // after the HS is published we get the peer's address set.
-
-                            // There are only those network_messages used for new connections to a peer:
-                            // 1. PreliminaryDataRequest
-                            // 2. DataRequest (implements SendersNodeAddressMessage)
-                            // 3. GetPeersRequest (implements SendersNodeAddressMessage)
-                            // 4. DirectMessage (implements SendersNodeAddressMessage)
-                            if (networkEnvelope instanceof SendersNodeAddressMessage) {
-                                NodeAddress senderNodeAddress = ((SendersNodeAddressMessage) networkEnvelope).getSenderNodeAddress();
-                                Optional<NodeAddress> peersNodeAddressOptional = connection.getPeersNodeAddressOptional();
-                                if (peersNodeAddressOptional.isPresent()) {
-                                    // If we have already the peers address we check again if it matches our stored one
-                                    checkArgument(peersNodeAddressOptional.get().equals(senderNodeAddress),
-                                            "senderNodeAddress not matching connections peer address.\n\t" +
-                                                    "message=" + networkEnvelope);
-                                } else {
-                                    // We must not shut down a banned peer at that moment as it would trigger a connection termination
-                                    // and we could not send the CloseConnectionMessage.
-                                    // We check for a banned peer inside setPeersNodeAddress() and shut down if banned.
-                                    connection.setPeersNodeAddress(senderNodeAddress);
-                                }
-                            }
-
-                            if (networkEnvelope instanceof PrefixedSealedAndSignedMessage)
-                                connection.setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
-
-                            messageListener.onMessage(networkEnvelope, connection);
-                        }
-                    } catch (InvalidClassException e) {
-                        log.error(e.getMessage());
-                        e.printStackTrace();
-                        reportInvalidRequest(RuleViolation.INVALID_CLASS);
-                    } catch (NoClassDefFoundError e) {
-                        log.error(e.getMessage());
-                        e.printStackTrace();
-                        reportInvalidRequest(RuleViolation.INVALID_DATA_TYPE);
-                    } catch (Throwable t) {
-                        handleException(t);
+            if (exceeds) {
+                log.warn("size > MAX_MSG_SIZE. size={}; object={}", size, Utilities.toTruncatedString(proto));
+
+                if (reportInvalidRequest(RuleViolation.MAX_MSG_SIZE_EXCEEDED))
+                    return false;
+            }
+
+            if (connection.violatesThrottleLimit(System.currentTimeMillis())
+                    && reportInvalidRequest(RuleViolation.THROTTLE_LIMIT_EXCEEDED))
+                return false;
+
+            // Check P2P network ID
+            if (proto.getMessageVersion() != Version.getP2PMessageVersion()
+                    && reportInvalidRequest(RuleViolation.WRONG_NETWORK_ID)) {
+                log.warn("RuleViolation.WRONG_NETWORK_ID. version of message={}, app version={}, " +
+                                "proto.toTruncatedString={}", proto.getMessageVersion(),
+                        Version.getP2PMessageVersion(),
+                        Utilities.toTruncatedString(proto.toString()));
+                return false;
+            }
+
+            if (sharedModel.getSupportedCapabilities() == null && networkEnvelope instanceof SupportedCapabilitiesMessage)
+                sharedModel.setSupportedCapabilities(((SupportedCapabilitiesMessage) networkEnvelope).getSupportedCapabilities());
+
+            if (networkEnvelope instanceof CloseConnectionMessage) {
+                // If we get a CloseConnectionMessage we shut down
+                log.info("CloseConnectionMessage received. Reason={}\n\t" +
+                        "connection={}", proto.getCloseConnectionMessage().getReason(), connection);
+                if (CloseConnectionReason.PEER_BANNED.name().equals(proto.getCloseConnectionMessage().getReason())) {
+                    log.warn("We got shut down because we are banned by the other peer. (InputHandler.run CloseConnectionMessage)");
+                    stopAndShutDown(CloseConnectionReason.PEER_BANNED);
+                } else {
+                    stopAndShutDown(CloseConnectionReason.CLOSE_REQUESTED_BY_PEER);
+                }
+                return false;
+            } else if (!stopped) {
+                // We don't want to get the activity ts updated by ping/pong msg
+                if (!(networkEnvelope instanceof KeepAliveMessage))
+                    connection.statistic.updateLastActivityTimestamp();
+
+                if (networkEnvelope instanceof GetDataRequest)
+                    connection.setPeerType(PeerType.INITIAL_DATA_REQUEST);
+
+                // First a seed node gets a message from a peer (PreliminaryDataRequest using
+                // AnonymousMessage interface) which does not have its hidden service
+                // published, so it does not know its address. As the IncomingConnection does not have the
+                // peersNodeAddress set that connection cannot be used for outgoing network_messages until we
+                // get the address set.
+                // At the data update message (DataRequest using SendersNodeAddressMessage interface)
+                // after the HS is published we get the peer's address set.
+
+                // There are only those network_messages used for new connections to a peer:
+                // 1. PreliminaryDataRequest
+                // 2. DataRequest (implements SendersNodeAddressMessage)
+                // 3. GetPeersRequest (implements SendersNodeAddressMessage)
+                // 4. DirectMessage (implements SendersNodeAddressMessage)
+                if (networkEnvelope instanceof SendersNodeAddressMessage) {
+                    NodeAddress senderNodeAddress = ((SendersNodeAddressMessage) networkEnvelope).getSenderNodeAddress();
+                    Optional<NodeAddress> peersNodeAddressOptional = connection.getPeersNodeAddressOptional();
+                    if (peersNodeAddressOptional.isPresent()) {
+                        // If we have already the peers address we check again if it matches our stored one
+                        checkArgument(peersNodeAddressOptional.get().equals(senderNodeAddress),
+                                "senderNodeAddress not matching connections peer address.\n\t" +
+                                        "message=" + networkEnvelope);
+                    } else {
+                        // We must not shut down a banned peer at that moment as it would trigger a connection termination
+                        // and we could not send the CloseConnectionMessage.
+                        // We check for a banned peer inside setPeersNodeAddress() and shut down if banned.
+                        connection.setPeersNodeAddress(senderNodeAddress);
                     }
                 }
-            } catch (Throwable t) {
+
+                if (networkEnvelope instanceof PrefixedSealedAndSignedMessage)
+                    connection.setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
+
+                messageListener.onMessage(networkEnvelope, connection);
+            }
+            return true;
+        }
+
+        private void onThrowable(Throwable t) {
+            if (t instanceof InvalidClassException) {
+                log.error(t.getMessage());
+                t.printStackTrace();
+                reportInvalidRequest(RuleViolation.INVALID_CLASS);
+            } else if (t instanceof NoClassDefFoundError) {
+                log.error(t.getMessage());
+                t.printStackTrace();
+                reportInvalidRequest(RuleViolation.INVALID_DATA_TYPE);
+            } else {
                 handleException(t);
             }
         }
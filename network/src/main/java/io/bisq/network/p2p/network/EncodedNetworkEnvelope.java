@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import com.google.protobuf.CodedOutputStream;
+import io.bisq.generated.protobuffer.PB;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A serialized network envelope including its length prefix (same framing as writeDelimitedTo). It is immutable, so
+ * one instance can be written to any number of connections (e.g. at a broadcast) without encoding the message again.
+ */
+public final class EncodedNetworkEnvelope {
+
+    public static EncodedNetworkEnvelope encode(PB.NetworkEnvelope proto) {
+        int size = proto.getSerializedSize();
+        byte[] frame = new byte[CodedOutputStream.computeUInt32SizeNoTag(size) + size];
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(frame);
+        try {
+            codedOutputStream.writeUInt32NoTag(size);
+            proto.writeTo(codedOutputStream);
+            codedOutputStream.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Cannot happen as we write to a byte array of the exact size
+            throw new IllegalStateException("Serializing to a byte array failed", e);
+        }
+        return new EncodedNetworkEnvelope(proto, frame);
+    }
+
+    // We reuse the received bytes only if they have the size of our own encoding. Otherwise the peer might have sent
+    // unknown fields or other padding which got dropped at parsing and which we don't want to relay.
+    public static EncodedNetworkEnvelope fromReceived(PB.NetworkEnvelope proto, @Nullable byte[] receivedBytes) {
+        int size = proto.getSerializedSize();
+        if (receivedBytes == null || receivedBytes.length != size)
+            return encode(proto);
+
+        int headerSize = CodedOutputStream.computeUInt32SizeNoTag(size);
+        byte[] frame = new byte[headerSize + size];
+        CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(frame, 0, headerSize);
+        try {
+            codedOutputStream.writeUInt32NoTag(size);
+        } catch (IOException e) {
+            throw new IllegalStateException("Serializing to a byte array failed", e);
+        }
+        System.arraycopy(receivedBytes, 0, frame, headerSize, size);
+        return new EncodedNetworkEnvelope(proto, frame);
+    }
+
+    @Getter
+    private final PB.NetworkEnvelope proto;
+    private final byte[] frame;
+
+    private EncodedNetworkEnvelope(PB.NetworkEnvelope proto, byte[] frame) {
+        this.proto = proto;
+        this.frame = frame;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Size of the message without the length prefix
+    public int getSerializedSize() {
+        return proto.getSerializedSize();
+    }
+
+    // Size including the length prefix
+    public int getFrameSize() {
+        return frame.length;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(frame);
+    }
+
+    // Returns a new buffer over the shared bytes, so each connection has its own position
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(frame).asReadOnlyBuffer();
+    }
+}
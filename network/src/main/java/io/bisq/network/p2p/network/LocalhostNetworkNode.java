@@ -9,8 +9,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.TimeUnit;
 
 // Run in UserThread
@@ -34,7 +37,11 @@ public class LocalhostNetworkNode extends NetworkNode {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public LocalhostNetworkNode(int port, NetworkProtoResolver networkProtoResolver) {
-        super(port, networkProtoResolver);
+        this(port, networkProtoResolver, false);
+    }
+
+    public LocalhostNetworkNode(int port, NetworkProtoResolver networkProtoResolver, boolean useNioTransport) {
+        super(port, networkProtoResolver, useNioTransport);
     }
 
     @Override
@@ -53,7 +60,7 @@ public class LocalhostNetworkNode extends NetworkNode {
             UserThread.runAfter(() -> {
                 Log.traceCall("hiddenService created");
                 try {
-                    startServer(new ServerSocket(servicePort));
+                    startServer(createServerSocket());
                 } catch (IOException e) {
                     e.printStackTrace();
                     log.error("Exception at startServer: " + e.getMessage());
@@ -70,4 +77,22 @@ public class LocalhostNetworkNode extends NetworkNode {
     protected Socket createSocket(NodeAddress peerNodeAddress) throws IOException {
         return new Socket(peerNodeAddress.getHostName(), peerNodeAddress.getPort());
     }
+
+    // Called from NetworkNode thread
+    @Override
+    protected SocketChannel createSocketChannel(NodeAddress peerNodeAddress) throws IOException {
+        return SocketChannel.open(new InetSocketAddress(peerNodeAddress.getHostName(), peerNodeAddress.getPort()));
+    }
+
+    // The sockets accepted by the socket of a ServerSocketChannel have a channel, so they can use the
+    // non-blocking transport
+    private ServerSocket createServerSocket() throws IOException {
+        if (nioEventLoop != null) {
+            ServerSocket serverSocket = ServerSocketChannel.open().socket();
+            serverSocket.bind(new InetSocketAddress(servicePort));
+            return serverSocket;
+        } else {
+            return new ServerSocket(servicePort);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import io.bisq.common.proto.network.NetworkEnvelope;
+import io.bisq.network.p2p.peers.keepalive.messages.KeepAliveMessage;
+import io.bisq.network.p2p.storage.messages.BroadcastMessage;
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides if a sent or received message gets logged. Formatting a message (e.g. the toString of the protobuffer
+ * message) is expensive, so the callers must only format it if the check returned true. If the log level is not
+ * enabled the check costs a level check and allocates nothing.
+ * <p/>
+ * Messages are sampled per message type: We log the first message of a type and then every n-th. High volume types
+ * (broadcast and keep alive messages) use a higher sample rate than the others.
+ */
+class MessageTracer {
+    static final int DEFAULT_SAMPLE_RATE = 1;
+    static final int HIGH_VOLUME_SAMPLE_RATE = 10;
+
+    private final Logger log;
+    // One counter per message type
+    private final ClassValue<Counter> counters = new ClassValue<Counter>() {
+        @Override
+        protected Counter computeValue(Class<?> type) {
+            boolean isHighVolume = BroadcastMessage.class.isAssignableFrom(type) ||
+                    KeepAliveMessage.class.isAssignableFrom(type);
+            return new Counter(isHighVolume ? HIGH_VOLUME_SAMPLE_RATE : DEFAULT_SAMPLE_RATE);
+        }
+    };
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    MessageTracer(Logger log) {
+        this.log = log;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Call only once per message, as each call counts for the sampling
+    boolean isDebugEnabled(NetworkEnvelope networkEnvelope) {
+        return log.isDebugEnabled() && isSampled(networkEnvelope);
+    }
+
+    // Call only once per message, as each call counts for the sampling
+    boolean isTraceEnabled(NetworkEnvelope networkEnvelope) {
+        return log.isTraceEnabled() && isSampled(networkEnvelope);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean isSampled(NetworkEnvelope networkEnvelope) {
+        return counters.get(networkEnvelope.getClass()).sample();
+    }
+
+    private static class Counter {
+        private final int sampleRate;
+        private final AtomicLong count = new AtomicLong();
+
+        private Counter(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        private boolean sample() {
+            return count.getAndIncrement() % sampleRate == 0;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.net.ConnectException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
@@ -33,16 +34,20 @@ import static com.google.common.base.Preconditions.checkNotNull;
 // Run in UserThread
 public abstract class NetworkNode implements MessageListener {
     private static final Logger log = LoggerFactory.getLogger(NetworkNode.class);
-    private static final int CREATE_SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
+    static final int CREATE_SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
 
     final int servicePort;
     private final NetworkProtoResolver networkProtoResolver;
+    final boolean useNioTransport;
 
     private final CopyOnWriteArraySet<InboundConnection> inBoundConnections = new CopyOnWriteArraySet<>();
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
     private final CopyOnWriteArraySet<ConnectionListener> connectionListeners = new CopyOnWriteArraySet<>();
     final CopyOnWriteArraySet<SetupListener> setupListeners = new CopyOnWriteArraySet<>();
     ListeningExecutorService executorService;
+    // Only set if we use the non-blocking transport
+    @Nullable
+    NioEventLoop nioEventLoop;
     private Server server;
 
     private volatile boolean shutDownInProgress;
@@ -56,8 +61,13 @@ public abstract class NetworkNode implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     NetworkNode(int servicePort, NetworkProtoResolver networkProtoResolver) {
+        this(servicePort, networkProtoResolver, false);
+    }
+
+    NetworkNode(int servicePort, NetworkProtoResolver networkProtoResolver, boolean useNioTransport) {
         this.servicePort = servicePort;
         this.networkProtoResolver = networkProtoResolver;
+        this.useNioTransport = useNioTransport;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -69,7 +79,7 @@ public abstract class NetworkNode implements MessageListener {
     abstract public void start(@Nullable SetupListener setupListener);
 
     public SettableFuture<Connection> sendMessage(@NotNull NodeAddress peersNodeAddress, NetworkEnvelope networkEnvelop) {
-        Log.traceCall("peersNodeAddress=" + peersNodeAddress + "\n\tmessage=" + Utilities.toTruncatedString(networkEnvelop));
+        Log.traceCall(() -> "peersNodeAddress=" + peersNodeAddress + "\n\tmessage=" + Utilities.toTruncatedString(networkEnvelop));
         checkNotNull(peersNodeAddress, "peerAddress must not be null");
 
         Connection connection = getOutboundConnection(peersNodeAddress);
@@ -83,14 +93,17 @@ public abstract class NetworkNode implements MessageListener {
                     "We will create a new outbound connection.", peersNodeAddress);
 
             final SettableFuture<Connection> resultFuture = SettableFuture.create();
-            ListenableFuture<Connection> future = executorService.submit(() -> {
+            // The message might get sent later if the send throttle is exceeded, so we complete after the write
+            ListenableFuture<Connection> future = Futures.dereference(executorService.submit(() -> {
                 Thread.currentThread().setName("NetworkNode:SendMessage-to-" + peersNodeAddress);
                 OutboundConnection outboundConnection = null;
                 try {
                     // can take a while when using tor
                     long startTs = System.currentTimeMillis();
                     log.debug("Start create socket to peersNodeAddress {}", peersNodeAddress.getFullAddress());
-                    Socket socket = createSocket(peersNodeAddress);
+                    Socket socket = nioEventLoop != null ?
+                            createSocketChannel(peersNodeAddress).socket() :
+                            createSocket(peersNodeAddress);
                     long duration = System.currentTimeMillis() - startTs;
                     log.debug("Socket creation to peersNodeAddress {} took {} ms", peersNodeAddress.getFullAddress(),
                             duration);
@@ -115,8 +128,7 @@ public abstract class NetworkNode implements MessageListener {
                         } catch (Throwable throwable) {
                             log.error("Error at closing socket " + throwable);
                         }
-                        existingConnection.sendMessage(networkEnvelop);
-                        return existingConnection;
+                        return existingConnection.sendMessage(networkEnvelop);
                     } else {
                         final ConnectionListener connectionListener = new ConnectionListener() {
                             @Override
@@ -147,7 +159,8 @@ public abstract class NetworkNode implements MessageListener {
                                 NetworkNode.this,
                                 connectionListener,
                                 peersNodeAddress,
-                                networkProtoResolver);
+                                networkProtoResolver,
+                                nioEventLoop);
 
                         log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
                                 "NetworkNode created new outbound connection:"
@@ -158,8 +171,7 @@ public abstract class NetworkNode implements MessageListener {
                                 + "\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n");
 
                         // can take a while when using tor
-                        outboundConnection.sendMessage(networkEnvelop);
-                        return outboundConnection;
+                        return outboundConnection.sendMessage(networkEnvelop);
                     }
                 } catch (Throwable throwable) {
                     if (!(throwable instanceof ConnectException ||
@@ -169,7 +181,7 @@ public abstract class NetworkNode implements MessageListener {
                     }
                     throw throwable;
                 }
-            });
+            }));
 
             Futures.addCallback(future, new FutureCallback<Connection>() {
                 public void onSuccess(Connection connection) {
@@ -228,13 +240,13 @@ public abstract class NetworkNode implements MessageListener {
 
 
     public SettableFuture<Connection> sendMessage(Connection connection, NetworkEnvelope networkEnvelop) {
-        Log.traceCall("\n\tmessage=" + Utilities.toTruncatedString(networkEnvelop) + "\n\tconnection=" + connection);
-        // connection.sendMessage might take a bit (compression, write to stream), so we use a thread to not block
-        ListenableFuture<Connection> future = executorService.submit(() -> {
+        Log.traceCall(() -> "\n\tmessage=" + Utilities.toTruncatedString(networkEnvelop) + "\n\tconnection=" + connection);
+        // connection.sendMessage might take a bit (compression, write to stream), so we use a thread to not block.
+        // The message might get sent later if the send throttle is exceeded, so we complete after the write.
+        ListenableFuture<Connection> future = Futures.dereference(executorService.submit(() -> {
             Thread.currentThread().setName("NetworkNode:SendMessage-to-" + connection.getUid());
-            connection.sendMessage(networkEnvelop);
-            return connection;
-        });
+            return connection.sendMessage(networkEnvelop);
+        }));
         final SettableFuture<Connection> resultFuture = SettableFuture.create();
         Futures.addCallback(future, new FutureCallback<Connection>() {
             public void onSuccess(Connection connection) {
@@ -286,6 +298,12 @@ public abstract class NetworkNode implements MessageListener {
             }
 
             getAllConnections().stream().forEach(c -> c.shutDown(CloseConnectionReason.APP_SHUT_DOWN));
+
+            // The connections need a bit to write the CloseConnectionMessage
+            if (nioEventLoop != null) {
+                final NioEventLoop eventLoop = nioEventLoop;
+                UserThread.runAfter(eventLoop::shutDown, 1);
+            }
             log.debug("NetworkNode shutdown complete");
         }
         if (shutDownCompleteHandler != null) shutDownCompleteHandler.run();
@@ -352,6 +370,14 @@ public abstract class NetworkNode implements MessageListener {
     void createExecutorService() {
         if (executorService == null)
             executorService = Utilities.getListeningExecutorService("NetworkNode-" + servicePort, 15, 30, 60);
+
+        if (useNioTransport && nioEventLoop == null) {
+            try {
+                nioEventLoop = new NioEventLoop("NioEventLoop-" + servicePort);
+            } catch (IOException e) {
+                log.error("Could not open selector. We use the blocking transport. " + e.toString());
+            }
+        }
     }
 
     void startServer(ServerSocket serverSocket) {
@@ -383,7 +409,8 @@ public abstract class NetworkNode implements MessageListener {
         server = new Server(serverSocket,
                 NetworkNode.this,
                 connectionListener,
-                networkProtoResolver);
+                networkProtoResolver,
+                nioEventLoop);
         executorService.submit(server);
     }
 
@@ -419,6 +446,9 @@ public abstract class NetworkNode implements MessageListener {
 
     abstract protected Socket createSocket(NodeAddress peersNodeAddress) throws IOException;
 
+    // Used instead of createSocket if we use the non-blocking transport. The channel must be connected.
+    abstract protected SocketChannel createSocketChannel(NodeAddress peersNodeAddress) throws IOException;
+
     @Nullable
     public NodeAddress getNodeAddress() {
         return nodeAddressProperty.get();
@@ -0,0 +1,379 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import io.bisq.generated.protobuffer.PB;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking transport of a connection. Reads length delimited protobuffer messages (same framing as
+ * writeDelimitedTo/parseDelimitedFrom of the blocking transport) from the socket channel on the event loop thread and
+ * delivers them in order of arrival in the worker pool of the event loop.
+ * <p/>
+ * Outbound messages are put into a write queue which gets written by the event loop whenever the socket accepts more
+ * data. If more than MAX_QUEUED_BYTES are queued the sender gets blocked until the peer has read enough data or
+ * WRITE_TIMEOUT passed. If more than MAX_PENDING_INBOUND_BYTES of received messages are not processed yet or if the
+ * peer exceeds the read throttle we stop reading from the socket, so a fast peer cannot flood our memory.
+ */
+@Slf4j
+class NioChannel implements NioEventLoop.Handler {
+    private static final int INITIAL_READ_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_VARINT_SIZE = 5;
+    private static final int MAX_FRAME_SIZE = Connection.MAX_PERMITTED_MESSAGE_SIZE;
+    private static final long MAX_QUEUED_BYTES = 1024 * 1024;
+    private static final long MAX_PENDING_INBOUND_BYTES = Connection.MAX_PERMITTED_MESSAGE_SIZE;
+    private static final long WRITE_TIMEOUT = TimeUnit.SECONDS.toMillis(120);
+
+    // Called in a worker thread of the event loop, in the order the events happened
+    interface Listener {
+        // bytes are the received serialized message without the length prefix
+        void onMessage(PB.NetworkEnvelope proto, byte[] bytes);
+
+        void onEndOfStream();
+
+        void onError(Throwable throwable);
+    }
+
+    // Called on the event loop thread before a received message gets delivered
+    interface ReadThrottle {
+        // Returns 0 if the message can be delivered now, otherwise the milliseconds until the throttle permits it
+        long tryAcquire(long now);
+    }
+
+    private final SocketChannel channel;
+    private final NioEventLoop eventLoop;
+    private final Listener listener;
+    private final ReadThrottle readThrottle;
+    private final Executor listenerExecutor;
+    private final long readTimeout;
+
+    // Only accessed from the event loop thread
+    private SelectionKey key;
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+    private long lastReadTs;
+    private boolean readSuspended;
+    // 0 if we are not throttled
+    private long throttledUntil;
+    private boolean failed;
+
+    private final Object writeLock = new Object();
+    // Guarded by writeLock
+    private final Queue<ByteBuffer> writeQueue = new ArrayDeque<>();
+    // Guarded by writeLock
+    private long queuedBytes;
+    private volatile boolean closed;
+
+    private final AtomicLong pendingInboundBytes = new AtomicLong();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    NioChannel(SocketChannel channel, NioEventLoop eventLoop, Listener listener, long readTimeout) {
+        this(channel, eventLoop, listener, now -> 0, readTimeout);
+    }
+
+    NioChannel(SocketChannel channel, NioEventLoop eventLoop, Listener listener, ReadThrottle readThrottle,
+               long readTimeout) {
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+        this.listener = listener;
+        this.readThrottle = readThrottle;
+        this.readTimeout = readTimeout;
+        listenerExecutor = eventLoop.newSerialExecutor();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void start() throws IOException {
+        channel.configureBlocking(false);
+        lastReadTs = System.currentTimeMillis();
+        eventLoop.register(channel, SelectionKey.OP_READ, this);
+    }
+
+    // Called from various threads. Blocks if the write queue is full, except if called from the event loop thread.
+    void write(EncodedNetworkEnvelope encodedNetworkEnvelope) throws IOException {
+        ByteBuffer frame = encodedNetworkEnvelope.toByteBuffer();
+        synchronized (writeLock) {
+            if (!eventLoop.isInEventLoop()) {
+                long deadline = System.currentTimeMillis() + WRITE_TIMEOUT;
+                while (queuedBytes > MAX_QUEUED_BYTES && !closed) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0)
+                        throw new SocketTimeoutException("Write timed out. queuedBytes=" + queuedBytes);
+                    try {
+                        writeLock.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SocketException("Interrupted at waiting for the write queue");
+                    }
+                }
+            }
+            if (closed)
+                throw new SocketException("Socket closed");
+
+            writeQueue.add(frame);
+            queuedBytes += frame.limit();
+        }
+        eventLoop.execute(() -> {
+            try {
+                flush();
+            } catch (Throwable t) {
+                onError(t);
+            }
+        });
+    }
+
+    // Rejects further writes and wakes up blocked senders. Already queued data (e.g. the CloseConnectionMessage) still
+    // gets written until the channel gets closed with the socket.
+    void close() {
+        closed = true;
+        synchronized (writeLock) {
+            writeLock.notifyAll();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // NioEventLoop.Handler implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onRegistered(SelectionKey key) {
+        this.key = key;
+    }
+
+    @Override
+    public void onReady(SelectionKey key) {
+        try {
+            if (key.isReadable())
+                read();
+            if (key.isValid() && key.isWritable())
+                flush();
+        } catch (Throwable t) {
+            onError(t);
+        }
+    }
+
+    @Override
+    public void onTick(long now) {
+        if (throttledUntil != 0 && now >= throttledUntil && !failed) {
+            throttledUntil = 0;
+            try {
+                // We deliver the messages we have already read before we continue reading
+                decodeFrames();
+            } catch (Throwable t) {
+                onError(t);
+                return;
+            }
+        }
+
+        // We don't count the time we did not read because of backpressure or throttling
+        if (readSuspended || throttledUntil != 0)
+            lastReadTs = now;
+        else if (now - lastReadTs > readTimeout)
+            onError(new SocketTimeoutException("Read timed out"));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (failed)
+            return;
+
+        failed = true;
+        if (key != null)
+            key.cancel();
+
+        // Connection maps SocketExceptions to RESET or SOCKET_CLOSED, so we wrap the generic IOExceptions of the channel
+        final Throwable error;
+        if (throwable instanceof IOException &&
+                !(throwable instanceof SocketException ||
+                        throwable instanceof SocketTimeoutException ||
+                        throwable instanceof StreamCorruptedException))
+            error = new SocketException(throwable.toString());
+        else
+            error = throwable;
+        listenerExecutor.execute(() -> listener.onError(error));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void read() throws IOException {
+        int numBytes = channel.read(readBuffer);
+        if (numBytes == -1) {
+            failed = true;
+            key.cancel();
+            listenerExecutor.execute(listener::onEndOfStream);
+            return;
+        }
+
+        if (numBytes > 0) {
+            lastReadTs = System.currentTimeMillis();
+            decodeFrames();
+        }
+    }
+
+    private void decodeFrames() throws IOException {
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            int start = readBuffer.position();
+            int size = readVarint(readBuffer);
+            if (size == -1) {
+                readBuffer.position(start);
+                break;
+            }
+            if (size < 0 || size > MAX_FRAME_SIZE)
+                throw new StreamCorruptedException("Message size exceeds limit. size=" + size);
+
+            if (readBuffer.remaining() < size) {
+                int headerSize = readBuffer.position() - start;
+                readBuffer.position(start);
+                if (readBuffer.capacity() < headerSize + size)
+                    growReadBuffer(headerSize + size);
+                break;
+            }
+
+            long delay = readThrottle.tryAcquire(System.currentTimeMillis());
+            if (delay > 0) {
+                // We keep the message in the buffer and deliver it when the throttle permits it (see onTick)
+                log.debug("Peer exceeds the read throttle. We stop reading for {} ms.", delay);
+                readBuffer.position(start);
+                throttledUntil = System.currentTimeMillis() + delay;
+                break;
+            }
+
+            byte[] bytes = new byte[size];
+            readBuffer.get(bytes);
+            onFrame(bytes);
+        }
+        readBuffer.compact();
+        // We don't keep a large buffer of a big message
+        if (readBuffer.position() == 0 && readBuffer.capacity() > INITIAL_READ_BUFFER_SIZE)
+            readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+
+        if (pendingInboundBytes.get() > MAX_PENDING_INBOUND_BYTES && !readSuspended) {
+            log.debug("Too many unprocessed messages. We stop reading until they are processed.");
+            readSuspended = true;
+        }
+        updateReadInterest();
+    }
+
+    private void onFrame(byte[] bytes) {
+        pendingInboundBytes.addAndGet(bytes.length);
+        listenerExecutor.execute(() -> {
+            try {
+                if (!closed)
+                    listener.onMessage(PB.NetworkEnvelope.parseFrom(bytes), bytes);
+            } catch (Throwable t) {
+                listener.onError(t);
+            } finally {
+                if (pendingInboundBytes.addAndGet(-bytes.length) <= MAX_PENDING_INBOUND_BYTES)
+                    eventLoop.execute(this::resumeReading);
+            }
+        });
+    }
+
+    private void resumeReading() {
+        if (readSuspended && !failed && key.isValid() && pendingInboundBytes.get() <= MAX_PENDING_INBOUND_BYTES) {
+            readSuspended = false;
+            updateReadInterest();
+        }
+    }
+
+    private void updateReadInterest() {
+        if (!key.isValid())
+            return;
+
+        if (readSuspended || throttledUntil != 0)
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+        else
+            key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+    }
+
+    private void flush() throws IOException {
+        if (key == null || !key.isValid())
+            return;
+
+        while (true) {
+            ByteBuffer frame;
+            synchronized (writeLock) {
+                frame = writeQueue.peek();
+            }
+            if (frame == null) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                return;
+            }
+
+            channel.write(frame);
+            if (frame.hasRemaining()) {
+                // We continue when the socket is writable again
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                return;
+            }
+
+            synchronized (writeLock) {
+                if (writeQueue.peek() == frame) {
+                    writeQueue.poll();
+                    queuedBytes -= frame.limit();
+                }
+                writeLock.notifyAll();
+            }
+        }
+    }
+
+    private void growReadBuffer(int minCapacity) {
+        ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(minCapacity, readBuffer.capacity() * 2));
+        newBuffer.put(readBuffer);
+        newBuffer.flip();
+        readBuffer = newBuffer;
+    }
+
+    // Returns -1 if the varint is not complete yet
+    private static int readVarint(ByteBuffer buffer) throws StreamCorruptedException {
+        int result = 0;
+        for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+            if (!buffer.hasRemaining())
+                return -1;
+            byte b = buffer.get();
+            result |= (b & 0x7f) << (7 * i);
+            if (b >= 0)
+                return result;
+        }
+        throw new StreamCorruptedException("Malformed message size");
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+/**
+ * One selector thread which does the reads and writes of all NIO connections of a NetworkNode, so we don't need a
+ * blocking reader thread per connection. The received messages are processed in a small shared worker pool, each
+ * connection in order of arrival (see newSerialExecutor).
+ */
+@Slf4j
+class NioEventLoop {
+    private static final long TICK_INTERVAL_MS = 1000;
+    private static final int NUM_WORKER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    // Called on the event loop thread
+    interface Handler {
+        void onRegistered(SelectionKey key);
+
+        void onReady(SelectionKey key);
+
+        void onTick(long now);
+
+        void onError(Throwable throwable);
+    }
+
+    private final Selector selector;
+    private final Thread thread;
+    private final ExecutorService workerPool;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean stopped;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    NioEventLoop(String name) throws IOException {
+        selector = Selector.open();
+        workerPool = Executors.newFixedThreadPool(NUM_WORKER_THREADS, new ThreadFactoryBuilder()
+                .setNameFormat(name + "-Worker-%d")
+                .setDaemon(true)
+                .build());
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Runs the task on the event loop thread
+    void execute(Runnable task) {
+        if (isInEventLoop()) {
+            task.run();
+        } else {
+            tasks.add(task);
+            selector.wakeup();
+        }
+    }
+
+    // The channel must be in non-blocking mode
+    void register(SelectableChannel channel, int interestOps, Handler handler) {
+        execute(() -> {
+            try {
+                handler.onRegistered(channel.register(selector, interestOps, handler));
+            } catch (Throwable t) {
+                handler.onError(t);
+            }
+        });
+    }
+
+    boolean isInEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    // Returns an executor which runs the tasks in the worker pool one after another in the order they got added
+    Executor newSerialExecutor() {
+        return new SerialExecutor(workerPool);
+    }
+
+    void shutDown() {
+        if (!stopped) {
+            stopped = true;
+            selector.wakeup();
+            workerPool.shutdownNow();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void run() {
+        long lastTick = System.currentTimeMillis();
+        while (!stopped) {
+            try {
+                selector.select(TICK_INTERVAL_MS);
+
+                Runnable task;
+                while ((task = tasks.poll()) != null)
+                    runSafely(task);
+
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    Handler handler = (Handler) key.attachment();
+                    try {
+                        if (key.isValid())
+                            handler.onReady(key);
+                    } catch (CancelledKeyException ignore) {
+                        // The channel got closed in the meantime
+                    } catch (Throwable t) {
+                        handler.onError(t);
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                if (now - lastTick >= TICK_INTERVAL_MS) {
+                    lastTick = now;
+                    for (SelectionKey key : selector.keys()) {
+                        if (key.isValid())
+                            ((Handler) key.attachment()).onTick(now);
+                    }
+                }
+            } catch (Throwable t) {
+                log.error("Error at NioEventLoop. " + t.toString());
+                t.printStackTrace();
+            }
+        }
+
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException ignore) {
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.debug("Exception at closing selector. " + e.getMessage());
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            log.error("Executing task at NioEventLoop failed. " + t.toString());
+            t.printStackTrace();
+        }
+    }
+
+    private static class SerialExecutor implements Executor {
+        private final Executor executor;
+        // Guarded by this
+        private final Queue<Runnable> queue = new ArrayDeque<>();
+        // Guarded by this
+        private boolean running;
+
+        private SerialExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            synchronized (this) {
+                queue.add(task);
+                if (running)
+                    return;
+                running = true;
+            }
+            try {
+                executor.execute(this::runQueued);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    queue.clear();
+                    running = false;
+                }
+                log.debug("Task rejected. That is expected at shutdown.");
+            }
+        }
+
+        private void runQueued() {
+            while (true) {
+                Runnable task;
+                synchronized (this) {
+                    task = queue.poll();
+                    if (task == null) {
+                        running = false;
+                        return;
+                    }
+                }
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    log.error("Executing task failed. " + t.toString());
+                    t.printStackTrace();
+                }
+            }
+        }
+    }
+}
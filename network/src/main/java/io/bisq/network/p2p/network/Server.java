@@ -2,6 +2,7 @@ package io.bisq.network.p2p.network;
 
 import io.bisq.common.app.Log;
 import io.bisq.common.proto.network.NetworkProtoResolver;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,13 +25,24 @@ class Server implements Runnable {
     private final Set<Connection> connections = new CopyOnWriteArraySet<>();
     private volatile boolean stopped;
     private final NetworkProtoResolver networkProtoResolver;
+    @Nullable
+    private final NioEventLoop nioEventLoop;
 
 
     public Server(ServerSocket serverSocket,
                   MessageListener messageListener,
                   ConnectionListener connectionListener,
                   NetworkProtoResolver networkProtoResolver) {
+        this(serverSocket, messageListener, connectionListener, networkProtoResolver, null);
+    }
+
+    Server(ServerSocket serverSocket,
+           MessageListener messageListener,
+           ConnectionListener connectionListener,
+           NetworkProtoResolver networkProtoResolver,
+           @Nullable NioEventLoop nioEventLoop) {
         this.networkProtoResolver = networkProtoResolver;
+        this.nioEventLoop = nioEventLoop;
         Log.traceCall();
         this.serverSocket = serverSocket;
         this.messageListener = messageListener;
@@ -52,7 +64,8 @@ class Server implements Runnable {
                         InboundConnection connection = new InboundConnection(socket,
                                 messageListener,
                                 connectionListener,
-                                networkProtoResolver);
+                                networkProtoResolver,
+                                nioEventLoop);
 
                         log.debug("\n\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n" +
                                 "Server created new inbound connection:"
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+// Allows maxEvents events within a sliding time window. The timestamps of the last maxEvents events are kept in a
+// ring buffer, so recording an event is O(1) and does not allocate.
+// Not thread safe, the caller has to synchronize.
+class SlidingWindowRateLimiter {
+    private final int maxEvents;
+    private final long windowMs;
+    private final long[] timestamps;
+    // Index where the next timestamp gets written. If the buffer is full that is the oldest timestamp.
+    private int next;
+    private int count;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    SlidingWindowRateLimiter(int maxEvents, long windowMs) {
+        checkArgument(maxEvents > 0, "maxEvents must be positive");
+        this.maxEvents = maxEvents;
+        this.windowMs = windowMs;
+        timestamps = new long[maxEvents];
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Records the event if it is within the limit. Returns false (and does not record it) otherwise.
+    boolean tryAcquire(long now) {
+        if (isExceeded(now))
+            return false;
+
+        record(now);
+        return true;
+    }
+
+    // Milliseconds until the next event would be within the limit
+    long getDelay(long now) {
+        return count < maxEvents ? 0 : Math.max(0, timestamps[next] + windowMs - now);
+    }
+
+    int getMaxEvents() {
+        return maxEvents;
+    }
+
+    long getWindowMs() {
+        return windowMs;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean isExceeded(long now) {
+        return count == maxEvents && now - timestamps[next] < windowMs;
+    }
+
+    private void record(long now) {
+        timestamps[next] = now;
+        next = next + 1 == maxEvents ? 0 : next + 1;
+        if (count < maxEvents)
+            count++;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Opens a socket channel to a host through a Socks5 proxy without authentication (e.g. the proxy of our Tor node).
+ * The host name gets resolved by the proxy, so it can be an onion address.
+ * We cannot use the socket of the Socks5 library for the non-blocking transport as it has no channel.
+ */
+class Socks5Handshake {
+    private static final byte VERSION = 5;
+    private static final byte NO_AUTHENTICATION = 0;
+    private static final byte CMD_CONNECT = 1;
+    private static final byte ATYP_IPV4 = 1;
+    private static final byte ATYP_DOMAIN_NAME = 3;
+    private static final byte ATYP_IPV6 = 4;
+    private static final byte SUCCEEDED = 0;
+
+    // Returns the connected channel in blocking mode
+    static SocketChannel connect(InetSocketAddress proxyAddress, String host, int port, int timeout)
+            throws IOException {
+        byte[] hostBytes = host.getBytes(StandardCharsets.US_ASCII);
+        if (hostBytes.length > 255)
+            throw new IllegalArgumentException("Host name too long. host=" + host);
+
+        SocketChannel channel = SocketChannel.open();
+        try {
+            Socket socket = channel.socket();
+            socket.connect(proxyAddress, timeout);
+            socket.setSoTimeout(timeout);
+            OutputStream outputStream = socket.getOutputStream();
+            DataInputStream inputStream = new DataInputStream(socket.getInputStream());
+
+            outputStream.write(new byte[]{VERSION, 1, NO_AUTHENTICATION});
+            outputStream.flush();
+            byte[] buf = new byte[2];
+            inputStream.readFully(buf);
+            if (buf[0] != VERSION)
+                throw new SocketException("Invalid proxy response");
+            if (buf[1] != NO_AUTHENTICATION)
+                throw new SocketException("Proxy requires unsupported authentication method " + buf[1]);
+
+            buf = new byte[7 + hostBytes.length];
+            buf[0] = VERSION;
+            buf[1] = CMD_CONNECT;
+            buf[2] = 0;
+            buf[3] = ATYP_DOMAIN_NAME;
+            buf[4] = (byte) hostBytes.length;
+            System.arraycopy(hostBytes, 0, buf, 5, hostBytes.length);
+            buf[5 + hostBytes.length] = (byte) (port >> 8);
+            buf[6 + hostBytes.length] = (byte) port;
+            outputStream.write(buf);
+            outputStream.flush();
+
+            buf = new byte[4];
+            inputStream.readFully(buf);
+            if (buf[0] != VERSION)
+                throw new SocketException("Invalid proxy response");
+            if (buf[1] != SUCCEEDED)
+                throw new ConnectException("Proxy could not connect to " + host + ":" + port + ". reply=" + buf[1]);
+
+            // We don't need the bound address, but need to consume it
+            final int addressLength;
+            switch (buf[3]) {
+                case ATYP_IPV4:
+                    addressLength = 4;
+                    break;
+                case ATYP_DOMAIN_NAME:
+                    addressLength = inputStream.readUnsignedByte();
+                    break;
+                case ATYP_IPV6:
+                    addressLength = 16;
+                    break;
+                default:
+                    throw new SocketException("Invalid address type at proxy response. type=" + buf[3]);
+            }
+            inputStream.readFully(new byte[addressLength + 2]);
+
+            socket.setSoTimeout(0);
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+}
@@ -1,39 +1,126 @@
 package io.bisq.network.p2p.network;
 
-import io.bisq.common.UserThread;
 import io.bisq.common.proto.network.NetworkEnvelope;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.LongProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleLongProperty;
+import lombok.Value;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
+// Traffic statistics of a connection and of all connections. The counters are updated inline by the network threads
+// without locks and without posting tasks to the UserThread. Use StatisticFxAdapter for displaying them in the UI.
 public class Statistic {
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Static
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private final static LongProperty totalSentBytes = new SimpleLongProperty(0);
-    private final static LongProperty totalReceivedBytes = new SimpleLongProperty(0);
+    private final static LongAdder totalSentBytes = new LongAdder();
+    private final static LongAdder totalReceivedBytes = new LongAdder();
+    private final static LongAdder totalSentMessages = new LongAdder();
+    private final static LongAdder totalReceivedMessages = new LongAdder();
+    private final static ConcurrentMap<String, MessageStatistic> totalSentMessagesByType = new ConcurrentHashMap<>();
+    private final static ConcurrentMap<String, MessageStatistic> totalReceivedMessagesByType = new ConcurrentHashMap<>();
 
     public static long getTotalSentBytes() {
-        return totalSentBytes.get();
+        return totalSentBytes.sum();
     }
 
-    public static LongProperty totalSentBytesProperty() {
-        return totalSentBytes;
+    public static long getTotalReceivedBytes() {
+        return totalReceivedBytes.sum();
     }
 
-    public static long getTotalReceivedBytes() {
-        return totalReceivedBytes.get();
+    public static Map<String, MessageStatistic> getTotalSentMessagesByType() {
+        return Collections.unmodifiableMap(totalSentMessagesByType);
+    }
+
+    public static Map<String, MessageStatistic> getTotalReceivedMessagesByType() {
+        return Collections.unmodifiableMap(totalReceivedMessagesByType);
+    }
+
+    public static Snapshot getTotalSnapshot() {
+        return new Snapshot(System.currentTimeMillis(),
+                totalSentBytes.sum(),
+                totalReceivedBytes.sum(),
+                totalSentMessages.sum(),
+                totalReceivedMessages.sum(),
+                0);
     }
 
-    public static LongProperty totalReceivedBytesProperty() {
-        return totalReceivedBytes;
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Snapshot, MessageStatistic
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The counters at one point in time. Rates are calculated from the difference of 2 snapshots.
+    @Value
+    public static class Snapshot {
+        private final long timestamp;
+        private final long sentBytes;
+        private final long receivedBytes;
+        private final long sentMessages;
+        private final long receivedMessages;
+        private final int roundTripTime;
+
+        // Bytes per second since the previous snapshot
+        public double getSentBytesPerSec(Snapshot previous) {
+            return perSec(sentBytes - previous.sentBytes, previous);
+        }
+
+        public double getReceivedBytesPerSec(Snapshot previous) {
+            return perSec(receivedBytes - previous.receivedBytes, previous);
+        }
+
+        public double getSentMessagesPerSec(Snapshot previous) {
+            return perSec(sentMessages - previous.sentMessages, previous);
+        }
+
+        public double getReceivedMessagesPerSec(Snapshot previous) {
+            return perSec(receivedMessages - previous.receivedMessages, previous);
+        }
+
+        private double perSec(long delta, Snapshot previous) {
+            long duration = timestamp - previous.timestamp;
+            return duration > 0 ? delta * 1000d / duration : 0;
+        }
+    }
+
+    // Number of messages, bytes and largest message of one message type
+    public static class MessageStatistic {
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAccumulator maxMessageSize = new LongAccumulator(Math::max, 0);
+
+        private void add(int numBytes) {
+            messages.increment();
+            bytes.add(numBytes);
+            maxMessageSize.accumulate(numBytes);
+        }
+
+        public long getMessages() {
+            return messages.sum();
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        public long getMaxMessageSize() {
+            return maxMessageSize.get();
+        }
+
+        @Override
+        public String toString() {
+            return "MessageStatistic{" +
+                    "messages=" + getMessages() +
+                    ", bytes=" + getBytes() +
+                    ", maxMessageSize=" + getMaxMessageSize() +
+                    '}';
+        }
     }
 
 
@@ -42,12 +129,14 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final Date creationDate;
-    private long lastActivityTimestamp = System.currentTimeMillis();
-    private final LongProperty sentBytes = new SimpleLongProperty(0);
-    private final LongProperty receivedBytes = new SimpleLongProperty(0);
-    private final Map<String, Integer> receivedMessages = new ConcurrentHashMap<>();
-    private final Map<String, Integer> sentMessages = new ConcurrentHashMap<>();
-    private final IntegerProperty roundTripTime = new SimpleIntegerProperty(0);
+    private volatile long lastActivityTimestamp = System.currentTimeMillis();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final LongAdder sentMessages = new LongAdder();
+    private final LongAdder receivedMessages = new LongAdder();
+    private final ConcurrentMap<String, MessageStatistic> receivedMessagesByType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, MessageStatistic> sentMessagesByType = new ConcurrentHashMap<>();
+    private volatile int roundTripTime;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -63,44 +152,39 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void updateLastActivityTimestamp() {
-        UserThread.execute(() -> lastActivityTimestamp = System.currentTimeMillis());
+        lastActivityTimestamp = System.currentTimeMillis();
     }
 
-    public void addSentBytes(int value) {
-        UserThread.execute(() -> {
-            sentBytes.set(sentBytes.get() + value);
-            totalSentBytes.set(totalSentBytes.get() + value);
-        });
+    // numBytes is the serialized size of the message
+    public void addSentMessage(NetworkEnvelope networkEnvelope, int numBytes) {
+        sentBytes.add(numBytes);
+        totalSentBytes.add(numBytes);
+        sentMessages.increment();
+        totalSentMessages.increment();
+        String messageClassName = networkEnvelope.getClass().getSimpleName();
+        getMessageStatistic(sentMessagesByType, messageClassName).add(numBytes);
+        getMessageStatistic(totalSentMessagesByType, messageClassName).add(numBytes);
     }
 
-    public void addReceivedBytes(int value) {
-        UserThread.execute(() -> {
-            receivedBytes.set(receivedBytes.get() + value);
-            totalReceivedBytes.set(totalReceivedBytes.get() + value);
-        });
+    // numBytes is the serialized size of the message
+    public void addReceivedMessage(NetworkEnvelope networkEnvelope, int numBytes) {
+        receivedBytes.add(numBytes);
+        totalReceivedBytes.add(numBytes);
+        receivedMessages.increment();
+        totalReceivedMessages.increment();
+        String messageClassName = networkEnvelope.getClass().getSimpleName();
+        getMessageStatistic(receivedMessagesByType, messageClassName).add(numBytes);
+        getMessageStatistic(totalReceivedMessagesByType, messageClassName).add(numBytes);
     }
 
-    // TODO would need msg inspection to get useful information...
-    public void addReceivedMessage(NetworkEnvelope networkEnvelop) {
-        String messageClassName = networkEnvelop.getClass().getSimpleName();
-        int counter = 1;
-        if (receivedMessages.containsKey(messageClassName))
-            counter = receivedMessages.get(messageClassName) + 1;
-
-        receivedMessages.put(messageClassName, counter);
-    }
-
-    public void addSentMessage(NetworkEnvelope networkEnvelop) {
-        String messageClassName = networkEnvelop.getClass().getSimpleName();
-        int counter = 1;
-        if (sentMessages.containsKey(messageClassName))
-            counter = sentMessages.get(messageClassName) + 1;
-
-        sentMessages.put(messageClassName, counter);
+    public void setRoundTripTime(int roundTripTime) {
+        this.roundTripTime = roundTripTime;
     }
 
-    public void setRoundTripTime(int roundTripTime) {
-        this.roundTripTime.set(roundTripTime);
+    private static MessageStatistic getMessageStatistic(ConcurrentMap<String, MessageStatistic> map, String type) {
+        // get first as computeIfAbsent locks even if the key is present
+        MessageStatistic messageStatistic = map.get(type);
+        return messageStatistic != null ? messageStatistic : map.computeIfAbsent(type, k -> new MessageStatistic());
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -116,36 +200,45 @@ public class Statistic {
     }
 
     public long getSentBytes() {
-        return sentBytes.get();
+        return sentBytes.sum();
     }
 
-    public LongProperty sentBytesProperty() {
-        return sentBytes;
+    public long getReceivedBytes() {
+        return receivedBytes.sum();
     }
 
-    public long getReceivedBytes() {
-        return receivedBytes.get();
+    public Map<String, MessageStatistic> getSentMessagesByType() {
+        return Collections.unmodifiableMap(sentMessagesByType);
     }
 
-    public LongProperty receivedBytesProperty() {
-        return receivedBytes;
+    public Map<String, MessageStatistic> getReceivedMessagesByType() {
+        return Collections.unmodifiableMap(receivedMessagesByType);
     }
 
     public Date getCreationDate() {
         return creationDate;
     }
 
-    public IntegerProperty roundTripTimeProperty() {
+    public int getRoundTripTime() {
         return roundTripTime;
     }
 
+    public Snapshot getSnapshot() {
+        return new Snapshot(System.currentTimeMillis(),
+                sentBytes.sum(),
+                receivedBytes.sum(),
+                sentMessages.sum(),
+                receivedMessages.sum(),
+                roundTripTime);
+    }
+
     @Override
     public String toString() {
         return "Statistic{" +
                 "creationDate=" + creationDate +
                 ", lastActivityTimestamp=" + lastActivityTimestamp +
-                ", sentBytes=" + sentBytes +
-                ", receivedBytes=" + receivedBytes +
+                ", sentBytes=" + getSentBytes() +
+                ", receivedBytes=" + getReceivedBytes() +
                 '}';
     }
 
@@ -0,0 +1,121 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import io.bisq.common.Timer;
+import io.bisq.common.UserThread;
+import javafx.beans.property.*;
+
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * Publishes snapshots of a Statistic to JavaFX properties. The properties get updated on the UserThread once per
+ * UPDATE_INTERVAL_SEC while the adapter is started, independent of how many messages got sent or received.
+ * Only used by the UI, headless nodes read the Statistic directly.
+ */
+public class StatisticFxAdapter {
+    private static final long UPDATE_INTERVAL_SEC = 1;
+
+    public static StatisticFxAdapter forConnection(Statistic statistic) {
+        return new StatisticFxAdapter(statistic::getSnapshot);
+    }
+
+    public static StatisticFxAdapter forAllConnections() {
+        return new StatisticFxAdapter(Statistic::getTotalSnapshot);
+    }
+
+    private final Supplier<Statistic.Snapshot> snapshotSupplier;
+    private final LongProperty sentBytes = new SimpleLongProperty(0);
+    private final LongProperty receivedBytes = new SimpleLongProperty(0);
+    private final DoubleProperty sentBytesPerSec = new SimpleDoubleProperty(0);
+    private final DoubleProperty receivedBytesPerSec = new SimpleDoubleProperty(0);
+    private final IntegerProperty roundTripTime = new SimpleIntegerProperty(0);
+    @Nullable
+    private Statistic.Snapshot previousSnapshot;
+    @Nullable
+    private Timer timer;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private StatisticFxAdapter(Supplier<Statistic.Snapshot> snapshotSupplier) {
+        this.snapshotSupplier = snapshotSupplier;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Must be called on the UserThread
+    public StatisticFxAdapter start() {
+        if (timer == null) {
+            update();
+            timer = UserThread.runPeriodically(this::update, UPDATE_INTERVAL_SEC);
+        }
+        return this;
+    }
+
+    public void stop() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+        previousSnapshot = null;
+    }
+
+    public ReadOnlyLongProperty sentBytesProperty() {
+        return sentBytes;
+    }
+
+    public ReadOnlyLongProperty receivedBytesProperty() {
+        return receivedBytes;
+    }
+
+    public ReadOnlyDoubleProperty sentBytesPerSecProperty() {
+        return sentBytesPerSec;
+    }
+
+    public ReadOnlyDoubleProperty receivedBytesPerSecProperty() {
+        return receivedBytesPerSec;
+    }
+
+    public ReadOnlyIntegerProperty roundTripTimeProperty() {
+        return roundTripTime;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void update() {
+        Statistic.Snapshot snapshot = snapshotSupplier.get();
+        sentBytes.set(snapshot.getSentBytes());
+        receivedBytes.set(snapshot.getReceivedBytes());
+        roundTripTime.set(snapshot.getRoundTripTime());
+        if (previousSnapshot != null) {
+            sentBytesPerSec.set(snapshot.getSentBytesPerSec(previousSnapshot));
+            receivedBytesPerSec.set(snapshot.getReceivedBytesPerSec(previousSnapshot));
+        }
+        previousSnapshot = snapshot;
+    }
+}
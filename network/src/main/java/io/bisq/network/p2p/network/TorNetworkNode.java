@@ -25,7 +25,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.file.Paths;
 import java.util.Date;
 import java.util.List;
@@ -56,7 +60,12 @@ public class TorNetworkNode extends NetworkNode {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public TorNetworkNode(int servicePort, File torDir, NetworkProtoResolver networkProtoResolver, BridgeAddressProvider bridgeAddressProvider) {
-        super(servicePort, networkProtoResolver);
+        this(servicePort, torDir, networkProtoResolver, bridgeAddressProvider, false);
+    }
+
+    public TorNetworkNode(int servicePort, File torDir, NetworkProtoResolver networkProtoResolver,
+                          BridgeAddressProvider bridgeAddressProvider, boolean useNioTransport) {
+        super(servicePort, networkProtoResolver, useNioTransport);
         this.torDir = torDir;
         this.bridgeAddressProvider = bridgeAddressProvider;
     }
@@ -88,6 +97,32 @@ public class TorNetworkNode extends NetworkNode {
         return new TorSocket(peerNodeAddress.getHostName(), peerNodeAddress.getPort(), null);
     }
 
+    @Override
+    protected SocketChannel createSocketChannel(NodeAddress peerNodeAddress) throws IOException {
+        checkArgument(peerNodeAddress.getHostName().endsWith(".onion"), "PeerAddress is not an onion address");
+        Socks5Proxy socksProxy = getSocksProxy();
+        if (socksProxy == null)
+            throw new IOException("Tor proxy is not available");
+
+        InetSocketAddress proxyAddress = new InetSocketAddress(socksProxy.getInetAddress(), socksProxy.getPort());
+        return Socks5Handshake.connect(proxyAddress, peerNodeAddress.getHostName(), peerNodeAddress.getPort(),
+                CREATE_SOCKET_TIMEOUT);
+    }
+
+    // The sockets accepted by the hidden service socket have no channel. For the non-blocking transport we close it once
+    // the service is published and bind a ServerSocketChannel to the same local port, which is where Tor forwards the
+    // connections to the hidden service to. The accepted sockets then have a channel and are served by the event loop.
+    private ServerSocket createServerSocketWithChannel(ServerSocket hiddenServiceSocket) throws IOException {
+        InetSocketAddress localAddress = new InetSocketAddress(hiddenServiceSocket.getInetAddress(),
+                hiddenServiceSocket.getLocalPort());
+        hiddenServiceSocket.close();
+        ServerSocket serverSocket = ServerSocketChannel.open().socket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(localAddress);
+        log.info("Inbound connections use the non-blocking transport. localAddress={}", localAddress);
+        return serverSocket;
+    }
+
     // TODO handle failure more cleanly
     public Socks5Proxy getSocksProxy() {
         try {
@@ -233,7 +268,7 @@ public class TorNetworkNode extends NetworkNode {
                                 try {
                                     Log.traceCall("hiddenService created");
                                     nodeAddressProperty.set(new NodeAddress(hiddenServiceSocket.getServiceName() + ":" + hiddenServiceSocket.getHiddenServicePort()));
-                                    startServer(socket);
+                                    startServer(nioEventLoop != null ? createServerSocketWithChannel(socket) : socket);
                                     UserThread.execute(() -> setupListeners.stream().forEach(SetupListener::onHiddenServicePublished));
                                 } catch (final Exception e1) {
                                     log.error(e1.toString());
@@ -92,7 +92,7 @@ public class BroadcastHandler implements PeerManager.Listener {
         this.resultHandler = resultHandler;
         this.listener = listener;
 
-        Log.traceCall("Sender=" + sender + "\n\t" +
+        Log.traceCall(() -> "Sender=" + sender + "\n\t" +
                 "Message=" + Utilities.toTruncatedString(message));
         Set<Connection> connectedPeersSet = networkNode.getConfirmedConnections()
                 .stream()
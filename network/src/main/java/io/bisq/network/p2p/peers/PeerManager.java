@@ -7,6 +7,7 @@ import io.bisq.common.UserThread;
 import io.bisq.common.app.Log;
 import io.bisq.common.proto.persistable.PersistedDataHost;
 import io.bisq.common.proto.persistable.PersistenceProtoResolver;
+import io.bisq.common.storage.PersistenceScheduler;
 import io.bisq.common.storage.Storage;
 import io.bisq.network.NetworkOptionKeys;
 import io.bisq.network.p2p.NodeAddress;
@@ -71,6 +72,8 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
 
     private final Storage<PeerList> storage;
     private final HashSet<Peer> persistedPeers = new HashSet<>();
+    private final Storage<PeerList> seedNodePeersStorage;
+    private final Map<NodeAddress, Peer> seedNodePeers = new HashMap<>();
     private final Set<Peer> reportedPeers = new HashSet<>();
     private final Clock.Listener listener;
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
@@ -101,6 +104,7 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
         this.seedNodeAddresses = new HashSet<>(seedNodesRepository.getSeedNodeAddresses());
         this.clock = clock;
         storage = new Storage<>(storageDir, persistenceProtoResolver);
+        seedNodePeersStorage = new Storage<>(storageDir, persistenceProtoResolver);
 
         this.networkNode.addConnectionListener(this);
 
@@ -143,9 +147,15 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
 
     @Override
     public void readPersisted() {
+        storage.setPriority(PersistenceScheduler.Priority.LOW);
         PeerList persistedPeerList = storage.initAndGetPersistedWithFileName("PeerList", 1000);
         if (persistedPeerList != null)
             this.persistedPeers.addAll(persistedPeerList.getList());
+
+        seedNodePeersStorage.setPriority(PersistenceScheduler.Priority.LOW);
+        PeerList persistedSeedNodePeerList = seedNodePeersStorage.initAndGetPersistedWithFileName("SeedNodePeerList", 1000);
+        if (persistedSeedNodePeerList != null)
+            persistedSeedNodePeerList.getList().forEach(peer -> seedNodePeers.put(peer.getNodeAddress(), peer));
     }
 
     public int getMaxConnections() {
@@ -529,6 +539,24 @@ public class PeerManager implements ConnectionListener, PersistedDataHost {
         return persistedPeers;
     }
 
+    // We remember the capabilities of the seed nodes so that at the next start we can use the features they support
+    // already in the first request, before the seed node has told us its capabilities.
+    public void setSeedNodeSupportedCapabilities(NodeAddress nodeAddress, List<Integer> supportedCapabilities) {
+        if (!isSeedNode(nodeAddress))
+            return;
+
+        Peer seedNodePeer = seedNodePeers.get(nodeAddress);
+        if (seedNodePeer == null || !supportedCapabilities.equals(seedNodePeer.getSupportedCapabilities())) {
+            seedNodePeers.put(nodeAddress, new Peer(nodeAddress, new ArrayList<>(supportedCapabilities)));
+            seedNodePeersStorage.queueUpForSave(new PeerList(new ArrayList<>(seedNodePeers.values())), 2000);
+        }
+    }
+
+    public Optional<List<Integer>> findSeedNodeSupportedCapabilities(NodeAddress nodeAddress) {
+        return Optional.ofNullable(seedNodePeers.get(nodeAddress))
+                .map(Peer::getSupportedCapabilities);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     //  Misc
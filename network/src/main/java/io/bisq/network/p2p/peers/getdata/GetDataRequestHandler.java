@@ -22,6 +22,8 @@ import io.bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
+
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -71,12 +73,23 @@ public class GetDataRequestHandler {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void handle(GetDataRequest getDataRequest, final Connection connection) {
-        Log.traceCall(getDataRequest + "\n\tconnection=" + connection);
-
-        GetDataResponse getDataResponse = new GetDataResponse(getFilteredProtectedStorageEntries(getDataRequest, connection),
-                getFilteredPersistableNetworkPayload(getDataRequest, connection),
-                getDataRequest.getNonce(),
-                getDataRequest instanceof GetUpdatedDataRequest);
+        Log.traceCall(() -> getDataRequest + "\n\tconnection=" + connection);
+
+        final InvertibleBloomLookupTable sketch = getDataRequest.getPersistableNetworkPayloadSketch();
+        final Set<Long> missingShortIds = getMissingShortIds(sketch);
+        GetDataResponse getDataResponse;
+        if (sketch != null && missingShortIds == null && getDataRequest.getExcludedKeys().isEmpty()) {
+            // The requester has sent only the sketch, so we cannot tell which items it is missing. Instead of sending
+            // our whole store we ask it to repeat the request with the excluded keys.
+            log.info("We could not use the requester's PersistableNetworkPayload sketch and ask for the excluded keys.");
+            getDataResponse = GetDataResponse.forNotDecodableSketch(getDataRequest.getNonce(),
+                    getDataRequest instanceof GetUpdatedDataRequest);
+        } else {
+            getDataResponse = new GetDataResponse(getFilteredProtectedStorageEntries(getDataRequest, connection),
+                    getFilteredPersistableNetworkPayload(getDataRequest, missingShortIds, connection),
+                    getDataRequest.getNonce(),
+                    getDataRequest instanceof GetUpdatedDataRequest);
+        }
 
         if (timeoutTimer == null) {
             timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -115,12 +128,17 @@ public class GetDataRequestHandler {
         });
     }
 
-    private Set<PersistableNetworkPayload> getFilteredPersistableNetworkPayload(GetDataRequest getDataRequest, Connection connection) {
+    // If we could not decode the sketch (missingShortIds is null) we only filter by the excluded keys.
+    private Set<PersistableNetworkPayload> getFilteredPersistableNetworkPayload(GetDataRequest getDataRequest,
+                                                                                @Nullable Set<Long> missingShortIds,
+                                                                                Connection connection) {
         final Set<P2PDataStorage.ByteArray> tempLookupSet = new HashSet<>();
         Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray = P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
 
         return dataStorage.getPersistableNetworkPayloadCollection().getMap().entrySet().stream()
                 .filter(e -> !excludedKeysAsByteArray.contains(e.getKey()))
+                .filter(e -> missingShortIds == null ||
+                        missingShortIds.contains(InvertibleBloomLookupTable.getShortId(e.getKey().bytes)))
                 .map(Map.Entry::getValue)
                 .filter(payload -> (!(payload instanceof CapabilityRequiringPayload) ||
                         connection.isCapabilitySupported(getDataRequest)))
@@ -128,6 +146,32 @@ public class GetDataRequestHandler {
                 .collect(Collectors.toSet());
     }
 
+    // Returns the short ids of the items the requester does not have or null if we cannot use the sketch.
+    @Nullable
+    private Set<Long> getMissingShortIds(@Nullable InvertibleBloomLookupTable requestersSketch) {
+        if (requestersSketch == null)
+            return null;
+
+        // Building a table with other parameters would cost O(N * hashCount) at each request
+        if (!requestersSketch.hasDefaultParameters()) {
+            log.warn("The requester's PersistableNetworkPayload sketch does not use our default parameters. " +
+                            "cellCount={}, hashCount={}",
+                    requestersSketch.getCellCount(), requestersSketch.getHashCount());
+            return null;
+        }
+
+        final InvertibleBloomLookupTable ourSketch = dataStorage.getPersistableNetworkPayloadSketch();
+        final InvertibleBloomLookupTable.Difference difference = ourSketch.subtractAndDecode(requestersSketch);
+        if (difference == null) {
+            log.warn("The difference to the requester's PersistableNetworkPayload sketch is too large to be decoded.");
+            return null;
+        }
+
+        log.info("Decoded PersistableNetworkPayload sketch: requester is missing {} items and has {} items we don't have.",
+                difference.getLocalOnly().size(), difference.getRemoteOnly().size());
+        return difference.getLocalOnly();
+    }
+
     private Set<ProtectedStorageEntry> getFilteredProtectedStorageEntries(GetDataRequest getDataRequest, Connection connection) {
         final Set<ProtectedStorageEntry> filteredDataSet = new HashSet<>();
         final Set<Integer> lookupSet = new HashSet<>();
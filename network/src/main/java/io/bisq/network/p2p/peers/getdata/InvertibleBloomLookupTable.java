@@ -0,0 +1,305 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.peers.getdata;
+
+import io.bisq.common.proto.network.NetworkPayload;
+import io.bisq.generated.protobuffer.PB;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Invertible Bloom lookup table over the keys of the PersistableNetworkPayload items.
+ * <p>
+ * The requesting node sends its table instead of the full list of keys it has already. The receiving node subtracts
+ * the table of its own keys and decodes the difference, which gives the short ids of the items the requester
+ * is missing. The size of the table is fixed and only depends on how many differences it can decode, not on the
+ * number of items in the store.
+ * <p>
+ * Keys are represented by their first 8 bytes (short id). Our keys are hashes so those are uniformly distributed.
+ */
+@Slf4j
+@EqualsAndHashCode
+public final class InvertibleBloomLookupTable implements NetworkPayload {
+    // Protocol constants. A peer only decodes tables with its default parameters, otherwise it falls back to
+    // sending all items. With 3 hash functions about cellCount / 1.3 differences can be decoded, so 2040 cells
+    // (about 35 kB) cover ~1500 missing items.
+    public static final int DEFAULT_CELL_COUNT = 2040;
+    public static final int DEFAULT_HASH_COUNT = 3;
+    // Upper bounds for tables we accept from the network
+    public static final int MAX_CELL_COUNT = 100_000;
+    public static final int MAX_HASH_COUNT = 8;
+
+    private static final long INDEX_SEED = 0x9E3779B97F4A7C15L;
+    private static final long CHECK_SEED = 0xC2B2AE3D27D4EB4FL;
+
+    @Getter
+    private final int hashCount;
+    private final int[] counts;
+    private final long[] keySums;
+    private final long[] hashSums;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public InvertibleBloomLookupTable() {
+        this(DEFAULT_CELL_COUNT, DEFAULT_HASH_COUNT);
+    }
+
+    public InvertibleBloomLookupTable(int cellCount, int hashCount) {
+        this(hashCount, new int[cellCount], new long[cellCount], new long[cellCount]);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private InvertibleBloomLookupTable(int hashCount, int[] counts, long[] keySums, long[] hashSums) {
+        checkArgument(hashCount > 0 && hashCount <= MAX_HASH_COUNT, "Invalid hash count " + hashCount);
+        checkArgument(counts.length >= hashCount && counts.length <= MAX_CELL_COUNT,
+                "Invalid cell count " + counts.length);
+        checkArgument(counts.length == keySums.length && counts.length == hashSums.length,
+                "Cell arrays must have the same length");
+        this.hashCount = hashCount;
+        this.counts = counts;
+        this.keySums = keySums;
+        this.hashSums = hashSums;
+    }
+
+    @Override
+    public PB.InvertibleBloomLookupTable toProtoMessage() {
+        final PB.InvertibleBloomLookupTable.Builder builder = PB.InvertibleBloomLookupTable.newBuilder()
+                .setHashCount(hashCount);
+        for (int i = 0; i < counts.length; i++) {
+            builder.addCounts(counts[i]);
+            builder.addKeySums(keySums[i]);
+            builder.addHashSums(hashSums[i]);
+        }
+        return builder.build();
+    }
+
+    @Nullable
+    public static InvertibleBloomLookupTable fromProto(PB.InvertibleBloomLookupTable proto) {
+        final List<Integer> countsList = proto.getCountsList();
+        final List<Long> keySumsList = proto.getKeySumsList();
+        final List<Long> hashSumsList = proto.getHashSumsList();
+        final int cellCount = countsList.size();
+        if (cellCount == 0 || cellCount > MAX_CELL_COUNT || proto.getHashCount() <= 0 || proto.getHashCount() > MAX_HASH_COUNT ||
+                keySumsList.size() != cellCount || hashSumsList.size() != cellCount) {
+            log.warn("Received an invalid InvertibleBloomLookupTable. cellCount={}, hashCount={}",
+                    cellCount, proto.getHashCount());
+            return null;
+        }
+
+        int[] counts = new int[cellCount];
+        long[] keySums = new long[cellCount];
+        long[] hashSums = new long[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            counts[i] = countsList.get(i);
+            keySums[i] = keySumsList.get(i);
+            hashSums[i] = hashSumsList.get(i);
+        }
+        return new InvertibleBloomLookupTable(proto.getHashCount(), counts, keySums, hashSums);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(byte[] key) {
+        update(getShortId(key), 1);
+    }
+
+    public void remove(byte[] key) {
+        update(getShortId(key), -1);
+    }
+
+    public int getCellCount() {
+        return counts.length;
+    }
+
+    // Net number of items (added minus removed). Each item is counted in hashCount cells.
+    public int getNumItems() {
+        return Arrays.stream(counts).sum() / hashCount;
+    }
+
+    public boolean hasSameParameters(InvertibleBloomLookupTable other) {
+        return other != null && hashCount == other.hashCount && counts.length == other.counts.length;
+    }
+
+    public boolean hasDefaultParameters() {
+        return hashCount == DEFAULT_HASH_COUNT && counts.length == DEFAULT_CELL_COUNT;
+    }
+
+    public InvertibleBloomLookupTable copy() {
+        return new InvertibleBloomLookupTable(hashCount, counts.clone(), keySums.clone(), hashSums.clone());
+    }
+
+    /**
+     * Decodes the difference between our table (local set) and the given table (remote set).
+     *
+     * @param remote Table built from the remote set with the same parameters
+     * @return The result or null if the difference was too large to be decoded
+     */
+    @Nullable
+    public Difference subtractAndDecode(InvertibleBloomLookupTable remote) {
+        checkArgument(hasSameParameters(remote), "Tables must use the same parameters");
+        final int cellCount = counts.length;
+        int[] diffCounts = new int[cellCount];
+        long[] diffKeySums = new long[cellCount];
+        long[] diffHashSums = new long[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            diffCounts[i] = counts[i] - remote.counts[i];
+            diffKeySums[i] = keySums[i] ^ remote.keySums[i];
+            diffHashSums[i] = hashSums[i] ^ remote.hashSums[i];
+        }
+        InvertibleBloomLookupTable diff = new InvertibleBloomLookupTable(hashCount, diffCounts, diffKeySums, diffHashSums);
+
+        Set<Long> localOnly = new HashSet<>();
+        Set<Long> remoteOnly = new HashSet<>();
+        // We peel off pure cells until no more are left. Each removal can make other cells pure. A table from the
+        // network can be crafted so that keys get peeled again and again, so we stop after cellCount keys, which is
+        // more than any decodable difference can have.
+        int numPeeled = 0;
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int i = 0; i < cellCount; i++) {
+                if (diff.isPure(i)) {
+                    if (++numPeeled > cellCount) {
+                        log.warn("Decoding InvertibleBloomLookupTable difference did not terminate. " +
+                                "The remote table is probably invalid.");
+                        return null;
+                    }
+
+                    final long shortId = diff.keySums[i];
+                    final int count = diff.counts[i];
+                    if (count == 1)
+                        localOnly.add(shortId);
+                    else
+                        remoteOnly.add(shortId);
+                    diff.update(shortId, -count);
+                    progress = true;
+                }
+            }
+        }
+
+        if (diff.isEmpty())
+            return new Difference(localOnly, remoteOnly);
+
+        log.info("Could not decode InvertibleBloomLookupTable difference. Decoded so far: localOnly={}, remoteOnly={}",
+                localOnly.size(), remoteOnly.size());
+        return null;
+    }
+
+    public static long getShortId(byte[] key) {
+        long result = 0;
+        for (int i = 0; i < 8; i++) {
+            result <<= 8;
+            if (i < key.length)
+                result |= (key[i] & 0xFF);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "InvertibleBloomLookupTable{" +
+                "cellCount=" + counts.length +
+                ", hashCount=" + hashCount +
+                ", nonEmptyCells=" + Arrays.stream(counts).filter(c -> c != 0).count() +
+                '}';
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void update(long shortId, int delta) {
+        final long hash = mix(shortId ^ CHECK_SEED);
+        for (int i = 0; i < hashCount; i++) {
+            final int index = getCellIndex(shortId, i);
+            counts[index] += delta;
+            keySums[index] ^= shortId;
+            hashSums[index] ^= hash;
+        }
+    }
+
+    // We partition the cells so that the hash functions of one key never hit the same cell
+    private int getCellIndex(long shortId, int hashFunction) {
+        final int partitionSize = counts.length / hashCount;
+        return hashFunction * partitionSize +
+                (int) Long.remainderUnsigned(mix(shortId + hashFunction * INDEX_SEED), partitionSize);
+    }
+
+    // The cell must be one of the cells of its key, otherwise peeling the key would not clear it
+    private boolean isPure(int index) {
+        if ((counts[index] != 1 && counts[index] != -1) || hashSums[index] != mix(keySums[index] ^ CHECK_SEED))
+            return false;
+
+        final int partitionSize = counts.length / hashCount;
+        final int hashFunction = index / partitionSize;
+        return hashFunction < hashCount && getCellIndex(keySums[index], hashFunction) == index;
+    }
+
+    private boolean isEmpty() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0 || keySums[i] != 0 || hashSums[i] != 0)
+                return false;
+        }
+        return true;
+    }
+
+    // Finalizer of SplitMix64
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static class
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Getter
+    public static final class Difference {
+        // Short ids of keys only in the local set
+        private final Set<Long> localOnly;
+        // Short ids of keys only in the remote set
+        private final Set<Long> remoteOnly;
+
+        private Difference(Set<Long> localOnly, Set<Long> remoteOnly) {
+            this.localOnly = localOnly;
+            this.remoteOnly = remoteOnly;
+        }
+    }
+}
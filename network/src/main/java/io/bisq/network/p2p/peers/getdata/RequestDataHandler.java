@@ -5,6 +5,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 import io.bisq.common.Timer;
 import io.bisq.common.UserThread;
+import io.bisq.common.app.Capabilities;
 import io.bisq.common.app.Log;
 import io.bisq.common.proto.network.NetworkEnvelope;
 import io.bisq.common.proto.network.NetworkPayload;
@@ -28,7 +29,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -61,6 +61,7 @@ class RequestDataHandler implements MessageListener {
     private final Listener listener;
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
+    private boolean isPreliminaryDataRequest;
     private boolean stopped;
 
 
@@ -88,8 +89,13 @@ class RequestDataHandler implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void requestData(NodeAddress nodeAddress, boolean isPreliminaryDataRequest) {
+        requestData(nodeAddress, isPreliminaryDataRequest, false);
+    }
+
+    private void requestData(NodeAddress nodeAddress, boolean isPreliminaryDataRequest, boolean sketchNotDecodable) {
         Log.traceCall("nodeAddress=" + nodeAddress);
         peersNodeAddress = nodeAddress;
+        this.isPreliminaryDataRequest = isPreliminaryDataRequest;
         if (!stopped) {
             GetDataRequest getDataRequest;
 
@@ -97,14 +103,30 @@ class RequestDataHandler implements MessageListener {
             // PersistedStoragePayload items don't get removed, so we don't have an issue with the case that
             // an object gets removed in between PreliminaryGetDataRequest and the GetUpdatedDataRequest and we would
             // miss that event if we do not load the full set or use some delta handling.
-            Set<byte[]> excludedKeys = dataStorage.getPersistableNetworkPayloadCollection().getMap().entrySet().stream()
-                    .map(e -> e.getKey().bytes)
-                    .collect(Collectors.toSet());
+            // If the peer supports the PAYLOAD_SKETCH capability we send a sketch of fixed size instead of all the keys.
+            // If we don't know its capabilities yet we send both, so an old peer uses the keys and a new peer can fall
+            // back to the keys if it cannot decode the sketch.
+            final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map =
+                    dataStorage.getPersistableNetworkPayloadCollection().getMap();
+            final Optional<Boolean> payloadSketchSupported = isPayloadSketchSupported(nodeAddress);
+            Set<byte[]> excludedKeys = new HashSet<>();
+            InvertibleBloomLookupTable persistableNetworkPayloadSketch = null;
+            if (!map.isEmpty()) {
+                boolean sendSketch = !sketchNotDecodable && payloadSketchSupported.orElse(true);
+                boolean sendExcludedKeys = sketchNotDecodable || !payloadSketchSupported.orElse(false);
+                if (sendSketch)
+                    persistableNetworkPayloadSketch = dataStorage.getPersistableNetworkPayloadSketch();
+                if (sendExcludedKeys)
+                    excludedKeys = map.keySet().stream()
+                            .map(e -> e.bytes)
+                            .collect(Collectors.toSet());
+            }
 
             if (isPreliminaryDataRequest)
-                getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeys);
+                getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeys, persistableNetworkPayloadSketch);
             else
-                getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, excludedKeys);
+                getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, excludedKeys,
+                        persistableNetworkPayloadSketch);
 
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -122,7 +144,8 @@ class RequestDataHandler implements MessageListener {
             }
 
             log.info("We send a {} to peer {}. ", getDataRequest.getClass().getSimpleName(), nodeAddress);
-            networkNode.addMessageListener(this);
+            if (!sketchNotDecodable)
+                networkNode.addMessageListener(this);
             SettableFuture<Connection> future = networkNode.sendMessage(nodeAddress, getDataRequest);
             Futures.addCallback(future, new FutureCallback<Connection>() {
                 @Override
@@ -163,9 +186,23 @@ class RequestDataHandler implements MessageListener {
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof GetDataResponse) {
             if (connection.getPeersNodeAddressOptional().isPresent() && connection.getPeersNodeAddressOptional().get().equals(peersNodeAddress)) {
-                Log.traceCall(networkEnvelop.toString() + "\n\tconnection=" + connection);
+                Log.traceCall(() -> networkEnvelop.toString() + "\n\tconnection=" + connection);
                 if (!stopped) {
                     GetDataResponse getDataResponse = (GetDataResponse) networkEnvelop;
+                    if (getDataResponse.getRequestNonce() == nonce) {
+                        final List<Integer> supportedCapabilities = getDataResponse.getSupportedCapabilities();
+                        if (supportedCapabilities != null)
+                            peerManager.setSeedNodeSupportedCapabilities(peersNodeAddress, supportedCapabilities);
+
+                        if (getDataResponse.isPersistableNetworkPayloadSketchNotDecodable()) {
+                            log.info("Peer {} could not decode our PersistableNetworkPayload sketch. " +
+                                    "We repeat the request with the excluded keys.", peersNodeAddress);
+                            stopTimeoutTimer();
+                            requestData(peersNodeAddress, isPreliminaryDataRequest, true);
+                            return;
+                        }
+                    }
+
                     Map<String, Set<NetworkPayload>> payloadByClassName = new HashMap<>();
                     final Set<ProtectedStorageEntry> dataSet = getDataResponse.getDataSet();
                     dataSet.stream().forEach(e -> {
@@ -218,58 +255,37 @@ class RequestDataHandler implements MessageListener {
 
                         final NodeAddress sender = connection.getPeersNodeAddressOptional().get();
 
-                        List<NetworkPayload> processDelayedItems = new ArrayList<>();
-                        dataSet.stream().forEach(e -> {
-                            if (e.getProtectedStoragePayload() instanceof LazyProcessedPayload) {
-                                processDelayedItems.add(e);
-                            } else {
-                                // We dont broadcast here (last param) as we are only connected to the seed node and would be pointless
-                                dataStorage.addProtectedStorageEntry(e, sender, null, false, false);
-                            }
+                        // The LazyProcessedPayload items (TradeStatistics) are not required for the completion of
+                        // the request. We add them after the other items.
+                        List<ProtectedStorageEntry> protectedStorageEntries = new ArrayList<>();
+                        List<ProtectedStorageEntry> lazyProtectedStorageEntries = new ArrayList<>();
+                        dataSet.forEach(e -> {
+                            if (e.getProtectedStoragePayload() instanceof LazyProcessedPayload)
+                                lazyProtectedStorageEntries.add(e);
+                            else
+                                protectedStorageEntries.add(e);
                         });
 
+                        List<PersistableNetworkPayload> persistableNetworkPayloads = new ArrayList<>();
+                        List<PersistableNetworkPayload> lazyPersistableNetworkPayloads = new ArrayList<>();
                         if (persistableNetworkPayloadSet != null) {
-                            persistableNetworkPayloadSet.stream().forEach(e -> {
-                                if (e instanceof LazyProcessedPayload) {
-                                    processDelayedItems.add(e);
-                                } else {
-                                    // We dont broadcast here as we are only connected to the seed node and would be pointless
-                                    dataStorage.addPersistableNetworkPayload(e, sender, false, false, false, false);
-                                }
+                            persistableNetworkPayloadSet.forEach(e -> {
+                                if (e instanceof LazyProcessedPayload)
+                                    lazyPersistableNetworkPayloads.add(e);
+                                else
+                                    persistableNetworkPayloads.add(e);
                             });
                         }
 
-                        // We process the LazyProcessedStoragePayload items (TradeStatistics) in batches with a delay in between.
-                        // We want avoid that the UI get stuck when processing many entries.
-                        // The dataStorage.add call is a bit expensive as sig checks is done there.
-
-                        // Using a background thread might be an alternative but it would require much more effort and
-                        // it would also decrease user experience if the app gets under heavy load (like at startup with wallet sync).
-                        // Beside that we mitigated the problem already as we will not get the whole TradeStatistics as we
-                        // pass the excludeKeys and we pack the latest data dump
-                        // into the resources, so a new user do not need to request all data.
-
-                        // In future we will probably limit by date or load on demand from user intent to not get too much data.
-
-                        // We split the list into sub lists with max 50 items and delay each batch with 200 ms.
-                        int size = processDelayedItems.size();
-                        int chunkSize = 50;
-                        int chunks = 1 + size / chunkSize;
-                        int startIndex = 0;
-                        for (int i = 0; i < chunks && startIndex < size; i++, startIndex += chunkSize) {
-                            long delay = (i + 1) * 200;
-                            int endIndex = Math.min(size, startIndex + chunkSize);
-                            List<NetworkPayload> subList = processDelayedItems.subList(startIndex, endIndex);
-                            UserThread.runAfter(() -> subList.stream().forEach(item -> {
-                                if (item instanceof ProtectedStorageEntry)
-                                    dataStorage.addProtectedStorageEntry((ProtectedStorageEntry) item, sender, null, false, false);
-                                else if (item instanceof PersistableNetworkPayload)
-                                    dataStorage.addPersistableNetworkPayload((PersistableNetworkPayload) item, sender, false, false, false, false);
-                            }), delay, TimeUnit.MILLISECONDS);
-                        }
-
                         cleanup();
-                        listener.onComplete();
+
+                        // The signature checks are expensive, so dataStorage verifies the items in parallel off the
+                        // UserThread and adds them in batches. We don't broadcast as we are only connected to the
+                        // seed node and it would be pointless.
+                        dataStorage.addInitialData(protectedStorageEntries, persistableNetworkPayloads, sender,
+                                listener::onComplete);
+                        dataStorage.addInitialData(lazyProtectedStorageEntries, lazyPersistableNetworkPayloads, sender,
+                                null);
                     } else {
                         log.debug("Nonce not matching. That can happen rarely if we get a response after a canceled " +
                                         "handshake (timeout causes connection close but peer might have sent a msg before " +
@@ -295,6 +311,24 @@ class RequestDataHandler implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
 
+    // Returns whether the peer supports the PAYLOAD_SKETCH capability or empty if we don't know its capabilities.
+    // Preliminary requests go out on a new connection where the peer has not sent its capabilities yet, so for seed
+    // nodes we use the capabilities we have persisted from our last request.
+    private Optional<Boolean> isPayloadSketchSupported(NodeAddress nodeAddress) {
+        Optional<List<Integer>> supportedCapabilities = networkNode.getAllConnections().stream()
+                .filter(connection -> connection.getPeersNodeAddressOptional().isPresent() &&
+                        connection.getPeersNodeAddressOptional().get().equals(nodeAddress))
+                .map(Connection::getSupportedCapabilities)
+                .filter(Objects::nonNull)
+                .findAny();
+        if (!supportedCapabilities.isPresent())
+            supportedCapabilities = peerManager.findSeedNodeSupportedCapabilities(nodeAddress);
+
+        return supportedCapabilities.map(capabilities -> Capabilities.isCapabilitySupported(
+                Collections.singletonList(Capabilities.Capability.PAYLOAD_SKETCH.ordinal()),
+                capabilities));
+    }
+
     @SuppressWarnings("UnusedParameters")
     private void handleFault(String errorMessage, NodeAddress nodeAddress, CloseConnectionReason closeConnectionReason) {
         cleanup();
@@ -2,10 +2,12 @@ package io.bisq.network.p2p.peers.getdata.messages;
 
 import io.bisq.common.proto.network.NetworkEnvelope;
 import io.bisq.network.p2p.ExtendedDataSizePermission;
+import io.bisq.network.p2p.peers.getdata.InvertibleBloomLookupTable;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import javax.annotation.Nullable;
 import java.util.Set;
 
 @EqualsAndHashCode(callSuper = true)
@@ -15,12 +17,18 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     protected final int nonce;
     // Keys for ProtectedStorageEntry items to be excluded from the request because the peer has them already
     protected final Set<byte[]> excludedKeys;
+    // Sketch of the keys of our PersistableNetworkPayload items. If set we do not add those keys to excludedKeys.
+    // Only used if the peer supports the PAYLOAD_SKETCH capability. Older peers ignore it.
+    @Nullable
+    protected final InvertibleBloomLookupTable persistableNetworkPayloadSketch;
 
     public GetDataRequest(int messageVersion,
                           int nonce,
-                          Set<byte[]> excludedKeys) {
+                          Set<byte[]> excludedKeys,
+                          @Nullable InvertibleBloomLookupTable persistableNetworkPayloadSketch) {
         super(messageVersion);
         this.nonce = nonce;
         this.excludedKeys = excludedKeys;
+        this.persistableNetworkPayloadSketch = persistableNetworkPayloadSketch;
     }
 }
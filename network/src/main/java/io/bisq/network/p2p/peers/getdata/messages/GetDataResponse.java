@@ -37,6 +37,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     private final boolean isGetUpdatedDataResponse;
     @Nullable
     private final List<Integer> supportedCapabilities;
+    // If set the response carries no data and the requester has to repeat the request with the excluded keys.
+    private final boolean persistableNetworkPayloadSketchNotDecodable;
 
     public GetDataResponse(Set<ProtectedStorageEntry> dataSet,
                            @Nullable Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
@@ -47,6 +49,17 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 requestNonce,
                 isGetUpdatedDataResponse,
                 Capabilities.getSupportedCapabilities(),
+                false,
+                Version.getP2PMessageVersion());
+    }
+
+    public static GetDataResponse forNotDecodableSketch(int requestNonce, boolean isGetUpdatedDataResponse) {
+        return new GetDataResponse(new HashSet<>(),
+                null,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                Capabilities.getSupportedCapabilities(),
+                true,
                 Version.getP2PMessageVersion());
     }
 
@@ -59,6 +72,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                             int requestNonce,
                             boolean isGetUpdatedDataResponse,
                             @Nullable List<Integer> supportedCapabilities,
+                            boolean persistableNetworkPayloadSketchNotDecodable,
                             int messageVersion) {
         super(messageVersion);
 
@@ -67,6 +81,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
         this.supportedCapabilities = supportedCapabilities;
+        this.persistableNetworkPayloadSketchNotDecodable = persistableNetworkPayloadSketchNotDecodable;
     }
 
     @Override
@@ -83,7 +98,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                                         .build())
                         .collect(Collectors.toList()))
                 .setRequestNonce(requestNonce)
-                .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse);
+                .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
+                .setPersistableNetworkPayloadSketchNotDecodable(persistableNetworkPayloadSketchNotDecodable);
 
         Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(supportedCapabilities));
         Optional.ofNullable(persistableNetworkPayloadSet).ifPresent(set -> builder.addAllPersistableNetworkPayloadItems(set.stream()
@@ -114,6 +130,7 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
                 proto.getSupportedCapabilitiesList().isEmpty() ? null : proto.getSupportedCapabilitiesList(),
+                proto.getPersistableNetworkPayloadSketchNotDecodable(),
                 messageVersion);
     }
 }
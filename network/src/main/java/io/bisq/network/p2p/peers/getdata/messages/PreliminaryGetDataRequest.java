@@ -7,6 +7,7 @@ import io.bisq.common.proto.ProtoUtil;
 import io.bisq.generated.protobuffer.PB;
 import io.bisq.network.p2p.AnonymousMessage;
 import io.bisq.network.p2p.SupportedCapabilitiesMessage;
+import io.bisq.network.p2p.peers.getdata.InvertibleBloomLookupTable;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -27,7 +28,17 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     public PreliminaryGetDataRequest(int nonce,
                                      Set<byte[]> excludedKeys) {
-        this(nonce, excludedKeys, Capabilities.getSupportedCapabilities(), Version.getP2PMessageVersion());
+        this(nonce, excludedKeys, null);
+    }
+
+    public PreliminaryGetDataRequest(int nonce,
+                                     Set<byte[]> excludedKeys,
+                                     @Nullable InvertibleBloomLookupTable persistableNetworkPayloadSketch) {
+        this(nonce,
+                excludedKeys,
+                persistableNetworkPayloadSketch,
+                Capabilities.getSupportedCapabilities(),
+                Version.getP2PMessageVersion());
     }
 
 
@@ -37,9 +48,10 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     private PreliminaryGetDataRequest(int nonce,
                                       Set<byte[]> excludedKeys,
+                                      @Nullable InvertibleBloomLookupTable persistableNetworkPayloadSketch,
                                       @Nullable List<Integer> supportedCapabilities,
                                       int messageVersion) {
-        super(messageVersion, nonce, excludedKeys);
+        super(messageVersion, nonce, excludedKeys, persistableNetworkPayloadSketch);
 
         this.supportedCapabilities = supportedCapabilities;
     }
@@ -53,6 +65,7 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                         .collect(Collectors.toList()));
 
         Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(supportedCapabilities));
+        Optional.ofNullable(persistableNetworkPayloadSketch).ifPresent(e -> builder.setPersistableNetworkPayloadSketch(e.toProtoMessage()));
 
         return getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
@@ -62,6 +75,9 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
     public static PreliminaryGetDataRequest fromProto(PB.PreliminaryGetDataRequest proto, int messageVersion) {
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList()),
+                proto.hasPersistableNetworkPayloadSketch() ?
+                        InvertibleBloomLookupTable.fromProto(proto.getPersistableNetworkPayloadSketch()) :
+                        null,
                 proto.getSupportedCapabilitiesList().isEmpty() ? null : proto.getSupportedCapabilitiesList(),
                 messageVersion);
     }
@@ -80,7 +80,7 @@ class KeepAliveHandler implements MessageListener {
     private void sendPing(Connection connection) {
         Log.traceCall("connection=" + connection + " / this=" + this);
         if (!stopped) {
-            Ping ping = new Ping(nonce, connection.getStatistic().roundTripTimeProperty().get());
+            Ping ping = new Ping(nonce, connection.getStatistic().getRoundTripTime());
             sendTs = System.currentTimeMillis();
             SettableFuture<Connection> future = networkNode.sendMessage(connection, ping);
             Futures.addCallback(future, new FutureCallback<Connection>() {
@@ -124,7 +124,7 @@ class KeepAliveHandler implements MessageListener {
     @Override
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof Pong) {
-            Log.traceCall(networkEnvelop.toString() + "\n\tconnection=" + connection);
+            Log.traceCall(() -> networkEnvelop.toString() + "\n\tconnection=" + connection);
             if (!stopped) {
                 Pong pong = (Pong) networkEnvelop;
                 if (pong.getRequestNonce() == nonce) {
@@ -76,7 +76,7 @@ public class KeepAliveManager implements MessageListener, ConnectionListener, Pe
     @Override
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof Ping) {
-            Log.traceCall(networkEnvelop.toString() + "\n\tconnection=" + connection);
+            Log.traceCall(() -> networkEnvelop.toString() + "\n\tconnection=" + connection);
             if (!stopped) {
                 Ping ping = (Ping) networkEnvelop;
 
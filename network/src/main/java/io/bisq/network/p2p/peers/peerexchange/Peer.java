@@ -9,43 +9,59 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 @Getter
-@EqualsAndHashCode(exclude = {"date"})
+@EqualsAndHashCode(exclude = {"date", "supportedCapabilities"})
 @ToString
 public final class Peer implements NetworkPayload, PersistablePayload {
     private static final int MAX_FAILED_CONNECTION_ATTEMPTS = 5;
 
     private final NodeAddress nodeAddress;
     private final long date;
+    // Only set for the seed nodes we have requested data from, so we know their capabilities before we connect.
+    @Nullable
+    private final List<Integer> supportedCapabilities;
     @Setter
     private int failedConnectionAttempts = 0;
 
     public Peer(NodeAddress nodeAddress) {
-        this(nodeAddress, new Date().getTime());
+        this(nodeAddress, new Date().getTime(), null);
+    }
+
+    public Peer(NodeAddress nodeAddress, @Nullable List<Integer> supportedCapabilities) {
+        this(nodeAddress, new Date().getTime(), supportedCapabilities);
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private Peer(NodeAddress nodeAddress, long date) {
+    private Peer(NodeAddress nodeAddress, long date, @Nullable List<Integer> supportedCapabilities) {
         this.nodeAddress = nodeAddress;
         this.date = date;
+        this.supportedCapabilities = supportedCapabilities;
     }
 
     @Override
     public PB.Peer toProtoMessage() {
-        return PB.Peer.newBuilder()
+        final PB.Peer.Builder builder = PB.Peer.newBuilder()
                 .setNodeAddress(nodeAddress.toProtoMessage())
-                .setDate(date)
-                .build();
+                .setDate(date);
+        Optional.ofNullable(supportedCapabilities).ifPresent(builder::addAllSupportedCapabilities);
+        return builder.build();
     }
 
     public static Peer fromProto(PB.Peer peer) {
         return new Peer(NodeAddress.fromProto(peer.getNodeAddress()),
-                peer.getDate());
+                peer.getDate(),
+                peer.getSupportedCapabilitiesList().isEmpty() ?
+                        null :
+                        new ArrayList<>(peer.getSupportedCapabilitiesList()));
     }
 
 
@@ -2,9 +2,22 @@ package io.bisq.network.p2p.storage;
 
 import io.bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 
+import java.util.Collection;
+
 public interface HashMapChangedListener {
     void onAdded(ProtectedStorageEntry data);
 
     @SuppressWarnings("UnusedParameters")
     void onRemoved(ProtectedStorageEntry data);
+
+    // Called instead of onAdded if many entries got added at once (e.g. the initial data). Listeners which do
+    // expensive work per change (e.g. updating UI lists) should override it to handle all entries in one pass.
+    default void onBatchAdded(Collection<ProtectedStorageEntry> entries) {
+        entries.forEach(this::onAdded);
+    }
+
+    // Called instead of onRemoved if many entries got removed at once (e.g. expired entries)
+    default void onBatchRemoved(Collection<ProtectedStorageEntry> entries) {
+        entries.forEach(this::onRemoved);
+    }
 }
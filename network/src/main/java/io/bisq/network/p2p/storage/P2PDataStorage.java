@@ -6,6 +6,7 @@ import com.google.protobuf.ByteString;
 import io.bisq.common.Timer;
 import io.bisq.common.UserThread;
 import io.bisq.common.app.Log;
+import io.bisq.common.app.Version;
 import io.bisq.common.crypto.CryptoException;
 import io.bisq.common.crypto.Hash;
 import io.bisq.common.crypto.Sig;
@@ -16,19 +17,24 @@ import io.bisq.common.proto.persistable.PersistedDataHost;
 import io.bisq.common.proto.persistable.PersistenceProtoResolver;
 import io.bisq.common.storage.FileUtil;
 import io.bisq.common.storage.ResourceNotFoundException;
+import io.bisq.common.storage.SegmentedLogStore;
+import io.bisq.common.storage.PersistenceScheduler;
 import io.bisq.common.storage.Storage;
 import io.bisq.common.util.Tuple2;
 import io.bisq.common.util.Utilities;
 import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.crypto.SignatureVerificationService;
 import io.bisq.network.p2p.NodeAddress;
 import io.bisq.network.p2p.network.*;
 import io.bisq.network.p2p.peers.BroadcastHandler;
 import io.bisq.network.p2p.peers.Broadcaster;
+import io.bisq.network.p2p.peers.getdata.InvertibleBloomLookupTable;
 import io.bisq.network.p2p.storage.messages.*;
 import io.bisq.network.p2p.storage.payload.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
+import lombok.Value;
 import org.apache.commons.lang3.StringUtils;
 import org.bouncycastle.util.encoders.Hex;
 import org.slf4j.Logger;
@@ -59,6 +65,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public static int CHECK_TTL_INTERVAL_SEC = 60;
 
     private final Broadcaster broadcaster;
+    private final SignatureVerificationService signatureVerificationService;
     private final File storageDir;
 
     @Getter
@@ -72,7 +79,20 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @Getter
     private PersistableNetworkPayloadCollection persistableNetworkPayloadCollection;
     private final Storage<PersistableNetworkPayloadCollection> persistableNetworkPayloadMapStorage;
+    // Append-only log of the persistableNetworkPayloadCollection items. Replaces persistableNetworkPayloadMapStorage
+    // which had to serialize and write the whole collection at each added item.
+    private final SegmentedLogStore<PB.PersistableNetworkPayload> persistableNetworkPayloadLogStore;
+    private final PersistenceProtoResolver persistenceProtoResolver;
     private final CopyOnWriteArraySet<PersistableNetworkPayloadMapListener> persistableNetworkPayloadMapListeners = new CopyOnWriteArraySet<>();
+    // Sketch of the keys of persistableNetworkPayloadCollection. We keep it updated at each add so we don't need to
+    // iterate over the whole collection at each GetDataRequest.
+    private InvertibleBloomLookupTable persistableNetworkPayloadSketch = new InvertibleBloomLookupTable();
+    // Verifies the data of the initial data requests off the UserThread
+    private final ParallelBatchProcessor initialDataProcessor;
+    // Collects the added entries while we add a batch, so the listeners get notified once per batch.
+    // Only accessed on the UserThread.
+    @Nullable
+    private List<ProtectedStorageEntry> addedEntriesOfBatch;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -82,19 +102,28 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @Inject
     public P2PDataStorage(NetworkNode networkNode,
                           Broadcaster broadcaster,
+                          SignatureVerificationService signatureVerificationService,
                           @Named(Storage.STORAGE_DIR) File storageDir,
                           PersistenceProtoResolver persistenceProtoResolver) {
         this.broadcaster = broadcaster;
+        this.signatureVerificationService = signatureVerificationService;
         this.storageDir = storageDir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
 
         networkNode.addMessageListener(this);
         networkNode.addConnectionListener(this);
 
         sequenceNumberMapStorage = new Storage<>(storageDir, persistenceProtoResolver);
         sequenceNumberMapStorage.setNumMaxBackupFiles(5);
+        sequenceNumberMapStorage.setPriority(PersistenceScheduler.Priority.LOW);
 
         persistableNetworkPayloadMapStorage = new Storage<>(storageDir, persistenceProtoResolver);
         persistableNetworkPayloadMapStorage.setNumMaxBackupFiles(1);
+
+        persistableNetworkPayloadLogStore = new SegmentedLogStore<>(new File(storageDir, "PersistableNetworkPayloadMap_segments"),
+                PB.PersistableNetworkPayload.parser(), 2000);
+
+        initialDataProcessor = new ParallelBatchProcessor("P2PDataStorage-Verifier");
     }
 
     @Override
@@ -115,32 +144,48 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         if (!dbDir.exists() && !dbDir.mkdir())
             log.warn("make dir failed.\ndbDir=" + dbDir.getAbsolutePath());
 
-        final File destinationFile = new File(Paths.get(storageDir.getAbsolutePath(), storageFileName).toString());
-        if (!destinationFile.exists()) {
-            try {
-                log.info("We copy resource to file: resourceFileName={}, destinationFile={}", resourceFileName, destinationFile);
-                FileUtil.resourceToFile(resourceFileName, destinationFile);
-            } catch (ResourceNotFoundException e) {
-                log.info("Could not find resourceFile " + resourceFileName + ". That is expected if none is provided yet.");
-            } catch (Throwable e) {
-                log.error("Could not copy resourceFile " + resourceFileName + " to " +
-                        destinationFile.getAbsolutePath() + ".\n" + e.getMessage());
-                e.printStackTrace();
-            }
-        } else {
-            log.debug(storageFileName + " file exists already.");
-        }
-        persistableNetworkPayloadCollection = persistableNetworkPayloadMapStorage.initAndGetPersistedWithFileName(storageFileName, 100);
-        if (persistableNetworkPayloadCollection != null) {
-            log.info("persistableNetworkPayloadMap size=" + persistableNetworkPayloadCollection.getMap().size());
-
-            // In case another object is already listening...
-            if (!persistableNetworkPayloadMapListeners.isEmpty())
-                persistableNetworkPayloadCollection.getMap().values().stream()
-                        .forEach(payload -> persistableNetworkPayloadMapListeners.stream().forEach(e -> e.onAdded(payload)));
-        } else {
+        if (persistableNetworkPayloadLogStore.exists()) {
             persistableNetworkPayloadCollection = new PersistableNetworkPayloadCollection();
+            final Map<ByteArray, PersistableNetworkPayload> payloadMap = persistableNetworkPayloadCollection.getMap();
+            persistableNetworkPayloadLogStore.read(proto -> {
+                PersistableNetworkPayload payload = PersistableNetworkPayload.fromProto(proto, persistenceProtoResolver);
+                // An interrupted compaction can leave duplicates
+                payloadMap.putIfAbsent(new ByteArray(payload.getHash()), payload);
+            });
+        } else {
+            // First start or first start after the update to the log store. We read the old file (or the resource
+            // file) once and write the items to the log store.
+            final File destinationFile = new File(Paths.get(storageDir.getAbsolutePath(), storageFileName).toString());
+            if (!destinationFile.exists()) {
+                try {
+                    log.info("We copy resource to file: resourceFileName={}, destinationFile={}", resourceFileName, destinationFile);
+                    FileUtil.resourceToFile(resourceFileName, destinationFile);
+                } catch (ResourceNotFoundException e) {
+                    log.info("Could not find resourceFile " + resourceFileName + ". That is expected if none is provided yet.");
+                } catch (Throwable e) {
+                    log.error("Could not copy resourceFile " + resourceFileName + " to " +
+                            destinationFile.getAbsolutePath() + ".\n" + e.getMessage());
+                    e.printStackTrace();
+                }
+            } else {
+                log.debug(storageFileName + " file exists already.");
+            }
+            persistableNetworkPayloadCollection = persistableNetworkPayloadMapStorage.initAndGetPersistedWithFileName(storageFileName, 100);
+            if (persistableNetworkPayloadCollection == null)
+                persistableNetworkPayloadCollection = new PersistableNetworkPayloadCollection();
+
+            persistableNetworkPayloadLogStore.appendAll(persistableNetworkPayloadCollection.getMap().values().stream()
+                    .map(PersistableNetworkPayload::toProtoMessage)
+                    .collect(Collectors.toList()));
         }
+
+        log.info("persistableNetworkPayloadMap size=" + persistableNetworkPayloadCollection.getMap().size());
+        // In case another object is already listening...
+        if (!persistableNetworkPayloadMapListeners.isEmpty())
+            persistableNetworkPayloadCollection.getMap().values().stream()
+                    .forEach(payload -> persistableNetworkPayloadMapListeners.stream().forEach(e -> e.onAdded(payload)));
+
+        persistableNetworkPayloadSketch = createPersistableNetworkPayloadSketch();
     }
 
 
@@ -151,6 +196,9 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void shutDown() {
         if (removeExpiredEntriesTimer != null)
             removeExpiredEntriesTimer.stop();
+
+        persistableNetworkPayloadLogStore.flush();
+        initialDataProcessor.shutDown();
     }
 
     public void onBootstrapComplete() {
@@ -175,9 +223,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                         }
                     });
 
-            toRemoveSet.stream().forEach(
-                    protectedDataToRemove -> hashMapChangedListeners.stream().forEach(
-                            listener -> listener.onRemoved(protectedDataToRemove)));
+            if (!toRemoveSet.isEmpty())
+                hashMapChangedListeners.forEach(listener -> listener.onBatchRemoved(toRemoveSet));
 
             if (sequenceNumberMap.size() > 1000)
                 sequenceNumberMap.setMap(getPurgedSequenceNumberMap(sequenceNumberMap.getMap()));
@@ -192,10 +239,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @Override
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof BroadcastMessage) {
-            Log.traceCall(Utilities.toTruncatedString(networkEnvelop) + "\n\tconnection=" + connection);
+            Log.traceCall(() -> Utilities.toTruncatedString(networkEnvelop) + "\n\tconnection=" + connection);
             connection.getPeersNodeAddressOptional().ifPresent(peersNodeAddress -> {
                 if (networkEnvelop instanceof AddDataMessage) {
-                    addProtectedStorageEntry(((AddDataMessage) networkEnvelop).getProtectedStorageEntry(), peersNodeAddress, null, false);
+                    addReceivedProtectedStorageEntry((AddDataMessage) networkEnvelop, peersNodeAddress);
                 } else if (networkEnvelop instanceof RemoveDataMessage) {
                     remove(((RemoveDataMessage) networkEnvelop).getProtectedStorageEntry(), peersNodeAddress, false);
                 } else if (networkEnvelop instanceof RemoveMailboxDataMessage) {
@@ -233,7 +280,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                                 // disconnected peer. We remove that data from our map.
 
                                 // Check if we have the data (e.g. OfferPayload)
-                                ByteArray hashOfPayload = getHashAsByteArray(expirablePayload);
+                                ByteArray hashOfPayload = protectedData.getHashOfPayload();
                                 boolean containsKey = map.containsKey(hashOfPayload);
                                 if (containsKey) {
                                     log.debug("We remove the data as the data owner got disconnected with " +
@@ -294,7 +341,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 if (!(payload instanceof DateTolerantPayload) || !checkDate || ((DateTolerantPayload) payload).isDateInTolerance()) {
                     if (!containsKey) {
                         persistableNetworkPayloadCollection.getMap().put(hashAsByteArray, payload);
-                        persistableNetworkPayloadMapStorage.queueUpForSave(persistableNetworkPayloadCollection, 2000);
+                        persistableNetworkPayloadSketch.add(hash);
+                        persistableNetworkPayloadLogStore.append(payload.toProtoMessage());
                         persistableNetworkPayloadMapListeners.stream().forEach(e -> e.onAdded(payload));
                     }
                     if (allowBroadcast)
@@ -325,12 +373,78 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public boolean addProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry, @Nullable NodeAddress sender,
                                             @Nullable BroadcastHandler.Listener listener, boolean isDataOwner, boolean allowBroadcast) {
         Log.traceCall("with allowBroadcast=" + allowBroadcast);
-        final ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-        ByteArray hashOfPayload = getHashAsByteArray(protectedStoragePayload);
+        return addProtectedStorageEntry(protectedStorageEntry, sender, listener, isDataOwner, allowBroadcast, null);
+    }
+
+    // If the message we received has our message version we relay it unchanged, so the bytes we received from the
+    // sender get sent to our peers without encoding the message again.
+    private void addReceivedProtectedStorageEntry(AddDataMessage addDataMessage, NodeAddress sender) {
+        AddDataMessage relayMessage = addDataMessage.getMessageVersion() == Version.getP2PMessageVersion() ?
+                addDataMessage : null;
+        addProtectedStorageEntry(addDataMessage.getProtectedStorageEntry(), sender, null, false, true, relayMessage);
+    }
+
+    private boolean addProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry, @Nullable NodeAddress sender,
+                                             @Nullable BroadcastHandler.Listener listener, boolean isDataOwner,
+                                             boolean allowBroadcast, @Nullable AddDataMessage relayMessage) {
+        ByteArray hashOfPayload = protectedStorageEntry.getHashOfPayload();
+        boolean isVerified = checkPublicKeys(protectedStorageEntry, true) && checkSignature(protectedStorageEntry);
+        return addVerifiedProtectedStorageEntry(protectedStorageEntry, hashOfPayload, isVerified, sender, listener,
+                isDataOwner, allowBroadcast, true, relayMessage);
+    }
+
+    // Adds the data we received at the initial data requests. The hashing, public key and signature checks run in
+    // parallel in a worker pool. Only the checks against our stored data, the map updates and the listener
+    // notifications are done on the UserThread, in batches. We don't broadcast as we are only connected to the seed
+    // node at that moment.
+    public void addInitialData(Collection<ProtectedStorageEntry> protectedStorageEntries,
+                               Collection<PersistableNetworkPayload> persistableNetworkPayloads,
+                               @Nullable NodeAddress sender,
+                               @Nullable Runnable completeHandler) {
+        List<NetworkPayload> items = new ArrayList<>(protectedStorageEntries);
+        items.addAll(persistableNetworkPayloads);
+        // The workers must not read sequenceNumberMap as it gets changed on the UserThread, so they get a copy
+        final Map<ByteArray, Integer> storedSequenceNumbers = new HashMap<>();
+        sequenceNumberMap.getMap().forEach((hash, mapValue) -> storedSequenceNumbers.put(hash, mapValue.sequenceNr));
+        initialDataProcessor.process(items,
+                item -> verifyInitialData(item, storedSequenceNumbers),
+                verifiedItems -> {
+                    final List<ProtectedStorageEntry> addedEntries = new ArrayList<>();
+                    addedEntriesOfBatch = addedEntries;
+                    try {
+                        verifiedItems.forEach(verifiedItem -> {
+                            if (verifiedItem.getItem() instanceof ProtectedStorageEntry)
+                                addVerifiedProtectedStorageEntry((ProtectedStorageEntry) verifiedItem.getItem(),
+                                        verifiedItem.getHashOfPayload(), verifiedItem.isVerified(), sender, null,
+                                        false, false, false, null);
+                            else if (verifiedItem.isVerified())
+                                addPersistableNetworkPayload((PersistableNetworkPayload) verifiedItem.getItem(), sender,
+                                        false, false, false, false);
+                        });
+                    } finally {
+                        addedEntriesOfBatch = null;
+                    }
+                    // We notify the listeners and persist once per batch instead of once per item
+                    if (!addedEntries.isEmpty())
+                        hashMapChangedListeners.forEach(e -> e.onBatchAdded(addedEntries));
+                    persistSequenceNumberMap();
+                },
+                completeHandler);
+    }
+
+    // The public keys and the signature must have been checked already (isVerified).
+    // relayMessage is the received message containing protectedStorageEntry, which we broadcast if not null.
+    private boolean addVerifiedProtectedStorageEntry(ProtectedStorageEntry protectedStorageEntry,
+                                                     ByteArray hashOfPayload,
+                                                     boolean isVerified,
+                                                     @Nullable NodeAddress sender,
+                                                     @Nullable BroadcastHandler.Listener listener,
+                                                     boolean isDataOwner,
+                                                     boolean allowBroadcast,
+                                                     boolean persistSequenceNumberMap,
+                                                     @Nullable AddDataMessage relayMessage) {
         boolean sequenceNrValid = isSequenceNrValid(protectedStorageEntry.getSequenceNumber(), hashOfPayload);
-        boolean result = checkPublicKeys(protectedStorageEntry, true)
-                && checkSignature(protectedStorageEntry)
-                && sequenceNrValid;
+        boolean result = isVerified && sequenceNrValid;
 
         boolean containsKey = map.containsKey(hashOfPayload);
         if (containsKey)
@@ -343,7 +457,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             if (!containsKey || hasSequenceNrIncreased) {
                 // At startup we don't have the item so we store it. At updates of the seq nr we store as well.
                 map.put(hashOfPayload, protectedStorageEntry);
-                hashMapChangedListeners.forEach(e -> e.onAdded(protectedStorageEntry));
+                if (addedEntriesOfBatch != null)
+                    addedEntriesOfBatch.add(protectedStorageEntry);
+                else
+                    hashMapChangedListeners.forEach(e -> e.onAdded(protectedStorageEntry));
                 // printData("after add");
             } else {
                 log.trace("We got that version of the data already, so we don't store it.");
@@ -351,11 +468,12 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
             if (hasSequenceNrIncreased) {
                 sequenceNumberMap.put(hashOfPayload, new MapValue(protectedStorageEntry.getSequenceNumber(), System.currentTimeMillis()));
-                // We set the delay higher as we might receive a batch of items
-                sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 2000);
+                if (persistSequenceNumberMap)
+                    persistSequenceNumberMap();
 
                 if (allowBroadcast)
-                    broadcast(new AddDataMessage(protectedStorageEntry), sender, listener, isDataOwner);
+                    broadcast(relayMessage != null ? relayMessage : new AddDataMessage(protectedStorageEntry),
+                            sender, listener, isDataOwner);
             } else {
                 log.trace("We got that version of the data already, so we don't broadcast it.");
             }
@@ -411,7 +529,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     public boolean remove(ProtectedStorageEntry protectedStorageEntry, @Nullable NodeAddress sender, boolean isDataOwner) {
         Log.traceCall();
-        ByteArray hashOfPayload = getHashAsByteArray(protectedStorageEntry.getProtectedStoragePayload());
+        ByteArray hashOfPayload = protectedStorageEntry.getHashOfPayload();
         boolean containsKey = map.containsKey(hashOfPayload);
         if (!containsKey)
             log.debug("Remove data ignored as we don't have an entry for that data.");
@@ -438,7 +556,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @SuppressWarnings("UnusedReturnValue")
     public boolean removeMailboxData(ProtectedMailboxStorageEntry protectedMailboxStorageEntry, @Nullable NodeAddress sender, boolean isDataOwner) {
         Log.traceCall();
-        ByteArray hashOfData = getHashAsByteArray(protectedMailboxStorageEntry.getProtectedStoragePayload());
+        ByteArray hashOfData = protectedMailboxStorageEntry.getHashOfPayload();
         boolean containsKey = map.containsKey(hashOfData);
         if (!containsKey)
             log.debug("Remove data ignored as we don't have an entry for that data.");
@@ -507,6 +625,18 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 storageSignaturePubKey.getPublic(), sequenceNumber, signature, receiversPublicKey);
     }
 
+    /**
+     * @return A copy of the sketch of the keys of our PersistableNetworkPayload items. It always has the default
+     * parameters of InvertibleBloomLookupTable, we never build tables with parameters requested by a peer as that
+     * costs O(N * hashCount).
+     */
+    public InvertibleBloomLookupTable getPersistableNetworkPayloadSketch() {
+        if (persistableNetworkPayloadCollection != null &&
+                persistableNetworkPayloadSketch.getNumItems() != persistableNetworkPayloadCollection.getMap().size())
+            persistableNetworkPayloadSketch = createPersistableNetworkPayloadSketch();
+        return persistableNetworkPayloadSketch.copy();
+    }
+
     public void addHashMapChangedListener(HashMapChangedListener hashMapChangedListener) {
         hashMapChangedListeners.add(hashMapChangedListener);
     }
@@ -528,6 +658,37 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private InvertibleBloomLookupTable createPersistableNetworkPayloadSketch() {
+        InvertibleBloomLookupTable sketch = new InvertibleBloomLookupTable();
+        if (persistableNetworkPayloadCollection != null)
+            persistableNetworkPayloadCollection.getMap().keySet().forEach(key -> sketch.add(key.bytes));
+        return sketch;
+    }
+
+    // Called in a worker thread. The sequence number check against sequenceNumberMap is done on the UserThread, here
+    // we only use the copy of the stored sequence numbers to skip the signature verification of outdated entries.
+    private VerifiedItem verifyInitialData(NetworkPayload item, Map<ByteArray, Integer> storedSequenceNumbers) {
+        if (item instanceof ProtectedStorageEntry) {
+            final ProtectedStorageEntry protectedStorageEntry = (ProtectedStorageEntry) item;
+            final ByteArray hashOfPayload = protectedStorageEntry.getHashOfPayload();
+            final Integer storedSequenceNumber = storedSequenceNumbers.get(hashOfPayload);
+            final boolean isVerified = checkPublicKeys(protectedStorageEntry, true)
+                    && (storedSequenceNumber == null || protectedStorageEntry.getSequenceNumber() >= storedSequenceNumber)
+                    && checkSignature(protectedStorageEntry);
+            return new VerifiedItem(item, hashOfPayload, isVerified);
+        } else {
+            final PersistableNetworkPayload persistableNetworkPayload = (PersistableNetworkPayload) item;
+            if (!persistableNetworkPayload.verifyHashSize())
+                log.warn("We got a hash exceeding our permitted size");
+            return new VerifiedItem(item, null, persistableNetworkPayload.verifyHashSize());
+        }
+    }
+
+    private void persistSequenceNumberMap() {
+        // We set the delay higher as we might receive a batch of items
+        sequenceNumberMapStorage.queueUpForSave(SequenceNumberMap.clone(sequenceNumberMap), 2000);
+    }
+
     private void doRemoveProtectedExpirableData(ProtectedStorageEntry protectedStorageEntry, ByteArray hashOfPayload) {
         map.remove(hashOfPayload);
         log.trace("Data removed from our map. We broadcast the message to our peers.");
@@ -584,17 +745,12 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     private boolean checkSignature(PublicKey ownerPubKey, byte[] hashOfDataAndSeqNr, byte[] signature) {
-        try {
-            boolean result = Sig.verify(ownerPubKey, hashOfDataAndSeqNr, signature);
-            if (!result)
-                log.warn("Signature verification failed at checkSignature. " +
-                        "That should not happen.");
+        boolean result = signatureVerificationService.verify(ownerPubKey, hashOfDataAndSeqNr, signature);
+        if (!result)
+            log.warn("Signature verification failed at checkSignature. " +
+                    "That should not happen.");
 
-            return result;
-        } catch (CryptoException e) {
-            log.error("Signature verification failed at checkSignature");
-            return false;
-        }
+        return result;
     }
 
     private boolean checkSignature(ProtectedStorageEntry protectedStorageEntry) {
@@ -651,7 +807,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             ProtectedMailboxStorageEntry entry = (ProtectedMailboxStorageEntry) storedData;
             // publicKey is not the same (stored: sender, new: receiver)
             boolean result = entry.getReceiversPubKey().equals(receiversPubKey)
-                    && getHashAsByteArray(entry.getProtectedStoragePayload()).equals(hashOfData);
+                    && entry.getHashOfPayload().equals(hashOfData);
             if (!result)
                 log.warn("New data entry does not match our stored data. entry.receiversPubKey=" + entry.getReceiversPubKey()
                         + ", receiversPubKey=" + receiversPubKey);
@@ -684,18 +840,19 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     private void printData(String info) {
-        if (LoggerFactory.getLogger(Log.class).isInfoEnabled() || LoggerFactory.getLogger(Log.class).isDebugEnabled()) {
+        // We only log at debug level, so we don't build the dump of the whole map otherwise
+        if (log.isDebugEnabled()) {
             StringBuilder sb = new StringBuilder("\n\n------------------------------------------------------------\n");
             sb.append("Data set ").append(info).append(" operation");
             // We print the items sorted by hash with the payload class name and id
             List<Tuple2<String, ProtectedStorageEntry>> tempList = map.values().stream()
-                    .map(e -> new Tuple2<>(org.bitcoinj.core.Utils.HEX.encode(getHashAsByteArray(e.getProtectedStoragePayload()).bytes), e))
+                    .map(e -> new Tuple2<>(org.bitcoinj.core.Utils.HEX.encode(e.getHashOfPayload().bytes), e))
                     .collect(Collectors.toList());
             tempList.sort((o1, o2) -> o1.first.compareTo(o2.first));
             tempList.stream().forEach(e -> {
                 final ProtectedStorageEntry storageEntry = e.second;
                 final ProtectedStoragePayload protectedStoragePayload = storageEntry.getProtectedStoragePayload();
-                final MapValue mapValue = sequenceNumberMap.get(getHashAsByteArray(protectedStoragePayload));
+                final MapValue mapValue = sequenceNumberMap.get(storageEntry.getHashOfPayload());
                 sb.append("\n")
                         .append("Hash=")
                         .append(e.first)
@@ -731,6 +888,15 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     // Static class
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Result of the checks of an item of the initial data which we can do off the UserThread
+    @Value
+    private static final class VerifiedItem {
+        private final NetworkPayload item;
+        @Nullable
+        private final ByteArray hashOfPayload;
+        private final boolean verified;
+    }
+
     /**
      * Used as container for calculating cryptographic hash of data and sequenceNumber.
      */
@@ -761,10 +927,31 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * Used as key object in map for cryptographic hash of stored data as byte[] as primitive data type cannot be
      * used as key
      */
-    @EqualsAndHashCode
     public static final class ByteArray implements PersistablePayload {
         // That object is saved to disc. We need to take care of changes to not break deserialization.
         public final byte[] bytes;
+        // ByteArray is used as key in our maps, so we don't want to hash the bytes at each lookup.
+        // The bytes must not be changed after construction.
+        transient private int hashCode;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ByteArray)) return false;
+
+            ByteArray byteArray = (ByteArray) o;
+            return hashCode() == byteArray.hashCode() && Arrays.equals(bytes, byteArray.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = hashCode;
+            if (result == 0) {
+                result = Arrays.hashCode(bytes);
+                hashCode = result;
+            }
+            return result;
+        }
 
         @Override
         public String toString() {
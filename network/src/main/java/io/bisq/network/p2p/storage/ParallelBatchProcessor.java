@@ -0,0 +1,122 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.storage;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.bisq.common.UserThread;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Two staged processing of many items: The expensive and state independent part (e.g. hashing and signature
+// verification) runs in parallel in a worker pool, the results are passed in batches to the UserThread where the state
+// gets changed. Replaces the processing of all items on the UserThread with a delay between small chunks.
+// Must be called from the UserThread.
+@Slf4j
+class ParallelBatchProcessor {
+    private static final int NUM_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int MIN_BATCH_SIZE = 50;
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final ExecutorService executor;
+    private final int numThreads;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    ParallelBatchProcessor(String name) {
+        this(name, NUM_THREADS);
+    }
+
+    ParallelBatchProcessor(String name, int numThreads) {
+        this.numThreads = numThreads;
+        executor = Executors.newFixedThreadPool(numThreads, new ThreadFactoryBuilder()
+                .setNameFormat(name + "-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // verifier is called in a worker thread and must not access state which is changed on the UserThread. Items for
+    // which the verifier throws are dropped.
+    // batchHandler is called on the UserThread with the results of a batch in the order of the items. The batches
+    // are handled in the order they got completed. completeHandler is called on the UserThread after all batches
+    // got handled.
+    <T, R> void process(List<T> items,
+                        Function<T, R> verifier,
+                        Consumer<List<R>> batchHandler,
+                        @Nullable Runnable completeHandler) {
+        if (items.isEmpty()) {
+            if (completeHandler != null)
+                completeHandler.run();
+            return;
+        }
+
+        // We want to use all threads but also want to have few calls on the UserThread
+        final int batchSize = Math.min(MAX_BATCH_SIZE, Math.max(MIN_BATCH_SIZE, items.size() / numThreads + 1));
+        final List<List<T>> batches = new ArrayList<>();
+        for (int startIndex = 0; startIndex < items.size(); startIndex += batchSize)
+            batches.add(items.subList(startIndex, Math.min(items.size(), startIndex + batchSize)));
+
+        // Only accessed on the UserThread
+        final int[] numPendingBatches = {batches.size()};
+        for (List<T> batch : batches) {
+            try {
+                executor.execute(() -> {
+                    final List<R> results = new ArrayList<>(batch.size());
+                    for (T item : batch) {
+                        try {
+                            results.add(verifier.apply(item));
+                        } catch (Throwable t) {
+                            // We drop that item but still handle the others
+                            log.error("Verification of item failed. " + t.toString());
+                        }
+                    }
+                    UserThread.execute(() -> {
+                        try {
+                            batchHandler.accept(results);
+                        } finally {
+                            numPendingBatches[0]--;
+                            if (numPendingBatches[0] == 0 && completeHandler != null)
+                                completeHandler.run();
+                        }
+                    });
+                });
+            } catch (RejectedExecutionException e) {
+                log.debug("Processing of batch rejected. That is expected at shutdown.");
+            }
+        }
+    }
+
+    void shutDown() {
+        executor.shutdownNow();
+    }
+}
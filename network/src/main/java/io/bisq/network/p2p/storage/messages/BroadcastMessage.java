@@ -1,11 +1,47 @@
 package io.bisq.network.p2p.storage.messages;
 
 import io.bisq.common.proto.network.NetworkEnvelope;
+import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.p2p.network.EncodedNetworkEnvelope;
 import lombok.EqualsAndHashCode;
 
+import javax.annotation.Nullable;
+
 @EqualsAndHashCode(callSuper = true)
 public abstract class BroadcastMessage extends NetworkEnvelope {
+    // Transient fields are not part of equals/hashCode.
+    // The data we received the message with. If we relay the message unchanged we send those instead of encoding it.
+    @Nullable
+    private transient volatile PB.NetworkEnvelope receivedProto;
+    @Nullable
+    private transient volatile byte[] receivedBytes;
+    // Shared by all connections we broadcast the message to
+    @Nullable
+    private transient volatile EncodedNetworkEnvelope encodedNetworkEnvelope;
+
     protected BroadcastMessage(int messageVersion) {
         super(messageVersion);
     }
-}
\ No newline at end of file
+
+    // Called by the connection which received the message. receivedBytes is null if the transport did not keep them.
+    public void setReceivedData(PB.NetworkEnvelope receivedProto, @Nullable byte[] receivedBytes) {
+        this.receivedBytes = receivedBytes;
+        this.receivedProto = receivedProto;
+    }
+
+    // Called from various threads. In the rare case of concurrent calls we might encode twice, which is harmless.
+    public EncodedNetworkEnvelope getEncodedNetworkEnvelope() {
+        EncodedNetworkEnvelope result = encodedNetworkEnvelope;
+        if (result == null) {
+            PB.NetworkEnvelope proto = receivedProto;
+            result = proto != null ?
+                    EncodedNetworkEnvelope.fromReceived(proto, receivedBytes) :
+                    EncodedNetworkEnvelope.encode(toProtoNetworkEnvelope());
+            encodedNetworkEnvelope = result;
+            // We don't need the received data anymore
+            receivedProto = null;
+            receivedBytes = null;
+        }
+        return result;
+    }
+}
@@ -7,14 +7,16 @@ import io.bisq.common.proto.network.NetworkPayload;
 import io.bisq.common.proto.network.NetworkProtoResolver;
 import io.bisq.common.proto.persistable.PersistablePayload;
 import io.bisq.generated.protobuffer.PB;
-import lombok.EqualsAndHashCode;
+import io.bisq.network.p2p.storage.P2PDataStorage;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.security.PublicKey;
+import java.util.Arrays;
 
 @Getter
-@EqualsAndHashCode
 @Slf4j
 public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload {
     private final ProtectedStoragePayload protectedStoragePayload;
@@ -23,6 +25,10 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
     private int sequenceNumber;
     private byte[] signature;
     private long creationTimeStamp;
+    // The payload is immutable, so we calculate its hash only once. It is the key of the entry in P2PDataStorage.
+    @Getter(AccessLevel.NONE)
+    @Nullable
+    transient private volatile P2PDataStorage.ByteArray hashOfPayload;
 
     public ProtectedStorageEntry(ProtectedStoragePayload protectedStoragePayload,
                                  PublicKey ownerPubKey,
@@ -108,5 +114,36 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
         return (System.currentTimeMillis() - creationTimeStamp) > protectedStoragePayload.getTTL();
     }
 
+    public P2PDataStorage.ByteArray getHashOfPayload() {
+        P2PDataStorage.ByteArray result = hashOfPayload;
+        if (result == null) {
+            result = new P2PDataStorage.ByteArray(P2PDataStorage.getHash(protectedStoragePayload));
+            hashOfPayload = result;
+        }
+        return result;
+    }
+
+    // We compare the cached hash of the payload instead of the payload itself, which would compare all its fields at
+    // each lookup.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ProtectedStorageEntry that = (ProtectedStorageEntry) o;
+        return sequenceNumber == that.sequenceNumber &&
+                creationTimeStamp == that.creationTimeStamp &&
+                getHashOfPayload().equals(that.getHashOfPayload()) &&
+                Arrays.equals(ownerPubKeyBytes, that.ownerPubKeyBytes) &&
+                Arrays.equals(signature, that.signature);
+    }
 
+    @Override
+    public int hashCode() {
+        int result = getHashOfPayload().hashCode();
+        result = 31 * result + sequenceNumber;
+        result = 31 * result + (int) (creationTimeStamp ^ (creationTimeStamp >>> 32));
+        result = 31 * result + Arrays.hashCode(signature);
+        return result;
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.crypto;
+
+import io.bisq.common.crypto.Hash;
+import io.bisq.common.crypto.Sig;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.KeyPair;
+import java.security.Security;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+// Measures the throughput of the DSA signature verification we do for the storage entries: one at a time with a new
+// Signature instance for each check (as before) and one at a time with the pooled instances of Sig.
+// Not run as unit test, start it with the main method.
+// Usage: SignatureVerificationBenchmark [numSignatures]
+public class SignatureVerificationBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int numSignatures = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        Security.addProvider(new BouncyCastleProvider());
+
+        List<KeyPair> keyPairs = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+            keyPairs.add(Sig.generateKeyPair());
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < numSignatures; i++) {
+            KeyPair keyPair = keyPairs.get(i % keyPairs.size());
+            byte[] hash = Hash.getSha256Hash(i);
+            items.add(new Item(keyPair, hash, Sig.sign(keyPair.getPrivate(), hash)));
+        }
+
+        // Warm up
+        run(items, false);
+        run(items, true);
+        System.exit(0);
+    }
+
+    private static void run(List<Item> items, boolean print) throws Exception {
+        String result = measure("new Signature per check", items.size(), () -> {
+            for (Item item : items) {
+                Signature sig = Signature.getInstance("SHA256withDSA", "BC");
+                sig.initVerify(item.keyPair.getPublic());
+                sig.update(item.data);
+                check(sig.verify(item.signature));
+            }
+            return null;
+        });
+        if (print)
+            System.out.println(result);
+
+        result = measure("Sig.verify", items.size(), () -> {
+            for (Item item : items)
+                check(Sig.verify(item.keyPair.getPublic(), item.data, item.signature));
+            return null;
+        });
+        if (print)
+            System.out.println(result);
+    }
+
+    private static String measure(String name, int numSignatures, Callable<Void> task) throws Exception {
+        long ts = System.nanoTime();
+        task.call();
+        double nanosPerOp = (double) (System.nanoTime() - ts) / numSignatures;
+        return String.format("%-28s %10.0f verifications/sec", name, 1e9 / nanosPerOp);
+    }
+
+    private static void check(boolean verified) {
+        if (!verified)
+            throw new IllegalStateException("Verification failed");
+    }
+
+    private static class Item {
+        private final KeyPair keyPair;
+        private final byte[] data;
+        private final byte[] signature;
+
+        private Item(KeyPair keyPair, byte[] data, byte[] signature) {
+            this.keyPair = keyPair;
+            this.data = data;
+            this.signature = signature;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.crypto;
+
+import io.bisq.common.crypto.CryptoException;
+import io.bisq.common.crypto.Sig;
+import org.bitcoinj.core.ECKey;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.Security;
+
+import static org.bitcoinj.core.Utils.HEX;
+import static org.junit.Assert.*;
+
+public class SignatureVerificationServiceTest {
+    private SignatureVerificationService service;
+    private KeyPair keyPair;
+
+    @Before
+    public void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+        service = new SignatureVerificationService();
+        keyPair = Sig.generateKeyPair();
+    }
+
+    @Test
+    public void testVerify() throws CryptoException {
+        byte[] data = new byte[]{0x01};
+        byte[] signature = Sig.sign(keyPair.getPrivate(), data);
+        assertTrue(service.verify(keyPair.getPublic(), data, signature));
+        assertFalse(service.verify(keyPair.getPublic(), new byte[]{0x02}, signature));
+        assertFalse(service.verify(keyPair.getPublic(), data, new byte[]{0x03}));
+    }
+
+    @Test
+    public void testVerifyMessage() {
+        ECKey key = new ECKey();
+        String pubKeyAsHex = HEX.encode(key.getPubKey());
+        String signature = key.signMessage("message");
+        assertTrue(service.verifyMessage(pubKeyAsHex, "message", signature));
+        // Uses the cached key
+        assertTrue(service.verifyMessage(pubKeyAsHex, "message", signature));
+        assertFalse(service.verifyMessage(pubKeyAsHex, "other message", signature));
+        assertFalse(service.verifyMessage(HEX.encode(new ECKey().getPubKey()), "message", signature));
+    }
+
+    @Test
+    public void testPublicKeyFromBytesIsCached() {
+        byte[] bytes = Sig.getPublicKeyBytes(keyPair.getPublic());
+        assertEquals(keyPair.getPublic(), Sig.getPublicKeyFromBytes(bytes));
+        assertSame(Sig.getPublicKeyFromBytes(bytes), Sig.getPublicKeyFromBytes(bytes.clone()));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p;
+
+import io.bisq.common.UserThread;
+import io.bisq.common.crypto.CryptoException;
+import io.bisq.common.crypto.SealedAndSigned;
+import io.bisq.common.crypto.Sig;
+import io.bisq.network.crypto.EncryptionService;
+import io.bisq.network.p2p.peers.keepalive.messages.Ping;
+import io.bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import io.bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class MailboxDecryptorTest {
+    // Only the entry with signature OUR_SIGNATURE can be decrypted
+    private static final byte OUR_SIGNATURE = 1;
+
+    private ExecutorService userThread;
+    private CountingEncryptionService encryptionService;
+    private MailboxDecryptor mailboxDecryptor;
+    private KeyPair keyPair;
+
+    @Before
+    public void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+        userThread = Executors.newSingleThreadExecutor();
+        UserThread.setExecutor(userThread);
+        keyPair = Sig.generateKeyPair();
+        encryptionService = new CountingEncryptionService(new DecryptedMessageWithPubKey(new Ping(1, 1),
+                keyPair.getPublic()));
+        mailboxDecryptor = new MailboxDecryptor(encryptionService, 2);
+    }
+
+    @After
+    public void tearDown() {
+        mailboxDecryptor.shutDown();
+        userThread.shutdownNow();
+    }
+
+    @Test
+    public void testDecryptsEachEntryOnce() throws Exception {
+        ProtectedMailboxStorageEntry ours = createEntry(OUR_SIGNATURE);
+        ProtectedMailboxStorageEntry other = createEntry(2);
+
+        List<DecryptedMessageWithPubKey> results = new ArrayList<>();
+        // Seen twice before the first decryption is done, e.g. at the initial data and onAllServicesInitialized
+        onUserThread(() -> {
+            mailboxDecryptor.decrypt(ours, results::add);
+            mailboxDecryptor.decrypt(ours, results::add);
+            mailboxDecryptor.decrypt(other, results::add);
+            return null;
+        });
+        awaitDecryption();
+        assertEquals(2, results.size());
+        assertSame(encryptionService.decryptedMessageWithPubKey, results.get(0));
+
+        // Known results are not decrypted again
+        onUserThread(() -> {
+            mailboxDecryptor.decrypt(ours, results::add);
+            mailboxDecryptor.decrypt(other, results::add);
+            return null;
+        });
+        assertEquals(3, results.size());
+        assertEquals(2, encryptionService.numCalls.get());
+
+        // After the entry got removed the result is dropped
+        onUserThread(() -> {
+            mailboxDecryptor.onRemoved(ours);
+            mailboxDecryptor.decrypt(ours, results::add);
+            return null;
+        });
+        awaitDecryption();
+        assertEquals(4, results.size());
+        assertEquals(3, encryptionService.numCalls.get());
+    }
+
+    private static class CountingEncryptionService extends EncryptionService {
+        private final DecryptedMessageWithPubKey decryptedMessageWithPubKey;
+        private final AtomicInteger numCalls = new AtomicInteger();
+
+        CountingEncryptionService(DecryptedMessageWithPubKey decryptedMessageWithPubKey) {
+            super(null, null);
+            this.decryptedMessageWithPubKey = decryptedMessageWithPubKey;
+        }
+
+        @Override
+        public DecryptedMessageWithPubKey decryptAndVerify(SealedAndSigned sealedAndSigned) throws CryptoException {
+            numCalls.incrementAndGet();
+            if (sealedAndSigned.getSignature()[0] != OUR_SIGNATURE)
+                throw new CryptoException("Not for us");
+            return decryptedMessageWithPubKey;
+        }
+    }
+
+    private ProtectedMailboxStorageEntry createEntry(int index) {
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(new byte[]{0}, new byte[]{0}, new byte[]{(byte) index},
+                keyPair.getPublic());
+        PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = new PrefixedSealedAndSignedMessage(
+                new NodeAddress("localhost", 1000 + index), sealedAndSigned, new byte[]{0}, "uid" + index);
+        MailboxStoragePayload mailboxStoragePayload = new MailboxStoragePayload(prefixedSealedAndSignedMessage,
+                keyPair.getPublic(), keyPair.getPublic());
+        return new ProtectedMailboxStorageEntry(mailboxStoragePayload, keyPair.getPublic(), 1, new byte[]{0},
+                keyPair.getPublic());
+    }
+
+    private <T> T onUserThread(Callable<T> callable) throws Exception {
+        return userThread.submit(callable).get();
+    }
+
+    private void awaitDecryption() throws Exception {
+        while (onUserThread(mailboxDecryptor::getNumPending) > 0)
+            Thread.sleep(10);
+    }
+}
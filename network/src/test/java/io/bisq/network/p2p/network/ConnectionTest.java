@@ -0,0 +1,155 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.bisq.common.UserThread;
+import io.bisq.common.proto.network.NetworkProtoResolver;
+import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.p2p.peers.keepalive.messages.Ping;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+@RunWith(JMockit.class)
+public class ConnectionTest {
+    private static final long START_TS = 1_000_000;
+
+    @Mocked
+    NetworkProtoResolver networkProtoResolver;
+    @Mocked
+    ConnectionListener connectionListener;
+
+    private Socket socket;
+    private Socket peer;
+    private final AtomicInteger numReceivedMessages = new AtomicInteger();
+    private CountDownLatch allMessagesReceived;
+    private Connection connection;
+
+    @Before
+    public void setup() throws Exception {
+        UserThread.setExecutor(MoreExecutors.directExecutor());
+        new Expectations() {{
+            networkProtoResolver.fromProto((PB.NetworkEnvelope) any);
+            result = new Ping(0, 0);
+            minTimes = 0;
+        }};
+
+        try (ServerSocket serverSocket = new ServerSocket()) {
+            serverSocket.bind(new InetSocketAddress("localhost", 0));
+            peer = new Socket("localhost", serverSocket.getLocalPort());
+            socket = serverSocket.accept();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        peer.close();
+        socket.close();
+    }
+
+    @Test
+    public void testBlockingTransportPausesReadingWhileThrottled() throws Exception {
+        int numMessages = Connection.MSG_THROTTLE_PER_SEC + 50;
+        allMessagesReceived = new CountDownLatch(numMessages);
+        // Without nioEventLoop we use the blocking transport
+        connection = new Connection(socket, (networkEnvelope, connection) -> {
+            numReceivedMessages.incrementAndGet();
+            allMessagesReceived.countDown();
+        }, connectionListener, null, networkProtoResolver);
+
+        long startTs = System.currentTimeMillis();
+        OutputStream outputStream = peer.getOutputStream();
+        for (int i = 0; i < numMessages; i++)
+            new Ping(i, 0).toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+        outputStream.flush();
+
+        Thread.sleep(500);
+        assertEquals(Connection.MSG_THROTTLE_PER_SEC, numReceivedMessages.get());
+        // No thread waits inside the InputHandler while we don't read
+        Thread.getAllStackTraces().values().forEach(stackTrace ->
+                assertFalse(Arrays.stream(stackTrace).anyMatch(e -> e.getClassName().endsWith("Connection$InputHandler"))));
+
+        // The reading gets resumed once the throttle permits the next message
+        assertTrue(allMessagesReceived.await(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - startTs >= 1000);
+        new Verifications() {{
+            connectionListener.onDisconnect((CloseConnectionReason) any, withSameInstance(connection));
+            times = 0;
+        }};
+    }
+
+    @Test
+    public void testSustainedThrottlingViolatesThrottleLimit() {
+        connection = new Connection(socket, (networkEnvelope, connection) -> {
+        }, connectionListener, null, networkProtoResolver);
+
+        // The peer sends faster than we read, so we are throttled all the time
+        long now = START_TS;
+        long firstThrottledTs = 0;
+        while (firstThrottledTs == 0 || now - firstThrottledTs <= Connection.MAX_THROTTLED_PERIOD) {
+            long delay = connection.tryAcquireReceive(now);
+            if (delay > 0 && firstThrottledTs == 0)
+                firstThrottledTs = now;
+            assertFalse(connection.violatesThrottleLimit(now));
+            now += Math.max(1, delay);
+        }
+        assertTrue(connection.violatesThrottleLimit(now));
+        // The next violation gets reported after another period only
+        assertFalse(connection.violatesThrottleLimit(now + 1));
+    }
+
+    @Test
+    public void testBacklogDoesNotViolateThrottleLimit() {
+        connection = new Connection(socket, (networkEnvelope, connection) -> {
+        }, connectionListener, null, networkProtoResolver);
+
+        // A backlog of 3 * MSG_THROTTLE_PER_10_SEC messages arrives at once and gets paced by the throttle
+        long now = START_TS;
+        for (int i = 0; i < 3 * Connection.MSG_THROTTLE_PER_10_SEC; ) {
+            long delay = connection.tryAcquireReceive(now);
+            if (delay == 0)
+                i++;
+            now += Math.max(1, delay);
+        }
+
+        // Afterwards the peer sends a message per second
+        long endTs = now + 2 * Connection.MAX_THROTTLED_PERIOD;
+        while (now < endTs) {
+            long delay = connection.tryAcquireReceive(now);
+            assertFalse(connection.violatesThrottleLimit(now));
+            now += delay > 0 ? delay : 1000;
+        }
+    }
+}
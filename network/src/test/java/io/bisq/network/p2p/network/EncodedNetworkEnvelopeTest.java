@@ -0,0 +1,107 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import io.bisq.common.app.Version;
+import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class EncodedNetworkEnvelopeTest {
+
+    @Before
+    public void setup() {
+        Version.setBaseCryptoNetworkId(0);
+    }
+
+    @Test
+    public void testFrameMatchesDelimitedEncoding() throws Exception {
+        PB.NetworkEnvelope proto = newMessage().toProtoNetworkEnvelope();
+        EncodedNetworkEnvelope encoded = EncodedNetworkEnvelope.encode(proto);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        proto.writeDelimitedTo(expected);
+        assertArrayEquals(expected.toByteArray(), toBytes(encoded));
+        assertEquals(proto.getSerializedSize(), encoded.getSerializedSize());
+        assertEquals(expected.size(), encoded.getFrameSize());
+
+        // Each buffer has its own position
+        ByteBuffer buffer = encoded.toByteBuffer();
+        buffer.position(buffer.limit());
+        assertEquals(encoded.getFrameSize(), encoded.toByteBuffer().remaining());
+    }
+
+    @Test
+    public void testReceivedBytesAreReused() throws Exception {
+        PB.NetworkEnvelope proto = newMessage().toProtoNetworkEnvelope();
+        byte[] receivedBytes = proto.toByteArray();
+        EncodedNetworkEnvelope encoded = EncodedNetworkEnvelope.fromReceived(PB.NetworkEnvelope.parseFrom(receivedBytes),
+                receivedBytes);
+
+        assertArrayEquals(toBytes(EncodedNetworkEnvelope.encode(proto)), toBytes(encoded));
+        assertEquals(proto, PB.NetworkEnvelope.parseDelimitedFrom(new ByteArrayInputStream(toBytes(encoded))));
+    }
+
+    @Test
+    public void testReceivedBytesWithUnknownFieldsAreNotRelayed() throws Exception {
+        PB.NetworkEnvelope proto = newMessage().toProtoNetworkEnvelope();
+        byte[] bytes = proto.toByteArray();
+        // Unknown varint field with number 1000 and value 1
+        byte[] unknownField = {(byte) 0xc0, 0x3e, 1};
+        byte[] receivedBytes = new byte[bytes.length + unknownField.length];
+        System.arraycopy(bytes, 0, receivedBytes, 0, bytes.length);
+        System.arraycopy(unknownField, 0, receivedBytes, bytes.length, unknownField.length);
+
+        PB.NetworkEnvelope receivedProto = PB.NetworkEnvelope.parseFrom(receivedBytes);
+        EncodedNetworkEnvelope encoded = EncodedNetworkEnvelope.fromReceived(receivedProto, receivedBytes);
+
+        assertArrayEquals(toBytes(EncodedNetworkEnvelope.encode(proto)), toBytes(encoded));
+    }
+
+    @Test
+    public void testBroadcastMessageIsEncodedOnce() throws Exception {
+        RefreshOfferMessage message = newMessage();
+        EncodedNetworkEnvelope encoded = message.getEncodedNetworkEnvelope();
+        assertSame(encoded, message.getEncodedNetworkEnvelope());
+        assertArrayEquals(toBytes(EncodedNetworkEnvelope.encode(message.toProtoNetworkEnvelope())), toBytes(encoded));
+
+        PB.NetworkEnvelope proto = message.toProtoNetworkEnvelope();
+        RefreshOfferMessage received = newMessage();
+        received.setReceivedData(proto, proto.toByteArray());
+        assertSame(proto, received.getEncodedNetworkEnvelope().getProto());
+        // The cached data is not part of equals
+        assertEquals(message, received);
+    }
+
+    private static RefreshOfferMessage newMessage() {
+        return new RefreshOfferMessage(new byte[]{1, 2, 3}, new byte[]{4, 5, 6}, new byte[]{7, 8, 9}, 42);
+    }
+
+    private static byte[] toBytes(EncodedNetworkEnvelope encoded) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        encoded.writeTo(outputStream);
+        return outputStream.toByteArray();
+    }
+}
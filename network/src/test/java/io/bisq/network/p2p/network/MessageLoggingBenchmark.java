@@ -0,0 +1,121 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import ch.qos.logback.classic.Level;
+import io.bisq.common.app.Version;
+import io.bisq.common.proto.network.NetworkEnvelope;
+import io.bisq.common.util.Utilities;
+import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
+import io.bisq.network.p2p.peers.keepalive.messages.Ping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Measures the bytes allocated per message by the debug logging on the send and receive path with the production
+// log level (INFO): the previous eager formatting of the log arguments compared to the guarded logging with the
+// MessageTracer. Only the logging is measured, not the encoding of the message.
+// Not run as unit test, start it with the main method.
+// Usage: MessageLoggingBenchmark [numMessages]
+public class MessageLoggingBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(MessageLoggingBenchmark.class);
+    private static final MessageTracer tracer = new MessageTracer(log);
+
+    public static void main(String[] args) {
+        final int numMessages = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Version.setBaseCryptoNetworkId(0);
+        ((ch.qos.logback.classic.Logger) log).setLevel(Level.INFO);
+
+        Random random = new Random(0);
+        Set<byte[]> excludedKeys = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            byte[] key = new byte[20];
+            random.nextBytes(key);
+            excludedKeys.add(key);
+        }
+        NetworkEnvelope[] messages = {new Ping(1, 0), new PreliminaryGetDataRequest(1, excludedKeys)};
+        for (NetworkEnvelope message : messages) {
+            PB.NetworkEnvelope proto = message.toProtoNetworkEnvelope();
+            String name = message.getClass().getSimpleName();
+            // Warm up
+            run(name + " send eager", numMessages, proto, e -> sendEager(message, e));
+            run(name + " send guarded", numMessages, proto, e -> sendGuarded(message, e));
+            run(name + " receive eager", numMessages, proto, e -> receiveEager(message, e));
+            run(name + " receive guarded", numMessages, proto, e -> receiveGuarded(message, e));
+
+            System.out.println(run(name + " send eager", numMessages, proto, e -> sendEager(message, e)));
+            System.out.println(run(name + " send guarded", numMessages, proto, e -> sendGuarded(message, e)));
+            System.out.println(run(name + " receive eager", numMessages, proto, e -> receiveEager(message, e)));
+            System.out.println(run(name + " receive guarded", numMessages, proto, e -> receiveGuarded(message, e)));
+        }
+    }
+
+    private static String run(String name, int numMessages, PB.NetworkEnvelope proto, Consumer<PB.NetworkEnvelope> task) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        long ts = System.nanoTime();
+        for (int i = 0; i < numMessages; i++)
+            task.accept(proto);
+        long nanos = System.nanoTime() - ts;
+        bytes = threadMXBean.getThreadAllocatedBytes(threadId) - bytes;
+        return String.format("%-42s %8.1f bytes/msg %8.1f ns/msg",
+                name, (double) bytes / numMessages, (double) nanos / numMessages);
+    }
+
+    // The log statements of Connection.sendMessage before they got guarded
+    private static void sendEager(NetworkEnvelope networkEnvelope, PB.NetworkEnvelope proto) {
+        log.debug(">> Send networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
+        log.debug("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
+        log.debug("Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}",
+                "null", "uid", Utilities.toTruncatedString(networkEnvelope), proto.getSerializedSize());
+    }
+
+    private static void sendGuarded(NetworkEnvelope networkEnvelope, PB.NetworkEnvelope proto) {
+        if (log.isDebugEnabled())
+            log.debug(">> Send networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
+        boolean logMessage = tracer.isDebugEnabled(networkEnvelope);
+        if (logMessage) {
+            log.debug("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
+            log.debug("Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}",
+                    "null", "uid", Utilities.toTruncatedString(networkEnvelope), proto.getSerializedSize());
+        }
+    }
+
+    // The log statements of Connection.InputHandler before they got guarded
+    private static void receiveEager(NetworkEnvelope networkEnvelope, PB.NetworkEnvelope proto) {
+        log.debug("<< Received networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
+        log.debug("New data arrived at inputHandler of connection {}.\nReceived object (truncated)={} / size={}",
+                "connection", Utilities.toTruncatedString(proto.toString()), proto.getSerializedSize());
+    }
+
+    private static void receiveGuarded(NetworkEnvelope networkEnvelope, PB.NetworkEnvelope proto) {
+        boolean logMessage = tracer.isDebugEnabled(networkEnvelope);
+        if (logMessage) {
+            log.debug("<< Received networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
+            log.debug("New data arrived at inputHandler of connection {}.\nReceived object (truncated)={} / size={}",
+                    "connection", Utilities.toTruncatedString(proto.toString()), proto.getSerializedSize());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import ch.qos.logback.classic.Level;
+import io.bisq.network.p2p.CloseConnectionMessage;
+import io.bisq.network.p2p.peers.keepalive.messages.Ping;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MessageTracerTest {
+
+    @Test
+    public void testLevelDisabled() {
+        ch.qos.logback.classic.Logger log = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("MessageTracerTest.disabled");
+        log.setLevel(Level.INFO);
+        MessageTracer tracer = new MessageTracer(log);
+        for (int i = 0; i < 20; i++) {
+            assertFalse(tracer.isDebugEnabled(new CloseConnectionMessage("test")));
+            assertFalse(tracer.isTraceEnabled(new Ping(1, 0)));
+        }
+    }
+
+    @Test
+    public void testSampling() {
+        ch.qos.logback.classic.Logger log = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("MessageTracerTest.sampling");
+        log.setLevel(Level.TRACE);
+        MessageTracer tracer = new MessageTracer(log);
+        int numPingsLogged = 0;
+        int numCloseConnectionMessagesLogged = 0;
+        for (int i = 0; i < 100; i++) {
+            if (tracer.isTraceEnabled(new Ping(1, 0)))
+                numPingsLogged++;
+            if (tracer.isDebugEnabled(new CloseConnectionMessage("test")))
+                numCloseConnectionMessagesLogged++;
+        }
+        // Keep alive messages are high volume, we log the first and then every 10th
+        assertEquals(100 / MessageTracer.HIGH_VOLUME_SAMPLE_RATE, numPingsLogged);
+        assertEquals(100, numCloseConnectionMessagesLogged);
+
+        // Each tracer samples on its own
+        assertTrue(new MessageTracer(log).isTraceEnabled(new Ping(1, 0)));
+    }
+}
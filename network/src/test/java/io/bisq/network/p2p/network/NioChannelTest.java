@@ -0,0 +1,199 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.p2p.CloseConnectionMessage;
+import io.bisq.network.p2p.peers.keepalive.messages.Ping;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NioChannelTest {
+    private static final int NUM_MESSAGES = 500;
+
+    private NioEventLoop eventLoop;
+    private SocketChannel channel;
+    private Socket peer;
+    private RecordingListener listener;
+    private NioChannel nioChannel;
+
+    @Before
+    public void setup() throws Exception {
+        eventLoop = new NioEventLoop("NioChannelTest");
+        try (ServerSocketChannel serverSocketChannel = ServerSocketChannel.open()) {
+            serverSocketChannel.bind(new InetSocketAddress("localhost", 0));
+            channel = SocketChannel.open(serverSocketChannel.getLocalAddress());
+            peer = serverSocketChannel.accept().socket();
+        }
+        listener = new RecordingListener();
+        nioChannel = new NioChannel(channel, eventLoop, listener, TimeUnit.SECONDS.toMillis(10));
+        nioChannel.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        peer.close();
+        channel.close();
+        eventLoop.shutDown();
+    }
+
+    @Test
+    public void testWrittenMessagesAreReadByBlockingPeer() throws Exception {
+        // A message larger than the write queue limit and the socket buffers, so the sender gets blocked until the
+        // peer has read enough
+        PB.NetworkEnvelope large = largeMessage();
+        List<PB.NetworkEnvelope> received = new CopyOnWriteArrayList<>();
+        Thread reader = new Thread(() -> {
+            try {
+                InputStream inputStream = peer.getInputStream();
+                for (int i = 0; i < NUM_MESSAGES + 1; i++)
+                    received.add(PB.NetworkEnvelope.parseDelimitedFrom(inputStream));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < NUM_MESSAGES; i++) {
+            nioChannel.write(EncodedNetworkEnvelope.encode(new Ping(i, 0).toProtoNetworkEnvelope()));
+            if (i == NUM_MESSAGES / 2)
+                nioChannel.write(EncodedNetworkEnvelope.encode(large));
+        }
+        reader.join(10_000);
+
+        assertEquals(NUM_MESSAGES + 1, received.size());
+        for (int i = 0; i <= NUM_MESSAGES / 2; i++)
+            assertEquals(i, received.get(i).getPing().getNonce());
+        assertEquals(large, received.get(NUM_MESSAGES / 2 + 1));
+        assertEquals(NUM_MESSAGES - 1, received.get(NUM_MESSAGES).getPing().getNonce());
+    }
+
+    @Test
+    public void testMessagesOfBlockingPeerAreReceivedInOrder() throws Exception {
+        PB.NetworkEnvelope large = largeMessage();
+        OutputStream outputStream = peer.getOutputStream();
+        for (int i = 0; i < NUM_MESSAGES; i++) {
+            new Ping(i, 0).toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+            if (i == NUM_MESSAGES / 2)
+                large.writeDelimitedTo(outputStream);
+        }
+        outputStream.flush();
+        peer.close();
+
+        assertTrue(listener.endOfStream.await(10, TimeUnit.SECONDS));
+        assertEquals(NUM_MESSAGES + 1, listener.messages.size());
+        for (int i = 0; i <= NUM_MESSAGES / 2; i++)
+            assertEquals(i, listener.messages.get(i).getPing().getNonce());
+        assertEquals(large, listener.messages.get(NUM_MESSAGES / 2 + 1));
+        assertEquals(NUM_MESSAGES - 1, listener.messages.get(NUM_MESSAGES).getPing().getNonce());
+        assertEquals(0, listener.errors.size());
+    }
+
+    @Test
+    public void testTooLargeMessageIsRejected() throws Exception {
+        OutputStream outputStream = peer.getOutputStream();
+        // Varint of a size above MAX_PERMITTED_MESSAGE_SIZE
+        outputStream.write(new byte[]{(byte) 0xff, (byte) 0xff, (byte) 0xff, 0x7f});
+        outputStream.flush();
+
+        assertTrue(listener.error.await(10, TimeUnit.SECONDS));
+        assertEquals(0, listener.messages.size());
+    }
+
+    @Test
+    public void testThrottledMessagesAreDeliveredLater() throws Exception {
+        SocketChannel throttledChannel;
+        Socket throttledPeer;
+        try (ServerSocketChannel serverSocketChannel = ServerSocketChannel.open()) {
+            serverSocketChannel.bind(new InetSocketAddress("localhost", 0));
+            throttledChannel = SocketChannel.open(serverSocketChannel.getLocalAddress());
+            throttledPeer = serverSocketChannel.accept().socket();
+        }
+        try {
+            SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 1000);
+            RecordingListener throttledListener = new RecordingListener();
+            new NioChannel(throttledChannel, eventLoop, throttledListener,
+                    now -> limiter.tryAcquire(now) ? 0 : limiter.getDelay(now),
+                    TimeUnit.SECONDS.toMillis(10)).start();
+
+            long startTs = System.currentTimeMillis();
+            OutputStream outputStream = throttledPeer.getOutputStream();
+            for (int i = 0; i < 25; i++)
+                new Ping(i, 0).toProtoNetworkEnvelope().writeDelimitedTo(outputStream);
+            outputStream.flush();
+            throttledPeer.close();
+
+            // We stop reading instead of dropping the messages above the limit
+            assertTrue(throttledListener.endOfStream.await(10, TimeUnit.SECONDS));
+            assertTrue(System.currentTimeMillis() - startTs >= 1000);
+            assertEquals(25, throttledListener.messages.size());
+            for (int i = 0; i < 25; i++)
+                assertEquals(i, throttledListener.messages.get(i).getPing().getNonce());
+            assertEquals(0, throttledListener.errors.size());
+        } finally {
+            throttledPeer.close();
+            throttledChannel.close();
+        }
+    }
+
+    private static PB.NetworkEnvelope largeMessage() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3 * 1024 * 1024; i++)
+            sb.append((char) ('a' + i % 26));
+        return new CloseConnectionMessage(sb.toString()).toProtoNetworkEnvelope();
+    }
+
+    private static class RecordingListener implements NioChannel.Listener {
+        private final List<PB.NetworkEnvelope> messages = new CopyOnWriteArrayList<>();
+        private final List<Throwable> errors = new CopyOnWriteArrayList<>();
+        private final CountDownLatch endOfStream = new CountDownLatch(1);
+        private final CountDownLatch error = new CountDownLatch(1);
+
+        @Override
+        public void onMessage(PB.NetworkEnvelope proto, byte[] bytes) {
+            messages.add(proto);
+        }
+
+        @Override
+        public void onEndOfStream() {
+            endOfStream.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            errors.add(throwable);
+            error.countDown();
+        }
+    }
+}
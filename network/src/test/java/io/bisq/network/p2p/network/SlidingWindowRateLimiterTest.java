@@ -0,0 +1,43 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SlidingWindowRateLimiterTest {
+
+    @Test
+    public void testTryAcquire() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, 1000);
+        assertTrue(limiter.tryAcquire(0));
+        assertTrue(limiter.tryAcquire(100));
+        assertTrue(limiter.tryAcquire(200));
+        assertEquals(800, limiter.getDelay(200));
+        assertFalse(limiter.tryAcquire(999));
+
+        // The rejected event did not get recorded, so the window moves with the first event
+        assertEquals(0, limiter.getDelay(1000));
+        assertTrue(limiter.tryAcquire(1000));
+        assertFalse(limiter.tryAcquire(1099));
+        assertTrue(limiter.tryAcquire(1100));
+        assertTrue(limiter.tryAcquire(1200));
+        assertEquals(800, limiter.getDelay(1200));
+    }
+}
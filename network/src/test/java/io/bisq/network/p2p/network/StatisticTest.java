@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import io.bisq.network.p2p.CloseConnectionMessage;
+import io.bisq.network.p2p.peers.keepalive.messages.Ping;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class StatisticTest {
+    private static final int NUM_THREADS = 4;
+    private static final int NUM_MESSAGES = 10_000;
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        Statistic statistic = new Statistic();
+        long totalSentBytes = Statistic.getTotalSentBytes();
+        long totalReceivedBytes = Statistic.getTotalReceivedBytes();
+        Ping ping = new Ping(1, 0);
+        CloseConnectionMessage closeConnectionMessage = new CloseConnectionMessage("test");
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < NUM_THREADS; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < NUM_MESSAGES; j++) {
+                    statistic.addSentMessage(ping, 10);
+                    statistic.addReceivedMessage(closeConnectionMessage, j % 100);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads)
+            thread.join();
+
+        long numMessages = NUM_THREADS * NUM_MESSAGES;
+        assertEquals(numMessages * 10, statistic.getSentBytes());
+        assertEquals(NUM_THREADS * 100 * 99 / 2 * (NUM_MESSAGES / 100), statistic.getReceivedBytes());
+        assertEquals(numMessages * 10, Statistic.getTotalSentBytes() - totalSentBytes);
+        assertEquals(statistic.getReceivedBytes(), Statistic.getTotalReceivedBytes() - totalReceivedBytes);
+
+        Statistic.MessageStatistic pings = statistic.getSentMessagesByType().get("Ping");
+        assertEquals(numMessages, pings.getMessages());
+        assertEquals(10, pings.getMaxMessageSize());
+        Statistic.MessageStatistic closeMessages = statistic.getReceivedMessagesByType().get("CloseConnectionMessage");
+        assertEquals(numMessages, closeMessages.getMessages());
+        assertEquals(99, closeMessages.getMaxMessageSize());
+
+        Statistic.Snapshot snapshot = statistic.getSnapshot();
+        assertEquals(numMessages, snapshot.getSentMessages());
+        assertEquals(numMessages, snapshot.getReceivedMessages());
+    }
+
+    @Test
+    public void testRates() {
+        Statistic.Snapshot previous = new Statistic.Snapshot(1000, 100, 200, 1, 2, 0);
+        Statistic.Snapshot snapshot = new Statistic.Snapshot(3000, 2100, 1200, 5, 4, 0);
+        assertEquals(1000, snapshot.getSentBytesPerSec(previous), 0.001);
+        assertEquals(500, snapshot.getReceivedBytesPerSec(previous), 0.001);
+        assertEquals(2, snapshot.getSentMessagesPerSec(previous), 0.001);
+        assertEquals(1, snapshot.getReceivedMessagesPerSec(previous), 0.001);
+        assertEquals(0, snapshot.getSentBytesPerSec(snapshot), 0.001);
+    }
+}
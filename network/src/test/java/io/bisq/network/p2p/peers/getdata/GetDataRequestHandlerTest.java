@@ -0,0 +1,151 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.peers.getdata;
+
+import com.google.common.util.concurrent.SettableFuture;
+import io.bisq.common.proto.network.NetworkEnvelope;
+import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.p2p.network.Connection;
+import io.bisq.network.p2p.network.NetworkNode;
+import io.bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import io.bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
+import io.bisq.network.p2p.storage.P2PDataStorage;
+import io.bisq.network.p2p.storage.PersistableNetworkPayloadCollection;
+import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(JMockit.class)
+public class GetDataRequestHandlerTest {
+    @Mocked
+    NetworkNode networkNode;
+    @Mocked
+    P2PDataStorage dataStorage;
+    @Mocked
+    Connection connection;
+    @Mocked
+    GetDataRequestHandler.Listener listener;
+
+    private final List<byte[]> keys = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        PersistableNetworkPayloadCollection collection = new PersistableNetworkPayloadCollection();
+        InvertibleBloomLookupTable sketch = new InvertibleBloomLookupTable();
+        for (int i = 0; i < 3000; i++) {
+            byte[] key = RandomUtils.nextBytes(20);
+            keys.add(key);
+            sketch.add(key);
+            collection.getMap().put(new P2PDataStorage.ByteArray(key), new DummyPayload(key));
+        }
+
+        new Expectations() {{
+            dataStorage.getPersistableNetworkPayloadCollection();
+            result = collection;
+            minTimes = 0;
+            dataStorage.getPersistableNetworkPayloadSketch();
+            result = sketch;
+            minTimes = 0;
+            networkNode.sendMessage(connection, (NetworkEnvelope) any);
+            result = SettableFuture.create();
+        }};
+    }
+
+    @Test
+    public void testDecodableSketch() {
+        GetDataResponse response = handle(keys.subList(0, 2900), false);
+
+        assertFalse(response.isPersistableNetworkPayloadSketchNotDecodable());
+        assertEquals(toKeySet(keys.subList(2900, 3000)), toKeySet(response.getPersistableNetworkPayloadSet()));
+    }
+
+    @Test
+    public void testNotDecodableSketchFallsBackToExcludedKeys() {
+        GetDataResponse response = handle(keys.subList(0, 500), true);
+
+        assertFalse(response.isPersistableNetworkPayloadSketchNotDecodable());
+        assertEquals(toKeySet(keys.subList(500, 3000)), toKeySet(response.getPersistableNetworkPayloadSet()));
+    }
+
+    @Test
+    public void testNotDecodableSketchWithoutExcludedKeys() {
+        GetDataResponse response = handle(keys.subList(0, 500), false);
+
+        assertTrue(response.isPersistableNetworkPayloadSketchNotDecodable());
+        assertNull(response.getPersistableNetworkPayloadSet());
+        assertTrue(response.getDataSet().isEmpty());
+    }
+
+    private GetDataResponse handle(List<byte[]> requestersKeys, boolean sendExcludedKeys) {
+        InvertibleBloomLookupTable requestersSketch = new InvertibleBloomLookupTable();
+        requestersKeys.forEach(requestersSketch::add);
+        Set<byte[]> excludedKeys = sendExcludedKeys ? new HashSet<>(requestersKeys) : new HashSet<>();
+
+        new GetDataRequestHandler(networkNode, dataStorage, listener)
+                .handle(new PreliminaryGetDataRequest(1, excludedKeys, requestersSketch), connection);
+
+        List<NetworkEnvelope> sent = new ArrayList<>();
+        new Verifications() {{
+            networkNode.sendMessage(connection, withCapture(sent));
+        }};
+        assertEquals(1, sent.size());
+        return (GetDataResponse) sent.get(0);
+    }
+
+    private static Set<P2PDataStorage.ByteArray> toKeySet(Collection<byte[]> keys) {
+        return keys.stream().map(P2PDataStorage.ByteArray::new).collect(Collectors.toSet());
+    }
+
+    private static Set<P2PDataStorage.ByteArray> toKeySet(Set<PersistableNetworkPayload> payloads) {
+        return payloads.stream().map(payload -> new P2PDataStorage.ByteArray(payload.getHash())).collect(Collectors.toSet());
+    }
+
+    private static final class DummyPayload implements PersistableNetworkPayload {
+        private final byte[] hash;
+
+        DummyPayload(byte[] hash) {
+            this.hash = hash;
+        }
+
+        @Override
+        public PB.PersistableNetworkPayload toProtoMessage() {
+            return PB.PersistableNetworkPayload.getDefaultInstance();
+        }
+
+        @Override
+        public byte[] getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean verifyHashSize() {
+            return true;
+        }
+    }
+}
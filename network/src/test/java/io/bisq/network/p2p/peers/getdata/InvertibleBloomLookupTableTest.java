@@ -0,0 +1,125 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.peers.getdata;
+
+import io.bisq.generated.protobuffer.PB;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class InvertibleBloomLookupTableTest {
+
+    @Test
+    public void testDecodeDifference() {
+        List<byte[]> shared = createKeys(20_000);
+        List<byte[]> onlyLocal = createKeys(500);
+        List<byte[]> onlyRemote = createKeys(100);
+
+        InvertibleBloomLookupTable local = new InvertibleBloomLookupTable();
+        InvertibleBloomLookupTable remote = new InvertibleBloomLookupTable();
+        shared.forEach(key -> {
+            local.add(key);
+            remote.add(key);
+        });
+        onlyLocal.forEach(local::add);
+        onlyRemote.forEach(remote::add);
+        assertEquals(20_500, local.getNumItems());
+
+        InvertibleBloomLookupTable.Difference difference = local.subtractAndDecode(remote);
+        assertNotNull(difference);
+        assertEquals(toShortIds(onlyLocal), difference.getLocalOnly());
+        assertEquals(toShortIds(onlyRemote), difference.getRemoteOnly());
+    }
+
+    @Test
+    public void testDecodeFailsIfDifferenceTooLarge() {
+        InvertibleBloomLookupTable local = new InvertibleBloomLookupTable();
+        createKeys(InvertibleBloomLookupTable.DEFAULT_CELL_COUNT * 2).forEach(local::add);
+        assertNull(local.subtractAndDecode(new InvertibleBloomLookupTable()));
+    }
+
+    @Test
+    public void testProtoRoundTrip() {
+        InvertibleBloomLookupTable table = new InvertibleBloomLookupTable();
+        createKeys(100).forEach(table::add);
+        assertEquals(table, InvertibleBloomLookupTable.fromProto(table.toProtoMessage()));
+        assertEquals(table, table.copy());
+    }
+
+    @Test
+    public void testRejectsTooManyHashFunctions() {
+        InvertibleBloomLookupTable table = new InvertibleBloomLookupTable(100, InvertibleBloomLookupTable.MAX_HASH_COUNT);
+        assertNotNull(InvertibleBloomLookupTable.fromProto(table.toProtoMessage()));
+        assertFalse(table.hasDefaultParameters());
+
+        PB.InvertibleBloomLookupTable proto = table.toProtoMessage().toBuilder()
+                .setHashCount(InvertibleBloomLookupTable.MAX_HASH_COUNT + 1)
+                .build();
+        assertNull(InvertibleBloomLookupTable.fromProto(proto));
+    }
+
+    @Test(timeout = 5000)
+    public void testDecodeMaliciousTable() {
+        // A cell which looks pure but is not one of the cells of its key. Peeling the key would never clear it.
+        InvertibleBloomLookupTable table = new InvertibleBloomLookupTable();
+        table.add(RandomUtils.nextBytes(20));
+        PB.InvertibleBloomLookupTable proto = table.toProtoMessage();
+        int keyCell = proto.getCountsList().indexOf(1);
+        int otherCell = proto.getCountsList().indexOf(0);
+        PB.InvertibleBloomLookupTable.Builder builder = PB.InvertibleBloomLookupTable.newBuilder()
+                .setHashCount(proto.getHashCount());
+        for (int i = 0; i < proto.getCountsCount(); i++) {
+            boolean isCraftedCell = i == otherCell;
+            builder.addCounts(isCraftedCell ? proto.getCounts(keyCell) : 0);
+            builder.addKeySums(isCraftedCell ? proto.getKeySums(keyCell) : 0);
+            builder.addHashSums(isCraftedCell ? proto.getHashSums(keyCell) : 0);
+        }
+        InvertibleBloomLookupTable malicious = InvertibleBloomLookupTable.fromProto(builder.build());
+        assertNotNull(malicious);
+
+        assertNull(new InvertibleBloomLookupTable().subtractAndDecode(malicious));
+    }
+
+    @Test
+    public void testRemove() {
+        InvertibleBloomLookupTable table = new InvertibleBloomLookupTable();
+        List<byte[]> keys = createKeys(10);
+        keys.forEach(table::add);
+        keys.forEach(table::remove);
+        assertEquals(new InvertibleBloomLookupTable(), table);
+    }
+
+    private static List<byte[]> createKeys(int numKeys) {
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < numKeys; i++)
+            keys.add(RandomUtils.nextBytes(20));
+        return keys;
+    }
+
+    private static Set<Long> toShortIds(List<byte[]> keys) {
+        Set<Long> result = new HashSet<>();
+        keys.forEach(key -> result.add(InvertibleBloomLookupTable.getShortId(key)));
+        return result;
+    }
+}
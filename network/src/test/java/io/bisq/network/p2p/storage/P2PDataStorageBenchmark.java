@@ -0,0 +1,239 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.storage;
+
+import io.bisq.common.app.Version;
+import io.bisq.common.crypto.CryptoException;
+import io.bisq.common.crypto.SealedAndSigned;
+import io.bisq.common.crypto.Sig;
+import io.bisq.common.storage.FileUtil;
+import io.bisq.network.crypto.SignatureVerificationService;
+import io.bisq.network.p2p.NodeAddress;
+import io.bisq.network.p2p.PrefixedSealedAndSignedMessage;
+import io.bisq.network.p2p.TestUtils;
+import io.bisq.network.p2p.network.LocalhostNetworkNode;
+import io.bisq.network.p2p.peers.BroadcastHandler;
+import io.bisq.network.p2p.peers.Broadcaster;
+import io.bisq.network.p2p.storage.messages.BroadcastMessage;
+import io.bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import io.bisq.network.p2p.storage.payload.MailboxStoragePayload;
+import io.bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Measures adding, refreshing and removing entries in P2PDataStorage, including the signature verification.
+// Broadcasting is disabled.
+// The operations can only be applied once per entry, so each iteration runs a batch of NUM_ENTRIES operations on a
+// new P2PDataStorage and the score is the time for the whole batch.
+// Not run as unit test, start it with the main method.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = P2PDataStorageBenchmark.NUM_ENTRIES)
+@Measurement(iterations = 10, batchSize = P2PDataStorageBenchmark.NUM_ENTRIES)
+@Fork(1)
+public class P2PDataStorageBenchmark {
+    static final int NUM_ENTRIES = 2000;
+
+    private KeyPair keyPair;
+    private List<MailboxStoragePayload> payloads;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // State
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Setup(Level.Trial)
+    public void setup() throws CryptoException {
+        Security.addProvider(new BouncyCastleProvider());
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.INFO);
+        Version.setBaseCryptoNetworkId(0);
+
+        keyPair = Sig.generateKeyPair();
+        payloads = new ArrayList<>();
+        Random random = new Random(0);
+        for (int i = 0; i < NUM_ENTRIES; i++)
+            payloads.add(getPayload(keyPair, random, i));
+    }
+
+    // A new P2PDataStorage with the entries to add
+    @State(Scope.Thread)
+    public static class AddState {
+        private final StorageHolder storageHolder = new StorageHolder();
+        private final List<ProtectedMailboxStorageEntry> entries = new ArrayList<>();
+        private int index;
+
+        @Setup(Level.Iteration)
+        public void setup(P2PDataStorageBenchmark benchmark) throws IOException, CryptoException {
+            P2PDataStorage dataStorage = storageHolder.create();
+            entries.clear();
+            for (MailboxStoragePayload payload : benchmark.payloads)
+                entries.add(dataStorage.getMailboxDataWithSignedSeqNr(payload, benchmark.keyPair, benchmark.keyPair.getPublic()));
+            index = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            storageHolder.shutDown();
+        }
+    }
+
+    // A P2PDataStorage holding all entries with the messages to refresh them
+    @State(Scope.Thread)
+    public static class RefreshState {
+        private final StorageHolder storageHolder = new StorageHolder();
+        private final List<RefreshOfferMessage> messages = new ArrayList<>();
+        private int index;
+
+        @Setup(Level.Iteration)
+        public void setup(P2PDataStorageBenchmark benchmark) throws IOException, CryptoException {
+            P2PDataStorage dataStorage = storageHolder.create();
+            benchmark.addAll(dataStorage);
+            messages.clear();
+            for (MailboxStoragePayload payload : benchmark.payloads)
+                messages.add(dataStorage.getRefreshTTLMessage(payload, benchmark.keyPair));
+            index = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            storageHolder.shutDown();
+        }
+    }
+
+    // A P2PDataStorage holding all entries with the entries to remove them
+    @State(Scope.Thread)
+    public static class RemoveState {
+        private final StorageHolder storageHolder = new StorageHolder();
+        private final List<ProtectedMailboxStorageEntry> entries = new ArrayList<>();
+        private int index;
+
+        @Setup(Level.Iteration)
+        public void setup(P2PDataStorageBenchmark benchmark) throws IOException, CryptoException {
+            P2PDataStorage dataStorage = storageHolder.create();
+            benchmark.addAll(dataStorage);
+            entries.clear();
+            for (MailboxStoragePayload payload : benchmark.payloads)
+                entries.add(dataStorage.getMailboxDataWithSignedSeqNr(payload, benchmark.keyPair, benchmark.keyPair.getPublic()));
+            index = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            if (storageHolder.dataStorage.getMap().size() != 0)
+                throw new IllegalStateException("Not all entries got removed. size=" + storageHolder.dataStorage.getMap().size());
+            storageHolder.shutDown();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Benchmarks
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Benchmark
+    public boolean add(AddState state) {
+        return state.storageHolder.dataStorage.addProtectedStorageEntry(state.entries.get(state.index++), null, null, false);
+    }
+
+    @Benchmark
+    public boolean refresh(RefreshState state) {
+        return state.storageHolder.dataStorage.refreshTTL(state.messages.get(state.index++), null, false);
+    }
+
+    @Benchmark
+    public boolean remove(RemoveState state) {
+        return state.storageHolder.dataStorage.removeMailboxData(state.entries.get(state.index++), null, false);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(P2PDataStorageBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addAll(P2PDataStorage dataStorage) throws CryptoException {
+        for (MailboxStoragePayload payload : payloads)
+            dataStorage.addProtectedStorageEntry(
+                    dataStorage.getMailboxDataWithSignedSeqNr(payload, keyPair, keyPair.getPublic()), null, null, false);
+    }
+
+    private static MailboxStoragePayload getPayload(KeyPair keyPair, Random random, int index) {
+        byte[] encryptedSecretKey = new byte[256];
+        byte[] encryptedPayloadWithHmac = new byte[1024];
+        byte[] signature = new byte[46];
+        random.nextBytes(encryptedSecretKey);
+        random.nextBytes(encryptedPayloadWithHmac);
+        random.nextBytes(signature);
+        SealedAndSigned sealedAndSigned = new SealedAndSigned(encryptedSecretKey, encryptedPayloadWithHmac, signature,
+                keyPair.getPublic());
+        PrefixedSealedAndSignedMessage message = new PrefixedSealedAndSignedMessage(new NodeAddress("localhost", 9999),
+                sealedAndSigned, new byte[2], "uid" + index);
+        return new MailboxStoragePayload(message, keyPair.getPublic(), keyPair.getPublic());
+    }
+
+    // Each iteration uses a new P2PDataStorage with an empty storage directory
+    private static class StorageHolder {
+        private File storageDir;
+        private P2PDataStorage dataStorage;
+
+        private P2PDataStorage create() throws IOException {
+            storageDir = File.createTempFile("P2PDataStorageBenchmark", "");
+            //noinspection ResultOfMethodCallIgnored
+            storageDir.delete();
+            //noinspection ResultOfMethodCallIgnored
+            storageDir.mkdir();
+            Broadcaster broadcaster = new Broadcaster(null, null) {
+                @Override
+                public void broadcast(BroadcastMessage message, @Nullable NodeAddress sender,
+                                      @Nullable BroadcastHandler.Listener listener, boolean isDataOwner) {
+                }
+            };
+            dataStorage = new P2PDataStorage(new LocalhostNetworkNode(9999, TestUtils.getNetworkProtoResolver()),
+                    broadcaster, new SignatureVerificationService(), storageDir, TestUtils.getPersistenceProtoResolver());
+            dataStorage.readPersisted();
+            return dataStorage;
+        }
+
+        private void shutDown() throws IOException {
+            dataStorage.shutDown();
+            FileUtil.deleteDirectory(storageDir);
+        }
+    }
+}
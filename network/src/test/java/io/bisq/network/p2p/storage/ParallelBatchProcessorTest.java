@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.storage;
+
+import io.bisq.common.UserThread;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelBatchProcessorTest {
+    private ExecutorService userThread;
+    private ParallelBatchProcessor processor;
+
+    @Before
+    public void setup() {
+        userThread = Executors.newSingleThreadExecutor();
+        UserThread.setExecutor(userThread);
+        processor = new ParallelBatchProcessor("ParallelBatchProcessorTest", 4);
+    }
+
+    @After
+    public void tearDown() {
+        processor.shutDown();
+        userThread.shutdownNow();
+    }
+
+    @Test
+    public void testAllItemsAreHandledOnUserThread() throws Exception {
+        List<Integer> items = IntStream.range(0, 2000).boxed().collect(Collectors.toList());
+        Set<String> verifierThreads = ConcurrentHashMap.newKeySet();
+        // Only accessed on the UserThread
+        List<Integer> handled = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        CountDownLatch complete = new CountDownLatch(1);
+        Thread userThreadThread = userThread.submit(Thread::currentThread).get();
+        List<Thread> handlerThreads = new CopyOnWriteArrayList<>();
+
+        userThread.submit(() -> processor.process(items,
+                item -> {
+                    verifierThreads.add(Thread.currentThread().getName());
+                    // Items which fail the verification are dropped
+                    if (item == 7)
+                        throw new IllegalArgumentException("invalid item");
+                    return item * 2;
+                },
+                results -> {
+                    handlerThreads.add(Thread.currentThread());
+                    batchSizes.add(results.size());
+                    handled.addAll(results);
+                },
+                complete::countDown)).get();
+
+        assertTrue(complete.await(10, TimeUnit.SECONDS));
+        assertEquals(items.size() - 1, handled.size());
+        assertTrue(handlerThreads.stream().allMatch(thread -> thread == userThreadThread));
+        handled.sort(Integer::compare);
+        assertEquals(0, (int) handled.get(0));
+        assertEquals(2 * 1999, (int) handled.get(handled.size() - 1));
+        // 2000 items on 4 threads are verified in 4 batches
+        assertEquals(4, batchSizes.size());
+        assertTrue(verifierThreads.stream().allMatch(name -> name.startsWith("ParallelBatchProcessorTest")));
+    }
+
+    @Test
+    public void testCompleteHandlerIsCalledForEmptyList() throws Exception {
+        CountDownLatch complete = new CountDownLatch(1);
+        userThread.submit(() -> processor.process(new ArrayList<Integer>(), item -> item, results -> {
+        }, complete::countDown)).get();
+        assertTrue(complete.await(1, TimeUnit.SECONDS));
+    }
+}
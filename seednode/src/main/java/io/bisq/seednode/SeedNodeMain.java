@@ -18,6 +18,7 @@
 package io.bisq.seednode;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.bisq.common.HashedWheelTimer;
 import io.bisq.common.UserThread;
 import io.bisq.common.util.Profiler;
 import io.bisq.common.util.RestartUtil;
@@ -61,6 +62,7 @@ public class SeedNodeMain extends BisqExecutable {
                 .setDaemon(true)
                 .build();
         UserThread.setExecutor(Executors.newSingleThreadExecutor(threadFactory));
+        UserThread.setTimerClass(HashedWheelTimer.class);
 
         // We don't want to do the full argument parsing here as that might easily change in update versions
         // So we only handle the absolute minimum which is APP_NAME, APP_DATA_DIR_KEY and USER_DATA_DIR